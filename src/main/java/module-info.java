@@ -33,6 +33,7 @@ module org.tquadrat.foundation.xml
 
     //---* Common Use *--------------------------------------------------------
     exports org.tquadrat.foundation.xml.builder;
+    exports org.tquadrat.foundation.xml.builder.io;
     exports org.tquadrat.foundation.xml.parse;
     exports org.tquadrat.foundation.xml.parse.spi;
     exports org.tquadrat.foundation.xml.stringconverter;
@@ -0,0 +1,276 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder;
+
+import static java.util.Collections.newSetFromMap;
+import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_CHILDREN;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_CHILDREN;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+
+/**
+ *  <p>{@summary Collects the children for an
+ *  {@link XMLElement}
+ *  that are built concurrently on several threads, and attaches them to
+ *  that element in a defined sequence.}</p>
+ *  <p>The thread that assembles the document
+ *  {@linkplain #reserve() reserves}
+ *  a
+ *  {@link Slot}
+ *  for each child, in the sequence in which the children should appear.
+ *  Each slot is then handed to a task that builds the child as a detached
+ *  element – without a parent – and
+ *  {@linkplain Slot#set(XMLElement) stores}
+ *  it in the slot. Finally,
+ *  {@link #attach()}
+ *  adds all children to the parent, in the sequence of their slots.</p>
+ *  <div class="source-container"><pre>final var collector = ConcurrentChildCollector.forParent( root );
+ *try( final var executor = Executors.newVirtualThreadPerTaskExecutor() )
+ *{
+ *    for( final var data : sections )
+ *    {
+ *        final var slot = collector.reserve();
+ *        executor.execute( () -&gt; slot.set( buildSection( data ) ) );
+ *    }
+ *}
+ *collector.attach();</pre></div>
+ *  <p>Neither the parent nor the children are modified by more than one
+ *  thread at any time: the children are built by their tasks only, and the
+ *  parent is modified only by
+ *  {@link #attach()},
+ *  where the parents of the children are set and the children are validated
+ *  against the parent as if they were added by
+ *  {@link XMLElement#addChild(XMLElement)}.
+ *  Storing a child in its slot makes all modifications of that child
+ *  visible to the thread that calls {@code attach()}; a child must not be
+ *  modified after it was stored.</p>
+ *  <p>The parent must not be modified by other threads while children are
+ *  collected for it.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = STABLE, since = "0.26.0" )
+public final class ConcurrentChildCollector
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The place for a single child in the sequence of the children that are
+     *  collected by a
+     *  {@link ConcurrentChildCollector}.
+     *  An instance of this class can be used from any thread.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = STABLE, since = "0.26.0" )
+    public static final class Slot
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The child.
+         */
+        private final AtomicReference<XMLElement> m_Child = new AtomicReference<>();
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Slot} instance.
+         */
+        Slot() { /* Just exists */ }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  Returns the child from this slot.
+         *
+         *  @return The child; {@code null} if it was not yet stored.
+         */
+        final XMLElement get() { return m_Child.get(); }
+
+        /**
+         *  Stores the given child in this slot. The child must not be
+         *  modified afterwards.
+         *
+         *  @param  child   The child.
+         *  @throws IllegalStateException   The child has already a parent, or
+         *      a child was already stored in this slot.
+         */
+        public final void set( final XMLElement child ) throws IllegalStateException
+        {
+            if( requireNonNullArgument( child, "child" ).getParent().isPresent() )
+            {
+                throw new IllegalStateException( "The child has already a parent" );
+            }
+            if( !m_Child.compareAndSet( null, child ) )
+            {
+                throw new IllegalStateException( "The slot is already filled" );
+            }
+        }   //  set()
+    }
+    //  class Slot
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The flag that indicates whether the children were already attached to
+     *  the parent.
+     */
+    private boolean m_IsAttached = false;
+
+    /**
+     *  The parent.
+     */
+    private final XMLElement m_Parent;
+
+    /**
+     *  The slots, in the sequence in which they were reserved.
+     */
+    private final List<Slot> m_Slots = new ArrayList<>();
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code ConcurrentChildCollector} instance.
+     *
+     *  @param  parent  The parent for the collected children.
+     */
+    private ConcurrentChildCollector( final XMLElement parent )
+    {
+        m_Parent = parent;
+    }   //  ConcurrentChildCollector()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  <p>{@summary Adds the collected children to the parent, in the
+     *  sequence in which their slots were reserved.}</p>
+     *  <p>Either all children are added, or – if one of them is rejected by
+     *  the parent – none of them: all children are checked before the first
+     *  one is added, so neither the parent nor any of the children is
+     *  modified when the attachment fails.</p>
+     *
+     *  @return The parent.
+     *  @throws IllegalArgumentException    One of the children is not
+     *      allowed for the parent.
+     *  @throws IllegalOperationException   The parent does not allow
+     *      children.
+     *  @throws IllegalStateException   Not all slots were filled, one of the
+     *      children has already a parent or was stored in more than one slot,
+     *      or the children were already attached.
+     */
+    public final synchronized XMLElement attach() throws IllegalArgumentException, IllegalOperationException, IllegalStateException
+    {
+        if( m_IsAttached ) throw new IllegalStateException( "The children were already attached" );
+
+        //---* Check all children before the parent is modified *--------------
+        final var flags = m_Parent.getFlags();
+        if( !flags.contains( ALLOWS_CHILDREN ) )
+        {
+            throw new IllegalOperationException( "attach()", "No children allowed for element '%1$s'".formatted( m_Parent.getElementName() ) );
+        }
+        final Set<String> validChildren = flags.contains( VALIDATES_CHILDREN ) && (m_Parent instanceof final XMLElementImpl parent)
+            ? Set.copyOf( parent.retrieveValidChildren() )
+            : null;
+        final var children = new ArrayList<XMLElement>( m_Slots.size() );
+        final Set<XMLElement> checked = newSetFromMap( new IdentityHashMap<>() );
+        for( final var slot : m_Slots )
+        {
+            final var index = children.size();
+            final var child = slot.get();
+            if( isNull( child ) ) throw new IllegalStateException( "Slot #%1$d was not filled".formatted( index ) );
+            if( child.getParent().isPresent() ) throw new IllegalStateException( "The child in slot #%1$d has already a parent".formatted( index ) );
+            if( !checked.add( child ) ) throw new IllegalStateException( "The child in slot #%1$d is stored in another slot, too".formatted( index ) );
+            if( nonNull( validChildren ) && !validChildren.contains( child.getElementName() ) )
+            {
+                throw new IllegalArgumentException( "A child with name '%2$s' is not allowed for element '%1$s'".formatted( m_Parent.getElementName(), child.getElementName() ) );
+            }
+            children.add( child );
+        }
+
+        //---* Add the children *----------------------------------------------
+        for( final var child : children ) m_Parent.addChild( child );
+        m_IsAttached = true;
+
+        //---* Done *----------------------------------------------------------
+        return m_Parent;
+    }   //  attach()
+
+    /**
+     *  Creates a new {@code ConcurrentChildCollector} for the given parent.
+     *
+     *  @param  parent  The parent for the collected children.
+     *  @return The new collector.
+     */
+    public static final ConcurrentChildCollector forParent( final XMLElement parent )
+    {
+        return new ConcurrentChildCollector( requireNonNullArgument( parent, "parent" ) );
+    }   //  forParent()
+
+    /**
+     *  Reserves the slot for the next child.
+     *
+     *  @return The slot.
+     *  @throws IllegalStateException   The children were already attached.
+     */
+    public final synchronized Slot reserve() throws IllegalStateException
+    {
+        if( m_IsAttached ) throw new IllegalStateException( "The children were already attached" );
+
+        final var retValue = new Slot();
+        m_Slots.add( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  reserve()
+}
+//  class ConcurrentChildCollector
+
+/*
+ *  End of File
+ */
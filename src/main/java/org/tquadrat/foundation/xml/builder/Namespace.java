@@ -17,7 +17,6 @@
 
 package org.tquadrat.foundation.xml.builder;
 
-import static java.lang.String.format;
 import static org.apiguardian.api.API.Status.STABLE;
 import static org.tquadrat.foundation.lang.Objects.hash;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
@@ -78,6 +77,13 @@ public final class Namespace implements Serializable, Comparable<Namespace>
     @SuppressWarnings( "OptionalUsedAsFieldOrParameterType" )
     private final Optional<String> m_Prefix;
 
+    /**
+     *  The namespace declaration, as it is returned by
+     *  {@link #toString()};
+     *  it will be created on first use.
+     */
+    private transient String m_Declaration;
+
         /*------------------------*\
     ====** Static Initialisations **===========================================
         \*------------------------*/
@@ -225,9 +231,14 @@ public final class Namespace implements Serializable, Comparable<Namespace>
     @Override
     public final String toString()
     {
-        final var retValue = m_Prefix
-            .map( p -> format( "%s:%s=\"%s\"", KEYWORD, p, m_Identifier.toString() ) )
-            .orElseGet( () -> format( "%s=\"%s\"", KEYWORD, m_Identifier.toString() ) );
+        var retValue = m_Declaration;
+        if( retValue == null )
+        {
+            retValue = m_Prefix.isPresent()
+                ? KEYWORD + ':' + m_Prefix.get() + "=\"" + m_Identifier.toString() + '"'
+                : KEYWORD + "=\"" + m_Identifier.toString() + '"';
+            m_Declaration = retValue;
+        }
 
         //---* Done *----------------------------------------------------------
         return retValue;
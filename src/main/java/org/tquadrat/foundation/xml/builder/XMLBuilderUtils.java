@@ -17,16 +17,12 @@
 
 package org.tquadrat.foundation.xml.builder;
 
-import static java.util.Locale.ROOT;
-import static java.util.regex.Pattern.compile;
+import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.apiguardian.api.API.Status.STABLE;
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
-import static org.tquadrat.foundation.util.StringUtils.splitString;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.Validator.VALIDATOR_AttributeName;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.Validator.VALIDATOR_ElementName;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.Validator.VALIDATOR_NMToken;
@@ -43,8 +39,6 @@ import java.util.EventObject;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
@@ -52,9 +46,12 @@ import org.tquadrat.foundation.annotation.UtilityClass;
 import org.tquadrat.foundation.exception.NullArgumentException;
 import org.tquadrat.foundation.exception.PrivateConstructorForStaticClassCalledError;
 import org.tquadrat.foundation.util.StringUtils;
+import org.tquadrat.foundation.xml.builder.internal.CompactXMLElement;
 import org.tquadrat.foundation.xml.builder.internal.ProcessingInstructionImpl;
 import org.tquadrat.foundation.xml.builder.internal.XMLDocumentImpl;
 import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+import org.tquadrat.foundation.xml.builder.internal.XMLEscaper;
+import org.tquadrat.foundation.xml.builder.internal.XMLNameScanner;
 
 /**
  *  A collection of XML related utility methods and factory methods for XML
@@ -289,32 +286,6 @@ public final class XMLBuilderUtils
     }
     //  interface ValidatorChangeListener
 
-        /*-----------*\
-    ====** Constants **========================================================
-        \*-----------*/
-    /**
-     *  The regular expression for a valid start character of an XML name.
-     *  Usually, the colon (':') is also allowed, but for namespace
-     *  aware parsers, this is used as the separator between the namespace
-     *  prefix and the name itself.
-     */
-    private static final String XML_NAME_FirstChar = """
-        A-Z_a-z\
-        \\u00C0-\\u00D6\\u00D8-\\u00F6\\u00F8-\\u02FF\\u0370-\\u037D\
-        \\u037F-\\u1FFF\\u200C-\\u200D\\u2070-\\u218F\\u2C00-\\u2FEF\
-        \\u3001-\\uD7FF\\uF900-\\uFDCF\\uFDF0-\\uFFFD\\x{10000}-\\x{EFFFF}""";
-
-    /**
-     *  The regular expression for a character that is valid for an XML after
-     *  the first character. Usually, the colon (':') is also allowed, but for
-     *  namespace aware parsers, this is used as the separator between the
-     *  namespace prefix and the name itself.
-     */
-    @SuppressWarnings( "ConstantExpression" )
-    private static final String XML_NAME_OtherChar = "-"
-        + XML_NAME_FirstChar
-        + ".0-9\\u00B7\\u0300-\\u036F\\u203F-\\u2040";
-
         /*------------*\
     ====** Attributes **=======================================================
         \*------------*/
@@ -330,48 +301,22 @@ public final class XMLBuilderUtils
     /**
      *  The method that validates an XML attribute name.
      */
-    private static final AtomicReference<Predicate<CharSequence>> m_AttributeNameValidator = new AtomicReference<>( XMLBuilderUtils::isValidAttributeName );
+    private static final AtomicReference<Predicate<CharSequence>> m_AttributeNameValidator = new AtomicReference<>( VALIDATOR_AttributeName.getDefault() );
 
     /**
      *  The method that validates an XML element name.
      */
-    private static final AtomicReference<Predicate<CharSequence>> m_ElementNameValidator = new AtomicReference<>( XMLBuilderUtils::isValidElementName );
-
-    /**
-     *  The pattern that is used to validate a nmtoken.
-     */
-    private static final Pattern m_NMTokenPattern;
+    private static final AtomicReference<Predicate<CharSequence>> m_ElementNameValidator = new AtomicReference<>( VALIDATOR_ElementName.getDefault() );
 
     /**
      *  The method that validates an XML nmtoken.
      */
-    private static final AtomicReference<Predicate<CharSequence>> m_NMTokenValidator =  new AtomicReference<>( XMLBuilderUtils::isValidNMToken );
+    private static final AtomicReference<Predicate<CharSequence>> m_NMTokenValidator = new AtomicReference<>( VALIDATOR_NMToken.getDefault() );
 
     /**
      *  The method that validates an XML namespace prefix.
      */
-    private static final AtomicReference<Predicate<CharSequence>> m_PrefixValidator =  new AtomicReference<>( XMLBuilderUtils::isValidPrefix );
-
-    /**
-     *  The pattern that is used to validate an XML name.
-     */
-    private static final Pattern m_XMLNamePattern;
-
-    static
-    {
-        //---* Defines the patterns for the validation *-----------------------
-        try
-        {
-            //noinspection RegExpUnnecessaryNonCapturingGroup,ConstantExpression
-            m_NMTokenPattern = compile( "(?:[" + XML_NAME_FirstChar + "])(?:[" + XML_NAME_OtherChar + ":])*" );
-            //noinspection RegExpUnnecessaryNonCapturingGroup,ConstantExpression
-            m_XMLNamePattern = compile( "(?:[" + XML_NAME_FirstChar + "])(?:[" + XML_NAME_OtherChar + "])*" );
-        }
-        catch( final PatternSyntaxException e )
-        {
-            throw new ExceptionInInitializerError( e );
-        }
-    }
+    private static final AtomicReference<Predicate<CharSequence>> m_PrefixValidator = new AtomicReference<>( VALIDATOR_Prefix.getDefault() );
 
         /*--------------*\
     ====** Constructors **=====================================================
@@ -385,7 +330,9 @@ public final class XMLBuilderUtils
     ====** Methods **==========================================================
         \*---------*/
     /**
-     *  Adds a validator change listener.
+     *  Adds a validator change listener. The listener is referenced only
+     *  weakly; the references to listeners that were already garbage
+     *  collected are dropped here.
      *
      *  @param  listener    The listener.
      */
@@ -395,6 +342,9 @@ public final class XMLBuilderUtils
         final var reference = new WeakReference<>( requireNonNullArgument( listener, "listener" ) );
         synchronized( m_ValidatorChangeListeners )
         {
+            //---* Housekeeping: get rid of the dead references *--------------
+            m_ValidatorChangeListeners.removeIf( r -> isNull( r.get() ) );
+
             m_ValidatorChangeListeners.add( reference );
         }
     }   //  addValidatorChangeListener()
@@ -421,6 +371,59 @@ public final class XMLBuilderUtils
         return retValue;
     }   //  composeXMLHeader()
 
+    /**
+     *  <p>{@summary Creates an XML element for the given element name that
+     *  supports attributes, namespaces, children, text, {@code CDATA} and
+     *  comments, and that keeps all its state in a single object.}</p>
+     *  <p>The given element name is validated using the method that is
+     *  provided by
+     *  {@link #getElementNameValidator()}.</p>
+     *  <p>The new element behaves like one that was created by
+     *  {@link #createXMLElement(String)},
+     *  but it needs considerably less memory. It does not support fragment
+     *  caching, and it cannot be the root element of an
+     *  {@link XMLDocument}.</p>
+     *
+     *  @param  elementName The element name.
+     *  @return The new XML element.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final XMLElement createCompactXMLElement( final String elementName )
+    {
+        return new CompactXMLElement( requireNotEmptyArgument( elementName, "elementName" ) );
+    }   //  createCompactXMLElement()
+
+    /**
+     *  <p>{@summary Creates an XML element for the given element name that
+     *  supports attributes, namespaces, children, text, {@code CDATA} and
+     *  comments, and that keeps all its state in a single object; the new
+     *  element will be added as a child to the given parent.}</p>
+     *  <p>The given element name is validated using the method that is
+     *  provided by
+     *  {@link #getElementNameValidator()}.</p>
+     *  <p>The new element behaves like one that was created by
+     *  {@link #createXMLElement(String,XMLElement)},
+     *  but it needs considerably less memory. It does not support fragment
+     *  caching.</p>
+     *
+     *  @param  elementName The element name.
+     *  @param  parent  The parent element.
+     *  @return The new XML element.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final XMLElement createCompactXMLElement( final String elementName, final XMLElement parent )
+    {
+        final XMLElement retValue = new CompactXMLElement( requireNotEmptyArgument( elementName, "elementName" ) );
+        requireNonNullArgument( parent, "parent" ).addChild( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createCompactXMLElement()
+
     /**
      *  Creates a
      *  {@link ProcessingInstruction}.
@@ -722,6 +725,23 @@ public final class XMLBuilderUtils
         return retValue;
     }   //  createXMLElement()
 
+    /**
+     *  Returns the current validator for namespace prefixes, if it is not
+     *  the default one; the default check is done by the name scanner
+     *  itself.
+     *
+     *  @return The custom prefix validator, or {@code null} if the default
+     *      validator is in use.
+     */
+    private static final Predicate<CharSequence> customPrefixValidator()
+    {
+        final var validator = getPrefixValidator();
+        final var retValue = validator == VALIDATOR_Prefix.getDefault() ? null : validator;
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  customPrefixValidator()
+
     /**
      *  Escapes the characters in a {@code String} using XML entities.<br>
      *  <br>For example:<br>
@@ -729,17 +749,20 @@ public final class XMLBuilderUtils
      *  <br>becomes:<br>
      *  <br><code>&amp;quot;bread&amp;quot; &amp;amp;
      *  &amp;quot;butter&amp;quot;</code>.<br>
-     *  <br>Delegates to
-     *  {@link StringUtils#escapeXML(CharSequence)}.
+     *  <br>The result is the same as that of
+     *  {@link StringUtils#escapeXML(CharSequence)},
+     *  but text that does not need escaping is returned unchanged, without
+     *  creating a new {@code String}; this includes text with non-ASCII
+     *  characters, as long as {@code StringUtils} does not change them.
      *
      *  @param  input   The {@code String} to escape, may be null.
-     *  @return A new escaped {@code String}, or {@code null} if the
+     *  @return The escaped {@code String}, or {@code null} if the
      *      argument was already {@code null}.
      *
      *  @see #unescapeXML(CharSequence)
      */
     @API( status = STABLE, since = "0.0.5" )
-    public static String escapeXML( final CharSequence input ) { return StringUtils.escapeXML( input ); }
+    public static String escapeXML( final CharSequence input ) { return XMLEscaper.escapeXML( input ); }
 
     /**
      *  Escapes the characters in a {@code String} using XML entities and
@@ -750,8 +773,10 @@ public final class XMLBuilderUtils
      *  <br>becomes:<br>
      *  <br><code>&amp;quot;bread&amp;quot; &amp;amp;
      *  &amp;quot;butter&amp;quot;</code>.<br>
-     *  <br>Delegates to
-     *  {@link StringUtils#escapeXML(Appendable,CharSequence)}.
+     *  <br>The result is the same as that of
+     *  {@link StringUtils#escapeXML(Appendable,CharSequence)};
+     *  runs of characters that do not need escaping are copied to the
+     *  {@code Appendable} as a whole.
      *
      *  @param  appendable  The appendable object receiving the escaped string.
      *  @param  input   The {@code String} to escape, may be {@code null}.
@@ -767,7 +792,7 @@ public final class XMLBuilderUtils
     @API( status = STABLE, since = "0.0.5" )
     public static void escapeXML( final Appendable appendable, final CharSequence input ) throws IOException
     {
-        StringUtils.escapeXML( appendable, input );
+        XMLEscaper.escapeXML( appendable, input );
     }   //  escapeXML()
 
     /**
@@ -813,27 +838,7 @@ public final class XMLBuilderUtils
      */
     private static final boolean isValidAttributeName( final CharSequence attributeName )
     {
-        var retValue = isNotEmptyOrBlank( attributeName );
-        if( retValue )
-        {
-            var attribute = EMPTY_STRING;
-            final var parts = splitString( attributeName, ':' );
-            switch( parts.length )
-            {
-                //  No namespace prefix.
-                case 1 -> attribute = parts[0];
-                //  Namespace prefix.
-                case 2 ->
-                {
-                    attribute = parts[1];
-                    retValue = getPrefixValidator().test( parts[0] );
-                }
-                // More than one colon
-                default -> retValue = false;
-            }
-            if( retValue && (attribute.length() >= 3) ) retValue = !attribute.toLowerCase( ROOT ).startsWith( "xml" );
-            if( retValue ) retValue = m_XMLNamePattern.matcher( attribute ).matches();
-        }
+        final var retValue = XMLNameScanner.isValidQName( attributeName, customPrefixValidator() );
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -850,27 +855,7 @@ public final class XMLBuilderUtils
      */
     private static final boolean isValidElementName( final CharSequence elementName )
     {
-        var retValue = isNotEmptyOrBlank( elementName );
-        if( retValue )
-        {
-            var element = EMPTY_STRING;
-            final var parts = splitString( elementName, ':' );
-            switch( parts.length )
-            {
-                //  No namespace prefix.
-                case 1 -> element = parts[0];
-                //  Namespace prefix.
-                case 2 ->
-                {
-                    element = parts[1];
-                    retValue = getPrefixValidator().test( parts[0] );
-                }
-                // More than one colon
-                default -> retValue = false;
-            }
-            if( retValue && (element.length() >= 3) ) retValue = !element.toLowerCase( ROOT ).startsWith( "xml" );
-            if( retValue ) retValue = m_XMLNamePattern.matcher( element ).matches();
-        }
+        final var retValue = XMLNameScanner.isValidQName( elementName, customPrefixValidator() );
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -887,8 +872,7 @@ public final class XMLBuilderUtils
      */
     private static final boolean isValidNMToken( final CharSequence nmtoken )
     {
-        var retValue = isNotEmptyOrBlank( nmtoken );
-        if( retValue ) retValue = m_NMTokenPattern.matcher( nmtoken ).matches();
+        final var retValue = XMLNameScanner.isValidNMToken( nmtoken );
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -905,8 +889,7 @@ public final class XMLBuilderUtils
      */
     private static final boolean isValidPrefix( final CharSequence prefix )
     {
-        var retValue = isNotEmptyOrBlank( prefix );
-        if( retValue ) retValue = m_XMLNamePattern.matcher( prefix ).matches();
+        final var retValue = XMLNameScanner.isValidName( prefix );
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -962,10 +945,10 @@ public final class XMLBuilderUtils
     public static final void restoreDefaultValidators()
     {
         //---* Set the validator methods *-------------------------------------
-        setAttributeNameValidator( XMLBuilderUtils::isValidAttributeName );
-        setElementNameValidator( XMLBuilderUtils::isValidElementName );
-        setNMTokenValidator( XMLBuilderUtils::isValidNMToken );
-        setPrefixValidator( XMLBuilderUtils::isValidPrefix );
+        setAttributeNameValidator( VALIDATOR_AttributeName.getDefault() );
+        setElementNameValidator( VALIDATOR_ElementName.getDefault() );
+        setNMTokenValidator( VALIDATOR_NMToken.getDefault() );
+        setPrefixValidator( VALIDATOR_Prefix.getDefault() );
     }   //  restoreDefaultValidators()
 
     /**
@@ -1078,18 +1061,20 @@ public final class XMLBuilderUtils
      *  <br>If an entity is unrecognised, it is left alone, and inserted
      *  verbatim into the result string. e.g. &quot;&amp;gt;&amp;zzzz;x&quot;
      *  will become &quot;&gt;&amp;zzzz;x&quot;.<br>
-     *  <br>Delegates to
-     *  {@link StringUtils#unescapeXML(CharSequence)}.
+     *  <br>The result is the same as that of
+     *  {@link StringUtils#unescapeXML(CharSequence)},
+     *  but text without any entity is returned unchanged, without creating
+     *  a new {@code String}.
      *
      *  @param  input The {@code String} to unescape, may be {@code null}.
-     *  @return A new unescaped {@code String}, {@code null} if the given
+     *  @return The unescaped {@code String}, {@code null} if the given
      *      string was already {@code null}.
      *
      *  @see #escapeXML(CharSequence)
      *  @see #escapeXML(Appendable,CharSequence)
      */
     @API( status = STABLE, since = "0.0.5" )
-    public static final String unescapeXML( final CharSequence input ) { return StringUtils.unescapeXML( input ); }
+    public static final String unescapeXML( final CharSequence input ) { return XMLEscaper.unescapeXML( input ); }
 
     /**
      *  Unescapes an XML String containing XML entity escapes to a String
@@ -1099,7 +1084,7 @@ public final class XMLBuilderUtils
      *  <br>If an entity is unrecognised, it is left alone, and inserted
      *  verbatim into the result string. e.g. &quot;&amp;gt;&amp;zzzz;x&quot;
      *  will become &quot;&gt;&amp;zzzz;x&quot;.<br>
-     *  <br>Delegates to
+     *  <br>The result is the same as that of
      *  {@link StringUtils#unescapeXML(Appendable,CharSequence)}.
      *
      *  @param  appendable  The appendable receiving the unescaped string.
@@ -1112,7 +1097,7 @@ public final class XMLBuilderUtils
     @API( status = STABLE, since = "0.0.5" )
     public static final void unescapeXML( final Appendable appendable, final CharSequence input ) throws IOException
     {
-        StringUtils.unescapeXML( appendable, input );
+        XMLEscaper.unescapeXML( appendable, input );
     }   //  unescapeXML()
 }
 //  class XMLBuilderUtils
@@ -18,22 +18,38 @@
 
 package org.tquadrat.foundation.xml.builder;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getNMTokenValidator;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.internal.FrozenXMLDocument;
 import org.tquadrat.foundation.xml.builder.internal.XMLDocumentImpl;
+import org.tquadrat.foundation.xml.builder.io.AsyncFileEncoder;
+import org.tquadrat.foundation.xml.builder.io.ByteEncoder;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
 import org.tquadrat.foundation.xml.builder.spi.Document;
+import org.tquadrat.foundation.xml.builder.spi.Printer;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
 
 /**
  *  The definition for an XML document.
@@ -48,7 +64,7 @@ import org.tquadrat.foundation.xml.builder.spi.Document;
 @ClassVersion( sourceVersion = "$Id: XMLDocument.java 1071 2023-09-30 01:49:32Z tquadrat $" )
 @API( status = STABLE, since = "0.0.5" )
 public sealed interface XMLDocument extends Document<XMLElement>
-    permits XMLDocumentImpl
+    permits FrozenXMLDocument, XMLDocumentImpl
 {
         /*---------*\
     ====** Methods **==========================================================
@@ -141,6 +157,70 @@ public sealed interface XMLDocument extends Document<XMLElement>
         throw new IllegalArgumentException( "No processing instructions allowed for this document" );
     }   //  addProcessingInstruction()
 
+    /**
+     *  <p>{@summary Returns an immutable snapshot of this document.}</p>
+     *  <p>The snapshot has the same output as this document at the time of
+     *  the call; later modifications of this document do not affect it. All
+     *  methods of the snapshot that would modify it throw an
+     *  {@link org.tquadrat.foundation.exception.IllegalOperationException},
+     *  and it can be written from several threads at the same time without
+     *  any synchronisation.</p>
+     *
+     *  @return The snapshot.
+     *
+     *  @see XMLElement#freeze()
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLDocument freeze();
+
+    /**
+     *  Returns the encoding for this document, as it was declared in the XML
+     *  header.
+     *
+     *  @return The encoding.
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public Charset getEncoding();
+
+    /**
+     *  Returns the
+     *  {@link Printer}
+     *  that is used by
+     *  {@link #writeTo(Appendable)}
+     *  and
+     *  {@link Object#toString() toString()}.
+     *  If not set otherwise, this is
+     *  {@link SGMLPrinter#PRETTY_PRINTER}.
+     *
+     *  @return The printer for this document.
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public Printer getPrinter();
+
+    /**
+     *  <p>{@summary Removes all content from this document, so that it can
+     *  be filled again.}</p>
+     *  <p>The root element is
+     *  {@linkplain XMLElement#reset() reset},
+     *  and all comments and processing instructions that were added to the
+     *  document itself are removed; the XML header, the doc type and the
+     *  printer are kept. Together with a
+     *  {@link StringBuilder}
+     *  that is reused for the output, this allows to create a large number
+     *  of small documents of the same kind without allocating new objects
+     *  for each of them.</p>
+     *
+     *  @return This instance.
+     *  @throws org.tquadrat.foundation.exception.IllegalOperationException
+     *      The document cannot be modified.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLDocument reset();
+
     /**
      *  Sets the attribute with the given name to the root element of this
      *  document.<br>
@@ -592,6 +672,197 @@ public sealed interface XMLDocument extends Document<XMLElement>
         //---* Done *----------------------------------------------------------
         return this;
     }   //  setNamespace()
+
+    /**
+     *  Sets the
+     *  {@link Printer}
+     *  that is used by
+     *  {@link #writeTo(Appendable)}
+     *  and
+     *  {@link Object#toString() toString()}.
+     *
+     *  @param  printer The printer for this document.
+     *  @return This instance.
+     *
+     *  @see SGMLPrinter#COMPACT_PRINTER
+     *  @see SGMLPrinter#PRETTY_PRINTER
+     *  @see SGMLPrinter#canonicalPrinter(CanonicalXMLWriter.Algorithm)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLDocument setPrinter( final Printer printer );
+
+    /**
+     *  <p>{@summary Writes this document asynchronously to the given file,
+     *  encoded with the
+     *  {@linkplain #getEncoding() encoding of the document}; an existing
+     *  file will be overwritten.}</p>
+     *  <p>The document is rendered on the current thread into one of two
+     *  buffers while the contents of the other one are written to the file,
+     *  so rendering and disk I/O overlap. The method returns after the last
+     *  bytes were handed over to the file channel; the returned future
+     *  completes when all bytes were written, the file was synchronised
+     *  according to the given policy, and the file was closed.</p>
+     *  <p>Characters that cannot be represented in the encoding are written
+     *  as numeric character references.</p>
+     *
+     *  @param  file    The target file.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  syncPolicy  The synchronisation policy.
+     *  @return The future that completes when the document is durable.
+     *  @throws IOException Rendering the document or writing it failed.
+     *
+     *  @see AsyncFileEncoder#forFile(Path, Charset, AsyncFileEncoder.SyncPolicy)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default CompletableFuture<Void> writeAsync( final Path file, final boolean prettyPrint, final AsyncFileEncoder.SyncPolicy syncPolicy ) throws IOException
+    {
+        final var encoder = AsyncFileEncoder.forFile( requireNonNullArgument( file, "file" ), getEncoding(), syncPolicy );
+        final CompletableFuture<Void> retValue;
+        try
+        {
+            writeTo( encoder, prettyPrint );
+            retValue = encoder.finishAsync();
+        }
+        catch( final IOException | RuntimeException e )
+        {
+            try
+            {
+                encoder.close();
+            }
+            catch( final IOException | RuntimeException suppressed )
+            {
+                e.addSuppressed( suppressed );
+            }
+            throw e;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  writeAsync()
+
+    /**
+     *  Writes the canonical form of this document to the given stream,
+     *  encoded with UTF-8 as required by the specification, regardless of
+     *  the {@linkplain #getEncoding() encoding of the document}.<br>
+     *  <br>The stream will be flushed, but not closed.
+     *
+     *  @param  outputStream    The target stream.
+     *  @param  algorithm   The canonicalisation algorithm.
+     *  @throws IOException Writing the document failed.
+     *
+     *  @see #writeCanonical(Appendable, CanonicalXMLWriter.Algorithm)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeCanonical( final OutputStream outputStream, final CanonicalXMLWriter.Algorithm algorithm ) throws IOException
+    {
+        final var encoder = ByteEncoder.forOutputStream( requireNonNullArgument( outputStream, "outputStream" ), UTF_8 );
+        writeCanonical( encoder, algorithm );
+        encoder.finish();
+    }   //  writeCanonical()
+
+    /**
+     *  Writes this document to the given
+     *  {@link Appendable},
+     *  using the
+     *  {@linkplain #getPrinter() printer of this document}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable ) throws IOException
+    {
+        writeTo( appendable, getPrinter() );
+    }   //  writeTo()
+
+    /**
+     *  Writes this document to the given buffer, encoded with the
+     *  {@linkplain #getEncoding() encoding of the document}.
+     *  Characters that cannot be represented in that encoding are written
+     *  as numeric character references.
+     *
+     *  @param  buffer  The target buffer; the document will be written
+     *      starting at its current position.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Encoding the document failed.
+     *  @throws BufferOverflowException The document does not fit into the
+     *      remaining space of the buffer.
+     *
+     *  @see ByteEncoder#forBuffer(ByteBuffer, Charset)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeTo( final ByteBuffer buffer, final boolean prettyPrint ) throws IOException, BufferOverflowException
+    {
+        final var encoder = ByteEncoder.forBuffer( requireNonNullArgument( buffer, "buffer" ), getEncoding() );
+        writeTo( encoder, prettyPrint );
+        encoder.finish();
+    }   //  writeTo()
+
+    /**
+     *  Writes this document to the given stream, encoded with the
+     *  {@linkplain #getEncoding() encoding of the document}.
+     *  Characters that cannot be represented in that encoding are written
+     *  as numeric character references.<br>
+     *  <br>The stream will be flushed, but not closed.
+     *
+     *  @param  outputStream    The target stream.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing the document failed.
+     *
+     *  @see ByteEncoder#forOutputStream(OutputStream, Charset)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeTo( final OutputStream outputStream, final boolean prettyPrint ) throws IOException
+    {
+        final var encoder = ByteEncoder.forOutputStream( requireNonNullArgument( outputStream, "outputStream" ), getEncoding() );
+        writeTo( encoder, prettyPrint );
+        encoder.finish();
+    }   //  writeTo()
+
+    /**
+     *  Writes this document to the given file, encoded with the
+     *  {@linkplain #getEncoding() encoding of the document}; an existing
+     *  file will be overwritten. The bytes are written directly into a
+     *  memory mapped region of the file, so even very large documents can
+     *  be written without an intermediate String or stream buffer.
+     *  Characters that cannot be represented in that encoding are written
+     *  as numeric character references.
+     *
+     *  @param  file    The target file.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing the document failed.
+     *
+     *  @see ByteEncoder#forMappedFile(Path, Charset)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeTo( final Path file, final boolean prettyPrint ) throws IOException
+    {
+        try( final var encoder = ByteEncoder.forMappedFile( requireNonNullArgument( file, "file" ), getEncoding() ) )
+        {
+            writeTo( encoder, prettyPrint );
+        }
+    }   //  writeTo()
+
+    /**
+     *  Writes this document to the given channel, encoded with the
+     *  {@linkplain #getEncoding() encoding of the document}.
+     *  Characters that cannot be represented in that encoding are written
+     *  as numeric character references.<br>
+     *  <br>The channel will not be closed.
+     *
+     *  @param  channel The target channel.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing the document failed.
+     *
+     *  @see ByteEncoder#forChannel(WritableByteChannel, Charset)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default void writeTo( final WritableByteChannel channel, final boolean prettyPrint ) throws IOException
+    {
+        final var encoder = ByteEncoder.forChannel( requireNonNullArgument( channel, "channel" ), getEncoding() );
+        writeTo( encoder, prettyPrint );
+        encoder.finish();
+    }   //  writeTo()
 }
 //  interface XMLDocument
 
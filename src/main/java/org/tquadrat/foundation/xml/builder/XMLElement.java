@@ -37,6 +37,8 @@ import java.util.Set;
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
 import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.xml.builder.internal.CompactXMLElement;
+import org.tquadrat.foundation.xml.builder.internal.FrozenXMLElement;
 import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
 import org.tquadrat.foundation.xml.builder.spi.Element;
 
@@ -70,7 +72,7 @@ import org.tquadrat.foundation.xml.builder.spi.Element;
 @ClassVersion( sourceVersion = "$Id: XMLElement.java 1071 2023-09-30 01:49:32Z tquadrat $" )
 @API( status = STABLE, since = "0.0.5" )
 public sealed interface XMLElement extends Element
-    permits XMLElementImpl
+    permits CompactXMLElement, FrozenXMLElement, XMLElementImpl
 {
         /*---------------*\
     ====** Inner Classes **====================================================
@@ -592,6 +594,56 @@ public sealed interface XMLElement extends Element
     @SuppressWarnings( "UnusedReturnValue" )
     public default XMLElement addText( final ZonedDateTime date ) throws IllegalOperationException { return addText( requireNonNullArgument( date, "date" ).toString() ); }
 
+    /**
+     *  <p>{@summary Creates a deep copy of this element.}</p>
+     *  <p>The copy has the same element name, the same configuration
+     *  (flags, valid attributes and children, attribute sort order), the
+     *  same attributes and namespaces, and a copy of each child; it does not
+     *  have a parent. As all this was already checked for this element,
+     *  nothing is validated again, and no sorting takes place. This makes a
+     *  fully configured element a cheap prototype for a large number of
+     *  similar elements that differ only in some values.</p>
+     *  <p>If the fragment caching is enabled for this element, it is enabled
+     *  for the copy, too.</p>
+     *  <p>A subclass of
+     *  {@link org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter}
+     *  that does not override this method cannot be copied. If such an
+     *  element is part of the tree below this element, the complete copy
+     *  fails with an
+     *  {@link IllegalOperationException};
+     *  nothing is returned, and this element and its descendants remain
+     *  unchanged.</p>
+     *
+     *  @return The copy.
+     *  @throws IllegalOperationException   The element, or one of its
+     *      descendants, is an instance of a custom implementation that does
+     *      not support copying.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLElement copy() throws IllegalOperationException;
+
+    /**
+     *  <p>{@summary Returns an immutable snapshot of this element and all
+     *  its descendants.}</p>
+     *  <p>The snapshot keeps the attributes in the sequence in which they are
+     *  written, and it renders its compact and its pretty printed output only
+     *  once. All methods that would modify it throw an
+     *  {@link IllegalOperationException}.
+     *  A snapshot can be shared between threads without any synchronisation,
+     *  and it can be added as a child to any number of other elements, as it
+     *  does not record them as its parent.</p>
+     *  <p>Later modifications of this element do not affect the
+     *  snapshot.</p>
+     *
+     *  @return The snapshot.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLElement freeze();
+
     /**
      *  Returns the flags for this element.
      *
@@ -601,6 +653,72 @@ public sealed interface XMLElement extends Element
      */
     public Set<Flags> getFlags();
 
+    /**
+     *  Returns whether the rendered output of this element will be cached.
+     *
+     *  @return {@code true} if the fragment caching is enabled for this
+     *      element, {@code false} otherwise.
+     *
+     *  @see #setFragmentCaching(boolean)
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public boolean isFragmentCachingEnabled();
+
+    /**
+     *  <p>{@summary Removes the given child from this element.}</p>
+     *  <p>The child is identified by reference, not by equality. It keeps
+     *  its reference to this element as its parent, so it cannot be added to
+     *  another element afterwards; usually, a child is removed only after it
+     *  was written, as done by
+     *  {@link org.tquadrat.foundation.xml.builder.io.XMLFlushWriter}.</p>
+     *
+     *  @param  child   The child to remove.
+     *  @return {@code true} if the child was removed, {@code false} if it
+     *      was not a child of this element.
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public boolean removeChild( final Element child );
+
+    /**
+     *  <p>{@summary Removes the given number of children from the start of
+     *  the list of the children of this element.}</p>
+     *  <p>As with
+     *  {@link #removeChild(Element)},
+     *  the removed children keep their reference to this element as their
+     *  parent. Removing a leading run of children this way takes time
+     *  proportional to the number of the children, while removing them one
+     *  by one takes time proportional to its square.</p>
+     *
+     *  @param  count   The number of children to remove; if greater than
+     *      the number of children, all children are removed.
+     *  @throws IllegalArgumentException    The count is negative.
+     *  @throws IllegalOperationException   The element cannot be modified.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public void removeChildren( final int count ) throws IllegalArgumentException, IllegalOperationException;
+
+    /**
+     *  <p>{@summary Removes all attributes, namespaces and children from
+     *  this element, so that it can be filled again.}</p>
+     *  <p>The configuration of the element – the flags, the valid
+     *  attributes and children, and the attribute sort order – is kept, as
+     *  is the parent, and the memory that was allocated for the attributes
+     *  and children is reused. This allows to build the same kind of element
+     *  over and over again without allocating new objects for it.</p>
+     *  <p>The removed children are detached from this element; they can be
+     *  reset and added again to this element, or to any other, so that a
+     *  whole subtree can be refilled without allocating new elements.</p>
+     *
+     *  @return This instance.
+     *  @throws IllegalOperationException   The element cannot be modified.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLElement reset() throws IllegalOperationException;
+
     /**
      *  <p>{@summary Sets the attribute with the given name.}</p>
      *  <p>The method uses
@@ -903,6 +1021,29 @@ public sealed interface XMLElement extends Element
         return this;
     }   //  setAttributeIfNotEmpty()
 
+    /**
+     *  <p>{@summary Enables or disables the caching of the rendered output
+     *  for this element and all its current and future descendants.}</p>
+     *  <p>When enabled, each element keeps the markup it produced for the
+     *  last rendering, separately for pretty printed and compact output,
+     *  together with the indentation level. As long as neither the element
+     *  itself nor any of its descendants is modified, the next rendering with
+     *  the same indentation level will just write the cached fragment. A
+     *  modification invalidates the fragments of the modified element and
+     *  of all its ancestors, but not those of unchanged siblings; rendering a
+     *  large document again after a single change costs therefore roughly
+     *  the length of the path from the root to the changed element.</p>
+     *  <p>The cache trades memory for speed: each element holds its own
+     *  fragment, so the markup of a deeply nested element is stored once
+     *  for each of its ancestors.</p>
+     *
+     *  @param  flag    {@code true} to enable the fragment caching,
+     *      {@code false} to disable it and to drop the cached fragments.
+     *  @return This instance.
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public XMLElement setFragmentCaching( final boolean flag );
+
     /**
      *  <p>{@summary Sets the id for the element.}</p>
      *  <p>The value will be validated using the method that is provided by a
@@ -17,16 +17,18 @@
 
 package org.tquadrat.foundation.xml.builder;
 
-import static java.lang.String.format;
 import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
 
 import java.util.Optional;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
 import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.QName;
+import org.tquadrat.foundation.xml.builder.spi.SymbolTable;
 import org.tquadrat.foundation.xml.builder.spi.XMLElementFactoryBase;
 
 /**
@@ -60,17 +62,46 @@ public sealed interface XMLElementFactory
      *  @return The final element name.
      */
     public default String composeElementName( final String elementName )
+    {
+        final var retValue = composeQName( elementName ).getName();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  composeElementName()
+
+    /**
+     *  <p>{@summary Composes the validated name of an XML element from the
+     *  prefix and the given element name.}</p>
+     *  <p>The given element name is validated using the method that is
+     *  provided by
+     *  {@link XMLBuilderUtils#getElementNameValidator()}.
+     *  The returned token can be used to create elements without validating
+     *  the name again.</p>
+     *
+     *  @param  elementName The name of an XML element without any namespace
+     *      prefix.
+     *  @return The final element name.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = STABLE, since = "0.26.0" )
+    public default QName composeQName( final String elementName )
     {
         requireNotEmptyArgument( elementName, "elementName" );
-        final var retValue = getPrefix().map( prefix -> format( "%s:%s", prefix, elementName ) ).orElse( elementName );
-        if( !getElementNameValidator().test( retValue ) )
+        final var name = getPrefix().map( prefix -> prefix + ':' + elementName ).orElse( elementName );
+        final QName retValue;
+        try
+        {
+            retValue = SymbolTable.elementName( name );
+        }
+        catch( final InvalidXMLNameException e )
         {
             throw new InvalidXMLNameException( elementName );
         }
 
         //---* Done *----------------------------------------------------------
         return retValue;
-    }   //  composeElementName()
+    }   //  composeQName()
 
     /**
      *  Creates an XML element for the given element name that supports
@@ -84,7 +115,7 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ) );
+        return new XMLElementImpl( composeQName( elementName ) );
     }   //  createXMLElement()
 
     /**
@@ -101,7 +132,11 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName, final CharSequence text )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ), text );
+        final var retValue = createXMLElement( elementName );
+        retValue.addText( requireNonNullArgument( text, "text" ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
     }   //  createXMLElement()
 
     /**
@@ -118,7 +153,11 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName, final XMLElement parent )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ), parent );
+        final var retValue = createXMLElement( elementName );
+        requireNonNullArgument( parent, "parent" ).addChild( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
     }   //  createXMLElement()
 
     /**
@@ -136,7 +175,11 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName, final XMLElement parent, final CharSequence text )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ), parent, text );
+        final var retValue = createXMLElement( elementName, text );
+        requireNonNullArgument( parent, "parent" ).addChild( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
     }   //  createXMLElement()
 
     /**
@@ -152,7 +195,11 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName, final XMLDocument parent )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ), parent );
+        final var retValue = createXMLElement( elementName );
+        requireNonNullArgument( parent, "parent" ).addChild( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
     }   //  createXMLElement()
 
     /**
@@ -169,7 +216,11 @@ public sealed interface XMLElementFactory
      */
     public default XMLElement createXMLElement( final String elementName, final XMLDocument parent, final CharSequence text )
     {
-        return XMLBuilderUtils.createXMLElement( composeElementName( elementName ), parent, text );
+        final var retValue = createXMLElement( elementName, text );
+        requireNonNullArgument( parent, "parent" ).addChild( retValue );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
     }   //  createXMLElement()
 
     /**
@@ -17,21 +17,24 @@
 
 package org.tquadrat.foundation.xml.builder.internal;
 
-import static java.lang.String.format;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.tquadrat.foundation.lang.CommonConstants.CHAR_HYPHEN;
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
-import static org.tquadrat.foundation.util.StringUtils.isEmpty;
 import static org.tquadrat.foundation.util.StringUtils.isEmptyOrBlank;
 import static org.tquadrat.foundation.util.StringUtils.splitString;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.repeat;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.DOMBuilder;
 import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.StAXBridge;
 
 /**
  *  This class defines an SGML comment.
@@ -69,7 +72,7 @@ public class Comment implements Element
 
     static
     {
-        HYPHEN_REPLACEMENT = format( "&#x%x;", (int) CHAR_HYPHEN );
+        HYPHEN_REPLACEMENT = "&#x" + Integer.toHexString( CHAR_HYPHEN ) + ';';
     }
         /*--------------*\
     ====** Constructors **=====================================================
@@ -84,9 +87,29 @@ public class Comment implements Element
         m_Text = requireNonNullArgument( text, "text" ).toString().intern();
     }   //  Comment()
 
+    /**
+     *  Creates a new {@code Comment} object as a copy of the given one; the
+     *  new object does not have a parent.
+     *
+     *  @param  prototype   The object to copy.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public Comment( final Comment prototype )
+    {
+        m_Text = requireNonNullArgument( prototype, "prototype" ).m_Text;
+    }   //  Comment()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent() { m_Parent = null; }
+
     /**
      *  {@inheritDoc}
      */
@@ -111,57 +134,97 @@ public class Comment implements Element
     @Override
     public final <E extends Element> void setParent( final E parent ) { m_Parent = requireNonNullArgument( parent, "parent" ); }
 
+    /**
+     *  Starts a new line of the comment text: if the pretty print flag is
+     *  set, a line break and the indentation will be written, otherwise just
+     *  a blank.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    private static final void writeLineStart( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        if( prettyPrint )
+        {
+            writeFiller( appendable, indentationLevel, true, 0 );
+        }
+        else
+        {
+            appendable.append( ' ' );
+        }
+    }   //  writeLineStart()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeCanonical( final CanonicalXMLWriter writer ) throws IOException
+    {
+        requireNonNullArgument( writer, "writer" ).writeComment( this );
+    }   //  writeCanonical()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeDOM( final DOMBuilder builder )
+    {
+        requireNonNullArgument( builder, "builder" ).writeComment( this );
+    }   //  writeDOM()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeStAX( final StAXBridge bridge ) throws XMLStreamException
+    {
+        requireNonNullArgument( bridge, "bridge" ).writeComment( this );
+    }   //  writeStAX()
+
     /**
      *  {@inheritDoc}
      */
     @SuppressWarnings( "UnnecessaryUnicodeEscape" )
     @Override
-    public final String toString( final int indentationLevel, final boolean prettyPrint )
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
     {
-        final var filler1 = prettyPrint ? "\n" + repeat( indentationLevel ) : EMPTY_STRING;
-        final String retValue;
+        requireNonNullArgument( appendable, "appendable" );
+        writeFiller( appendable, indentationLevel, prettyPrint, 0 );
         if( isEmptyOrBlank( m_Text ) )
         {
-            retValue = format( "%s<!-- -->", filler1 );
+            appendable.append( "<!-- -->" );
         }
         else
         {
-            final var filler2 = isEmpty( filler1 ) ? " " : filler1;
-            final var buffer = new StringBuilder( m_Text.length() * 2 );
-            char character;
-            for( var i = 0; i < m_Text.length(); ++i )
+            appendable.append( "<!--" );
+            for( final var line : splitString( m_Text, '\n' ) )
             {
-                character = m_Text.charAt( i );
-                if( character == '\u002D' )
+                writeLineStart( appendable, indentationLevel, prettyPrint );
+                final var trimmed = line.trim();
+                var start = 0;
+                for( var i = 0; i < trimmed.length(); ++i )
                 {
-                    /*
-                     * A hyphen or minus sign (\u002D) in the comment text may
-                     * cause an issue when the resulting document is parsed.
-                     * Therefore, we replace it by another character that looks
-                     * similar, but is not interpreted by XML parsers.
-                     */
-                    buffer.append( HYPHEN_REPLACEMENT );
-                }
-                else
-                {
-                    buffer.append( character );
+                    if( trimmed.charAt( i ) == '\u002D' )
+                    {
+                        /*
+                         * A hyphen or minus sign (\u002D) in the comment text
+                         * may cause an issue when the resulting document is
+                         * parsed. Therefore, we replace it by another
+                         * character that looks similar, but is not
+                         * interpreted by XML parsers.
+                         */
+                        appendable.append( trimmed, start, i ).append( HYPHEN_REPLACEMENT );
+                        start = i + 1;
+                    }
                 }
+                appendable.append( trimmed, start, trimmed.length() );
             }
-
-            final var lines = splitString( buffer, '\n' );
-            buffer.setLength( 0 );
-            buffer.append( filler1 ).append( "<!--" );
-            for( final var line : lines )
-            {
-                buffer.append( filler2 ).append( line.trim() );
-            }
-            buffer.append( filler2 ).append( "-->" );
-            retValue = buffer.toString();
+            writeLineStart( appendable, indentationLevel, prettyPrint );
+            appendable.append( "-->" );
         }
-
-        //---* Done *----------------------------------------------------------
-        return retValue;
-    }   //  toString()
+    }   //  writeTo()
 
     /**
      *  {@inheritDoc}
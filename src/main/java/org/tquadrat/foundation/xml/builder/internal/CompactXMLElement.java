@@ -0,0 +1,783 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Comparator.naturalOrder;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+import static org.tquadrat.foundation.util.StringUtils.isNotEmpty;
+import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_CHILDREN;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_TEXT;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeStore.clearEntries;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeStore.ensureCapacity;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeStore.indexOf;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeStore.insertEntry;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeStore.removeEntry;
+import static org.tquadrat.foundation.xml.builder.spi.ChildSupport.copyChild;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLBuilderUtils;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.QName;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.builder.spi.SymbolTable;
+
+/**
+ *  <p>{@summary An implementation of
+ *  {@link XMLElement}
+ *  that keeps all its state in a single object.}</p>
+ *  <p>The element behaves like one that was created by
+ *  {@link XMLBuilderUtils#createXMLElement(String)}:
+ *  it allows attributes, namespaces, children, text, {@code CDATA} and
+ *  comments, but it does not validate attributes or children. The
+ *  attributes are kept in their natural order.</p>
+ *  <p>Different from
+ *  {@link XMLElementImpl},
+ *  there are no support objects: the attributes, the namespaces and the
+ *  children are held in arrays that are fields of the element itself, and
+ *  these arrays are allocated only when the first entry is added. The
+ *  text nodes share the escape functions from
+ *  {@link Text}.
+ *  Fragment caching is not supported.</p>
+ *  <p>The table below gives an <i>estimate</i> for the shallow footprint
+ *  of an element without any content, on a 64-bit HotSpot VM with
+ *  compressed references; the figures were derived from the field layout
+ *  of the classes, not measured.</p>
+ *  <table class="striped">
+ *      <caption>Estimated footprint per element</caption>
+ *      <thead>
+ *          <tr>
+ *              <th scope="col">&nbsp;</th>
+ *              <th scope="col">{@code XMLElementImpl}</th>
+ *              <th scope="col">{@code CompactXMLElement}</th>
+ *          </tr>
+ *      </thead>
+ *      <tbody>
+ *          <tr>
+ *              <th scope="row">Objects</th>
+ *              <td>6 (element, {@code AttributeSupport}, {@code LazySet},
+ *              {@code AttributeStore}, {@code ChildSupport},
+ *              {@code LazyList})</td>
+ *              <td>1</td>
+ *          </tr>
+ *          <tr>
+ *              <th scope="row">Bytes</th>
+ *              <td>about 220</td>
+ *              <td>56</td>
+ *          </tr>
+ *          <tr>
+ *              <th scope="row">First attribute</th>
+ *              <td>+96 (two arrays for 8 entries)</td>
+ *              <td>+64 (two arrays for 4 entries)</td>
+ *          </tr>
+ *          <tr>
+ *              <th scope="row">First child</th>
+ *              <td>+80 ({@code ArrayList} and its array)</td>
+ *              <td>+32 (one array for 4 entries)</td>
+ *          </tr>
+ *      </tbody>
+ *  </table>
+ *  <p>Validating elements add two {@code HashSet} instances to the figures
+ *  for {@code XMLElementImpl}. The read-only views on the attributes,
+ *  children and namespaces of a {@code CompactXMLElement} are created
+ *  together when the first of them is requested – usually when the element
+ *  is written for the first time – and are reused afterwards.</p>
+ *
+ *  @note   An instance of {@code CompactXMLElement} cannot be the root
+ *      element of an
+ *      {@link org.tquadrat.foundation.xml.builder.XMLDocument};
+ *      it is meant for the bulk of the elements below the root.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class CompactXMLElement implements XMLElement
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The read-only views on the attributes, the children and the
+     *  namespaces of a
+     *  {@link CompactXMLElement}.
+     *  They are created together, when the first of them is requested, and
+     *  then reused, so that writing the element does not allocate new views
+     *  each time.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private final class Views
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The view on the attributes.
+         */
+        final Map<String,String> m_AttributesView = new AbstractMap<>()
+        {
+            /**
+             *  The entry set.
+             */
+            private final Set<Entry<String,String>> m_EntrySet = new AbstractSet<>()
+            {
+                /**
+                 *  {@inheritDoc}
+                 */
+                @Override
+                public final Iterator<Entry<String,String>> iterator()
+                {
+                    return new Iterator<>()
+                    {
+                        /**
+                         *  The index of the next entry.
+                         */
+                        private int m_Index = 0;
+
+                        /**
+                         *  {@inheritDoc}
+                         */
+                        @Override
+                        public final boolean hasNext() { return m_Index < m_AttributeCount; }
+
+                        /**
+                         *  {@inheritDoc}
+                         */
+                        @Override
+                        public final Entry<String,String> next()
+                        {
+                            if( m_Index >= m_AttributeCount ) throw new NoSuchElementException();
+                            final var entry = Map.entry( m_AttributeNames [m_Index], m_AttributeValues [m_Index] );
+                            ++m_Index;
+
+                            //---* Done *--------------------------------------
+                            return entry;
+                        }   //  next()
+                    };
+                }   //  iterator()
+
+                /**
+                 *  {@inheritDoc}
+                 */
+                @Override
+                public final int size() { return m_AttributeCount; }
+            };
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final Set<Entry<String,String>> entrySet() { return m_EntrySet; }
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final String get( final Object key )
+            {
+                final var index = key instanceof final String name ? indexOf( m_AttributeNames, m_AttributeCount, name ) : -1;
+                return index < 0 ? null : m_AttributeValues [index];
+            }   //  get()
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final int size() { return m_AttributeCount; }
+        };
+
+        /**
+         *  The view on the children.
+         */
+        final List<Element> m_ChildrenView = new AbstractList<>()
+        {
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final Element get( final int index )
+            {
+                if( (index < 0) || (index >= m_ChildCount) ) throw new IndexOutOfBoundsException( index );
+                return m_Children [index];
+            }   //  get()
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final int size() { return m_ChildCount; }
+        };
+
+        /**
+         *  The view on the namespaces.
+         */
+        final List<Namespace> m_NamespacesView = new AbstractList<>()
+        {
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final Namespace get( final int index )
+            {
+                if( (index < 0) || (index >= m_NamespaceCount) ) throw new IndexOutOfBoundsException( index );
+                return m_Namespaces [index];
+            }   //  get()
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final int size() { return m_NamespaceCount; }
+        };
+    }
+    //  class Views
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The initial capacity for the arrays: {@value}.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The number of attributes.
+     */
+    private int m_AttributeCount = 0;
+
+    /**
+     *  The names of the attributes, in their natural order; {@code null}
+     *  until the first attribute is set.
+     */
+    private String [] m_AttributeNames = null;
+
+    /**
+     *  The values of the attributes; {@code null} until the first attribute
+     *  is set.
+     */
+    private String [] m_AttributeValues = null;
+
+    /**
+     *  The number of children.
+     */
+    private int m_ChildCount = 0;
+
+    /**
+     *  The children; {@code null} until the first child is added.
+     */
+    private Element [] m_Children = null;
+
+    /**
+     *  The element name.
+     */
+    private final QName m_ElementName;
+
+    /**
+     *  The number of namespaces.
+     */
+    private int m_NamespaceCount = 0;
+
+    /**
+     *  The namespaces, in their natural order; {@code null} until the first
+     *  namespace is set.
+     */
+    private Namespace [] m_Namespaces = null;
+
+    /**
+     *  The parent element.
+     */
+    private Element m_Parent = null;
+
+    /**
+     *  The views on the attributes, the children and the namespaces;
+     *  {@code null} until one of them is requested for the first time.
+     */
+    private Views m_Views = null;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  <p>{@summary Creates a new {@code CompactXMLElement} instance.}</p>
+     *  <p>The given element name is validated using the method that is
+     *  provided by
+     *  {@link XMLBuilderUtils#getElementNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
+     *
+     *  @param  elementName The element name.
+     */
+    public CompactXMLElement( final String elementName )
+    {
+        m_ElementName = SymbolTable.elementName( requireNotEmptyArgument( elementName, "elementName" ) );
+    }   //  CompactXMLElement()
+
+    /**
+     *  Creates a new {@code CompactXMLElement} instance as a deep copy of the
+     *  given element, without validating the element name again. The new
+     *  element does not have a parent.
+     *
+     *  @param  prototype   The element to copy.
+     *
+     *  @see #copy()
+     */
+    private CompactXMLElement( final CompactXMLElement prototype )
+    {
+        m_ElementName = prototype.m_ElementName;
+        if( prototype.m_AttributeCount > 0 )
+        {
+            m_AttributeNames = copyOf( prototype.m_AttributeNames, prototype.m_AttributeCount );
+            m_AttributeValues = copyOf( prototype.m_AttributeValues, prototype.m_AttributeCount );
+            m_AttributeCount = prototype.m_AttributeCount;
+        }
+        if( prototype.m_NamespaceCount > 0 )
+        {
+            m_Namespaces = copyOf( prototype.m_Namespaces, prototype.m_NamespaceCount );
+            m_NamespaceCount = prototype.m_NamespaceCount;
+        }
+        if( prototype.m_ChildCount > 0 )
+        {
+            m_Children = new Element [prototype.m_ChildCount];
+            for( var i = 0; i < prototype.m_ChildCount; ++i )
+            {
+                final var child = copyChild( prototype.m_Children [i] );
+                child.setParent( this );
+                m_Children [i] = child;
+            }
+            m_ChildCount = prototype.m_ChildCount;
+        }
+    }   //  CompactXMLElement()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement addCDATA( final CharSequence text )
+    {
+        appendChild( new Text( requireNonNullArgument( text, "text" ), Text.CDATA ) );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addCDATA()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final <E extends XMLElement> XMLElement addChild( final E child ) throws IllegalStateException
+    {
+        final Optional<? extends Element> parent = requireNonNullArgument( child, "child" ).getParent();
+        if( parent.isPresent() )
+        {
+            if( parent.get() != this ) throw new IllegalStateException( "The child has already a parent" );
+            throw new IllegalStateException( "The child was already added to this parent" );
+        }
+        appendChild( child );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addChild()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement addComment( final CharSequence comment )
+    {
+        if( isNotEmptyOrBlank( comment ) ) appendChild( new Comment( comment ) );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addComment()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement addPredefinedMarkup( final CharSequence markup )
+    {
+        appendChild( new Text( requireNonNullArgument( markup, "markup" ), Text.VERBATIM, true ) );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addPredefinedMarkup()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement addText( final CharSequence text )
+    {
+        if( isNotEmpty( requireNonNullArgument( text, "text" ) ) ) appendChild( new Text( text, Text.ESCAPE_XML ) );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addText()
+
+    /**
+     *  Appends the given child to the list of children and sets this element
+     *  as its parent.
+     *
+     *  @param  child   The child.
+     */
+    private final void appendChild( final Element child )
+    {
+        if( isNull( m_Children ) )
+        {
+            m_Children = new Element [INITIAL_CAPACITY];
+        }
+        else if( m_ChildCount == m_Children.length )
+        {
+            m_Children = copyOf( m_Children, m_ChildCount << 1 );
+        }
+        m_Children [m_ChildCount++] = child;
+        child.setParent( this );
+        invalidateFragments();
+    }   //  appendChild()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent() { m_Parent = null; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement copy() { return new CompactXMLElement( this ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement freeze() { return new FrozenXMLElement( this ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Optional<String> getAttribute( final String name )
+    {
+        final var index = indexOf( m_AttributeNames, m_AttributeCount, requireNotEmptyArgument( name, "name" ) );
+        final var retValue = Optional.ofNullable( index < 0 ? null : m_AttributeValues [index] );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  getAttribute()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The returned map is a read-only view on the attributes of this
+     *  element, in their natural order.</p>
+     */
+    @Override
+    public final Map<String,String> getAttributes() { return views().m_AttributesView; }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The returned list is a read-only view on the children of this
+     *  element.</p>
+     */
+    @Override
+    public final Collection<? extends Element> getChildren() { return views().m_ChildrenView; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String getElementName() { return m_ElementName.getName(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Set<Flags> getFlags() { return EnumSet.of( ALLOWS_CHILDREN, ALLOWS_TEXT ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The returned list is a read-only view on the namespaces of this
+     *  element.</p>
+     */
+    @Override
+    public final Collection<Namespace> getNamespaces() { return views().m_NamespacesView; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Optional<Element> getParent() { return Optional.ofNullable( m_Parent ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean hasChildren() { return m_ChildCount > 0; }
+
+    /**
+     *  Drops the cached fragments of the nearest ancestor that is an
+     *  instance of
+     *  {@link XMLElementImpl},
+     *  and of all the ancestors of that.
+     */
+    private final void invalidateFragments()
+    {
+        var current = m_Parent;
+        while( current instanceof final CompactXMLElement element ) current = element.m_Parent;
+        if( current instanceof final XMLElementImpl element ) element.invalidateFragments( false );
+    }   //  invalidateFragments()
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return Always {@code false}.
+     */
+    @Override
+    public final boolean isFragmentCachingEnabled() { return false; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean removeChild( final Element child )
+    {
+        requireNonNullArgument( child, "child" );
+        var index = -1;
+        for( var i = 0; (index < 0) && (i < m_ChildCount); ++i )
+        {
+            if( m_Children [i] == child ) index = i;
+        }
+        final var retValue = index >= 0;
+        if( retValue )
+        {
+            final var moved = m_ChildCount - index - 1;
+            if( moved > 0 ) System.arraycopy( m_Children, index + 1, m_Children, index, moved );
+            m_Children [--m_ChildCount] = null;
+            invalidateFragments();
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  removeChild()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void removeChildren( final int count ) throws IllegalArgumentException
+    {
+        if( count < 0 ) throw new IllegalArgumentException( "count is negative: %1$d".formatted( count ) );
+        final var removed = Math.min( count, m_ChildCount );
+        if( removed > 0 )
+        {
+            final var remaining = m_ChildCount - removed;
+            System.arraycopy( m_Children, removed, m_Children, 0, remaining );
+            fill( m_Children, remaining, m_ChildCount, null );
+            m_ChildCount = remaining;
+            invalidateFragments();
+        }
+    }   //  removeChildren()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement reset()
+    {
+        clearEntries( m_AttributeNames, m_AttributeValues, m_AttributeCount );
+        m_AttributeCount = 0;
+        if( nonNull( m_Children ) )
+        {
+            for( var i = 0; i < m_ChildCount; ++i ) m_Children [i].clearParent();
+            fill( m_Children, 0, m_ChildCount, null );
+        }
+        m_ChildCount = 0;
+        if( nonNull( m_Namespaces ) ) fill( m_Namespaces, 0, m_NamespaceCount, null );
+        m_NamespaceCount = 0;
+        invalidateFragments();
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  reset()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The given attribute name is validated using the method that is
+     *  provided by
+     *  {@link XMLBuilderUtils#getAttributeNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
+     */
+    @Override
+    public final XMLElement setAttribute( final String name, final CharSequence value, final Optional<? extends CharSequence> append ) throws IllegalArgumentException
+    {
+        requireNonNullArgument( append, "append" );
+        SymbolTable.attributeName( requireNotEmptyArgument( name, "name" ) );
+
+        final var index = indexOf( m_AttributeNames, m_AttributeCount, name );
+        if( isNull( value ) )
+        {
+            //---* Remove the value *------------------------------------------
+            if( index >= 0 )
+            {
+                removeEntry( m_AttributeNames, m_AttributeValues, m_AttributeCount, index );
+                --m_AttributeCount;
+            }
+        }
+        else if( index >= 0 )
+        {
+            //---* Replace or append the value *-------------------------------
+            final var oldValue = m_AttributeValues [index];
+            m_AttributeValues [index] = append.isPresent() && isNotEmptyOrBlank( oldValue )
+                ? oldValue + append.get() + value
+                : value.toString();
+        }
+        else
+        {
+            //---* Insert the new attribute at its position *------------------
+            m_AttributeNames = ensureCapacity( m_AttributeNames, m_AttributeCount, INITIAL_CAPACITY );
+            m_AttributeValues = ensureCapacity( m_AttributeValues, m_AttributeCount, INITIAL_CAPACITY );
+            insertEntry( m_AttributeNames, m_AttributeValues, m_AttributeCount, name, value.toString(), naturalOrder() );
+            ++m_AttributeCount;
+        }
+        invalidateFragments();
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setAttribute()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Fragment caching is not supported by this implementation, so
+     *  nothing happens.</p>
+     */
+    @Override
+    public final XMLElement setFragmentCaching( final boolean flag ) { return this; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    @Override
+    public final XMLElement setNamespace( final Namespace namespace ) throws IllegalArgumentException
+    {
+        requireNonNullArgument( namespace, "namespace" );
+
+        var isKnown = false;
+        for( var i = 0; !isKnown && (i < m_NamespaceCount); ++i ) isKnown = m_Namespaces [i].equals( namespace );
+        if( !isKnown )
+        {
+            if( isNull( m_Namespaces ) )
+            {
+                m_Namespaces = new Namespace [INITIAL_CAPACITY];
+            }
+            else if( m_NamespaceCount == m_Namespaces.length )
+            {
+                m_Namespaces = copyOf( m_Namespaces, m_NamespaceCount << 1 );
+            }
+            var position = m_NamespaceCount;
+            while( (position > 0) && (namespace.compareTo( m_Namespaces [position - 1] ) < 0) ) --position;
+            if( position < m_NamespaceCount ) System.arraycopy( m_Namespaces, position, m_Namespaces, position + 1, m_NamespaceCount - position );
+            m_Namespaces [position] = namespace;
+            ++m_NamespaceCount;
+            invalidateFragments();
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setNamespace()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final <E extends Element> void setParent( final E parent ) { m_Parent = requireNonNullArgument( parent, "parent" ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString() { return toString( 0, true ); }
+
+    /**
+     *  Returns the views on the attributes, the children and the namespaces
+     *  of this element; they are created on the first call.
+     *
+     *  @return The views.
+     */
+    private final Views views()
+    {
+        if( isNull( m_Views ) ) m_Views = new Views();
+
+        //---* Done *----------------------------------------------------------
+        return m_Views;
+    }   //  views()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeCompact( final Appendable appendable ) throws IOException
+    {
+        SGMLPrinter.writeCompact( appendable, this, true );
+    }   //  writeCompact()
+}
+//  class CompactXMLElement
+
+/*
+ *  End of File
+ */
@@ -21,23 +21,28 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.apiguardian.api.API.Status.INTERNAL;
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmpty;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.repeat;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
 import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.DOMBuilder;
 import org.tquadrat.foundation.xml.builder.spi.Element;
 import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.StAXBridge;
 
 /**
  *  The definition for the XML DocType element.
@@ -121,6 +126,12 @@ public class DocType implements Element
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent() { m_Parent = null; }
+
     /**
      *  {@inheritDoc}
      */
@@ -184,32 +195,58 @@ public class DocType implements Element
     @Override
     public final <E extends Element> void setParent( final E parent ) { m_Parent = requireNonNullArgument( parent, "parent" ); }
 
+    /**
+     *  {@inheritDoc}
+     *  <p>The document type declaration is not part of the canonical form,
+     *  so nothing is written.</p>
+     */
+    @Override
+    public final void writeCanonical( final CanonicalXMLWriter writer ) { requireNonNullArgument( writer, "writer" ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeDOM( final DOMBuilder builder )
+    {
+        requireNonNullArgument( builder, "builder" ).writeDocType( m_ElementName, m_DTDName, m_URI.toString() );
+    }   //  writeDOM()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeStAX( final StAXBridge bridge ) throws XMLStreamException
+    {
+        requireNonNullArgument( bridge, "bridge" ).writeDocType( this );
+    }   //  writeStAX()
+
     /**
      *  {@inheritDoc}
      *
+     *  @param  appendable  The target for the output.
      *  @param  indentationLevel    Ignored, should be always 0.
      *  @param  prettyPrint Ignored.
      */
     @Override
-    public final String toString( final int indentationLevel, final boolean prettyPrint )
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
     {
+        requireNonNullArgument( appendable, "appendable" );
+
         //---* Calculate the indentation *-------------------------------------
-        final var filler = prettyPrint ? "\n" + repeat( indentationLevel ) : EMPTY_STRING;
+        writeFiller( appendable, indentationLevel, prettyPrint, 0 );
 
-        final var retValue = new StringBuilder( filler ).append( "<!DOCTYPE " ).append( m_ElementName );
+        appendable.append( "<!DOCTYPE " ).append( m_ElementName );
         if( isPublic() )
         {
-            retValue.append( " PUBLIC \"" ).append( m_DTDName ).append( "\" \"" ).append( m_URI.toString() );
+            appendable.append( " PUBLIC \"" ).append( m_DTDName ).append( "\" \"" ).append( m_URI.toString() );
         }
         else
         {
-            retValue.append( " SYSTEM \"" ).append( m_URI.toString() );
+            appendable.append( " SYSTEM \"" ).append( m_URI.toString() );
         }
-        retValue.append( "\"" ).append( ">" );
-
-        //---* Done *----------------------------------------------------------
-        return retValue.toString();
-    }   //  toString()
+        appendable.append( "\">" );
+    }   //  writeTo()
 
     /**
      *  {@inheritDoc}
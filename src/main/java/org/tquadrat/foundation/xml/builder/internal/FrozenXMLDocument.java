@@ -0,0 +1,449 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeDocument;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.ProcessingInstruction;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.DOMBuilder;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.Printer;
+import org.tquadrat.foundation.xml.builder.spi.StAXBridge;
+
+/**
+ *  <p>{@summary An immutable snapshot of an
+ *  {@link XMLDocument},
+ *  as it is returned by
+ *  {@link XMLDocument#freeze()}.}</p>
+ *  <p>The root element is a
+ *  {@link FrozenXMLElement};
+ *  the processing instructions, the doc type and the comments of the
+ *  document itself are copied and can only be read. All methods that would
+ *  modify the document throw an
+ *  {@link IllegalOperationException}.
+ *  The compact and the pretty printed output of the document are rendered
+ *  once and then reused. Instances of this class can be shared between
+ *  threads without synchronisation.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class FrozenXMLDocument implements XMLDocument
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  A read-only wrapper for a child of the document itself, like a
+     *  processing instruction or a comment.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class FrozenChild implements Element
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The wrapped child.
+         */
+        private final Element m_Child;
+
+        /**
+         *  The parent; this is the root element of the snapshot.
+         */
+        private final Element m_Parent;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code FrozenChild} instance.
+         *
+         *  @param  child   The wrapped child; it must not be visible outside
+         *      of the snapshot.
+         *  @param  parent  The parent.
+         */
+        public FrozenChild( final Element child, final Element parent )
+        {
+            m_Child = child;
+            m_Parent = parent;
+        }   //  FrozenChild()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Optional<String> getAttribute( final String name ) { return m_Child.getAttribute( name ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Map<String,String> getAttributes() { return m_Child.getAttributes(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Collection<? extends Element> getChildren() { return m_Child.getChildren(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String getElementName() { return m_Child.getElementName(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Collection<Namespace> getNamespaces() { return m_Child.getNamespaces(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Optional<Element> getParent() { return Optional.of( m_Parent ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final boolean hasChildren() { return m_Child.hasChildren(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final boolean isBlock() { return m_Child.isBlock(); }
+
+        /**
+         *  {@inheritDoc}
+         *  <p>The parent of a child of a snapshot is fixed, so this method
+         *  does nothing.</p>
+         */
+        @Override
+        public final <E extends Element> void setParent( final E parent ) { requireNonNullArgument( parent, "parent" ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString() { return m_Child.toString(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeCanonical( final CanonicalXMLWriter writer ) throws IOException { m_Child.writeCanonical( writer ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeCompact( final Appendable appendable ) throws IOException { m_Child.writeCompact( appendable ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeDOM( final DOMBuilder builder ) { m_Child.writeDOM( builder ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeStAX( final StAXBridge bridge ) throws XMLStreamException { m_Child.writeStAX( bridge ); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+        {
+            m_Child.writeTo( appendable, indentationLevel, prettyPrint );
+        }   //  writeTo()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeTo( final Appendable appendable, final int indentationLevel, final Printer printer ) throws IOException
+        {
+            m_Child.writeTo( appendable, indentationLevel, printer );
+        }   //  writeTo()
+    }
+    //  class FrozenChild
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The message indicating that the document cannot be modified: {@value}.
+     */
+    private static final String MSG_Frozen = "Document '%1$s' is frozen";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The children of the document: the children of the document itself,
+     *  followed by the root element.
+     */
+    private final List<Element> m_Children;
+
+    /**
+     *  The compact output; {@code null} until it was rendered for the first
+     *  time.
+     */
+    private volatile String m_Compact = null;
+
+    /**
+     *  The encoding for this document.
+     */
+    private final Charset m_Encoding;
+
+    /**
+     *  The pretty printed output; {@code null} until it was rendered for the
+     *  first time.
+     */
+    private volatile String m_Pretty = null;
+
+    /**
+     *  The printer for this document.
+     */
+    private final Printer m_Printer;
+
+    /**
+     *  The root element for this document.
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    private final FrozenXMLElement m_RootElement;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code FrozenXMLDocument} instance from the given
+     *  document.
+     *
+     *  @param  source  The document.
+     */
+    public FrozenXMLDocument( final XMLDocument source )
+    {
+        m_Encoding = requireNonNullArgument( source, "source" ).getEncoding();
+        m_Printer = source.getPrinter();
+
+        final var sourceRoot = source.getRootElement();
+        m_RootElement = new FrozenXMLElement( sourceRoot );
+
+        final var sourceChildren = source.getChildren();
+        final var children = new Element [sourceChildren.size()];
+        var index = 0;
+        for( final var child : sourceChildren )
+        {
+            final Element copy;
+            if( child == sourceRoot )
+            {
+                copy = m_RootElement;
+            }
+            else
+            {
+                final Element wrapped;
+                if( child instanceof final ProcessingInstructionImpl processingInstruction )
+                {
+                    wrapped = new ProcessingInstructionImpl( processingInstruction );
+                }
+                else if( child instanceof final Comment comment )
+                {
+                    wrapped = new Comment( comment );
+                }
+                else
+                {
+                    //---* The doc type cannot be modified *------------------
+                    wrapped = child;
+                }
+                copy = new FrozenChild( wrapped, m_RootElement );
+            }
+            children [index++] = copy;
+        }
+        m_Children = List.of( children );
+    }   //  FrozenXMLDocument()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLDocument addDocumentComment( final CharSequence comment ) throws IllegalOperationException { throw frozen( "addDocumentComment()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLDocument addProcessingInstruction( final ProcessingInstruction processingInstruction ) throws IllegalOperationException { throw frozen( "addProcessingInstruction()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>As a snapshot is immutable, this method returns the instance
+     *  itself.</p>
+     */
+    @Override
+    public final XMLDocument freeze() { return this; }
+
+    /**
+     *  Creates the exception that is thrown by all methods that would modify
+     *  the document.
+     *
+     *  @param  operationName   The name of the attempted operation.
+     *  @return The exception.
+     */
+    private final IllegalOperationException frozen( final String operationName )
+    {
+        return new IllegalOperationException( operationName, MSG_Frozen.formatted( getElementName() ) );
+    }   //  frozen()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Collection<? extends Element> getChildren() { return m_Children; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Charset getEncoding() { return m_Encoding; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Printer getPrinter() { return m_Printer; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement getRootElement() { return m_RootElement; }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLDocument reset() throws IllegalOperationException { throw frozen( "reset()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLDocument setPrinter( final Printer printer ) throws IllegalOperationException { throw frozen( "setPrinter()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The String representation is created by the
+     *  {@linkplain #getPrinter() printer of this document}.</p>
+     */
+    @Override
+    public final String toString() { return toString( m_Printer ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeCompact( final Appendable appendable ) throws IOException
+    {
+        writeTo( appendable, false );
+    }   //  writeCompact()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The output is rendered only once for the compact and once for the
+     *  pretty printed form.</p>
+     */
+    @Override
+    public final void writeTo( final Appendable appendable, final boolean prettyPrint ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        var text = prettyPrint ? m_Pretty : m_Compact;
+        if( isNull( text ) )
+        {
+            final var buffer = new StringBuilder();
+            writeDocument( buffer, prettyPrint, this );
+            text = buffer.toString();
+            if( prettyPrint )
+            {
+                m_Pretty = text;
+            }
+            else
+            {
+                m_Compact = text;
+            }
+        }
+        appendable.append( text );
+    }   //  writeTo()
+}
+//  class FrozenXMLDocument
+
+/*
+ *  End of File
+ */
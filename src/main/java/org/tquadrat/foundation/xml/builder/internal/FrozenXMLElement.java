@@ -0,0 +1,468 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.xml.builder.spi.ChildSupport.copyChild;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeElement;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.AttributeStore;
+import org.tquadrat.foundation.xml.builder.spi.AttributeSupport;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.QName;
+import org.tquadrat.foundation.xml.builder.spi.SymbolTable;
+
+/**
+ *  <p>{@summary An immutable snapshot of an
+ *  {@link XMLElement}
+ *  and all its descendants, as it is returned by
+ *  {@link XMLElement#freeze()}.}</p>
+ *  <p>The attributes are kept in the sequence in which they are written,
+ *  the namespaces and the children in immutable lists; all methods that
+ *  would modify the element throw an
+ *  {@link IllegalOperationException}.
+ *  The compact output of the snapshot is rendered once and then reused;
+ *  the pretty printed output is rendered once for each indentation level
+ *  that was requested.</p>
+ *  <p>{@link #copy()}
+ *  returns a mutable deep copy of the snapshot.</p>
+ *  <p>A snapshot does not record the element it is added to as its parent,
+ *  so it can be added to any number of trees at the same time; inside the
+ *  snapshot, the parents are fixed. Instances of this class can be shared
+ *  between threads without synchronisation.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class FrozenXMLElement implements XMLElement
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The message indicating that the element cannot be modified: {@value}.
+     */
+    private static final String MSG_Frozen = "Element '%1$s' is frozen";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The attributes, in the sequence in which they are written.
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    private final AttributeStore m_Attributes;
+
+    /**
+     *  The children.
+     */
+    private final List<Element> m_Children;
+
+    /**
+     *  The compact output; {@code null} until it was rendered for the first
+     *  time.
+     */
+    private volatile String m_Compact = null;
+
+    /**
+     *  The element name.
+     */
+    private final QName m_ElementName;
+
+    /**
+     *  The block flag.
+     */
+    private final boolean m_IsBlock;
+
+    /**
+     *  The namespaces, in the sequence in which they are written.
+     */
+    private final List<Namespace> m_Namespaces;
+
+    /**
+     *  The parent element inside the snapshot; {@code null} for the root of
+     *  the snapshot.
+     */
+    private final Element m_Parent;
+
+    /**
+     *  The pretty printed output, with the indentation level as the key.
+     */
+    private final Map<Integer,String> m_Pretty = new ConcurrentHashMap<>();
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code FrozenXMLElement} instance from the given
+     *  element.
+     *
+     *  @param  source  The element.
+     */
+    public FrozenXMLElement( final XMLElement source )
+    {
+        this( requireNonNullArgument( source, "source" ), null );
+    }   //  FrozenXMLElement()
+
+    /**
+     *  Creates a new {@code FrozenXMLElement} instance from the given
+     *  element, as a child of the given parent.
+     *
+     *  @param  source  The element.
+     *  @param  parent  The parent; can be {@code null}.
+     */
+    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
+    private FrozenXMLElement( final XMLElement source, final Element parent )
+    {
+        m_ElementName = SymbolTable.elementName( source.getElementName() );
+        m_Parent = parent;
+        m_IsBlock = source.isBlock();
+
+        m_Attributes = new AttributeStore( AttributeSupport.INSERTION_ORDER );
+        for( final var entry : source.getAttributes().entrySet() )
+        {
+            m_Attributes.put( entry.getKey(), entry.getValue() );
+        }
+        m_Namespaces = List.copyOf( source.getNamespaces() );
+
+        final var sourceChildren = source.getChildren();
+        final var children = new Element [sourceChildren.size()];
+        var index = 0;
+        for( final var child : sourceChildren )
+        {
+            final Element copy;
+            if( child instanceof final XMLElement element )
+            {
+                copy = new FrozenXMLElement( element, this );
+            }
+            else
+            {
+                copy = copyChild( child );
+                copy.setParent( this );
+            }
+            children [index++] = copy;
+        }
+        m_Children = List.of( children );
+    }   //  FrozenXMLElement()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement addCDATA( final CharSequence text ) throws IllegalOperationException { throw frozen( "addCDATA()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final <E extends XMLElement> XMLElement addChild( final E child ) throws IllegalOperationException { throw frozen( "addChild()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement addComment( final CharSequence comment ) throws IllegalOperationException { throw frozen( "addComment()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement addPredefinedMarkup( final CharSequence markup ) throws IllegalOperationException { throw frozen( "addPredefinedMarkup()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement addText( final CharSequence text ) throws IllegalOperationException { throw frozen( "addText()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The copy is an instance of
+     *  {@link XMLElementImpl}
+     *  that can be modified; it allows attributes, children and text without
+     *  validating them, and it is always a block element. The nested
+     *  elements are copied in the same way.</p>
+     */
+    @Override
+    public final XMLElement copy()
+    {
+        final var retValue = new XMLElementImpl( m_ElementName );
+        for( final var namespace : m_Namespaces ) retValue.setNamespace( namespace );
+        for( final var entry : m_Attributes.view().entrySet() ) retValue.setAttribute( entry.getKey(), entry.getValue() );
+        for( final var child : m_Children ) retValue.addCopiedChild( copyChild( child ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  copy()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>As a snapshot is immutable, this method returns the instance
+     *  itself.</p>
+     */
+    @Override
+    public final XMLElement freeze() { return this; }
+
+    /**
+     *  Creates the exception that is thrown by all methods that would modify
+     *  the element.
+     *
+     *  @param  operationName   The name of the attempted operation.
+     *  @return The exception.
+     */
+    private final IllegalOperationException frozen( final String operationName )
+    {
+        return new IllegalOperationException( operationName, MSG_Frozen.formatted( getElementName() ) );
+    }   //  frozen()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Optional<String> getAttribute( final String name ) { return Optional.ofNullable( m_Attributes.get( name ) ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The returned map is a read-only view on the attributes.</p>
+     */
+    @Override
+    public final Map<String,String> getAttributes() { return m_Attributes.view(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Collection<? extends Element> getChildren() { return m_Children; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String getElementName() { return m_ElementName.getName(); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return Always an empty set, as nothing can be added to a snapshot.
+     */
+    @Override
+    public final Set<Flags> getFlags() { return EnumSet.noneOf( Flags.class ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Collection<Namespace> getNamespaces() { return m_Namespaces; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Optional<Element> getParent() { return Optional.ofNullable( m_Parent ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean hasChildren() { return !m_Children.isEmpty(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isBlock() { return m_IsBlock; }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return Always {@code true}; the output of the root of a snapshot is
+     *      always kept.
+     */
+    @Override
+    public final boolean isFragmentCachingEnabled() { return true; }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final boolean removeChild( final Element child ) throws IllegalOperationException { throw frozen( "removeChild()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final void removeChildren( final int count ) throws IllegalOperationException { throw frozen( "removeChildren()" ); }
+
+    /**
+     *  Renders this element.
+     *
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @return The rendered element.
+     */
+    private final String render( final int indentationLevel, final boolean prettyPrint )
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            writeElement( buffer, indentationLevel, prettyPrint, this, true );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  render()
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement reset() throws IllegalOperationException { throw frozen( "reset()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @Override
+    public final XMLElement setAttribute( final String name, final CharSequence value, final Optional<? extends CharSequence> append ) throws IllegalOperationException { throw frozen( "setAttribute()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The output of a snapshot is always kept, so the given flag will be
+     *  ignored.</p>
+     */
+    @Override
+    public final XMLElement setFragmentCaching( final boolean flag ) { return this; }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @throws IllegalOperationException   Always.
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    @Override
+    public final XMLElement setNamespace( final Namespace namespace ) throws IllegalOperationException { throw frozen( "setNamespace()" ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>A snapshot does not record the element that it was added to, so
+     *  this method does nothing.</p>
+     */
+    @Override
+    public final <E extends Element> void setParent( final E parent ) { requireNonNullArgument( parent, "parent" ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString() { return toString( 0, true ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeCompact( final Appendable appendable ) throws IOException
+    {
+        writeTo( appendable, 0, false );
+    }   //  writeCompact()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>For the root of a snapshot, the output is rendered only once for
+     *  the compact form, and once for each indentation level for the pretty
+     *  printed form; the elements inside a snapshot are rendered as part of
+     *  their root.</p>
+     */
+    @Override
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        if( isNull( m_Parent ) )
+        {
+            if( prettyPrint )
+            {
+                appendable.append( m_Pretty.computeIfAbsent( Integer.valueOf( indentationLevel ), level -> render( level.intValue(), true ) ) );
+            }
+            else
+            {
+                var text = m_Compact;
+                if( isNull( text ) )
+                {
+                    text = render( 0, false );
+                    m_Compact = text;
+                }
+                appendable.append( text );
+            }
+        }
+        else
+        {
+            writeElement( appendable, indentationLevel, prettyPrint, this, true );
+        }
+    }   //  writeTo()
+}
+//  class FrozenXMLElement
+
+/*
+ *  End of File
+ */
@@ -21,18 +21,20 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.tquadrat.foundation.lang.CommonConstants.CR;
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmpty;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.repeat;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeIndentation;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
-import java.util.StringJoiner;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
@@ -40,8 +42,11 @@ import org.tquadrat.foundation.util.LazyList;
 import org.tquadrat.foundation.xml.builder.Namespace;
 import org.tquadrat.foundation.xml.builder.ProcessingInstruction;
 import org.tquadrat.foundation.xml.builder.spi.AttributeSupport;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.DOMBuilder;
 import org.tquadrat.foundation.xml.builder.spi.Element;
 import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.StAXBridge;
 
 /**
  *  The implementation for the interface
@@ -126,6 +131,24 @@ public final class ProcessingInstructionImpl implements ProcessingInstruction
         m_Attributes = new AttributeSupport( this, false );
     }   //  ProcessingInstruction()
 
+    /**
+     *  Creates a new {@code ProcessingInstruction} instance as a copy of the
+     *  given one; the copy does not have a parent.
+     *
+     *  @param  prototype   The processing instruction to copy.
+     *
+     *  @since 0.26.0
+     */
+    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    public ProcessingInstructionImpl( final ProcessingInstructionImpl prototype )
+    {
+        m_ElementName = requireNonNullArgument( prototype, "prototype" ).m_ElementName;
+        if( prototype.m_Data.isPresent() ) m_Data.addAll( prototype.m_Data );
+
+        m_Attributes = new AttributeSupport( this, prototype.m_Attributes );
+    }   //  ProcessingInstruction()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
@@ -141,6 +164,12 @@ public final class ProcessingInstructionImpl implements ProcessingInstruction
         return this;
     }   //  addData()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent() { m_Parent = null; }
+
     /**
      *  {@inheritDoc}
      */
@@ -212,48 +241,80 @@ public final class ProcessingInstructionImpl implements ProcessingInstruction
 
     /**
      *  {@inheritDoc}
+     *  <p>The XML header is not part of the canonical form, so nothing is
+     *  written for it.</p>
      */
     @Override
-    public final String toString( final int indentationLevel, final boolean prettyPrint )
+    public final void writeCanonical( final CanonicalXMLWriter writer ) throws IOException
     {
-        final var text = new StringBuilder( 256 );
+        requireNonNullArgument( writer, "writer" );
+        if( !m_ElementName.equals( "xml" ) ) writer.writeProcessingInstruction( this );
+    }   //  writeCanonical()
 
-        //---* Determine the filler *------------------------------------------
-        final var filler = prettyPrint ? "\n" + repeat( indentationLevel, m_ElementName.length() + 2 ) : EMPTY_STRING;
+    /**
+     *  {@inheritDoc}
+     *  <p>The XML header determines the version and the standalone flag of
+     *  the target document.</p>
+     */
+    @Override
+    public final void writeDOM( final DOMBuilder builder )
+    {
+        requireNonNullArgument( builder, "builder" ).writeProcessingInstruction( this );
+    }   //  writeDOM()
 
-        //---* Add the data *--------------------------------------------------
+    /**
+     *  {@inheritDoc}
+     *  <p>The XML header becomes the start of the document.</p>
+     */
+    @Override
+    public final void writeStAX( final StAXBridge bridge ) throws XMLStreamException
+    {
+        requireNonNullArgument( bridge, "bridge" ).writeProcessingInstruction( this );
+    }   //  writeStAX()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+
+        //---* Determine the width of the filler *-----------------------------
+        final var fillerWidth = m_ElementName.length() + 2;
+
+        //---* Write the indentation and the name *----------------------------
+        if( prettyPrint ) writeIndentation( appendable, indentationLevel, 0 );
+        appendable.append( "<?" ).append( m_ElementName );
+
+        //---* Write the data *------------------------------------------------
+        var isEmpty = true;
         if( m_Data.isPresent() )
         {
-            final var joiner = new StringJoiner( filler + " ", " ", EMPTY_STRING );
-            for( final var data : m_Data ) joiner.add( data );
-            text.append( joiner );
+            for( final var data : m_Data )
+            {
+                if( !isEmpty ) writeFiller( appendable, indentationLevel, prettyPrint, fillerWidth );
+                appendable.append( ' ' ).append( data );
+                isEmpty = false;
+            }
         }
 
-        //---* Add the attributes *--------------------------------------------
-        getAttributes().forEach( (key,value) ->
+        //---* Write the attributes *------------------------------------------
+        for( final var entry : getAttributes().entrySet() )
         {
-            if( !text.isEmpty() ) text.append( filler );
-            text.append( ' ' )
-                .append( key )
-                .append( "='")
-                .append( value )
+            if( !isEmpty ) writeFiller( appendable, indentationLevel, prettyPrint, fillerWidth );
+            appendable.append( ' ' )
+                .append( entry.getKey() )
+                .append( "='" )
+                .append( entry.getValue() )
                 .append( '\'' );
-        } );
-
-        //---* Calculate the indentation *-------------------------------------
-        final var indentation = prettyPrint && (indentationLevel > 0) ? repeat( indentationLevel ) : EMPTY_STRING;
-        final var newLine = prettyPrint ? CR : EMPTY_STRING;
-
-        //---* Render the element *--------------------------------------------
-//        final var retValue = STR."""
-//            \{indentation}<?\{m_ElementName}\{text}?>\{newLine}\
-//            """;
-
-        final var retValue = "%3$s<?%1$s%2$s?>%4$s".formatted( m_ElementName, text, indentation, newLine );
+            isEmpty = false;
+        }
 
-        //---* Done *----------------------------------------------------------
-        return retValue;
-    }   //  toString()
+        //---* Close the element *---------------------------------------------
+        appendable.append( "?>" );
+        if( prettyPrint ) appendable.append( CR );
+    }   //  writeTo()
 
     /**
      *  {@inheritDoc}
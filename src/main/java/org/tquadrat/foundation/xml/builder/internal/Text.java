@@ -17,18 +17,27 @@
 
 package org.tquadrat.foundation.xml.builder.internal;
 
-import static java.lang.String.format;
 import static org.apiguardian.api.API.Status.INTERNAL;
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.lang.CommonConstants.CDATA_LEADIN;
+import static org.tquadrat.foundation.lang.CommonConstants.CDATA_LEADOUT;
+import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.repeat;
+import static org.tquadrat.foundation.util.StringUtils.isEmpty;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
 
+import java.io.IOException;
 import java.util.Optional;
 import java.util.function.Function;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLBuilderUtils;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.DOMBuilder;
 import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.StAXBridge;
 
 /**
  *  This class defines the plain text that is the content of an SGML element as
@@ -45,6 +54,39 @@ import org.tquadrat.foundation.xml.builder.spi.Element;
 @API( status = INTERNAL, since = "0.0.5" )
 public class Text implements Element
 {
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The maximum length of a text, in characters, for that the escaped form
+     *  will be cached: {@value}. The escaped form of a longer text is
+     *  calculated again for each rendering, except it is the same as the
+     *  text itself.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final int ESCAPE_CACHE_THRESHOLD = 16_384;
+
+    /**
+     *  The escape function that converts text into {@code CDATA} sections.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final Function<CharSequence,String> CDATA = Text::toCDATA;
+
+    /**
+     *  The escape function for regular XML text.
+     *
+     *  @see XMLBuilderUtils#escapeXML(CharSequence)
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final Function<CharSequence,String> ESCAPE_XML = XMLBuilderUtils::escapeXML;
+
+    /**
+     *  The escape function that leaves the text as it is; it is used for
+     *  predefined markup.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final Function<CharSequence,String> VERBATIM = CharSequence::toString;
+
         /*------------*\
     ====** Attributes **=======================================================
         \*------------*/
@@ -53,6 +95,21 @@ public class Text implements Element
      */
     private final Function<? super CharSequence, String> m_EscapeFunction;
 
+    /**
+     *  <p>{@summary The escaped form of the text; {@code null} until it was
+     *  calculated for the first time, and also for long texts that are
+     *  changed by escaping.}</p>
+     *  <p>If escaping does not change the text, this field refers to
+     *  {@link #m_Text}
+     *  itself, so that no second copy is kept.</p>
+     *  <p>The field is not synchronised: as the escape function has to be
+     *  free of side effects, concurrent renderings may just calculate the
+     *  same value twice.</p>
+     *
+     *  @see #ESCAPE_CACHE_THRESHOLD
+     */
+    private String m_Escaped = null;
+
     /**
      *  The flag that indicates if this text element is to be treated as a
      *  block element. This is usually {@code false}, but for predefined
@@ -70,7 +127,7 @@ public class Text implements Element
     /**
      *  The text.
      */
-    private final CharSequence m_Text;
+    private final String m_Text;
 
         /*--------------*\
     ====** Constructors **=====================================================
@@ -107,9 +164,63 @@ public class Text implements Element
         this( text, escapeFunction, false );
     }   //  Text()
 
+    /**
+     *  Creates a new {@code Text} object as a copy of the given one; the
+     *  escaped form of the text is taken over, if it was already calculated.
+     *  The new object does not have a parent.
+     *
+     *  @param  prototype   The object to copy.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public Text( final Text prototype )
+    {
+        m_Text = requireNonNullArgument( prototype, "prototype" ).m_Text;
+        m_EscapeFunction = prototype.m_EscapeFunction;
+        m_IsBlock = prototype.m_IsBlock;
+        m_Escaped = prototype.m_Escaped;
+    }   //  Text()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent() { m_Parent = null; }
+
+    /**
+     *  <p>{@summary Returns the escaped form of the text.}</p>
+     *  <p>The escape function is called only once for texts that are not
+     *  longer than
+     *  {@value #ESCAPE_CACHE_THRESHOLD}
+     *  characters, and for all texts that are not changed by escaping.</p>
+     *
+     *  @return The escaped text.
+     */
+    private final String escaped()
+    {
+        var retValue = m_Escaped;
+        if( isNull( retValue ) )
+        {
+            retValue = m_EscapeFunction.apply( m_Text );
+            if( retValue.equals( m_Text ) )
+            {
+                retValue = m_Text;
+                m_Escaped = retValue;
+            }
+            else if( m_Text.length() <= ESCAPE_CACHE_THRESHOLD )
+            {
+                m_Escaped = retValue;
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  escaped()
+
     /**
      *  {@inheritDoc}
      */
@@ -128,6 +239,24 @@ public class Text implements Element
     @Override
     public final boolean isBlock() { return m_IsBlock; }
 
+    /**
+     *  Checks whether escaping leaves the text unchanged. The result is
+     *  {@code true} only after the text was rendered at least once.
+     *
+     *  @return {@code true} if the escaped form is known to be the text
+     *      itself, {@code false} otherwise.
+     */
+    @SuppressWarnings( "PublicMethodNotExposedInInterface" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    public final boolean isVerbatim()
+    {
+        @SuppressWarnings( "StringEquality" )
+        final var retValue = m_Escaped == m_Text;
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isVerbatim()
+
     /**
      *  {@inheritDoc}
      */
@@ -136,11 +265,120 @@ public class Text implements Element
 
     /**
      *  {@inheritDoc}
+     *  <p>Predefined markup is written as it is; for plain text and
+     *  {@code CDATA}, the unescaped text is handed over to the writer, as the
+     *  canonical form replaces {@code CDATA} sections by their content.</p>
+     */
+    @Override
+    public final void writeCanonical( final CanonicalXMLWriter writer ) throws IOException
+    {
+        requireNonNullArgument( writer, "writer" );
+        if( m_IsBlock )
+        {
+            writer.writeMarkup( m_Text );
+        }
+        else
+        {
+            writer.writeText( m_Text );
+        }
+    }   //  writeCanonical()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Without layout, there is no need to determine whether the text is a
+     *  block; it is just escaped and written.</p>
+     */
+    @Override
+    public final void writeCompact( final Appendable appendable ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" ).append( escaped() );
+    }   //  writeCompact()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Plain text becomes a text node with the unescaped value, and
+     *  predefined markup is parsed. The text of a {@code CDATA} element
+     *  becomes one {@code CDATA} section, or several if it contains the
+     *  sequence {@code ]]>}; the text is split after the {@code ]]} in that
+     *  case.</p>
      */
     @Override
-    public final String toString( final int indentationLevel, final boolean prettyPrint )
+    public final void writeDOM( final DOMBuilder builder )
     {
-        final String retValue;
+        requireNonNullArgument( builder, "builder" );
+        if( m_IsBlock )
+        {
+            builder.writeMarkup( m_Text );
+        }
+        else if( m_EscapeFunction == CDATA )
+        {
+            var start = 0;
+            int pos;
+            //noinspection NestedAssignment
+            while( (pos = m_Text.indexOf( CDATA_LEADOUT, start )) >= 0 )
+            {
+                builder.writeCDATA( m_Text.substring( start, pos + 2 ) );
+                start = pos + 2;
+            }
+            builder.writeCDATA( m_Text.substring( start ) );
+        }
+        else
+        {
+            builder.writeText( m_Text );
+        }
+    }   //  writeDOM()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Plain text is handed over to the writer unescaped, and predefined
+     *  markup is parsed and replayed. The text of a {@code CDATA} element is
+     *  written with the same sections as in the output of
+     *  {@link #writeTo(Appendable, int, boolean)}:
+     *  each run of closing brackets is written as text, everything else as
+     *  a {@code CDATA} section.</p>
+     */
+    @Override
+    public final void writeStAX( final StAXBridge bridge ) throws XMLStreamException
+    {
+        requireNonNullArgument( bridge, "bridge" );
+        if( m_IsBlock )
+        {
+            bridge.writeMarkup( m_Text );
+        }
+        else if( m_EscapeFunction == CDATA )
+        {
+            final var length = m_Text.length();
+            if( length == 0 ) bridge.writeCDATA( m_Text );
+            var start = 0;
+            while( start < length )
+            {
+                final var isBracket = m_Text.charAt( start ) == ']';
+                var end = start + 1;
+                while( (end < length) && ((m_Text.charAt( end ) == ']') == isBracket) ) ++end;
+                if( isBracket )
+                {
+                    bridge.writeText( m_Text.substring( start, end ) );
+                }
+                else
+                {
+                    bridge.writeCDATA( m_Text.substring( start, end ) );
+                }
+                start = end;
+            }
+        }
+        else
+        {
+            bridge.writeText( m_Text );
+        }
+    }   //  writeStAX()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
         if( m_IsBlock )
         {
             //---* Calculate the indentation *---------------------------------
@@ -148,20 +386,63 @@ public class Text implements Element
              * If the direct parent is an inline element, the block is false.
              */
             final var parent = getParent();
-            final var block = parent.map( element -> element.isBlock() && isBlock() ).orElseGet( this::isBlock );
-            final var filler = (prettyPrint && block) ? "\n" + repeat( indentationLevel ) : EMPTY_STRING;
+            final var block = parent.map( element -> element.isBlock() && isBlock() ).orElseGet( this::isBlock ).booleanValue();
+            if( block ) writeFiller( appendable, indentationLevel, prettyPrint, 0 );
+        }
+
+        //---* Render the text *-----------------------------------------------
+        appendable.append( escaped() );
+    }   //  writeTo()
 
-            //---* Render the text *-------------------------------------------
-            retValue = format( "%2$s%1$s", m_EscapeFunction.apply( m_Text ), filler );
+    /**
+     *  {@summary &quot;Escapes&quot; the given String to a {@code CDATA}
+     *  sequence.}
+     *
+     *  @param  text    The text.
+     *  @return The {@code CDATA} sequence.
+     */
+    private static final String toCDATA( final CharSequence text )
+    {
+        final var retValue = new StringBuilder();
+
+        if( isEmpty( text ) )
+        {
+            retValue.append( CDATA_LEADIN )
+                .append( CDATA_LEADOUT );
         }
         else
         {
-            retValue = m_EscapeFunction.apply( m_Text );
+            final var str = text.toString();
+            var start = 0;
+            int pos;
+            //noinspection NestedAssignment
+            while( (pos = str.indexOf( "]", start )) >= 0 )
+            {
+                if( pos == start )
+                {
+                    retValue.append( ']' );
+                    ++start;
+                }
+                else
+                {
+                    retValue.append( CDATA_LEADIN )
+                        .append( str, start, pos )
+                        .append( CDATA_LEADOUT )
+                        .append( ']' );
+                    start = pos + 1;
+                }
+            }
+            if( start < text.length() )
+            {
+                retValue.append( CDATA_LEADIN )
+                    .append( str.substring( start ) )
+                    .append( CDATA_LEADOUT );
+            }
         }
 
         //---* Done *----------------------------------------------------------
-        return retValue;
-    }   //  toString()
+        return retValue.toString();
+    }   //  toCDATA()
 
     /**
      *  {@inheritDoc}
@@ -23,6 +23,7 @@ import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.composeXMLHeader;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.PRETTY_PRINTER;
 
 import java.net.URI;
 import java.nio.charset.Charset;
@@ -38,6 +39,7 @@ import org.tquadrat.foundation.xml.builder.XMLDocument;
 import org.tquadrat.foundation.xml.builder.XMLElement;
 import org.tquadrat.foundation.xml.builder.spi.Element;
 import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.Printer;
 
 /**
  *  The implementation for the interface
@@ -64,6 +66,23 @@ public final class XMLDocumentImpl implements XMLDocument
     @SuppressWarnings( "TypeMayBeWeakened" )
     private final List<Element> m_Children = new ArrayList<>();
 
+    /**
+     *  The encoding for this document.
+     */
+    private final Charset m_Encoding;
+
+    /**
+     *  The number of the children that were added to the document by the
+     *  constructor; these are kept by
+     *  {@link #reset()}.
+     */
+    private final int m_PrologSize;
+
+    /**
+     *  The printer for this document.
+     */
+    private Printer m_Printer = PRETTY_PRINTER;
+
     /**
      *  The root element for this document.
      */
@@ -110,7 +129,9 @@ public final class XMLDocumentImpl implements XMLDocument
     public XMLDocumentImpl( final XMLElement rootElement, final boolean standalone )
     {
         m_RootElement = (XMLElementImpl) requireNonNullArgument( rootElement, "rootElement" );
-        addProcessingInstruction( composeXMLHeader( UTF8, standalone ) );
+        m_Encoding = UTF8;
+        addProcessingInstruction( composeXMLHeader( m_Encoding, standalone ) );
+        m_PrologSize = m_Children.size();
     }   //  XMLDocumentBase()
 
     /**
@@ -141,9 +162,11 @@ public final class XMLDocumentImpl implements XMLDocument
     public XMLDocumentImpl( final XMLElement rootElement, final Charset encoding, final String name, final URI uri )
     {
         m_RootElement = (XMLElementImpl) requireNonNullArgument( rootElement, "rootElement" );
-        addProcessingInstruction( composeXMLHeader( encoding, false ) );
+        m_Encoding = requireNonNullArgument( encoding, "encoding" );
+        addProcessingInstruction( composeXMLHeader( m_Encoding, false ) );
         final var docType = new DocType( m_RootElement.getElementName(), requireNotEmptyArgument( name, "name" ), requireNonNullArgument( uri, "uri" ) );
         addDocumentChild( docType );
+        m_PrologSize = m_Children.size();
     }   //  XMLDocumentBase()
 
     /**
@@ -171,9 +194,11 @@ public final class XMLDocumentImpl implements XMLDocument
     public XMLDocumentImpl( final XMLElement rootElement, final Charset encoding, final URI uri )
     {
         m_RootElement = (XMLElementImpl) requireNonNullArgument( rootElement, "rootElement" );
-        addProcessingInstruction( composeXMLHeader( encoding, false ) );
+        m_Encoding = requireNonNullArgument( encoding, "encoding" );
+        addProcessingInstruction( composeXMLHeader( m_Encoding, false ) );
         final var docType = new DocType( rootElement.getElementName(), requireNonNullArgument( uri, "uri" ) );
         addDocumentChild( docType );
+        m_PrologSize = m_Children.size();
     }   //  XMLDocumentImpl()
 
         /*---------*\
@@ -223,6 +248,12 @@ public final class XMLDocumentImpl implements XMLDocument
         return addDocumentChild( processingInstruction );
     }   //  addProcessingInstruction()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLDocument freeze() { return new FrozenXMLDocument( this ); }
+
     /**
      *  {@inheritDoc}
      */
@@ -239,6 +270,18 @@ public final class XMLDocumentImpl implements XMLDocument
         return retValue;
     }   //  getChildren()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Charset getEncoding() { return m_Encoding; }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Printer getPrinter() { return m_Printer; }
+
     /**
      *  {@inheritDoc}
      */
@@ -306,7 +349,34 @@ public final class XMLDocumentImpl implements XMLDocument
      *  {@inheritDoc}
      */
     @Override
-    public final String toString() { return toString( true ); }
+    public final XMLDocument reset()
+    {
+        m_RootElement.reset();
+        if( m_Children.size() > m_PrologSize ) m_Children.subList( m_PrologSize, m_Children.size() ).clear();
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  reset()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLDocument setPrinter( final Printer printer )
+    {
+        m_Printer = requireNonNullArgument( printer, "printer" );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setPrinter()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The String representation is created by the
+     *  {@linkplain #getPrinter() printer of this document}.</p>
+     */
+    @Override
+    public final String toString() { return toString( m_Printer ); }
 }
 //  class XMLDocumentImpl
 
@@ -18,15 +18,17 @@
 package org.tquadrat.foundation.xml.builder.internal;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
 import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_CHILDREN;
 import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_TEXT;
 import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_ATTRIBUTES;
 import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_CHILDREN;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeElement;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
@@ -38,6 +40,7 @@ import java.util.Set;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
 import org.tquadrat.foundation.xml.builder.Namespace;
 import org.tquadrat.foundation.xml.builder.XMLBuilderUtils;
 import org.tquadrat.foundation.xml.builder.XMLElement;
@@ -45,6 +48,9 @@ import org.tquadrat.foundation.xml.builder.spi.AttributeSupport;
 import org.tquadrat.foundation.xml.builder.spi.ChildSupport;
 import org.tquadrat.foundation.xml.builder.spi.Element;
 import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.QName;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.builder.spi.SymbolTable;
 
 /**
  *  An implementation of
@@ -64,6 +70,27 @@ import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
 public sealed class XMLElementImpl implements XMLElement
     permits org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter
 {
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  A rendered fragment, together with the indentation level it was
+     *  rendered for. The compact output does not depend on the indentation
+     *  level; its fragment is always rendered for level 0.
+     *
+     *  @param  indentationLevel    The indentation level.
+     *  @param  text    The rendered markup.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static record Fragment( int indentationLevel, String text ) {}
+
         /*------------*\
     ====** Attributes **=======================================================
         \*------------*/
@@ -82,7 +109,15 @@ public sealed class XMLElementImpl implements XMLElement
     /**
      *  The element name.
      */
-    private final String m_ElementName;
+    private final QName m_ElementName;
+
+    /**
+     *  The cached fragments; index 0 holds the compact output, for any
+     *  indentation level, index 1 the pretty printed output for the
+     *  indentation level it was rendered for. This is {@code null} if the
+     *  fragment caching is disabled.
+     */
+    private Fragment [] m_Fragments;
 
     /**
      *  The parent element.
@@ -96,7 +131,9 @@ public sealed class XMLElementImpl implements XMLElement
      *  <p>{@summary Creates a new {@code XMLElementImpl} instance.}</p>
      *  <p>The given element name is validated using the method that is
      *  provided by
-     *  {@link XMLBuilderUtils#getElementNameValidator()}.</p>
+     *  {@link XMLBuilderUtils#getElementNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
      *  <p>The new element allows attributes and children, but will not
      *  validate them. It also allows text.</p>
      *
@@ -106,21 +143,39 @@ public sealed class XMLElementImpl implements XMLElement
      *
      *  @param  elementName The element name.
      */
-    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
     public XMLElementImpl( final String elementName )
     {
-        m_ElementName = requireNotEmptyArgument( elementName, "elementName" );
-        if( !getElementNameValidator().test( elementName ) ) throw new InvalidXMLNameException( elementName );
+        this( SymbolTable.elementName( requireNotEmptyArgument( elementName, "elementName" ) ) );
+    }   //  XMLElementImpl()
+
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementImpl} instance with an
+     *  element name that was already validated.}</p>
+     *  <p>The new element allows attributes and children, but will not
+     *  validate them. It also allows text.</p>
+     *
+     *  @param  elementName The element name, as obtained from the
+     *      {@link SymbolTable}.
+     *
+     *  @since 0.26.0
+     */
+    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    public XMLElementImpl( final QName elementName )
+    {
+        m_ElementName = requireNonNullArgument( elementName, "elementName" );
 
         m_Attributes = new AttributeSupport( this, false );
-        m_Children = new ChildSupport( this, false, true, true, XMLBuilderUtils::escapeXML );
+        m_Children = new ChildSupport( this, false, true, true, Text.ESCAPE_XML );
     }   //  XMLElementImpl()
 
     /**
      *  <p>{@summary Creates a new {@code XMLElementImpl} instance.}</p>
      *  <p>The given element name is validated using the method that is
      *  provided by
-     *  {@link XMLBuilderUtils#getElementNameValidator()}.</p>
+     *  {@link XMLBuilderUtils#getElementNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
      *
      *  @note   This constructor is used for the implementation of XML
      *      specialisations, like SVG or HTML (although this not really XML).
@@ -135,11 +190,28 @@ public sealed class XMLElementImpl implements XMLElement
      *  @see AttributeSupport#registerSequence(String...)
      *  @see ChildSupport#registerChildren(String...)
      */
-    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
     protected XMLElementImpl( final String elementName, final Set<Flags> flags )
     {
-        m_ElementName = requireNotEmptyArgument( elementName, "elementName" );
-        if( !getElementNameValidator().test( elementName ) ) throw new InvalidXMLNameException( elementName );
+        this( SymbolTable.elementName( requireNotEmptyArgument( elementName, "elementName" ) ), flags );
+    }   //  XMLElementImpl()
+
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementImpl} instance with an
+     *  element name that was already validated.}</p>
+     *
+     *  @param  elementName The element name, as obtained from the
+     *      {@link SymbolTable}.
+     *  @param  flags   The configuration flags for the new element.
+     *
+     *  @see org.tquadrat.foundation.xml.builder.XMLElement.Flags
+     *
+     *  @since 0.26.0
+     */
+    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    protected XMLElementImpl( final QName elementName, final Set<Flags> flags )
+    {
+        m_ElementName = requireNonNullArgument( elementName, "elementName" );
 
         final var checkAttributes = requireNonNullArgument( flags, "flags" ).contains( VALIDATES_ATTRIBUTES );
         final var checkChildren = flags.contains( VALIDATES_CHILDREN );
@@ -147,12 +219,57 @@ public sealed class XMLElementImpl implements XMLElement
         final var allowText = flags.contains( ALLOWS_TEXT );
 
         m_Attributes = new AttributeSupport( this, checkAttributes );
-        m_Children = new ChildSupport( this, checkChildren, allowChildren, allowText, XMLBuilderUtils::escapeXML );
+        m_Children = new ChildSupport( this, checkChildren, allowChildren, allowText, Text.ESCAPE_XML );
+    }   //  XMLElementImpl()
+
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementImpl} instance as a deep
+     *  copy of the given element.}</p>
+     *  <p>The element name and the configuration are taken over from the
+     *  prototype without validating them again; the children are copied,
+     *  too. The new element does not have a parent.</p>
+     *  <p>If the prototype does not have a parent either, its cached
+     *  fragments are valid for the copy as well, and they are taken
+     *  over.</p>
+     *
+     *  @param  prototype   The element to copy.
+     *
+     *  @see #copy()
+     *
+     *  @since 0.26.0
+     */
+    @SuppressWarnings( "ThisEscapedInObjectConstruction" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    protected XMLElementImpl( final XMLElementImpl prototype )
+    {
+        m_ElementName = requireNonNullArgument( prototype, "prototype" ).m_ElementName;
+
+        m_Attributes = new AttributeSupport( this, prototype.m_Attributes );
+        m_Children = new ChildSupport( this, prototype.m_Children );
+
+        final var fragments = prototype.m_Fragments;
+        if( nonNull( fragments ) ) m_Fragments = isNull( prototype.m_Parent ) ? fragments.clone() : new Fragment [2];
     }   //  XMLElementImpl()
 
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  Enables or disables the fragment caching for this element and all its
+     *  descendants, without touching the ancestors.
+     *
+     *  @param  flag    {@code true} to enable the fragment caching,
+     *      {@code false} to disable it.
+     */
+    private final void applyFragmentCaching( final boolean flag )
+    {
+        m_Fragments = flag ? new Fragment [2] : null;
+        for( final var child : m_Children.getChildren() )
+        {
+            if( child instanceof final XMLElementImpl element ) element.applyFragmentCaching( flag );
+        }
+    }   //  applyFragmentCaching()
+
     /**
      *  {@inheritDoc}
      */
@@ -160,6 +277,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement addCDATA( final CharSequence text ) throws IllegalArgumentException
     {
         m_Children.addCDATA( text );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -172,6 +290,11 @@ public sealed class XMLElementImpl implements XMLElement
     public final <E extends XMLElement> XMLElement addChild( final E child ) throws IllegalArgumentException, IllegalStateException
     {
         m_Children.addChild( child );
+        if( nonNull( m_Fragments ) && (child instanceof final XMLElementImpl element) && isNull( element.m_Fragments ) )
+        {
+            element.applyFragmentCaching( true );
+        }
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -184,11 +307,25 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement addComment( final CharSequence comment ) throws IllegalArgumentException
     {
         m_Children.addComment( comment );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
     }   //  addComment()
 
+    /**
+     *  Adds the given copy of a child, without validating it; this is used
+     *  to fill the copy of a
+     *  {@link FrozenXMLElement}.
+     *
+     *  @param  child   The copied child; it must not have a parent.
+     */
+    final void addCopiedChild( final Element child )
+    {
+        m_Children.addChild( child );
+        invalidateFragments( false );
+    }   //  addCopiedChild()
+
     /**
      *  {@inheritDoc}
      */
@@ -196,6 +333,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement addPredefinedMarkup( final CharSequence markup ) throws IllegalArgumentException
     {
         m_Children.addPredefinedMarkup( markup );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -208,11 +346,58 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement addText( final CharSequence text ) throws IllegalArgumentException
     {
         m_Children.addText( text );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
     }   //  addText()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void clearParent()
+    {
+        m_Parent = null;
+
+        //---* The output depends on the parent *-----------------------------
+        if( nonNull( m_Fragments ) ) m_Fragments = new Fragment [2];
+    }   //  clearParent()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Subclasses have to override this method, using the constructor
+     *  {@link #XMLElementImpl(XMLElementImpl)};
+     *  this implementation cannot copy the state and the rendering of a
+     *  subclass, so it refuses to copy instances of subclasses.</p>
+     *
+     *  @throws IllegalOperationException   This is an instance of a
+     *      subclass that does not override this method, or one of the
+     *      descendants cannot be copied.
+     */
+    @Override
+    public XMLElement copy() throws IllegalOperationException
+    {
+        if( getClass() != XMLElementImpl.class )
+        {
+            throw new IllegalOperationException( "Class '%1$s' does not override copy()".formatted( getClass().getName() ) );
+        }
+        final var retValue = new XMLElementImpl( this );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  copy()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The snapshot is always an instance of
+     *  {@link FrozenXMLElement};
+     *  it reproduces the content of this element, but not any rendering
+     *  that a subclass may have changed.</p>
+     */
+    @Override
+    public final XMLElement freeze() { return new FrozenXMLElement( this ); }
+
     /**
      *  {@inheritDoc}
      */
@@ -241,7 +426,7 @@ public sealed class XMLElementImpl implements XMLElement
      *  {@inheritDoc}
      */
     @Override
-    public final String getElementName() { return m_ElementName; }
+    public final String getElementName() { return m_ElementName.getName(); }
 
     /**
      *  {@inheritDoc}
@@ -289,6 +474,54 @@ public sealed class XMLElementImpl implements XMLElement
     @Override
     public boolean hasChildren() { return m_Children.hasChildren(); }
 
+    /**
+     *  <p>{@summary Drops the cached fragments of this element and of its
+     *  ancestors.}</p>
+     *  <p>Usually, the walk up the tree stops at the first ancestor that
+     *  has the fragment caching enabled, but no cached fragment: this
+     *  ancestor was either not rendered since its last invalidation, or its
+     *  fragments were already dropped together with those of all its
+     *  ancestors. Ancestors with disabled fragment caching, and instances of
+     *  {@link CompactXMLElement},
+     *  do not stop the walk.</p>
+     *
+     *  @param  force   {@code true} if the walk has to go up to the root
+     *      element in any case, {@code false} if it may stop early.
+     */
+    final void invalidateFragments( final boolean force )
+    {
+        Element current = this;
+        while( nonNull( current ) )
+        {
+            if( current instanceof final XMLElementImpl element )
+            {
+                final var fragments = element.m_Fragments;
+                if( nonNull( fragments ) )
+                {
+                    if( !force && isNull( fragments [0] ) && isNull( fragments [1] ) ) break;
+                    fragments [0] = null;
+                    fragments [1] = null;
+                }
+                current = element.m_Parent;
+            }
+            else if( current instanceof final CompactXMLElement element )
+            {
+                //---* No cache here, but there might be one further up *------
+                current = element.getParent().orElse( null );
+            }
+            else
+            {
+                current = null;
+            }
+        }
+    }   //  invalidateFragments()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isFragmentCachingEnabled() { return nonNull( m_Fragments ); }
+
     /**
      *  <p>{@summary Registers an attribute sequence for this element}; this
      *  modifies any sort order that was previously set.</p>
@@ -302,6 +535,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final void registerAttributeSequence( final String... attributes )
     {
         m_Attributes.registerSequence( attributes );
+        invalidateFragments( false );
     }   //  registerAttributeSequence()
 
     /**
@@ -314,6 +548,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final void registerAttributeSequence( final Comparator<String> sortOrder )
     {
         m_Attributes.setSortOrder( sortOrder );
+        invalidateFragments( false );
     }   //  registerAttributeSequence()
 
     /**
@@ -348,6 +583,45 @@ public sealed class XMLElementImpl implements XMLElement
         if( nonNull( m_Children ) ) m_Children.registerChildren( children );
     }   //  registerValidChildren()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean removeChild( final Element child )
+    {
+        final var retValue = m_Children.removeChild( child );
+        if( retValue ) invalidateFragments( false );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  removeChild()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void removeChildren( final int count ) throws IllegalArgumentException
+    {
+        if( count < 0 ) throw new IllegalArgumentException( "count is negative: %1$d".formatted( count ) );
+        if( nonNull( m_Children ) && m_Children.removeChildren( count ) ) invalidateFragments( false );
+    }   //  removeChildren()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Subclasses that hold additional content have to override this
+     *  method to remove it, and to call this implementation.</p>
+     */
+    @Override
+    public XMLElement reset()
+    {
+        m_Attributes.clear();
+        if( nonNull( m_Children ) ) m_Children.clear();
+        invalidateFragments( false );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  reset()
+
     /**
      *  Returns the list of the registered attributes.
      *
@@ -368,17 +642,33 @@ public sealed class XMLElementImpl implements XMLElement
      *  {@inheritDoc}
      *  <p>The given attribute name is validated using the method that is
      *  provided by
-     *  {@link XMLBuilderUtils#getAttributeNameValidator()}.</p>
+     *  {@link XMLBuilderUtils#getAttributeNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
      */
     @Override
     public final XMLElement setAttribute( final String name, final CharSequence value, final Optional<? extends CharSequence> append ) throws IllegalArgumentException
     {
         m_Attributes.setAttribute( name, value, append );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
     }   //  setAttribute()
 
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final XMLElement setFragmentCaching( final boolean flag )
+    {
+        applyFragmentCaching( flag );
+        invalidateFragments( true );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setFragmentCaching()
+
     /**
      *  {@inheritDoc}
      */
@@ -386,6 +676,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement setNamespace( final String identifier ) throws IllegalArgumentException, URISyntaxException
     {
         m_Attributes.setNamespace( identifier );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -398,6 +689,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement setNamespace( final URI identifier ) throws IllegalArgumentException
     {
         m_Attributes.setNamespace( identifier );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -413,6 +705,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement setNamespace( final String prefix, final String identifier ) throws IllegalArgumentException, URISyntaxException
     {
         m_Attributes.setNamespace( prefix, identifier );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -428,6 +721,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement setNamespace( final String prefix, final URI identifier ) throws IllegalArgumentException
     {
         m_Attributes.setNamespace( prefix, identifier );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -441,6 +735,7 @@ public sealed class XMLElementImpl implements XMLElement
     public final XMLElement setNamespace( final Namespace namespace ) throws IllegalArgumentException
     {
         m_Attributes.setNamespace( namespace );
+        invalidateFragments( false );
 
         //---* Done *----------------------------------------------------------
         return this;
@@ -453,6 +748,9 @@ public sealed class XMLElementImpl implements XMLElement
     public final <E extends Element> void setParent( final E parent )
     {
         m_Parent = requireNonNullArgument( parent, "parent" );
+
+        //---* The output depends on the parent *-----------------------------
+        if( nonNull( m_Fragments ) ) m_Fragments = new Fragment [2];
     }   //  setParent()
 
     /**
@@ -460,6 +758,64 @@ public sealed class XMLElementImpl implements XMLElement
      */
     @Override
     public String toString() { return toString( 0, true ); }
+
+    /**
+     *  {@inheritDoc}
+     *  <p>If the fragment caching is enabled, the output is taken from the
+     *  cache as for
+     *  {@link #writeTo(Appendable, int, boolean)};
+     *  otherwise the element is written by
+     *  {@link SGMLPrinter#writeCompact(Appendable, Element, boolean)}.</p>
+     *  <p>Subclasses that override {@code writeTo()} must override this
+     *  method, too.</p>
+     */
+    @Override
+    public void writeCompact( final Appendable appendable ) throws IOException
+    {
+        if( isNull( m_Fragments ) )
+        {
+            SGMLPrinter.writeCompact( appendable, this, true );
+        }
+        else
+        {
+            writeTo( appendable, 0, false );
+        }
+    }   //  writeCompact()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>If the fragment caching is enabled, a fragment that was cached for
+     *  the same pretty print flag – and for pretty printed output, for the
+     *  same indentation level – will be written without rendering the
+     *  element again. As the compact output does not depend on the
+     *  indentation level, only one compact fragment is kept.</p>
+     *
+     *  @see #setFragmentCaching(boolean)
+     */
+    @Override
+    public void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        final var fragments = m_Fragments;
+        if( isNull( fragments ) )
+        {
+            writeElement( appendable, indentationLevel, prettyPrint, this, true );
+        }
+        else
+        {
+            requireNonNullArgument( appendable, "appendable" );
+            final var index = prettyPrint ? 1 : 0;
+            final var level = prettyPrint ? indentationLevel : 0;
+            var fragment = fragments [index];
+            if( isNull( fragment ) || (fragment.indentationLevel() != level) )
+            {
+                final var buffer = new StringBuilder();
+                writeElement( buffer, level, prettyPrint, this, true );
+                fragment = new Fragment( level, buffer.toString() );
+                fragments [index] = fragment;
+            }
+            appendable.append( fragment.text() );
+        }
+    }   //  writeTo()
 }
 //  class XMLElementImpl
 
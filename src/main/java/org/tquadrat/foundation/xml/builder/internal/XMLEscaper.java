@@ -0,0 +1,387 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.IOException;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.annotation.UtilityClass;
+import org.tquadrat.foundation.exception.PrivateConstructorForStaticClassCalledError;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
+import org.tquadrat.foundation.util.StringUtils;
+
+/**
+ *  <p>{@summary Scan-and-copy implementations for the escaping and
+ *  unescaping of XML text.}</p>
+ *  <p>The input is scanned for the next character that needs escaping;
+ *  the run of characters before it is copied to the target with a single
+ *  bulk operation. Text that does not contain any such character is
+ *  returned unchanged, without allocating a new String.</p>
+ *  <p>The replacements for the ASCII characters are taken from
+ *  {@link StringUtils#escapeXML(CharSequence)}
+ *  when this class is initialised. At the same time, it is determined
+ *  whether that method changes any other character of the BMP, or any
+ *  surrogate; if not, those characters are copied as part of the clean
+ *  runs, otherwise runs of non-ASCII characters are delegated to that
+ *  method as a whole. The
+ *  results are therefore always the same as those of
+ *  {@code StringUtils}.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@UtilityClass
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class XMLEscaper
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The number of characters in the ASCII range: {@value}.
+     */
+    private static final int ASCII_SIZE = 128;
+
+        /*------------------------*\
+    ====** Static Initialisations **===========================================
+        \*------------------------*/
+    /**
+     *  {@code true} if
+     *  {@link StringUtils#escapeXML(CharSequence)}
+     *  changes at least one non-ASCII character of the BMP that is not a
+     *  surrogate, {@code false} if all of them are kept as they are.
+     */
+    private static final boolean m_EscapesNonASCII;
+
+    /**
+     *  {@code true} if
+     *  {@link StringUtils#escapeXML(CharSequence)}
+     *  changes surrogate pairs or single surrogates, {@code false} if they
+     *  are kept as they are.
+     */
+    private static final boolean m_EscapesSurrogates;
+
+    /**
+     *  The flags for the ASCII characters that are changed by escaping.
+     */
+    private static final boolean [] m_NeedsEscape;
+
+    /**
+     *  The replacements for the ASCII characters; the entry is {@code null}
+     *  for characters that will not be changed by escaping.
+     */
+    private static final String [] m_Replacements;
+
+    static
+    {
+        m_NeedsEscape = new boolean [ASCII_SIZE];
+        m_Replacements = new String [ASCII_SIZE];
+        for( var c = 0; c < ASCII_SIZE; ++c )
+        {
+            final var character = String.valueOf( (char) c );
+            final var escaped = StringUtils.escapeXML( character );
+            if( !character.equals( escaped ) )
+            {
+                m_NeedsEscape [c] = true;
+                m_Replacements [c] = escaped;
+            }
+        }
+
+        //---* The other characters of the BMP are checked at once *-----------
+        final var buffer = new StringBuilder( Character.MAX_VALUE );
+        for( var c = ASCII_SIZE; c <= Character.MAX_VALUE; ++c )
+        {
+            if( !Character.isSurrogate( (char) c ) ) buffer.append( (char) c );
+        }
+        var candidate = buffer.toString();
+        m_EscapesNonASCII = !candidate.equals( StringUtils.escapeXML( candidate ) );
+
+        //---* Some surrogate pairs, and single surrogates *-------------------
+        buffer.setLength( 0 );
+        for( final var codePoint : new int [] {Character.MIN_SUPPLEMENTARY_CODE_POINT, 0x1F600, Character.MAX_CODE_POINT} )
+        {
+            buffer.appendCodePoint( codePoint ).append( ' ' );
+        }
+        buffer.append( Character.MIN_HIGH_SURROGATE ).append( ' ' ).append( Character.MIN_LOW_SURROGATE );
+        candidate = buffer.toString();
+        m_EscapesSurrogates = !candidate.equals( StringUtils.escapeXML( candidate ) );
+    }
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private XMLEscaper() { throw new PrivateConstructorForStaticClassCalledError( XMLEscaper.class ); }
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Checks whether the given input contains an ampersand; without it,
+     *  there cannot be any entity.
+     *
+     *  @param  input   The input.
+     *  @return {@code true} if the input contains at least one ampersand,
+     *      {@code false} otherwise.
+     */
+    private static final boolean containsAmpersand( final CharSequence input )
+    {
+        var retValue = false;
+        if( input instanceof final String string )
+        {
+            retValue = string.indexOf( '&' ) >= 0;
+        }
+        else
+        {
+            final var length = input.length();
+            for( var i = 0; !retValue && (i < length); ++i ) retValue = input.charAt( i ) == '&';
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  containsAmpersand()
+
+    /**
+     *  Escapes the characters in a {@code String} using XML entities. The
+     *  result is the same as that of
+     *  {@link StringUtils#escapeXML(CharSequence)}.
+     *
+     *  @param  input   The {@code String} to escape, may be {@code null}.
+     *  @return The escaped {@code String}; if nothing had to be escaped, this
+     *      is the String representation of the input itself, and for a
+     *      {@code String} input, the same instance. {@code null} if the
+     *      argument was already {@code null}.
+     */
+    public static final String escapeXML( final CharSequence input )
+    {
+        String retValue = null;
+        if( nonNull( input ) )
+        {
+            final var length = input.length();
+            final var position = scanForEscape( input, 0, length );
+            if( position == length )
+            {
+                retValue = input.toString();
+            }
+            else
+            {
+                final var buffer = new StringBuilder( length + (length >> 3) + 16 );
+                try
+                {
+                    escapeXML( buffer, input, position, length );
+                }
+                catch( final IOException e )
+                {
+                    throw new UnexpectedExceptionError( e );
+                }
+                retValue = buffer.toString();
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  escapeXML()
+
+    /**
+     *  Escapes the characters in a {@code String} using XML entities and
+     *  writes them to an
+     *  {@link Appendable}.
+     *  The result is the same as that of
+     *  {@link StringUtils#escapeXML(Appendable, CharSequence)}.
+     *
+     *  @param  appendable  The appendable object receiving the escaped string.
+     *  @param  input   The {@code String} to escape, may be {@code null}.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public static final void escapeXML( final Appendable appendable, final CharSequence input ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        if( isNull( input ) )
+        {
+            StringUtils.escapeXML( appendable, input );
+        }
+        else
+        {
+            final var length = input.length();
+            final var position = scanForEscape( input, 0, length );
+            escapeXML( appendable, input, position, length );
+        }
+    }   //  escapeXML()
+
+    /**
+     *  Writes the given input to the given
+     *  {@link Appendable},
+     *  escaping all characters from the given start position on that need
+     *  escaping. The characters before that position must not need
+     *  escaping.
+     *
+     *  @param  appendable  The appendable object receiving the escaped string.
+     *  @param  input   The {@code String} to escape.
+     *  @param  position    The position of the first character that needs
+     *      escaping; the length of the input if there is none.
+     *  @param  length  The length of the input.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    private static final void escapeXML( final Appendable appendable, final CharSequence input, final int position, final int length ) throws IOException
+    {
+        var start = 0;
+        var current = position;
+        while( current < length )
+        {
+            //---* Copy the clean run *----------------------------------------
+            if( current > start ) appendable.append( input, start, current );
+
+            //---* Escape the special character(s) *---------------------------
+            final var c = input.charAt( current );
+            if( c < ASCII_SIZE )
+            {
+                appendable.append( m_Replacements [c] );
+                ++current;
+            }
+            else
+            {
+                /*
+                 * Only reached if some non-ASCII characters may be changed
+                 * by escaping. The complete run of non-ASCII characters is
+                 * delegated, so that surrogate pairs will be kept together.
+                 */
+                var end = current + 1;
+                while( (end < length) && (input.charAt( end ) >= ASCII_SIZE) ) ++end;
+                StringUtils.escapeXML( appendable, input.subSequence( current, end ) );
+                current = end;
+            }
+            start = current;
+            current = scanForEscape( input, start, length );
+        }
+
+        //---* Copy the remainder *--------------------------------------------
+        if( length > start ) appendable.append( input, start, length );
+    }   //  escapeXML()
+
+    /**
+     *  Checks whether the given character will be changed by escaping.
+     *
+     *  @param  c   The character.
+     *  @return {@code true} if the character needs escaping, {@code false}
+     *      otherwise.
+     */
+    private static final boolean needsEscape( final char c )
+    {
+        final boolean retValue;
+        if( c < ASCII_SIZE )
+        {
+            retValue = m_NeedsEscape [c];
+        }
+        else
+        {
+            retValue = Character.isSurrogate( c ) ? m_EscapesSurrogates : m_EscapesNonASCII;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  needsEscape()
+
+    /**
+     *  Returns the position of the next character that needs escaping.
+     *
+     *  @param  input   The input.
+     *  @param  start   The start position for the scan.
+     *  @param  end The end position for the scan.
+     *  @return The position of the next character that needs escaping, or
+     *      {@code end} if there is none.
+     */
+    private static final int scanForEscape( final CharSequence input, final int start, final int end )
+    {
+        var retValue = start;
+        if( input instanceof final String string )
+        {
+            while( (retValue < end) && !needsEscape( string.charAt( retValue ) ) ) ++retValue;
+        }
+        else
+        {
+            while( (retValue < end) && !needsEscape( input.charAt( retValue ) ) ) ++retValue;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  scanForEscape()
+
+    /**
+     *  Unescapes an XML string containing XML entity escapes to a string
+     *  containing the actual Unicode characters corresponding to the
+     *  escapes. The result is the same as that of
+     *  {@link StringUtils#unescapeXML(CharSequence)}.
+     *
+     *  @param  input The {@code String} to unescape, may be {@code null}.
+     *  @return The unescaped {@code String}; if the input does not contain
+     *      any entity, this is the String representation of the input itself,
+     *      and for a {@code String} input, the same instance. {@code null} if
+     *      the argument was already {@code null}.
+     */
+    public static final String unescapeXML( final CharSequence input )
+    {
+        final var retValue = isNull( input ) || containsAmpersand( input )
+            ? StringUtils.unescapeXML( input )
+            : input.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  unescapeXML()
+
+    /**
+     *  Unescapes an XML String containing XML entity escapes to a String
+     *  containing the actual Unicode characters corresponding to the escapes
+     *  and writes it to the given
+     *  {@link Appendable}.
+     *  The result is the same as that of
+     *  {@link StringUtils#unescapeXML(Appendable, CharSequence)}.
+     *
+     *  @param  appendable  The appendable receiving the unescaped string.
+     *  @param  input The {@code String} to unescape, may be {@code null}.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public static final void unescapeXML( final Appendable appendable, final CharSequence input ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        if( isNull( input ) || containsAmpersand( input ) )
+        {
+            StringUtils.unescapeXML( appendable, input );
+        }
+        else
+        {
+            appendable.append( input );
+        }
+    }   //  unescapeXML()
+}
+//  class XMLEscaper
+
+/*
+ *  End of File
+ */
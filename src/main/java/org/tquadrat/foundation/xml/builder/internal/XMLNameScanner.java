@@ -0,0 +1,333 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static java.lang.Character.MIN_SUPPLEMENTARY_CODE_POINT;
+import static java.lang.Character.charCount;
+import static java.lang.Character.codePointAt;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+
+import java.util.function.Predicate;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.annotation.UtilityClass;
+import org.tquadrat.foundation.exception.PrivateConstructorForStaticClassCalledError;
+
+/**
+ *  <p>{@summary Table-driven scanners for XML names.}</p>
+ *  <p>The characters of the Basic Multilingual Plane are looked up in two
+ *  precomputed bit tables, one for the characters that may start a name,
+ *  and one for those that may follow; the supplementary planes are
+ *  checked against their range. A name is scanned in a single pass,
+ *  without any allocation, and the split on the namespace prefix and the
+ *  check for the reserved prefix &quot;xml&quot; happen in the same
+ *  pass.</p>
+ *  <p>The colon (':') is not a name character here; it is only allowed as
+ *  the separator between the namespace prefix and the local name.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@UtilityClass
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class XMLNameScanner
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The number of characters in the Basic Multilingual Plane: {@value}.
+     */
+    private static final int BMP_SIZE = MIN_SUPPLEMENTARY_CODE_POINT;
+
+    /**
+     *  The highest code point that is valid for a name: {@value}.
+     */
+    private static final int MAX_NAME_CHAR = 0xEFFFF;
+
+    /**
+     *  The ranges for the characters that may follow the first character of
+     *  a name, in addition to those in
+     *  {@link #NAME_START_RANGES}.
+     */
+    private static final int [] NAME_RANGES =
+    {
+        '-', '.', '0', '9', 0x00B7, 0x00B7, 0x0300, 0x036F, 0x203F, 0x2040
+    };
+
+    /**
+     *  The ranges for the characters that may start a name; each pair holds
+     *  the first and the last character of a range.
+     */
+    private static final int [] NAME_START_RANGES =
+    {
+        'A', 'Z', '_', '_', 'a', 'z',
+        0x00C0, 0x00D6, 0x00D8, 0x00F6, 0x00F8, 0x02FF, 0x0370, 0x037D,
+        0x037F, 0x1FFF, 0x200C, 0x200D, 0x2070, 0x218F, 0x2C00, 0x2FEF,
+        0x3001, 0xD7FF, 0xF900, 0xFDCF, 0xFDF0, 0xFFFD
+    };
+
+        /*------------------------*\
+    ====** Static Initialisations **===========================================
+        \*------------------------*/
+    /**
+     *  The bit table for the characters that may follow the first character
+     *  of a name.
+     */
+    private static final long [] m_NameChars;
+
+    /**
+     *  The bit table for the characters that may start a name.
+     */
+    private static final long [] m_NameStartChars;
+
+    static
+    {
+        m_NameStartChars = new long [BMP_SIZE >> 6];
+        setRanges( m_NameStartChars, NAME_START_RANGES );
+        m_NameChars = m_NameStartChars.clone();
+        setRanges( m_NameChars, NAME_RANGES );
+    }
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private XMLNameScanner() { throw new PrivateConstructorForStaticClassCalledError( XMLNameScanner.class ); }
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Checks whether the given code point may follow the first character of
+     *  a name.
+     *
+     *  @param  codePoint   The code point.
+     *  @return {@code true} if the code point is a name character,
+     *      {@code false} otherwise.
+     */
+    private static final boolean isNameChar( final int codePoint )
+    {
+        final var retValue = codePoint < BMP_SIZE
+            ? (m_NameChars [codePoint >> 6] & (1L << codePoint)) != 0
+            : codePoint <= MAX_NAME_CHAR;
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isNameChar()
+
+    /**
+     *  Checks whether the given code point may start a name.
+     *
+     *  @param  codePoint   The code point.
+     *  @return {@code true} if the code point is a name start character,
+     *      {@code false} otherwise.
+     */
+    private static final boolean isNameStartChar( final int codePoint )
+    {
+        final var retValue = codePoint < BMP_SIZE
+            ? (m_NameStartChars [codePoint >> 6] & (1L << codePoint)) != 0
+            : codePoint <= MAX_NAME_CHAR;
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isNameStartChar()
+
+    /**
+     *  Checks whether the local name that starts at the given position
+     *  begins with the reserved prefix &quot;xml&quot;, in any
+     *  combination of upper and lower case.
+     *
+     *  @param  name    The name.
+     *  @param  start   The start position of the local name.
+     *  @return {@code true} if the local name is reserved, {@code false}
+     *      otherwise.
+     */
+    private static final boolean isReserved( final CharSequence name, final int start )
+    {
+        final var retValue = (name.length() - start >= 3)
+            && ((name.charAt( start ) | 0x20) == 'x')
+            && ((name.charAt( start + 1 ) | 0x20) == 'm')
+            && ((name.charAt( start + 2 ) | 0x20) == 'l');
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isReserved()
+
+    /**
+     *  Checks whether the given character sequence is a valid XML name
+     *  without a colon, as it is required for a namespace prefix.
+     *
+     *  @param  name    The name to check; may be {@code null}.
+     *  @return {@code true} if the name is valid, {@code false} otherwise.
+     */
+    public static final boolean isValidName( final CharSequence name )
+    {
+        final var retValue = nonNull( name ) && isValidName( name, 0, name.length() );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isValidName()
+
+    /**
+     *  Checks whether the given range of the given character sequence is a
+     *  valid XML name without a colon.
+     *
+     *  @param  name    The name to check.
+     *  @param  start   The start position.
+     *  @param  end The end position (exclusive).
+     *  @return {@code true} if the name is valid, {@code false} otherwise.
+     */
+    private static final boolean isValidName( final CharSequence name, final int start, final int end )
+    {
+        var retValue = start < end;
+        var pos = start;
+        while( retValue && (pos < end) )
+        {
+            final var codePoint = codePointAt( name, pos );
+            retValue = pos == start ? isNameStartChar( codePoint ) : isNameChar( codePoint );
+            pos += charCount( codePoint );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isValidName()
+
+    /**
+     *  Checks whether the given character sequence is a valid NMToken. An
+     *  NMToken has to start with a character that can start a name; the
+     *  following characters may also be colons.
+     *
+     *  @param  nmtoken The NMToken to check; may be {@code null}.
+     *  @return {@code true} if the NMToken is valid, {@code false}
+     *      otherwise.
+     */
+    public static final boolean isValidNMToken( final CharSequence nmtoken )
+    {
+        var retValue = nonNull( nmtoken ) && !nmtoken.isEmpty();
+        if( retValue )
+        {
+            final var length = nmtoken.length();
+            var pos = 0;
+            while( retValue && (pos < length) )
+            {
+                final var codePoint = codePointAt( nmtoken, pos );
+                retValue = pos == 0 ? isNameStartChar( codePoint ) : (codePoint == ':') || isNameChar( codePoint );
+                pos += charCount( codePoint );
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isValidNMToken()
+
+    /**
+     *  <p>{@summary Checks whether the given character sequence is a valid
+     *  name for an element or an attribute, with an optional namespace
+     *  prefix.}</p>
+     *  <p>The local name must be a valid XML name that does not start with
+     *  &quot;xml&quot;. If there is a prefix, it will be checked with the
+     *  given validator; if that is {@code null}, the prefix has to be a valid
+     *  XML name, too.</p>
+     *
+     *  @param  name    The name to check; may be {@code null}.
+     *  @param  prefixValidator The validator for the namespace prefix, or
+     *      {@code null} for the built-in check.
+     *  @return {@code true} if the name is valid, {@code false} otherwise.
+     */
+    public static final boolean isValidQName( final CharSequence name, final Predicate<CharSequence> prefixValidator )
+    {
+        var retValue = nonNull( name ) && !name.isEmpty();
+        if( retValue )
+        {
+            final var length = name.length();
+            var colon = -1;
+            var segmentStart = 0;
+            var segmentValid = true;
+            var prefixValid = true;
+            var pos = 0;
+
+            /*
+             * With a custom prefix validator, an invalid character before the
+             * colon does not necessarily make the name invalid.
+             */
+            while( retValue && (pos < length) )
+            {
+                final var codePoint = codePointAt( name, pos );
+                if( codePoint == ':' )
+                {
+                    if( colon >= 0 )
+                    {
+                        retValue = false;
+                    }
+                    else
+                    {
+                        colon = pos;
+                        prefixValid = segmentValid && (pos > 0);
+                        segmentStart = pos + 1;
+                        segmentValid = true;
+                    }
+                }
+                else if( segmentValid )
+                {
+                    segmentValid = pos == segmentStart ? isNameStartChar( codePoint ) : isNameChar( codePoint );
+                    if( !segmentValid && ((colon >= 0) || isNull( prefixValidator )) ) retValue = false;
+                }
+                pos += charCount( codePoint );
+            }
+
+            //---* Check the local name and the prefix *-----------------------
+            if( retValue ) retValue = segmentValid && (segmentStart < length) && !isReserved( name, segmentStart );
+            if( retValue && (colon >= 0) )
+            {
+                retValue = isNull( prefixValidator ) ? prefixValid : prefixValidator.test( name.subSequence( 0, colon ) );
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isValidQName()
+
+    /**
+     *  Sets the bits for the given ranges in the given table.
+     *
+     *  @param  table   The table.
+     *  @param  ranges  The ranges.
+     */
+    private static final void setRanges( final long [] table, final int [] ranges )
+    {
+        for( var i = 0; i < ranges.length; i += 2 )
+        {
+            for( var c = ranges [i]; c <= ranges [i + 1]; ++c ) table [c >> 6] |= 1L << c;
+        }
+    }   //  setRanges()
+}
+//  class XMLNameScanner
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,461 @@
+/*
+ * ============================================================================
+ * Copyright © 2002-2026 by Thomas Thrien.
+ * All Rights Reserved.
+ * ============================================================================
+ * Licensed to the public under the agreements of the GNU Lesser General Public
+ * License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *      http://www.gnu.org/licenses/lgpl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+
+/**
+ *  <p>{@summary An implementation of
+ *  {@link ByteEncoder}
+ *  that writes the encoded bytes to a file through an
+ *  {@link AsynchronousFileChannel},
+ *  using two buffers alternately.}</p>
+ *  <p>While the operating system writes the contents of one buffer, the
+ *  rendering thread fills the other one; it has to wait only if it filled
+ *  its buffer before the write of the other one completed. This way, the
+ *  rendering and the disk I/O overlap instead of alternating.</p>
+ *  <p>When the output is complete,
+ *  {@link #finishAsync()}
+ *  returns a
+ *  {@link CompletableFuture}
+ *  that completes when the last write completed, the file was synchronised
+ *  according to the
+ *  {@link SyncPolicy},
+ *  and the channel was closed.</p>
+ *  <p>Instances of this class are not thread-safe.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = STABLE, since = "0.26.0" )
+public final class AsyncFileEncoder extends ByteEncoder
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The policies for the synchronisation of the file with the storage
+     *  device. The synchronisation takes place on each call to
+     *  {@link AsyncFileEncoder#flush()},
+     *  and once after the last write.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = STABLE, since = "0.26.0" )
+    public enum SyncPolicy
+    {
+            /*------------------*\
+        ====** Enum Declaration **=============================================
+            \*------------------*/
+        /**
+         *  The file will not be synchronised; the output is complete when
+         *  all bytes were handed over to the operating system.
+         */
+        NONE,
+
+        /**
+         *  The contents of the file will be written to the storage device,
+         *  but not necessarily its metadata.
+         *
+         *  @see AsynchronousFileChannel#force(boolean)
+         */
+        DATA,
+
+        /**
+         *  The contents and the metadata of the file will be written to the
+         *  storage device.
+         *
+         *  @see AsynchronousFileChannel#force(boolean)
+         */
+        DATA_AND_METADATA
+    }
+    //  enum SyncPolicy
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The default size for each of the two buffers: {@value}.
+     */
+    public static final int DEFAULT_ASYNC_BUFFER_SIZE = 1 << 16;
+
+    /**
+     *  The executor for the synchronisation of the file after the last write
+     *  operation; as
+     *  {@link AsynchronousFileChannel#force(boolean)}
+     *  blocks, this must not be done on the thread that completed the write.
+     */
+    private static final Executor SYNC_EXECUTOR = Executors.newCachedThreadPool( runnable ->
+    {
+        final var thread = new Thread( runnable, "AsyncFileEncoder-sync" );
+        thread.setDaemon( true );
+        return thread;
+    } );
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The target channel.
+     */
+    private final AsynchronousFileChannel m_Channel;
+
+    /**
+     *  The future that completes when the output is durable; it is
+     *  {@code null} until the output was finished.
+     */
+    private CompletableFuture<Void> m_Completion;
+
+    /**
+     *  The write operation that is currently running.
+     */
+    private CompletableFuture<Void> m_Pending = CompletableFuture.completedFuture( null );
+
+    /**
+     *  The position in the file for the next write.
+     */
+    private long m_Position = 0;
+
+    /**
+     *  The buffer that is currently written, or that is waiting to be
+     *  filled again.
+     */
+    private ByteBuffer m_Spare;
+
+    /**
+     *  The synchronisation policy.
+     */
+    private final SyncPolicy m_SyncPolicy;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AsyncFileEncoder} instance.
+     *
+     *  @param  channel The target channel.
+     *  @param  charset The character set for the encoding.
+     *  @param  syncPolicy  The synchronisation policy.
+     *  @param  bufferSize  The size for each of the two buffers.
+     */
+    private AsyncFileEncoder( final AsynchronousFileChannel channel, final Charset charset, final SyncPolicy syncPolicy, final int bufferSize )
+    {
+        super( charset, ByteBuffer.allocateDirect( bufferSize ) );
+        m_Channel = channel;
+        m_SyncPolicy = syncPolicy;
+        m_Spare = ByteBuffer.allocateDirect( bufferSize );
+    }   //  AsyncFileEncoder()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Waits until the given future has completed.
+     *
+     *  @param  future  The future.
+     *  @throws IOException The operation failed, or the current thread was
+     *      interrupted while waiting.
+     */
+    private static final void await( final CompletableFuture<Void> future ) throws IOException
+    {
+        try
+        {
+            future.get();
+        }
+        catch( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            final var exception = new InterruptedIOException( "Interrupted while waiting for the write to complete" );
+            exception.initCause( e );
+            throw exception;
+        }
+        catch( final ExecutionException e )
+        {
+            final var cause = e.getCause();
+            if( cause instanceof final IOException ioException ) throw ioException;
+            throw new IOException( "Writing to the file failed", cause );
+        }
+    }   //  await()
+
+    /**
+     *  Waits until the write operation that is currently running has
+     *  completed.
+     *
+     *  @throws IOException The write operation failed, or the current
+     *      thread was interrupted while waiting.
+     */
+    private final void awaitPending() throws IOException
+    {
+        await( m_Pending );
+    }   //  awaitPending()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Waits until the output is durable, and closes the channel.</p>
+     */
+    @Override
+    protected final void closeTarget() throws IOException
+    {
+        try( m_Channel )
+        {
+            await( isNull( m_Completion ) ? m_Pending : m_Completion );
+        }
+    }   //  closeTarget()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Starts the asynchronous write of the given buffer, and returns the
+     *  other buffer, after the write of its contents has completed.</p>
+     */
+    @Override
+    protected final ByteBuffer drain( final ByteBuffer buffer ) throws IOException
+    {
+        var retValue = buffer;
+        if( buffer.position() > 0 )
+        {
+            awaitPending();
+            buffer.flip();
+            final var position = m_Position;
+            m_Position += buffer.remaining();
+            m_Pending = write( buffer, position );
+
+            retValue = m_Spare;
+            retValue.clear();
+            m_Spare = buffer;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  drain()
+
+    /**
+     *  <p>{@summary Completes the output without waiting for the last write
+     *  operation.}</p>
+     *  <p>Pending characters will be encoded, and the last bytes will be
+     *  handed over to the channel. The returned future completes when all
+     *  bytes were written, the file was synchronised according to the
+     *  {@link SyncPolicy},
+     *  and the channel was closed. Further calls to this method return the
+     *  same future.</p>
+     *
+     *  @return The future that completes when the output is durable.
+     *  @throws IOException Writing the remaining bytes failed.
+     */
+    public final CompletableFuture<Void> finishAsync() throws IOException
+    {
+        finish();
+
+        //---* Done *----------------------------------------------------------
+        return m_Completion;
+    }   //  finishAsync()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>This implementation does not wait for the last write operation;
+     *  instead it prepares the future that is returned by
+     *  {@link #finishAsync()}.
+     *  The synchronisation of the file runs on an executor of its own, not
+     *  on the thread that completed the last write.</p>
+     */
+    @Override
+    protected final void finishTarget()
+    {
+        m_Completion = m_Pending
+            .thenRunAsync( () ->
+            {
+                try
+                {
+                    force();
+                }
+                catch( final IOException e )
+                {
+                    throw new CompletionException( e );
+                }
+            }, SYNC_EXECUTOR )
+            .whenComplete( (result, throwable) ->
+            {
+                try
+                {
+                    m_Channel.close();
+                }
+                catch( final IOException ignored ) { /* Deliberately ignored */ }
+            } );
+    }   //  finishTarget()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Waits until the pending write operation has completed, and then
+     *  synchronises the file according to the
+     *  {@link SyncPolicy}.</p>
+     */
+    @Override
+    protected final void flushTarget() throws IOException
+    {
+        awaitPending();
+        force();
+    }   //  flushTarget()
+
+    /**
+     *  Synchronises the file according to the
+     *  {@link SyncPolicy};
+     *  this blocks until the synchronisation is done.
+     *
+     *  @throws IOException The synchronisation failed.
+     */
+    private final void force() throws IOException
+    {
+        switch( m_SyncPolicy )
+        {
+            case NONE -> { /* Nothing to do */ }
+            case DATA -> m_Channel.force( false );
+            case DATA_AND_METADATA -> m_Channel.force( true );
+        }
+    }   //  force()
+
+    /**
+     *  Creates a new instance of {@code AsyncFileEncoder} that writes the
+     *  encoded bytes to the given file; an existing file will be
+     *  overwritten.
+     *
+     *  @param  file    The target file.
+     *  @param  charset The character set for the encoding.
+     *  @param  syncPolicy  The synchronisation policy.
+     *  @return The new encoder.
+     *  @throws IOException The file cannot be opened.
+     */
+    public static final AsyncFileEncoder forFile( final Path file, final Charset charset, final SyncPolicy syncPolicy ) throws IOException
+    {
+        return forFile( file, charset, syncPolicy, DEFAULT_ASYNC_BUFFER_SIZE );
+    }   //  forFile()
+
+    /**
+     *  Creates a new instance of {@code AsyncFileEncoder} that writes the
+     *  encoded bytes to the given file; an existing file will be
+     *  overwritten.
+     *
+     *  @param  file    The target file.
+     *  @param  charset The character set for the encoding.
+     *  @param  syncPolicy  The synchronisation policy.
+     *  @param  bufferSize  The size for each of the two buffers.
+     *  @return The new encoder.
+     *  @throws IllegalArgumentException    The buffer size is less than
+     *      {@link #MIN_BUFFER_SIZE}.
+     *  @throws IOException The file cannot be opened.
+     */
+    public static final AsyncFileEncoder forFile( final Path file, final Charset charset, final SyncPolicy syncPolicy, final int bufferSize ) throws IllegalArgumentException, IOException
+    {
+        requireNonNullArgument( file, "file" );
+        requireNonNullArgument( charset, "charset" );
+        requireNonNullArgument( syncPolicy, "syncPolicy" );
+        checkBufferSize( bufferSize );
+
+        final var channel = AsynchronousFileChannel.open( file, CREATE, TRUNCATE_EXISTING, WRITE );
+        final var retValue = new AsyncFileEncoder( channel, charset, syncPolicy, bufferSize );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forFile()
+
+    /**
+     *  Writes the remaining bytes of the given buffer to the given position
+     *  of the file; as a single write operation may write only a part of
+     *  the bytes, the operation is repeated until the buffer is empty.
+     *
+     *  @param  buffer  The buffer, in read mode.
+     *  @param  position    The position in the file.
+     *  @return The future that completes when all bytes were written.
+     */
+    private final CompletableFuture<Void> write( final ByteBuffer buffer, final long position )
+    {
+        final var retValue = new CompletableFuture<Void>();
+        m_Channel.write( buffer, position, position, new CompletionHandler<Integer,Long>()
+        {
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final void completed( final Integer result, final Long attachment )
+            {
+                try
+                {
+                    if( buffer.hasRemaining() )
+                    {
+                        final var nextPosition = attachment.longValue() + result.longValue();
+                        m_Channel.write( buffer, nextPosition, Long.valueOf( nextPosition ), this );
+                    }
+                    else
+                    {
+                        retValue.complete( null );
+                    }
+                }
+                catch( final RuntimeException e )
+                {
+                    //---* The follow-up write could not be started *----------
+                    retValue.completeExceptionally( e );
+                }
+            }   //  completed()
+
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            public final void failed( final Throwable exc, final Long attachment )
+            {
+                retValue.completeExceptionally( exc );
+            }   //  failed()
+        } );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  write()
+}
+//  class AsyncFileEncoder
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,1166 @@
+/*
+ * ============================================================================
+ * Copyright © 2002-2020 by Thomas Thrien.
+ * All Rights Reserved.
+ * ============================================================================
+ * Licensed to the public under the agreements of the GNU Lesser General Public
+ * License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *      http://www.gnu.org/licenses/lgpl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.CodingErrorAction.REPORT;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.checkFromToIndex;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.CharConversionException;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.Path;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+
+/**
+ *  <p>{@summary An
+ *  {@link Appendable}
+ *  that encodes the characters written to it immediately into bytes, using
+ *  the given
+ *  {@link Charset}.}</p>
+ *  <p>The bytes are collected in a reusable buffer that will be handed over
+ *  to the destination whenever it is full, on a call to
+ *  {@link #flush()},
+ *  and finally on
+ *  {@link #finish()}
+ *  or
+ *  {@link #close()}.
+ *  This avoids the creation of a String for the complete document and the
+ *  additional {@code char[]} to {@code byte[]} copy when that String will
+ *  be encoded.</p>
+ *  <p>When a character cannot be represented in the target character set,
+ *  a numeric character reference (like {@code &#x20AC;} for the Euro sign
+ *  when encoding to ISO-8859-1) is written instead. This is valid for text
+ *  and attribute values. Inside a {@code CDATA} section, the section is
+ *  closed before the reference and opened again after it. References are
+ *  not recognised inside element and attribute names, comments and
+ *  processing instructions, therefore such a character causes a
+ *  {@link CharConversionException}
+ *  there.</p>
+ *  <p>Instances of this class are not thread-safe.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = STABLE, since = "0.26.0" )
+public abstract class ByteEncoder implements Appendable, Closeable, Flushable
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The implementation of
+     *  {@link ByteEncoder}
+     *  that writes to a buffer that is provided by the caller.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class BufferEncoder extends ByteEncoder
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code BufferEncoder} instance.
+         *
+         *  @param  buffer  The target buffer.
+         *  @param  charset The character set.
+         */
+        public BufferEncoder( final ByteBuffer buffer, final Charset charset )
+        {
+            super( charset, buffer );
+        }   //  BufferEncoder()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         *  <p>The bytes remain in the buffer of the caller, therefore this
+         *  implementation just returns the given buffer.</p>
+         */
+        @Override
+        protected final ByteBuffer drain( final ByteBuffer buffer ) { return buffer; }
+    }
+    //  class BufferEncoder
+
+    /**
+     *  The implementation of
+     *  {@link ByteEncoder}
+     *  that writes to a
+     *  {@link WritableByteChannel}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class ChannelEncoder extends ByteEncoder
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The target channel.
+         */
+        private final WritableByteChannel m_Channel;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code ChannelEncoder} instance.
+         *
+         *  @param  channel The target channel.
+         *  @param  charset The character set.
+         *  @param  bufferSize  The size of the byte buffer.
+         */
+        public ChannelEncoder( final WritableByteChannel channel, final Charset charset, final int bufferSize )
+        {
+            super( charset, ByteBuffer.allocateDirect( checkBufferSize( bufferSize ) ) );
+            m_Channel = requireNonNullArgument( channel, "channel" );
+        }   //  ChannelEncoder()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final void closeTarget() throws IOException { m_Channel.close(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final ByteBuffer drain( final ByteBuffer buffer ) throws IOException
+        {
+            buffer.flip();
+            while( buffer.hasRemaining() ) m_Channel.write( buffer );
+            buffer.clear();
+
+            //---* Done *------------------------------------------------------
+            return buffer;
+        }   //  drain()
+    }
+    //  class ChannelEncoder
+
+    /**
+     *  The markup contexts that are distinguished for the handling of
+     *  characters that cannot be represented in the target character set.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static enum Context
+    {
+            /*------------------*\
+        ====** Enum Declaration **=============================================
+            \*------------------*/
+        /**
+         *  Text and everything else that is not covered by one of the other
+         *  contexts.
+         */
+        TEXT( "", "" ),
+
+        /**
+         *  A start or an end tag, with the element name, the attribute names
+         *  and the attribute values.
+         */
+        TAG( "<", ">" ),
+
+        /**
+         *  A comment.
+         */
+        COMMENT( "<!--", "-->" ),
+
+        /**
+         *  A {@code CDATA} section.
+         */
+        CDATA( "<![CDATA[", "]]>" ),
+
+        /**
+         *  A processing instruction, including the XML declaration.
+         */
+        PROCESSING_INSTRUCTION( "<?", "?>" );
+
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The sequence that closes the context.
+         */
+        private final String m_Closer;
+
+        /**
+         *  The sequence that opens the context.
+         */
+        private final String m_Opener;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Context} instance.
+         *
+         *  @param  opener  The sequence that opens the context.
+         *  @param  closer  The sequence that closes the context.
+         */
+        private Context( final String opener, final String closer )
+        {
+            m_Opener = opener;
+            m_Closer = closer;
+        }   //  Context()
+    }
+    //  enum Context
+
+    /**
+     *  <p>{@summary The implementation of
+     *  {@link ByteEncoder}
+     *  that encodes directly into a memory mapped file.}</p>
+     *  <p>The bytes are written into a
+     *  {@link java.nio.MappedByteBuffer}
+     *  that maps a window of the file. When the window is (almost) full, the
+     *  next window is mapped, starting right behind the last byte written;
+     *  the size of the window doubles each time, up to
+     *  {@link #MAX_MAPPING_SIZE}.
+     *  Mapping a region beyond the current end of the file extends the file,
+     *  therefore it will be truncated to the exact length of the output when
+     *  the encoder is closed.</p>
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class MappedFileEncoder extends ByteEncoder
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The target channel.
+         */
+        private final FileChannel m_Channel;
+
+        /**
+         *  The number of bytes written so far; this is only up-to-date
+         *  after a call to
+         *  {@link #drain(ByteBuffer)}.
+         */
+        private long m_Length = 0;
+
+        /**
+         *  The size of the current window.
+         */
+        private long m_MappingSize;
+
+        /**
+         *  The position of the current window in the file.
+         */
+        private long m_WindowStart = 0;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code MappedFileEncoder} instance.
+         *
+         *  @param  channel The target channel; it must have been opened for
+         *      reading and writing.
+         *  @param  charset The character set.
+         *  @param  mappingSize The size of the first window.
+         *  @throws IOException Mapping the file failed.
+         */
+        public MappedFileEncoder( final FileChannel channel, final Charset charset, final int mappingSize ) throws IOException
+        {
+            super( charset, requireNonNullArgument( channel, "channel" ).map( READ_WRITE, 0, checkBufferSize( mappingSize ) ) );
+            m_Channel = channel;
+            m_MappingSize = mappingSize;
+        }   //  MappedFileEncoder()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         *  <p>The file is truncated to the number of bytes that were written
+         *  before it will be closed.</p>
+         */
+        @Override
+        protected final void closeTarget() throws IOException
+        {
+            try( m_Channel )
+            {
+                m_Channel.truncate( m_Length );
+            }
+        }   //  closeTarget()
+
+        /**
+         *  {@inheritDoc}
+         *  <p>The bytes are already in the file, therefore the given buffer
+         *  will be returned unchanged as long as there is enough space left
+         *  for the next character; otherwise, the next window will be
+         *  mapped.</p>
+         */
+        @Override
+        protected final ByteBuffer drain( final ByteBuffer buffer ) throws IOException
+        {
+            m_Length = m_WindowStart + buffer.position();
+            var retValue = buffer;
+            if( buffer.remaining() < MIN_BUFFER_SIZE )
+            {
+                m_WindowStart = m_Length;
+                m_MappingSize = min( m_MappingSize * 2, MAX_MAPPING_SIZE );
+                retValue = m_Channel.map( READ_WRITE, m_WindowStart, m_MappingSize );
+            }
+
+            //---* Done *------------------------------------------------------
+            return retValue;
+        }   //  drain()
+    }
+    //  class MappedFileEncoder
+
+    /**
+     *  The implementation of
+     *  {@link ByteEncoder}
+     *  that writes to an
+     *  {@link OutputStream}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class StreamEncoder extends ByteEncoder
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The target stream.
+         */
+        private final OutputStream m_Stream;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code StreamEncoder} instance.
+         *
+         *  @param  outputStream    The target stream.
+         *  @param  charset The character set.
+         *  @param  bufferSize  The size of the byte buffer.
+         */
+        public StreamEncoder( final OutputStream outputStream, final Charset charset, final int bufferSize )
+        {
+            super( charset, ByteBuffer.allocate( checkBufferSize( bufferSize ) ) );
+            m_Stream = requireNonNullArgument( outputStream, "outputStream" );
+        }   //  StreamEncoder()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final void closeTarget() throws IOException { m_Stream.close(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final ByteBuffer drain( final ByteBuffer buffer ) throws IOException
+        {
+            if( buffer.position() > 0 )
+            {
+                m_Stream.write( buffer.array(), buffer.arrayOffset(), buffer.position() );
+                buffer.clear();
+            }
+
+            //---* Done *------------------------------------------------------
+            return buffer;
+        }   //  drain()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final void flushTarget() throws IOException { m_Stream.flush(); }
+    }
+    //  class StreamEncoder
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The size for the buffer that takes the characters before they will be
+     *  encoded: {@value}.
+     */
+    private static final int CHAR_BUFFER_SIZE = 1024;
+
+    /**
+     *  The default size for the byte buffer: {@value}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     *  The default size for the first window of a memory mapped file: {@value}
+     *  bytes.
+     *
+     *  @see #forMappedFile(Path, Charset)
+     */
+    public static final int DEFAULT_MAPPING_SIZE = 1 << 20;
+
+    /**
+     *  The maximum size for a window of a memory mapped file: {@value} bytes.
+     *
+     *  @see #forMappedFile(Path, Charset, int)
+     */
+    public static final int MAX_MAPPING_SIZE = 1 << 30;
+
+    /**
+     *  The minimum size for the byte buffer: {@value}. It must be large
+     *  enough to take the longest encoding for a single character, or a
+     *  complete numeric character reference.
+     */
+    public static final int MIN_BUFFER_SIZE = 16;
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The buffer for the encoded bytes.
+     */
+    private ByteBuffer m_Bytes;
+
+    /**
+     *  The buffer for the characters that are not yet encoded.
+     */
+    private final CharBuffer m_Chars;
+
+    /**
+     *  The encoder.
+     */
+    private final CharsetEncoder m_Encoder;
+
+    /**
+     *  The flag that indicates whether this encoder was already closed.
+     */
+    private boolean m_IsClosed = false;
+
+    /**
+     *  The flag that indicates whether the output was already completed.
+     */
+    private boolean m_IsFinished = false;
+
+    /**
+     *  The candidate for the context that is opened by the characters that
+     *  were matched last; {@code null} if it is not yet known.
+     */
+    private Context m_Candidate = null;
+
+    /**
+     *  The markup context of the characters that were scanned last.
+     */
+    private Context m_Context = Context.TEXT;
+
+    /**
+     *  The number of characters from the sequence that opens or closes a
+     *  context that were matched last.
+     */
+    private int m_Matched = 0;
+
+    /**
+     *  The quote character of the attribute value inside a tag that was
+     *  scanned last; {@code 0} if the last character was outside of an
+     *  attribute value.
+     */
+    private char m_Quote = 0;
+
+    /**
+     *  The buffer for a numeric character reference, including the
+     *  delimiters of the {@code CDATA} section that is split for it.
+     */
+    private final CharBuffer m_Reference = CharBuffer.allocate( 32 );
+
+    /**
+     *  The position in the character buffer up to which the characters were
+     *  scanned for their markup context.
+     */
+    private int m_ScanPosition = 0;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code ByteEncoder} instance.
+     *
+     *  @param  charset The character set that is used for the encoding.
+     *  @param  buffer  The initial buffer for the encoded bytes; it has to be
+     *      in write mode, the first byte will be written to its current
+     *      position.
+     */
+    protected ByteEncoder( final Charset charset, final ByteBuffer buffer )
+    {
+        m_Encoder = requireNonNullArgument( charset, "charset" ).newEncoder()
+            .onMalformedInput( REPLACE )
+            .onUnmappableCharacter( REPORT );
+        m_Bytes = requireNonNullArgument( buffer, "buffer" );
+        m_Chars = CharBuffer.allocate( CHAR_BUFFER_SIZE );
+    }   //  ByteEncoder()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final ByteEncoder append( final char c ) throws IOException
+    {
+        ensureOpen();
+        if( !m_Chars.hasRemaining() ) encodeChars( false );
+        m_Chars.put( c );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  append()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final ByteEncoder append( final CharSequence csq ) throws IOException
+    {
+        final var sequence = isNull( csq ) ? "null" : csq;
+
+        //---* Done *----------------------------------------------------------
+        return append( sequence, 0, sequence.length() );
+    }   //  append()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final ByteEncoder append( final CharSequence csq, final int start, final int end ) throws IOException
+    {
+        ensureOpen();
+        final var sequence = isNull( csq ) ? "null" : csq;
+        checkFromToIndex( start, end, sequence.length() );
+
+        var position = start;
+        while( position < end )
+        {
+            if( !m_Chars.hasRemaining() ) encodeChars( false );
+            final var count = min( end - position, m_Chars.remaining() );
+            if( sequence instanceof final String string )
+            {
+                m_Chars.put( string, position, position + count );
+            }
+            else
+            {
+                m_Chars.append( sequence, position, position + count );
+            }
+            position += count;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  append()
+
+    /**
+     *  Checks whether the given buffer size is valid.
+     *
+     *  @param  bufferSize  The buffer size.
+     *  @return The buffer size.
+     *  @throws IllegalArgumentException    The buffer size is less than
+     *      {@link #MIN_BUFFER_SIZE}.
+     */
+    protected static final int checkBufferSize( final int bufferSize ) throws IllegalArgumentException
+    {
+        if( bufferSize < MIN_BUFFER_SIZE ) throw new IllegalArgumentException( "Buffer size must be at least %d: %d".formatted( MIN_BUFFER_SIZE, bufferSize ) );
+
+        //---* Done *----------------------------------------------------------
+        return bufferSize;
+    }   //  checkBufferSize()
+
+    /**
+     *  Completes the output (if not done yet) and closes the target.
+     *
+     *  @throws IOException Writing the remaining bytes or closing the target
+     *      failed.
+     */
+    @Override
+    public final void close() throws IOException
+    {
+        if( !m_IsClosed )
+        {
+            try
+            {
+                finish();
+            }
+            finally
+            {
+                m_IsClosed = true;
+                closeTarget();
+            }
+        }
+    }   //  close()
+
+    /**
+     *  <p>{@summary Closes the target of this encoder.}</p>
+     *  <p>This method is called by
+     *  {@link #close()};
+     *  the default implementation does nothing.</p>
+     *
+     *  @throws IOException Closing the target failed.
+     */
+    protected void closeTarget() throws IOException { /* Does nothing */ }
+
+    /**
+     *  <p>{@summary Hands over the encoded bytes from the given buffer to the
+     *  target.}</p>
+     *  <p>The given buffer is in write mode: the bytes that have to be
+     *  handed over are those between index 0 and its current position. The
+     *  return value is the buffer that will take the following bytes, again
+     *  in write mode; usually this is the same buffer, after a call to
+     *  {@link ByteBuffer#clear()}.</p>
+     *  <p>If the returned buffer is the same as the given one and its
+     *  position was not reset, although the method was called because the
+     *  buffer was full, a
+     *  {@link BufferOverflowException}
+     *  will be thrown.</p>
+     *
+     *  @param  buffer  The buffer with the encoded bytes.
+     *  @return The buffer for the next bytes.
+     *  @throws IOException Writing the bytes failed.
+     */
+    protected abstract ByteBuffer drain( final ByteBuffer buffer ) throws IOException;
+
+    /**
+     *  Encodes the characters in the character buffer.
+     *
+     *  @param  endOfInput  {@code true} if no more characters will follow,
+     *      {@code false} otherwise.
+     *  @throws IOException Writing the bytes to the target failed, or a
+     *      character could not be encoded at all.
+     */
+    private final void encodeChars( final boolean endOfInput ) throws IOException
+    {
+        m_Chars.flip();
+        try
+        {
+            var isDone = false;
+            while( !isDone )
+            {
+                final var result = m_Encoder.encode( m_Chars, m_Bytes, endOfInput );
+                if( result.isUnderflow() )
+                {
+                    isDone = true;
+                }
+                else if( result.isOverflow() )
+                {
+                    handleOverflow();
+                }
+                else if( result.isUnmappable() )
+                {
+                    scan( m_Chars.position() );
+                    final var codePoint = result.length() == 2
+                        ? Character.toCodePoint( m_Chars.get( m_Chars.position() ), m_Chars.get( m_Chars.position() + 1 ) )
+                        : m_Chars.get( m_Chars.position() );
+                    /*
+                     * A character directly after the '<' is the first one of
+                     * an element name.
+                     */
+                    final var isName = ((m_Context == Context.TEXT) && (m_Matched == 1)) || ((m_Context == Context.TAG) && (m_Quote == 0));
+                    if( isName || (m_Context == Context.COMMENT) || (m_Context == Context.PROCESSING_INSTRUCTION) )
+                    {
+                        final var location = isName
+                            ? "an element or attribute name"
+                            : m_Context == Context.COMMENT ? "a comment" : "a processing instruction";
+                        throw new CharConversionException( "Character U+%1$04X cannot be encoded with %2$s inside %3$s".formatted( codePoint, m_Encoder.charset().name(), location ) );
+                    }
+                    m_Chars.position( m_Chars.position() + result.length() );
+                    writeCharacterReference( codePoint, endOfInput );
+                }
+                else
+                {
+                    result.throwException();
+                }
+            }
+        }
+        finally
+        {
+            scan( m_Chars.position() );
+            m_Chars.compact();
+            m_ScanPosition = 0;
+        }
+    }   //  encodeChars()
+
+    /**
+     *  Makes sure that the encoder was not closed or finished yet.
+     *
+     *  @throws IOException The encoder is closed.
+     */
+    private final void ensureOpen() throws IOException
+    {
+        if( m_IsClosed || m_IsFinished ) throw new IOException( "The encoder is closed" );
+    }   //  ensureOpen()
+
+    /**
+     *  <p>{@summary Completes the output, without closing the target.}</p>
+     *  <p>Pending characters will be encoded, and all bytes will be handed
+     *  over to the target. No more characters can be appended after this
+     *  call; further calls to this method have no effect.</p>
+     *
+     *  @throws IOException Writing the remaining bytes failed.
+     */
+    public final void finish() throws IOException
+    {
+        if( !m_IsFinished && !m_IsClosed )
+        {
+            encodeChars( true );
+            var isDone = false;
+            while( !isDone )
+            {
+                final var result = m_Encoder.flush( m_Bytes );
+                if( result.isOverflow() )
+                {
+                    handleOverflow();
+                }
+                else
+                {
+                    isDone = true;
+                }
+            }
+            m_Bytes = drain( m_Bytes );
+            m_IsFinished = true;
+            finishTarget();
+        }
+    }   //  finish()
+
+    /**
+     *  Encodes all pending characters and hands over the encoded bytes to
+     *  the target, then flushes the target.
+     *
+     *  @throws IOException Writing the bytes failed.
+     */
+    @Override
+    public final void flush() throws IOException
+    {
+        ensureOpen();
+        encodeChars( false );
+        m_Bytes = drain( m_Bytes );
+        flushTarget();
+    }   //  flush()
+
+    /**
+     *  <p>{@summary Completes the output to the target of this encoder.}</p>
+     *  <p>This method is called by
+     *  {@link #finish()},
+     *  after the last bytes were handed over to the target; the default
+     *  implementation calls
+     *  {@link #flushTarget()}.</p>
+     *
+     *  @throws IOException Completing the output failed.
+     */
+    protected void finishTarget() throws IOException { flushTarget(); }
+
+    /**
+     *  <p>{@summary Flushes the target of this encoder.}</p>
+     *  <p>This method is called by
+     *  {@link #flush()},
+     *  after the bytes were handed over to the target, and by the default
+     *  implementation of
+     *  {@link #finishTarget()};
+     *  the default implementation does nothing.</p>
+     *
+     *  @throws IOException Flushing the target failed.
+     */
+    protected void flushTarget() throws IOException { /* Does nothing */ }
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given buffer, starting at its current position. When the
+     *  buffer is full, a
+     *  {@link BufferOverflowException}
+     *  will be thrown.
+     *
+     *  @param  buffer  The target buffer.
+     *  @param  charset The character set for the encoding.
+     *  @return The new encoder.
+     */
+    public static final ByteEncoder forBuffer( final ByteBuffer buffer, final Charset charset )
+    {
+        final var retValue = new BufferEncoder( buffer, charset );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forBuffer()
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given channel; the channel should be in blocking mode.
+     *  The channel will be closed when
+     *  {@link #close()}
+     *  is called on the encoder.
+     *
+     *  @param  channel The target channel.
+     *  @param  charset The character set for the encoding.
+     *  @return The new encoder.
+     */
+    public static final ByteEncoder forChannel( final WritableByteChannel channel, final Charset charset )
+    {
+        return forChannel( channel, charset, DEFAULT_BUFFER_SIZE );
+    }   //  forChannel()
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given channel; the channel should be in blocking mode.
+     *  The channel will be closed when
+     *  {@link #close()}
+     *  is called on the encoder.
+     *
+     *  @param  channel The target channel.
+     *  @param  charset The character set for the encoding.
+     *  @param  bufferSize  The size of the internal byte buffer.
+     *  @return The new encoder.
+     *  @throws IllegalArgumentException    The buffer size is less than
+     *      {@link #MIN_BUFFER_SIZE}.
+     */
+    public static final ByteEncoder forChannel( final WritableByteChannel channel, final Charset charset, final int bufferSize ) throws IllegalArgumentException
+    {
+        final var retValue = new ChannelEncoder( channel, charset, bufferSize );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forChannel()
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given file, using a memory mapped buffer. An existing
+     *  file will be overwritten. The file will be truncated to the number of
+     *  bytes written and closed when
+     *  {@link #close()}
+     *  is called on the encoder.
+     *
+     *  @param  file    The target file.
+     *  @param  charset The character set for the encoding.
+     *  @return The new encoder.
+     *  @throws IOException The file cannot be opened or mapped.
+     */
+    public static final ByteEncoder forMappedFile( final Path file, final Charset charset ) throws IOException
+    {
+        return forMappedFile( file, charset, DEFAULT_MAPPING_SIZE );
+    }   //  forMappedFile()
+
+    /**
+     *  <p>{@summary Creates a new instance of {@code ByteEncoder} that writes
+     *  the encoded bytes to the given file, using a memory mapped buffer.}
+     *  An existing file will be overwritten. The file will be truncated to
+     *  the number of bytes written and closed when
+     *  {@link #close()}
+     *  is called on the encoder.</p>
+     *  <p>The file is mapped in windows; the first window has the given
+     *  size, each following one twice the size of its predecessor, up to
+     *  {@link #MAX_MAPPING_SIZE}.
+     *  The mapped regions will be released by the garbage collector only;
+     *  on some platforms, this may prevent the truncation of the file.</p>
+     *
+     *  @param  file    The target file.
+     *  @param  charset The character set for the encoding.
+     *  @param  mappingSize The size of the first window.
+     *  @return The new encoder.
+     *  @throws IllegalArgumentException    The mapping size is less than
+     *      {@link #MIN_BUFFER_SIZE}.
+     *  @throws IOException The file cannot be opened or mapped.
+     */
+    public static final ByteEncoder forMappedFile( final Path file, final Charset charset, final int mappingSize ) throws IllegalArgumentException, IOException
+    {
+        requireNonNullArgument( charset, "charset" );
+        checkBufferSize( mappingSize );
+        final var channel = FileChannel.open( requireNonNullArgument( file, "file" ), CREATE, TRUNCATE_EXISTING, READ, WRITE );
+        final ByteEncoder retValue;
+        try
+        {
+            retValue = new MappedFileEncoder( channel, charset, mappingSize );
+        }
+        catch( final IOException | RuntimeException e )
+        {
+            channel.close();
+            throw e;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forMappedFile()
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given stream. The stream will be closed when
+     *  {@link #close()}
+     *  is called on the encoder.
+     *
+     *  @param  outputStream    The target stream.
+     *  @param  charset The character set for the encoding.
+     *  @return The new encoder.
+     */
+    public static final ByteEncoder forOutputStream( final OutputStream outputStream, final Charset charset )
+    {
+        return forOutputStream( outputStream, charset, DEFAULT_BUFFER_SIZE );
+    }   //  forOutputStream()
+
+    /**
+     *  Creates a new instance of {@code ByteEncoder} that writes the encoded
+     *  bytes to the given stream. The stream will be closed when
+     *  {@link #close()}
+     *  is called on the encoder.
+     *
+     *  @param  outputStream    The target stream.
+     *  @param  charset The character set for the encoding.
+     *  @param  bufferSize  The size of the internal byte buffer.
+     *  @return The new encoder.
+     *  @throws IllegalArgumentException    The buffer size is less than
+     *      {@link #MIN_BUFFER_SIZE}.
+     */
+    public static final ByteEncoder forOutputStream( final OutputStream outputStream, final Charset charset, final int bufferSize ) throws IllegalArgumentException
+    {
+        final var retValue = new StreamEncoder( outputStream, charset, bufferSize );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forOutputStream()
+
+    /**
+     *  Returns the character set that is used by this encoder.
+     *
+     *  @return The character set.
+     */
+    public final Charset getCharset() { return m_Encoder.charset(); }
+
+    /**
+     *  Hands over the full byte buffer to the target.
+     *
+     *  @throws IOException Writing the bytes failed.
+     *  @throws BufferOverflowException The buffer is full and cannot be
+     *      drained.
+     */
+    private final void handleOverflow() throws IOException, BufferOverflowException
+    {
+        final var buffer = m_Bytes;
+        final var position = buffer.position();
+        m_Bytes = requireNonNullArgument( drain( buffer ), "buffer" );
+        if( (m_Bytes == buffer) && (m_Bytes.position() >= position) ) throw new BufferOverflowException();
+    }   //  handleOverflow()
+
+    /**
+     *  Determines the markup context for the characters in the character
+     *  buffer from the current scan position up to the given position.
+     *
+     *  @param  end The end position for the scan, exclusive.
+     */
+    @SuppressWarnings( "OverlyComplexMethod" )
+    private final void scan( final int end )
+    {
+        for( var i = m_ScanPosition; i < end; ++i )
+        {
+            final var c = m_Chars.get( i );
+            if( m_Context == Context.TEXT )
+            {
+                //---* Look for the start of a tag, comment, CDATA or a PI *---
+                switch( m_Matched )
+                {
+                    case 0 -> m_Matched = c == '<' ? 1 : 0;
+                    case 1 ->
+                    {
+                        if( c == '?' )
+                        {
+                            m_Context = Context.PROCESSING_INSTRUCTION;
+                            m_Matched = 0;
+                        }
+                        else if( (c == '!') || (c == '<') )
+                        {
+                            m_Matched = c == '!' ? 2 : 1;
+                        }
+                        else
+                        {
+                            m_Context = Context.TAG;
+                            m_Matched = 0;
+                            m_Quote = 0;
+                        }
+                    }
+                    default ->
+                    {
+                        if( m_Matched == 2 ) m_Candidate = c == '-' ? Context.COMMENT : c == '[' ? Context.CDATA : null;
+                        if( nonNull( m_Candidate ) && (c == m_Candidate.m_Opener.charAt( m_Matched )) )
+                        {
+                            if( ++m_Matched == m_Candidate.m_Opener.length() )
+                            {
+                                m_Context = m_Candidate;
+                                m_Matched = 0;
+                            }
+                        }
+                        else
+                        {
+                            m_Matched = c == '<' ? 1 : 0;
+                        }
+                    }
+                }
+            }
+            else if( m_Context == Context.TAG )
+            {
+                //---* Look for the end of the tag, outside of the values *----
+                if( m_Quote != 0 )
+                {
+                    if( c == m_Quote ) m_Quote = 0;
+                }
+                else if( (c == '"') || (c == '\'') )
+                {
+                    m_Quote = c;
+                }
+                else if( c == '>' )
+                {
+                    m_Context = Context.TEXT;
+                }
+            }
+            else
+            {
+                //---* Look for the end of the current context *---------------
+                final var closer = m_Context.m_Closer;
+                if( c == closer.charAt( m_Matched ) )
+                {
+                    if( ++m_Matched == closer.length() )
+                    {
+                        m_Context = Context.TEXT;
+                        m_Matched = 0;
+                    }
+                }
+                else if( c == closer.charAt( 0 ) )
+                {
+                    //---* "]]]>" still closes a CDATA section *--------------
+                    if( (m_Matched < 2) || (closer.charAt( 1 ) != c) ) m_Matched = 1;
+                }
+                else
+                {
+                    m_Matched = 0;
+                }
+            }
+        }
+        m_ScanPosition = max( m_ScanPosition, end );
+    }   //  scan()
+
+    /**
+     *  Writes the numeric character reference for the given code point.
+     *  Inside a {@code CDATA} section, the section is closed before the
+     *  reference and opened again after it.
+     *
+     *  @param  codePoint   The code point.
+     *  @param  endOfInput  {@code true} if the encoder already received the
+     *      end of the input, {@code false} otherwise.
+     *  @throws IOException Writing the bytes failed.
+     */
+    private final void writeCharacterReference( final int codePoint, final boolean endOfInput ) throws IOException
+    {
+        m_Reference.clear();
+        final var isCDATA = m_Context == Context.CDATA;
+        if( isCDATA ) m_Reference.put( Context.CDATA.m_Closer );
+        m_Reference.put( "&#x" );
+        final var digits = Integer.toHexString( codePoint ).toUpperCase( ROOT );
+        m_Reference.put( digits ).put( ';' );
+        if( isCDATA )
+        {
+            m_Reference.put( Context.CDATA.m_Opener );
+            m_Matched = 0;
+        }
+        m_Reference.flip();
+
+        var isDone = false;
+        while( !isDone )
+        {
+            final var result = m_Encoder.encode( m_Reference, m_Bytes, endOfInput );
+            if( result.isUnderflow() )
+            {
+                isDone = true;
+            }
+            else if( result.isOverflow() )
+            {
+                handleOverflow();
+            }
+            else
+            {
+                result.throwException();
+            }
+        }
+    }   //  writeCharacterReference()
+}
+//  class ByteEncoder
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,441 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.getChildIndentationLevel;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeClosingFiller;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeDocument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeNode;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeOpeningTag;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+
+/**
+ *  <p>{@summary Writes an
+ *  {@link XMLDocument}
+ *  or an
+ *  {@link XMLElement}
+ *  tree in portions while it is still built, and removes the written parts
+ *  from the tree.}</p>
+ *  <p>The writer is bound to the tree and to a target. Each time a subtree
+ *  is finished, the caller passes it to
+ *  {@link #complete(XMLElement)};
+ *  the subtree is written and then removed from its parent, so the tree
+ *  holds only the parts that were not yet completed. As the output is
+ *  sequential, everything that precedes the completed subtree in document
+ *  order is written and removed, too, and the opening tags of its ancestors
+ *  are written when that did not happen yet; after that, the attributes and
+ *  namespaces of these ancestors must not be modified anymore.
+ *  {@link #close()}
+ *  writes the remaining parts of the tree and the closing tags of the
+ *  ancestors.</p>
+ *  <p>The output is the same as that of
+ *  {@link org.tquadrat.foundation.xml.builder.spi.SGMLPrinter#writeNode(Appendable, int, boolean, Element)}
+ *  (or
+ *  {@link org.tquadrat.foundation.xml.builder.spi.SGMLPrinter#writeDocument(Appendable, boolean, org.tquadrat.foundation.xml.builder.spi.Document)}
+ *  for a document) for the complete tree, for both compact and pretty
+ *  printed output; the elements and the other nodes of the tree are
+ *  written through that method, too, so an implementation that overrides
+ *  {@link Element#toString(int, boolean)}
+ *  is written as it would be in the complete tree.</p>
+ *  <p>Instances of this class are not thread-safe.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = STABLE, since = "0.26.0" )
+public final class XMLFlushWriter implements Closeable, Flushable
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element whose opening tag was already written, but not yet its
+     *  closing tag.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class Frame
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The element.
+         */
+        final XMLElement m_Element;
+
+        /**
+         *  The indentation level for the element.
+         */
+        final int m_IndentationLevel;
+
+        /**
+         *  The last child of the element that was written; {@code null} if
+         *  no child was written yet.
+         */
+        Element m_LastChild = null;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Frame} instance.
+         *
+         *  @param  element The element.
+         *  @param  indentationLevel    The indentation level for the
+         *      element.
+         */
+        Frame( final XMLElement element, final int indentationLevel )
+        {
+            m_Element = element;
+            m_IndentationLevel = indentationLevel;
+        }   //  Frame()
+    }
+    //  class Frame
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The target for the output.
+     */
+    private final Appendable m_Appendable;
+
+    /**
+     *  The document; {@code null} if the writer is bound to an element.
+     */
+    private final XMLDocument m_Document;
+
+    /**
+     *  {@code true} after the writer was closed.
+     */
+    private boolean m_IsClosed = false;
+
+    /**
+     *  The elements whose opening tags were written; the first entry is the
+     *  root element.
+     */
+    private final List<Frame> m_Open = new ArrayList<>();
+
+    /**
+     *  The pretty print flag.
+     */
+    private final boolean m_PrettyPrint;
+
+    /**
+     *  The root element.
+     */
+    private final XMLElement m_Root;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code XMLFlushWriter} instance.
+     *
+     *  @param  document    The document; can be {@code null}.
+     *  @param  root    The root element.
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     */
+    private XMLFlushWriter( final XMLDocument document, final XMLElement root, final Appendable appendable, final boolean prettyPrint )
+    {
+        m_Document = document;
+        m_Root = root;
+        m_Appendable = appendable;
+        m_PrettyPrint = prettyPrint;
+    }   //  XMLFlushWriter()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  <p>{@summary Writes the remaining parts of the tree, including the
+     *  closing tags for all open elements, and flushes the target.}</p>
+     *  <p>If no subtree was completed before, the whole tree will be written
+     *  at once. The target itself will not be closed.</p>
+     *
+     *  @throws IOException Writing to the target failed.
+     */
+    @Override
+    public final void close() throws IOException
+    {
+        if( !m_IsClosed )
+        {
+            if( m_Open.isEmpty() )
+            {
+                if( isNull( m_Document ) )
+                {
+                    writeNode( m_Appendable, 0, m_PrettyPrint, m_Root );
+                }
+                else
+                {
+                    writeDocument( m_Appendable, m_PrettyPrint, m_Document );
+                }
+            }
+            else
+            {
+                closeElements( 0 );
+            }
+            flush();
+            m_IsClosed = true;
+        }
+    }   //  close()
+
+    /**
+     *  Writes the remaining children and the closing tags for the open
+     *  elements on the given level and below.
+     *
+     *  @param  level   The first level to close.
+     *  @throws IOException Writing to the target failed.
+     */
+    private final void closeElements( final int level ) throws IOException
+    {
+        while( m_Open.size() > level )
+        {
+            final var frame = m_Open.remove( m_Open.size() - 1 );
+            final var element = frame.m_Element;
+            writeChildren( frame, null );
+            writeClosingFiller( m_Appendable, frame.m_IndentationLevel, m_PrettyPrint, element, frame.m_LastChild );
+            m_Appendable.append( "</" ).append( element.getElementName() ).append( '>' );
+
+            if( !m_Open.isEmpty() )
+            {
+                final var parentFrame = m_Open.get( m_Open.size() - 1 );
+                parentFrame.m_Element.removeChild( element );
+                parentFrame.m_LastChild = element;
+            }
+        }
+    }   //  closeElements()
+
+    /**
+     *  <p>{@summary Marks the given subtree as complete: it is written to
+     *  the target and removed from its parent.}</p>
+     *  <p>All children of its ancestors that precede it, and all their
+     *  descendants, are considered complete as well; they are written and
+     *  removed first. Completing the root element is the same as closing the
+     *  writer.</p>
+     *
+     *  @param  element The completed subtree.
+     *  @throws IllegalArgumentException    The element is not part of the
+     *      tree, or it was already written.
+     *  @throws IllegalStateException   The writer was already closed.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final void complete( final XMLElement element ) throws IllegalArgumentException, IllegalStateException, IOException
+    {
+        requireNonNullArgument( element, "element" );
+        if( m_IsClosed ) throw new IllegalStateException( "The writer is closed" );
+
+        if( element == m_Root )
+        {
+            close();
+        }
+        else
+        {
+            final var path = composePath( element );
+
+            //---* Write the opening tags for the ancestors *------------------
+            if( m_Open.isEmpty() )
+            {
+                if( nonNull( m_Document ) )
+                {
+                    for( final var child : m_Document.getChildren() )
+                    {
+                        if( child != m_Root ) writeNode( m_Appendable, 0, m_PrettyPrint, child );
+                    }
+                }
+                openElement( m_Root );
+            }
+            for( var level = 1; level < path.size(); ++level )
+            {
+                final var ancestor = path.get( level );
+                if( (m_Open.size() <= level) || (m_Open.get( level ).m_Element != ancestor) )
+                {
+                    closeElements( level );
+                    writeChildren( m_Open.get( level - 1 ), ancestor );
+                    openElement( ancestor );
+                }
+            }
+
+            //---* Write the element *-----------------------------------------
+            closeElements( path.size() );
+            final var frame = m_Open.get( path.size() - 1 );
+            writeChildren( frame, element );
+            writeNode( m_Appendable, getChildIndentationLevel( frame.m_IndentationLevel, frame.m_Element ), m_PrettyPrint, element );
+            frame.m_Element.removeChild( element );
+            frame.m_LastChild = element;
+        }
+    }   //  complete()
+
+    /**
+     *  Returns the ancestors of the given element, starting with the root
+     *  element.
+     *
+     *  @param  element The element.
+     *  @return The ancestors.
+     *  @throws IllegalArgumentException    The element is not part of the
+     *      tree, or it was already written.
+     */
+    private final List<XMLElement> composePath( final XMLElement element ) throws IllegalArgumentException
+    {
+        final List<XMLElement> retValue = new ArrayList<>();
+        XMLElement current = element;
+        while( current != m_Root )
+        {
+            final var child = current;
+            if( !(current.getParent().orElse( null ) instanceof final XMLElement parent) || parent.getChildren().stream().noneMatch( c -> c == child ) )
+            {
+                throw new IllegalArgumentException( "The element '%s' is not part of the tree, or it was already written".formatted( element.getElementName() ) );
+            }
+            retValue.add( 0, parent );
+            current = parent;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  composePath()
+
+    /**
+     *  Flushes the target, if it is
+     *  {@link Flushable}.
+     *
+     *  @throws IOException Flushing the target failed.
+     */
+    @Override
+    public final void flush() throws IOException
+    {
+        if( m_Appendable instanceof final Flushable flushable ) flushable.flush();
+    }   //  flush()
+
+    /**
+     *  Creates a new {@code XMLFlushWriter} for the given document.
+     *
+     *  @param  document    The document.
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint {@code true} for pretty printed output,
+     *      {@code false} for compact output.
+     *  @return The new writer.
+     */
+    public static final XMLFlushWriter forDocument( final XMLDocument document, final Appendable appendable, final boolean prettyPrint )
+    {
+        final var retValue = new XMLFlushWriter( requireNonNullArgument( document, "document" ), document.getRootElement(), requireNonNullArgument( appendable, "appendable" ), prettyPrint );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forDocument()
+
+    /**
+     *  Creates a new {@code XMLFlushWriter} for the tree with the given
+     *  root element.
+     *
+     *  @param  root    The root element.
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint {@code true} for pretty printed output,
+     *      {@code false} for compact output.
+     *  @return The new writer.
+     */
+    public static final XMLFlushWriter forElement( final XMLElement root, final Appendable appendable, final boolean prettyPrint )
+    {
+        final var retValue = new XMLFlushWriter( null, requireNonNullArgument( root, "root" ), requireNonNullArgument( appendable, "appendable" ), prettyPrint );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forElement()
+
+    /**
+     *  Writes the opening tag for the given element.
+     *
+     *  @param  element The element.
+     *  @throws IOException Writing to the target failed.
+     */
+    private final void openElement( final XMLElement element ) throws IOException
+    {
+        var indentationLevel = 0;
+        if( !m_Open.isEmpty() )
+        {
+            final var parentFrame = m_Open.get( m_Open.size() - 1 );
+            indentationLevel = getChildIndentationLevel( parentFrame.m_IndentationLevel, parentFrame.m_Element );
+        }
+        writeOpeningTag( m_Appendable, indentationLevel, m_PrettyPrint, element );
+        m_Appendable.append( '>' );
+        m_Open.add( new Frame( element, indentationLevel ) );
+    }   //  openElement()
+
+    /**
+     *  Writes the children of the element for the given frame and removes
+     *  them from that element, up to, but not including, the given child.
+     *  The children are written in a single pass and then removed at once.
+     *
+     *  @param  frame   The frame.
+     *  @param  stop    The first child that will not be written; if
+     *      {@code null}, all children will be written.
+     *  @throws IOException Writing to the target failed.
+     */
+    private final void writeChildren( final Frame frame, final Element stop ) throws IOException
+    {
+        final var parent = frame.m_Element;
+        final var indentationLevel = getChildIndentationLevel( frame.m_IndentationLevel, parent );
+        var written = 0;
+        try
+        {
+            for( final var child : parent.getChildren() )
+            {
+                if( child == stop ) break;
+                writeNode( m_Appendable, indentationLevel, m_PrettyPrint, child );
+                frame.m_LastChild = child;
+                ++written;
+            }
+        }
+        finally
+        {
+            parent.removeChildren( written );
+        }
+    }   //  writeChildren()
+}
+//  class XMLFlushWriter
+
+/*
+ *  End of File
+ */
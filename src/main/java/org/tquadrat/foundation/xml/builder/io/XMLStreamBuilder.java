@@ -0,0 +1,784 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.util.Collections.sort;
+import static java.util.Comparator.naturalOrder;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.apiguardian.api.API.Status.STABLE;
+import static org.tquadrat.foundation.lang.CommonConstants.XMLATTRIBUTE_Id;
+import static org.tquadrat.foundation.lang.CommonConstants.XMLATTRIBUTE_Language;
+import static org.tquadrat.foundation.lang.CommonConstants.XMLATTRIBUTE_Whitespace;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+import static org.tquadrat.foundation.util.Comparators.listBasedComparator;
+import static org.tquadrat.foundation.util.StringUtils.isNotEmpty;
+import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.escapeXML;
+import static org.tquadrat.foundation.xml.builder.XMLElement.NO_APPEND;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeAttributes;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeNode;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.ProcessingInstruction;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.internal.Comment;
+import org.tquadrat.foundation.xml.builder.internal.Text;
+import org.tquadrat.foundation.xml.builder.spi.AttributeStore;
+import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.builder.spi.QName;
+import org.tquadrat.foundation.xml.builder.spi.SymbolTable;
+
+/**
+ *  <p>{@summary A builder for XML that writes the markup immediately to its
+ *  target, instead of building an element tree first.}</p>
+ *  <p>The builder works like a cursor: an element is opened with
+ *  {@link #startElement(String)}
+ *  and closed with
+ *  {@link #endElement()};
+ *  in between, attributes and namespaces can be set, and text,
+ *  {@code CDATA}, comments, predefined markup and complete
+ *  {@link XMLElement}
+ *  instances can be added, just like with
+ *  {@link XMLElement}
+ *  itself. The start tag of an element is written as soon as the first
+ *  child is added or the element is closed; after that, no more attributes
+ *  can be set for it. Only the attributes and namespaces of the current
+ *  element are kept until then, so the memory that is required by the
+ *  builder depends only on the nesting depth, but not on the size of the
+ *  output.</p>
+ *  <p>The target is any
+ *  {@link Appendable},
+ *  a {@link java.io.Writer} or a {@link StringBuilder} for characters, or a
+ *  {@link ByteEncoder}
+ *  (or an
+ *  {@link AsyncFileEncoder})
+ *  for bytes.</p>
+ *  <p>The element and attribute names are validated through the
+ *  {@link SymbolTable},
+ *  using the methods that are provided by
+ *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils#getElementNameValidator()}
+ *  and
+ *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils#getAttributeNameValidator()}.
+ *  Valid attributes and valid children, and an attribute sequence, can be
+ *  registered per element name; they apply to all elements with that name
+ *  that are started afterwards. Text is escaped in the same way as for
+ *  {@link XMLElement#addText(CharSequence)},
+ *  and the output is the same as that of an
+ *  {@link XMLElement}
+ *  tree with the same content, for both compact and pretty printed
+ *  output. All elements are treated as block elements.</p>
+ *  <p>Instances of this class are not thread-safe.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = STABLE, since = "0.26.0" )
+public final class XMLStreamBuilder implements Closeable, Flushable
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The state of an open element. The instances are kept and reused for
+     *  the next element on the same nesting level.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static final class Frame
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The attributes of the element.
+         */
+        final AttributeStore m_Attributes = new AttributeStore( naturalOrder() );
+
+        /**
+         *  The element name.
+         */
+        QName m_ElementName;
+
+        /**
+         *  {@code true} if the last child that was written is a block
+         *  element.
+         */
+        boolean m_LastChildIsBlock;
+
+        /**
+         *  The namespaces of the element.
+         */
+        final List<Namespace> m_Namespaces = new ArrayList<>();
+
+        /**
+         *  {@code true} as long as the start tag was not yet written.
+         */
+        boolean m_StartTagPending;
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  Resets this frame for a new element.
+         *
+         *  @param  elementName The name of the new element.
+         *  @param  sortOrder   The sort order for the attributes.
+         */
+        final void reset( final QName elementName, final Comparator<String> sortOrder )
+        {
+            m_ElementName = elementName;
+            m_Attributes.clear();
+            m_Attributes.setSortOrder( sortOrder );
+            m_Namespaces.clear();
+            m_LastChildIsBlock = false;
+            m_StartTagPending = true;
+        }   //  reset()
+    }
+    //  class Frame
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The message indicating that there is no open element: {@value}.
+     */
+    private static final String MSG_NoOpenElement = "There is no open element";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The target for the output.
+     */
+    private final Appendable m_Appendable;
+
+    /**
+     *  The number of open elements.
+     */
+    private int m_Depth = 0;
+
+    /**
+     *  The frames for the open elements; the frames beyond the current
+     *  depth are kept for reuse.
+     */
+    private final List<Frame> m_Frames = new ArrayList<>();
+
+    /**
+     *  {@code true} after the builder was closed.
+     */
+    private boolean m_IsClosed = false;
+
+    /**
+     *  The pretty print flag.
+     */
+    private final boolean m_PrettyPrint;
+
+    /**
+     *  {@code true} after the root element was closed.
+     */
+    private boolean m_RootClosed = false;
+
+    /**
+     *  The registered attribute sort orders, per element name.
+     */
+    private final Map<String,Comparator<String>> m_SortOrders = new HashMap<>();
+
+    /**
+     *  The registered valid attributes, per element name.
+     */
+    private final Map<String,Collection<String>> m_ValidAttributes = new HashMap<>();
+
+    /**
+     *  The registered valid children, per element name.
+     */
+    private final Map<String,Collection<String>> m_ValidChildren = new HashMap<>();
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code XMLStreamBuilder} instance.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     */
+    private XMLStreamBuilder( final Appendable appendable, final boolean prettyPrint )
+    {
+        m_Appendable = appendable;
+        m_PrettyPrint = prettyPrint;
+    }   //  XMLStreamBuilder()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Adds a {@code CDATA} section to the current element.
+     *
+     *  @param  text    The text for the {@code CDATA} section.
+     *  @return This instance.
+     *  @throws IllegalStateException   There is no open element.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder addCDATA( final CharSequence text ) throws IllegalStateException, IOException
+    {
+        requireNonNullArgument( text, "text" );
+        beginChild( false );
+        m_Appendable.append( Text.CDATA.apply( text ) );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addCDATA()
+
+    /**
+     *  <p>{@summary Adds a complete element to the current element, or as
+     *  the root element.}</p>
+     *  <p>The element is written immediately; it is neither modified nor
+     *  attached to a parent, so the same instance can be added several
+     *  times. It is written through
+     *  {@link org.tquadrat.foundation.xml.builder.spi.SGMLPrinter#writeNode(Appendable, int, boolean, org.tquadrat.foundation.xml.builder.spi.Element)},
+     *  so the output is the same as in a tree.</p>
+     *
+     *  @param  child   The element to add.
+     *  @return This instance.
+     *  @throws IllegalArgumentException    The child is not valid for the
+     *      current element.
+     *  @throws IllegalStateException   The root element was already
+     *      closed.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder addChild( final XMLElement child ) throws IllegalArgumentException, IllegalStateException, IOException
+    {
+        checkChild( requireNonNullArgument( child, "child" ).getElementName() );
+        if( m_Depth > 0 ) beginChild( true );
+        writeNode( m_Appendable, m_Depth, m_PrettyPrint, child );
+        if( m_Depth == 0 ) m_RootClosed = true;
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addChild()
+
+    /**
+     *  Adds a comment to the current element, or to the document if there is
+     *  no open element. Nothing will be written if the comment is empty or
+     *  blank.
+     *
+     *  @param  comment The comment text.
+     *  @return This instance.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder addComment( final CharSequence comment ) throws IOException
+    {
+        ensureOpen();
+        if( isNotEmptyOrBlank( comment ) )
+        {
+            if( m_Depth > 0 ) beginChild( true );
+            new Comment( comment ).writeTo( m_Appendable, m_Depth, m_PrettyPrint );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addComment()
+
+    /**
+     *  <p>{@summary Adds predefined markup to the current element.}</p>
+     *  <p>The given markup will not be validated, it just may not be
+     *  {@code null}. So the caller is responsible that it will be proper
+     *  markup.</p>
+     *
+     *  @param  markup  The predefined markup.
+     *  @return This instance.
+     *  @throws IllegalStateException   There is no open element.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder addPredefinedMarkup( final CharSequence markup ) throws IllegalStateException, IOException
+    {
+        requireNonNullArgument( markup, "markup" );
+        beginChild( true );
+        writeFiller( m_Appendable, m_Depth, m_PrettyPrint, 0 );
+        m_Appendable.append( markup );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addPredefinedMarkup()
+
+    /**
+     *  Adds a processing instruction, like the XML header, to the document;
+     *  this is possible only as long as there is no open element.
+     *
+     *  @param  processingInstruction   The processing instruction.
+     *  @return This instance.
+     *  @throws IllegalStateException   There is an open element.
+     *  @throws IOException Writing to the target failed.
+     *
+     *  @see org.tquadrat.foundation.xml.builder.XMLBuilderUtils#composeXMLHeader(java.nio.charset.Charset, boolean)
+     */
+    public final XMLStreamBuilder addProcessingInstruction( final ProcessingInstruction processingInstruction ) throws IllegalStateException, IOException
+    {
+        requireNonNullArgument( processingInstruction, "processingInstruction" );
+        ensureOpen();
+        if( m_Depth > 0 ) throw new IllegalStateException( "A processing instruction is not allowed inside an element" );
+        processingInstruction.writeTo( m_Appendable, 0, m_PrettyPrint );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addProcessingInstruction()
+
+    /**
+     *  Adds text to the current element. Special characters will be escaped
+     *  as for
+     *  {@link XMLElement#addText(CharSequence)};
+     *  nothing will be written if the text is empty.
+     *
+     *  @param  text    The text.
+     *  @return This instance.
+     *  @throws IllegalStateException   There is no open element.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder addText( final CharSequence text ) throws IllegalStateException, IOException
+    {
+        ensureOpen();
+        if( m_Depth == 0 ) throw new IllegalStateException( MSG_NoOpenElement );
+        if( isNotEmpty( requireNonNullArgument( text, "text" ) ) )
+        {
+            beginChild( false );
+            escapeXML( m_Appendable, text );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  addText()
+
+    /**
+     *  Prepares the current element for a new child: the start tag will be
+     *  written if that did not happen yet.
+     *
+     *  @param  block   {@code true} if the new child is a block element,
+     *      {@code false} if it is inline.
+     *  @throws IllegalStateException   There is no open element.
+     *  @throws IOException Writing to the target failed.
+     */
+    private final void beginChild( final boolean block ) throws IllegalStateException, IOException
+    {
+        ensureOpen();
+        if( m_Depth == 0 ) throw new IllegalStateException( MSG_NoOpenElement );
+        final var frame = m_Frames.get( m_Depth - 1 );
+        if( frame.m_StartTagPending )
+        {
+            writeStartTag( frame, m_Depth - 1 );
+            m_Appendable.append( '>' );
+        }
+        frame.m_LastChildIsBlock = block;
+    }   //  beginChild()
+
+    /**
+     *  Checks whether an element with the given name may be added to the
+     *  current element, or as the root element.
+     *
+     *  @param  elementName The name of the new element.
+     *  @throws IllegalArgumentException    The element is not valid for the
+     *      current element.
+     *  @throws IllegalStateException   The root element was already closed.
+     */
+    private final void checkChild( final String elementName ) throws IllegalArgumentException, IllegalStateException
+    {
+        ensureOpen();
+        if( m_Depth == 0 )
+        {
+            if( m_RootClosed ) throw new IllegalStateException( "The root element was already closed" );
+        }
+        else
+        {
+            final var parentName = m_Frames.get( m_Depth - 1 ).m_ElementName.getName();
+            final var validChildren = m_ValidChildren.get( parentName );
+            if( nonNull( validChildren ) && !validChildren.contains( elementName ) )
+            {
+                throw new IllegalArgumentException( "A child with name '%2$s' is not allowed for element '%1$s'".formatted( parentName, elementName ) );
+            }
+        }
+    }   //  checkChild()
+
+    /**
+     *  <p>{@summary Closes all open elements and flushes the target.}</p>
+     *  <p>The target itself will not be closed; if it is a
+     *  {@link ByteEncoder},
+     *  {@link ByteEncoder#finish()}
+     *  or
+     *  {@link ByteEncoder#close()}
+     *  has to be called separately.</p>
+     *
+     *  @throws IOException Writing to the target failed.
+     */
+    @Override
+    public final void close() throws IOException
+    {
+        if( !m_IsClosed )
+        {
+            while( m_Depth > 0 ) endElement();
+            flush();
+            m_IsClosed = true;
+        }
+    }   //  close()
+
+    /**
+     *  Closes the current element.
+     *
+     *  @return This instance.
+     *  @throws IllegalStateException   There is no open element.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder endElement() throws IllegalStateException, IOException
+    {
+        ensureOpen();
+        if( m_Depth == 0 ) throw new IllegalStateException( MSG_NoOpenElement );
+        final var level = m_Depth - 1;
+        final var frame = m_Frames.get( level );
+        if( frame.m_StartTagPending )
+        {
+            writeStartTag( frame, level );
+            m_Appendable.append( "/>" );
+        }
+        else
+        {
+            if( frame.m_LastChildIsBlock ) writeFiller( m_Appendable, level, m_PrettyPrint, 0 );
+            m_Appendable.append( "</" ).append( frame.m_ElementName.getName() ).append( '>' );
+        }
+        m_Depth = level;
+        if( m_Depth == 0 ) m_RootClosed = true;
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  endElement()
+
+    /**
+     *  Ensures that the builder was not yet closed.
+     *
+     *  @throws IllegalStateException   The builder is closed.
+     */
+    private final void ensureOpen() throws IllegalStateException
+    {
+        if( m_IsClosed ) throw new IllegalStateException( "The builder is closed" );
+    }   //  ensureOpen()
+
+    /**
+     *  <p>{@summary Flushes the target, if it is
+     *  {@link Flushable}.}</p>
+     *  <p>A start tag that is still pending will not be written.</p>
+     *
+     *  @throws IOException Flushing the target failed.
+     */
+    @Override
+    public final void flush() throws IOException
+    {
+        if( m_Appendable instanceof final Flushable flushable ) flushable.flush();
+    }   //  flush()
+
+    /**
+     *  Creates a new {@code XMLStreamBuilder} that writes to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint {@code true} for pretty printed output,
+     *      {@code false} for compact output.
+     *  @return The new builder.
+     */
+    public static final XMLStreamBuilder forAppendable( final Appendable appendable, final boolean prettyPrint )
+    {
+        final var retValue = new XMLStreamBuilder( requireNonNullArgument( appendable, "appendable" ), prettyPrint );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  forAppendable()
+
+    /**
+     *  Returns the number of open elements.
+     *
+     *  @return The current nesting depth.
+     */
+    public final int getDepth() { return m_Depth; }
+
+    /**
+     *  Returns the frame for the current element, for the modification of
+     *  its start tag.
+     *
+     *  @param  operationName   The name of the attempted operation.
+     *  @return The frame.
+     *  @throws IllegalStateException   There is no open element, or its start
+     *      tag was already written.
+     */
+    private final Frame getPendingFrame( final String operationName ) throws IllegalStateException
+    {
+        ensureOpen();
+        if( m_Depth == 0 ) throw new IllegalStateException( MSG_NoOpenElement );
+        final var retValue = m_Frames.get( m_Depth - 1 );
+        if( !retValue.m_StartTagPending )
+        {
+            throw new IllegalStateException( "%1$s: the start tag for element '%2$s' was already written".formatted( operationName, retValue.m_ElementName.getName() ) );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  getPendingFrame()
+
+    /**
+     *  <p>{@summary Registers an attribute sequence for all elements with the
+     *  given name that are started afterwards.}</p>
+     *  <p>The names for the attributes are not validated; in particular, it
+     *  is not checked whether an attribute is listed as valid.</p>
+     *
+     *  @param  elementName The element name.
+     *  @param  attributes  The names of the attributes in the desired
+     *      sequence.
+     *  @return This instance.
+     *
+     *  @see org.tquadrat.foundation.xml.builder.spi.AttributeSupport#registerSequence(String...)
+     */
+    public final XMLStreamBuilder registerAttributeSequence( final String elementName, final String... attributes )
+    {
+        requireNotEmptyArgument( elementName, "elementName" );
+        if( requireNonNullArgument( attributes, "attributes" ).length > 0 )
+        {
+            final Comparator<String> comparator = listBasedComparator( s -> s, naturalOrder(), attributes );
+            m_SortOrders.put( elementName, comparator );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  registerAttributeSequence()
+
+    /**
+     *  <p>{@summary Registers the valid attributes for all elements with the
+     *  given name that are started afterwards.}</p>
+     *  <p>Once attributes were registered for an element name, only those,
+     *  and the attributes
+     *  {@value org.tquadrat.foundation.lang.CommonConstants#XMLATTRIBUTE_Id},
+     *  {@value org.tquadrat.foundation.lang.CommonConstants#XMLATTRIBUTE_Language}
+     *  and
+     *  {@value org.tquadrat.foundation.lang.CommonConstants#XMLATTRIBUTE_Whitespace},
+     *  are allowed for elements with that name.</p>
+     *
+     *  @note   The given attributes will be <i>added</i> to the already
+     *      existing ones!
+     *
+     *  @param  elementName The element name.
+     *  @param  attributes  The names of the valid attributes.
+     *  @return This instance.
+     *  @throws InvalidXMLNameException One of the attribute names is invalid.
+     */
+    public final XMLStreamBuilder registerValidAttributes( final String elementName, final String... attributes ) throws InvalidXMLNameException
+    {
+        final var validAttributes = m_ValidAttributes.computeIfAbsent( requireNotEmptyArgument( elementName, "elementName" ), name -> new HashSet<>( List.of( XMLATTRIBUTE_Id, XMLATTRIBUTE_Language, XMLATTRIBUTE_Whitespace ) ) );
+        for( final var attribute : requireNonNullArgument( attributes, "attributes" ) )
+        {
+            SymbolTable.attributeName( attribute );
+            validAttributes.add( attribute );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  registerValidAttributes()
+
+    /**
+     *  <p>{@summary Registers the element names of the valid children for
+     *  all elements with the given name.}</p>
+     *  <p>Once children were registered for an element name, only those are
+     *  allowed as child elements for elements with that name; text and
+     *  comments are always allowed.</p>
+     *
+     *  @note   The given children will be <i>added</i> to the already
+     *      existing ones!
+     *
+     *  @param  elementName The element name.
+     *  @param  children    The element names of the valid children.
+     *  @return This instance.
+     *  @throws InvalidXMLNameException One of the element names is invalid.
+     */
+    public final XMLStreamBuilder registerValidChildren( final String elementName, final String... children ) throws InvalidXMLNameException
+    {
+        final var validChildren = m_ValidChildren.computeIfAbsent( requireNotEmptyArgument( elementName, "elementName" ), name -> new HashSet<>() );
+        for( final var child : requireNonNullArgument( children, "children" ) )
+        {
+            SymbolTable.elementName( child );
+            validChildren.add( child );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  registerValidChildren()
+
+    /**
+     *  Sets an attribute for the current element.
+     *
+     *  @param  name    The name of the attribute; the name is case-sensitive.
+     *  @param  value   The attribute's value; if {@code null} the
+     *      attribute will be removed.
+     *  @return This instance.
+     *  @throws IllegalArgumentException    The attribute name is invalid, or
+     *      the attribute is not valid for the current element.
+     *  @throws IllegalStateException   There is no open element, or its start
+     *      tag was already written.
+     */
+    public final XMLStreamBuilder setAttribute( final String name, final CharSequence value ) throws IllegalArgumentException, IllegalStateException
+    {
+        return setAttribute( name, value, NO_APPEND );
+    }   //  setAttribute()
+
+    /**
+     *  Sets an attribute for the current element.
+     *
+     *  @param  name    The name of the attribute; the name is case-sensitive.
+     *  @param  value   The attribute's value; if {@code null} the
+     *      attribute will be removed.
+     *  @param  append  If not
+     *      {@linkplain Optional#empty() empty}
+     *      ({@link XMLElement#NO_APPEND}),
+     *      the new value will be appended to an already existing one, and the
+     *      provided char sequence is used as the separator.
+     *  @return This instance.
+     *  @throws IllegalArgumentException    The attribute name is invalid, or
+     *      the attribute is not valid for the current element.
+     *  @throws IllegalStateException   There is no open element, or its start
+     *      tag was already written.
+     */
+    @SuppressWarnings( "OptionalUsedAsFieldOrParameterType" )
+    public final XMLStreamBuilder setAttribute( final String name, final CharSequence value, final Optional<? extends CharSequence> append ) throws IllegalArgumentException, IllegalStateException
+    {
+        requireNonNullArgument( append, "append" );
+        final var frame = getPendingFrame( "setAttribute()" );
+        SymbolTable.attributeName( requireNotEmptyArgument( name, "name" ) );
+        final var validAttributes = m_ValidAttributes.get( frame.m_ElementName.getName() );
+        if( nonNull( validAttributes ) && !validAttributes.contains( name ) ) throw new IllegalArgumentException( "Invalid attribute name: %s".formatted( name ) );
+
+        if( isNull( value ) )
+        {
+            frame.m_Attributes.remove( name );
+        }
+        else
+        {
+            final var oldValue = frame.m_Attributes.get( name );
+            final var newValue = isNull( oldValue ) || append.isEmpty() || !isNotEmptyOrBlank( oldValue )
+                ? value.toString()
+                : oldValue + append.get() + value;
+            frame.m_Attributes.put( name, newValue );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setAttribute()
+
+    /**
+     *  Sets a namespace for the current element.
+     *
+     *  @param  namespace   The namespace.
+     *  @return This instance.
+     *  @throws IllegalStateException   There is no open element, or its start
+     *      tag was already written.
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    public final XMLStreamBuilder setNamespace( final Namespace namespace ) throws IllegalStateException
+    {
+        requireNonNullArgument( namespace, "namespace" );
+        final var namespaces = getPendingFrame( "setNamespace()" ).m_Namespaces;
+        if( !namespaces.contains( namespace ) ) namespaces.add( namespace );
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  setNamespace()
+
+    /**
+     *  <p>{@summary Opens a new element, as a child of the current element or
+     *  as the root element.}</p>
+     *  <p>The given element name is validated using the method that is
+     *  provided by
+     *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils#getElementNameValidator()};
+     *  the result is kept in the
+     *  {@link SymbolTable}.</p>
+     *
+     *  @param  elementName The element name.
+     *  @return This instance.
+     *  @throws InvalidXMLNameException The element name is invalid.
+     *  @throws IllegalArgumentException    The element is not valid for the
+     *      current element.
+     *  @throws IllegalStateException   The root element was already
+     *      closed.
+     *  @throws IOException Writing to the target failed.
+     */
+    public final XMLStreamBuilder startElement( final String elementName ) throws IllegalArgumentException, IllegalStateException, IOException
+    {
+        final var name = SymbolTable.elementName( requireNotEmptyArgument( elementName, "elementName" ) );
+        checkChild( elementName );
+        if( m_Depth > 0 ) beginChild( true );
+
+        if( m_Frames.size() == m_Depth ) m_Frames.add( new Frame() );
+        m_Frames.get( m_Depth ).reset( name, m_SortOrders.getOrDefault( elementName, naturalOrder() ) );
+        ++m_Depth;
+
+        //---* Done *----------------------------------------------------------
+        return this;
+    }   //  startElement()
+
+    /**
+     *  Writes the start tag for the given frame, without the closing
+     *  bracket.
+     *
+     *  @param  frame   The frame.
+     *  @param  level   The indentation level.
+     *  @throws IOException Writing to the target failed.
+     */
+    private final void writeStartTag( final Frame frame, final int level ) throws IOException
+    {
+        final var elementName = frame.m_ElementName.getName();
+        writeFiller( m_Appendable, level, m_PrettyPrint, 0 );
+        m_Appendable.append( '<' ).append( elementName );
+        if( frame.m_Namespaces.size() > 1 ) sort( frame.m_Namespaces );
+        writeAttributes( m_Appendable, level, m_PrettyPrint, elementName, frame.m_Attributes.view(), frame.m_Namespaces );
+        frame.m_StartTagPending = false;
+    }   //  writeStartTag()
+}
+//  class XMLStreamBuilder
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,45 @@
+/*
+ * ============================================================================
+ * Copyright © 2002-2020 by Thomas Thrien.
+ * All Rights Reserved.
+ * ============================================================================
+ * Licensed to the public under the agreements of the GNU Lesser General Public
+ * License, version 3.0 (the "License"). You may obtain a copy of the License at
+ * http://www.gnu.org/licenses/lgpl.html
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ *  <p>{@summary Output targets for the XML builder that write the encoded
+ *  bytes for a document directly to their destination.}</p>
+ *  <p>The
+ *  {@link org.tquadrat.foundation.xml.builder.io.XMLStreamBuilder}
+ *  writes XML to any of these targets (or to any other
+ *  {@link java.lang.Appendable})
+ *  while it is built, without creating an element tree first; the
+ *  {@link org.tquadrat.foundation.xml.builder.io.XMLFlushWriter}
+ *  writes an existing element tree in portions and discards the written
+ *  parts.</p>
+ *  <p>Unless otherwise stated, {@code null} argument values will cause
+ *  methods and constructors of all classes in this package to throw an
+ *  {@link java.lang.Exception Exception},
+ *  usually a
+ *  {@link org.tquadrat.foundation.exception.NullArgumentException},
+ *  but in some rare cases, it could be also a
+ *  {@link java.lang.NullPointerException}.</p>
+ */
+
+@API( status = STABLE, since = "0.26.0" )
+package org.tquadrat.foundation.xml.builder.io;
+
+import static org.apiguardian.api.API.Status.STABLE;
+
+import org.apiguardian.api.API;
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,520 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+
+/**
+ *  <p>{@summary A compact store for the attributes of an element.}</p>
+ *  <p>The names and the values are kept in two parallel arrays that are
+ *  allocated with the first attribute. The entries are kept in the order
+ *  that is determined by the
+ *  {@linkplain #setSortOrder(Comparator) sort order}
+ *  already when an attribute is added; reading the attributes in that order
+ *  does not require any sorting or copying. For the usual small number of
+ *  attributes, a linear search is faster than hashing.</p>
+ *  <p>If the sort order is
+ *  {@link AttributeSupport#INSERTION_ORDER},
+ *  the attributes are kept in the sequence they were added, and no
+ *  comparisons take place at all.</p>
+ *  <p>The handling of the two arrays is also provided by static methods
+ *  that take the arrays and the number of entries as arguments; an element
+ *  that keeps the arrays in its own fields, like
+ *  {@link org.tquadrat.foundation.xml.builder.internal.CompactXMLElement},
+ *  uses them without an instance of this class.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = INTERNAL, since = "0.26.0" )
+public final class AttributeStore
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The read-only view on the attributes.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private final class View extends AbstractMap<String,String>
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The entry set; it will be created on first use.
+         */
+        private Set<Entry<String,String>> m_EntrySet = null;
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final boolean containsKey( final Object key ) { return (key instanceof final String name) && (indexOf( m_Names, m_Size, name ) >= 0); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Set<Entry<String,String>> entrySet()
+        {
+            if( isNull( m_EntrySet ) )
+            {
+                m_EntrySet = new AbstractSet<>()
+                {
+                    /**
+                     *  {@inheritDoc}
+                     */
+                    @Override
+                    public final Iterator<Entry<String,String>> iterator()
+                    {
+                        return new Iterator<>()
+                        {
+                            /**
+                             *  The index of the next entry.
+                             */
+                            private int m_Index = 0;
+
+                            /**
+                             *  {@inheritDoc}
+                             */
+                            @Override
+                            public final boolean hasNext() { return m_Index < m_Size; }
+
+                            /**
+                             *  {@inheritDoc}
+                             */
+                            @Override
+                            public final Entry<String,String> next()
+                            {
+                                if( m_Index >= m_Size ) throw new NoSuchElementException();
+                                final var retValue = Map.entry( m_Names [m_Index], m_Values [m_Index] );
+                                ++m_Index;
+
+                                //---* Done *----------------------------------
+                                return retValue;
+                            }   //  next()
+                        };
+                    }   //  iterator()
+
+                    /**
+                     *  {@inheritDoc}
+                     */
+                    @Override
+                    public final int size() { return m_Size; }
+                };
+            }
+
+            //---* Done *------------------------------------------------------
+            return m_EntrySet;
+        }   //  entrySet()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String get( final Object key ) { return key instanceof final String name ? AttributeStore.this.get( name ) : null; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final boolean isEmpty() { return m_Size == 0; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final int size() { return m_Size; }
+    }
+    //  class View
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The initial capacity of the arrays: {@value}.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The comparator that determines the sequence of the attributes.
+     */
+    private Comparator<String> m_Comparator;
+
+    /**
+     *  The names of the attributes; {@code null} until the first attribute
+     *  is added.
+     */
+    private String [] m_Names = null;
+
+    /**
+     *  The number of attributes.
+     */
+    private int m_Size = 0;
+
+    /**
+     *  The values of the attributes; {@code null} until the first attribute
+     *  is added.
+     */
+    private String [] m_Values = null;
+
+    /**
+     *  The read-only view on the attributes; it will be created on first
+     *  use.
+     */
+    private View m_View = null;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AttributeStore} instance.
+     *
+     *  @param  sortOrder   The comparator that determines the sequence of the
+     *      attributes.
+     */
+    public AttributeStore( final Comparator<String> sortOrder )
+    {
+        m_Comparator = requireNonNullArgument( sortOrder, "sortOrder" );
+    }   //  AttributeStore()
+
+    /**
+     *  Creates a new {@code AttributeStore} instance that holds the same
+     *  attributes, in the same sequence, as the given one.
+     *
+     *  @param  prototype   The store to copy.
+     */
+    public AttributeStore( final AttributeStore prototype )
+    {
+        m_Comparator = requireNonNullArgument( prototype, "prototype" ).m_Comparator;
+        if( prototype.m_Size > 0 )
+        {
+            m_Names = copyOf( prototype.m_Names, prototype.m_Names.length );
+            m_Values = copyOf( prototype.m_Values, prototype.m_Values.length );
+            m_Size = prototype.m_Size;
+        }
+    }   //  AttributeStore()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Removes all attributes; the arrays are kept for reuse.
+     */
+    public final void clear()
+    {
+        clearEntries( m_Names, m_Values, m_Size );
+        m_Size = 0;
+    }   //  clear()
+
+    /**
+     *  Removes the given number of entries from the given arrays.
+     *
+     *  @param  names   The names of the attributes; can be {@code null}.
+     *  @param  values  The values of the attributes; can be {@code null} if
+     *      the names are {@code null}, too.
+     *  @param  size    The number of entries.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final void clearEntries( final String [] names, final String [] values, final int size )
+    {
+        if( nonNull( names ) )
+        {
+            fill( names, 0, size, null );
+            fill( values, 0, size, null );
+        }
+    }   //  clearEntries()
+
+    /**
+     *  Returns an array that can take at least one more entry than the
+     *  given number.
+     *
+     *  @param  array   The current array; can be {@code null}.
+     *  @param  size    The number of entries in the array.
+     *  @param  initialCapacity The capacity for a new array.
+     *  @return The given array if it has room for another entry, otherwise
+     *      a new array with the given entries.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final String [] ensureCapacity( final String [] array, final int size, final int initialCapacity )
+    {
+        final var retValue = isNull( array )
+            ? new String [initialCapacity]
+            : size == array.length ? copyOf( array, max( size << 1, initialCapacity ) ) : array;
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  ensureCapacity()
+
+    /**
+     *  Returns the value of the attribute with the given name.
+     *
+     *  @param  name    The name of the attribute.
+     *  @return The value of the attribute, or {@code null} if there is no
+     *      attribute with that name.
+     */
+    public final String get( final String name )
+    {
+        final var index = indexOf( m_Names, m_Size, name );
+        final var retValue = index < 0 ? null : m_Values [index];
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  get()
+
+    /**
+     *  Returns the sort order for the attributes.
+     *
+     *  @return The comparator that determines the sequence of the attributes.
+     */
+    public final Comparator<String> getSortOrder() { return m_Comparator; }
+
+    /**
+     *  Returns the index of the attribute with the given name.
+     *
+     *  @param  names   The names of the attributes; can be {@code null} if
+     *      the number of entries is 0.
+     *  @param  size    The number of entries.
+     *  @param  name    The name of the attribute.
+     *  @return The index, or -1 if there is no attribute with that name.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final int indexOf( final String [] names, final int size, final String name )
+    {
+        var retValue = -1;
+        for( var i = 0; (retValue < 0) && (i < size); ++i )
+        {
+            if( names [i].equals( name ) ) retValue = i;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  indexOf()
+
+    /**
+     *  Inserts a new entry at the position that is determined by the given
+     *  sort order. The arrays must have room for the new entry, and the
+     *  name must not be present in them already.
+     *
+     *  @param  names   The names of the attributes.
+     *  @param  values  The values of the attributes.
+     *  @param  size    The number of entries before the insertion.
+     *  @param  name    The name of the new attribute.
+     *  @param  value   The value of the new attribute.
+     *  @param  sortOrder   The comparator that determines the sequence of
+     *      the attributes.
+     *
+     *  @see #ensureCapacity(String[], int, int)
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final void insertEntry( final String [] names, final String [] values, final int size, final String name, final String value, final Comparator<String> sortOrder )
+    {
+        var position = size;
+        if( !isInsertionOrder( sortOrder ) )
+        {
+            while( (position > 0) && (sortOrder.compare( name, names [position - 1] ) < 0) ) --position;
+            if( position < size )
+            {
+                System.arraycopy( names, position, names, position + 1, size - position );
+                System.arraycopy( values, position, values, position + 1, size - position );
+            }
+        }
+        names [position] = name;
+        values [position] = value;
+    }   //  insertEntry()
+
+    /**
+     *  Checks whether the given sort order keeps the attributes in
+     *  insertion order.
+     *
+     *  @param  sortOrder   The sort order.
+     *  @return {@code true} if the attributes are not sorted, {@code false}
+     *      otherwise.
+     */
+    private static final boolean isInsertionOrder( final Comparator<String> sortOrder ) { return sortOrder == AttributeSupport.INSERTION_ORDER; }
+
+    /**
+     *  Sets the value of the attribute with the given name. If there is no
+     *  attribute with that name yet, it is inserted at the position that is
+     *  determined by the sort order.
+     *
+     *  @param  name    The name of the attribute.
+     *  @param  value   The value of the attribute.
+     *  @return The former value of the attribute, or {@code null} if there
+     *      was no attribute with that name.
+     */
+    public final String put( final String name, final String value )
+    {
+        String retValue = null;
+        final var index = indexOf( m_Names, m_Size, name );
+        if( index >= 0 )
+        {
+            retValue = m_Values [index];
+            m_Values [index] = value;
+        }
+        else
+        {
+            m_Names = ensureCapacity( m_Names, m_Size, INITIAL_CAPACITY );
+            m_Values = ensureCapacity( m_Values, m_Size, INITIAL_CAPACITY );
+            insertEntry( m_Names, m_Values, m_Size, name, value, m_Comparator );
+            ++m_Size;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  put()
+
+    /**
+     *  Removes the attribute with the given name.
+     *
+     *  @param  name    The name of the attribute.
+     *  @return The former value of the attribute, or {@code null} if there
+     *      was no attribute with that name.
+     */
+    public final String remove( final String name )
+    {
+        String retValue = null;
+        final var index = indexOf( m_Names, m_Size, name );
+        if( index >= 0 )
+        {
+            retValue = m_Values [index];
+            removeEntry( m_Names, m_Values, m_Size, index );
+            --m_Size;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  remove()
+
+    /**
+     *  Removes the entry with the given index; the following entries are
+     *  moved up, and the last slot is cleared.
+     *
+     *  @param  names   The names of the attributes.
+     *  @param  values  The values of the attributes.
+     *  @param  size    The number of entries before the removal.
+     *  @param  index   The index of the entry to remove.
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public static final void removeEntry( final String [] names, final String [] values, final int size, final int index )
+    {
+        final var moved = size - index - 1;
+        if( moved > 0 )
+        {
+            System.arraycopy( names, index + 1, names, index, moved );
+            System.arraycopy( values, index + 1, values, index, moved );
+        }
+        names [size - 1] = null;
+        values [size - 1] = null;
+    }   //  removeEntry()
+
+    /**
+     *  Sets the sort order for the attributes; already existing attributes
+     *  will be sorted again, except the new sort order is
+     *  {@link AttributeSupport#INSERTION_ORDER}.
+     *
+     *  @param  sortOrder   The comparator that determines the sequence of the
+     *      attributes.
+     */
+    public final void setSortOrder( final Comparator<String> sortOrder )
+    {
+        m_Comparator = requireNonNullArgument( sortOrder, "sortOrder" );
+        if( !isInsertionOrder( m_Comparator ) )
+        {
+            //---* Stable insertion sort; there are only a few entries *-------
+            for( var i = 1; i < m_Size; ++i )
+            {
+                final var name = m_Names [i];
+                final var value = m_Values [i];
+                var j = i;
+                while( (j > 0) && (m_Comparator.compare( name, m_Names [j - 1] ) < 0) )
+                {
+                    m_Names [j] = m_Names [j - 1];
+                    m_Values [j] = m_Values [j - 1];
+                    --j;
+                }
+                m_Names [j] = name;
+                m_Values [j] = value;
+            }
+        }
+    }   //  setSortOrder()
+
+    /**
+     *  Returns the number of attributes.
+     *
+     *  @return The number of attributes.
+     */
+    public final int size() { return m_Size; }
+
+    /**
+     *  <p>{@summary Returns a read-only view on the attributes.}</p>
+     *  <p>The view is backed by this store; it is not copied, and it reflects
+     *  all later modifications. Its iteration order is the sort order of
+     *  the attributes. The store must not be modified while the view is
+     *  iterated.</p>
+     *
+     *  @return The attributes.
+     */
+    public final Map<String,String> view()
+    {
+        if( isNull( m_View ) ) m_View = new View();
+
+        //---* Done *----------------------------------------------------------
+        return m_View;
+    }   //  view()
+}
+//  class AttributeStore
+
+/*
+ *  End of File
+ */
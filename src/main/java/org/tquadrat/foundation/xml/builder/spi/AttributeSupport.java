@@ -18,8 +18,6 @@
 package org.tquadrat.foundation.xml.builder.spi;
 
 import static java.lang.Integer.signum;
-import static java.lang.String.format;
-import static java.util.Collections.unmodifiableSortedMap;
 import static java.util.Comparator.naturalOrder;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.tquadrat.foundation.lang.CommonConstants.XMLATTRIBUTE_Id;
@@ -30,22 +28,19 @@ import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 import static org.tquadrat.foundation.util.Comparators.listBasedComparator;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
-import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getAttributeNameValidator;
 import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.composeAttributesString;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeAttributes;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
-import org.tquadrat.foundation.util.LazyMap;
 
 /**
  *  <p>{@summary This class provides the support for attributes to
@@ -107,13 +102,24 @@ public final class AttributeSupport extends NamespaceSupport
         return retValue;
     };
 
+    /**
+     *  <p>{@summary The sort order that keeps the attributes in the sequence
+     *  in that they were added.}</p>
+     *  <p>This comparator considers all attribute names as equal; it is
+     *  recognised by its identity, and the attributes are not sorted at all
+     *  when it is set. It is not suitable for any sorted collection.</p>
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final Comparator<String> INSERTION_ORDER = (a1,a2) -> 0;
+
         /*------------*\
     ====** Attributes **=======================================================
         \*------------*/
     /**
-     *  The attributes for the element.
+     *  The attributes for the element, already in the sequence that is
+     *  determined by the sort order.
      */
-    private final Map<String,String> m_Attributes;
+    private final AttributeStore m_Attributes;
 
     /**
      *  Flag that indicates whether the validity of attributes should be
@@ -121,12 +127,6 @@ public final class AttributeSupport extends NamespaceSupport
      */
     private final boolean m_CheckValid;
 
-    /**
-     *  The comparator that determines the sequence for the attributes of the
-     *  owning element.
-     */
-    private Comparator<String> m_Comparator;
-
     /**
      *  The valid attributes for owning element.
      */
@@ -188,8 +188,7 @@ public final class AttributeSupport extends NamespaceSupport
     {
         super( owner );
         m_CheckValid = checkValid;
-        setSortOrder( sortOrder );
-        m_Attributes = LazyMap.use( HashMap::new );
+        m_Attributes = new AttributeStore( requireNonNullArgument( sortOrder, "sortOrder" ) );
         m_ValidAttributes = m_CheckValid ? new HashSet<>() : null;
         if( m_CheckValid )
         {
@@ -200,6 +199,28 @@ public final class AttributeSupport extends NamespaceSupport
         }
     }   //  AttributeSupport()
 
+    /**
+     *  <p>{@summary Creates a new {@code AttributeSupport} instance with the
+     *  same configuration, attributes and namespaces as the given one.}</p>
+     *  <p>The valid attributes are taken over as they are, without
+     *  validating their names again, and the attributes are already in the
+     *  right sequence.</p>
+     *
+     *  @param  owner   The element that owns this {@code AttributeSupport}
+     *      instance.
+     *  @param  prototype   The instance to copy.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public AttributeSupport( final Element owner, final AttributeSupport prototype )
+    {
+        super( owner, prototype );
+        m_CheckValid = prototype.m_CheckValid;
+        m_Attributes = new AttributeStore( prototype.m_Attributes );
+        m_ValidAttributes = m_CheckValid ? new HashSet<>( prototype.m_ValidAttributes ) : null;
+    }   //  AttributeSupport()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
@@ -218,7 +239,7 @@ public final class AttributeSupport extends NamespaceSupport
      */
     public final boolean checkValid( final String attribute ) throws InvalidXMLNameException
     {
-        if( !getAttributeNameValidator().test( requireNotEmptyArgument( attribute, "attribute" ) ) ) throw new InvalidXMLNameException( attribute );
+        SymbolTable.attributeName( requireNotEmptyArgument( attribute, "attribute" ) );
 
         final var retValue = !checksIfValid() || m_ValidAttributes.contains( attribute );
 
@@ -238,6 +259,19 @@ public final class AttributeSupport extends NamespaceSupport
     @SuppressWarnings( "BooleanMethodNameMustStartWithQuestion" )
     public final boolean checksIfValid() { return m_CheckValid; }
 
+    /**
+     *  Removes all attributes and namespaces; the valid attributes and the
+     *  sort order are kept, as are the arrays that hold the attributes.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public final void clear()
+    {
+        m_Attributes.clear();
+        clearNamespaces();
+    }   //  clear()
+
     /**
      *  Returns the value for the attribute with the given name.
      *
@@ -255,19 +289,15 @@ public final class AttributeSupport extends NamespaceSupport
     }   //  getAttribute()
 
     /**
-     *  Provides read access to the attributes.
+     *  Provides read access to the attributes. The returned map is a
+     *  read-only view that is not copied; it reflects later modifications,
+     *  and it iterates the attributes in the sequence that is determined by
+     *  the
+     *  {@linkplain #getSortOrder() sort order}.
      *
      *  @return A reference to the attributes.
      */
-    public final Map<String,String> getAttributes()
-    {
-        final SortedMap<String,String> map = new TreeMap<>( m_Comparator );
-        map.putAll( m_Attributes );
-        final var retValue =  unmodifiableSortedMap( map );
-
-        //---* Done *----------------------------------------------------------
-        return retValue;
-    }   //  getAttributes()
+    public final Map<String,String> getAttributes() { return m_Attributes.view(); }
 
     /**
      *  Returns the attribute sort order.
@@ -275,7 +305,7 @@ public final class AttributeSupport extends NamespaceSupport
      *  @return The comparator that determines the attribute's sequence.
      */
     @SuppressWarnings( "SuspiciousGetterSetter" )
-    public final Comparator<String> getSortOrder() { return m_Comparator; }
+    public final Comparator<String> getSortOrder() { return m_Attributes.getSortOrder(); }
 
     /**
      *  <p>{@summary Registers the valid attributes for the owning
@@ -297,7 +327,7 @@ public final class AttributeSupport extends NamespaceSupport
         {
             for( final var attribute : requireNonNullArgument( attributes, "attributes" ) )
             {
-                if( !getAttributeNameValidator().test( attribute ) ) throw new InvalidXMLNameException( attribute );
+                SymbolTable.attributeName( attribute );
                 m_ValidAttributes.add( attribute );
             }
         }
@@ -369,8 +399,8 @@ public final class AttributeSupport extends NamespaceSupport
             else
             {
                 final var oldValue = retValue.get();
-                final var newValue = isNotEmptyOrBlank( oldValue ) ? format( "%1$s%3$s%2$s", oldValue, value, append.get() ) : value.toString();
-                m_Attributes.replace( name, newValue );
+                final var newValue = isNotEmptyOrBlank( oldValue ) ? oldValue + append.get() + value : value.toString();
+                m_Attributes.put( name, newValue );
             }
         }
         else
@@ -385,13 +415,16 @@ public final class AttributeSupport extends NamespaceSupport
 
     /**
      *  Sets the comparator that determines the sequence of the attributes for
-     *  the owning element.
+     *  the owning element; already existing attributes are sorted again.
+     *  With
+     *  {@link #INSERTION_ORDER},
+     *  the attributes keep the sequence in that they were added.
      *
      *  @param  sortOrder  The comparator.
      */
     public final void setSortOrder( final Comparator<String> sortOrder )
     {
-        m_Comparator = requireNonNullArgument( sortOrder, "sortOrder" );
+        m_Attributes.setSortOrder( sortOrder );
     }   //  setSortOrder()
 
     /**
@@ -410,6 +443,22 @@ public final class AttributeSupport extends NamespaceSupport
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  Writes the attributes and their values, together with the namespaces,
+     *  to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @Override
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        writeAttributes( appendable, indentationLevel, prettyPrint, getOwner().getElementName(), getAttributes(), getNamespaces() );
+    }   //  writeTo()
 }
 //  class AttributeSupport
 
@@ -0,0 +1,630 @@
+/*
+ * ============================================================================
+ * Copyright © 2002-2026 by Thomas Thrien.
+ * All Rights Reserved.
+ * ============================================================================
+ * Licensed to the public under the agreements of the GNU Lesser General Public
+ * License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *      http://www.gnu.org/licenses/lgpl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static java.util.Comparator.comparing;
+import static org.apiguardian.api.API.Status.INTERNAL;
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.Namespace;
+
+/**
+ *  <p>{@summary Writes elements and documents in the canonical form as
+ *  defined by
+ *  <a href="https://www.w3.org/TR/xml-c14n">Canonical XML&nbsp;1.0</a>
+ *  and
+ *  <a href="https://www.w3.org/TR/xml-c14n11/">Canonical XML&nbsp;1.1</a>.}</p>
+ *  <p>The canonical form is written in a single pass directly from the
+ *  element tree, without parsing the output of
+ *  {@link Element#writeTo(Appendable, int, boolean)}
+ *  again. It is the canonical form of the compact (not pretty printed)
+ *  output:</p>
+ *  <ul>
+ *  <li>the XML declaration and the document type declaration are
+ *  omitted,</li>
+ *  <li>empty elements are written with a start and an end tag,</li>
+ *  <li>superfluous namespace declarations are omitted; the remaining ones
+ *  are written before the attributes, sorted by their prefix,</li>
+ *  <li>the attributes are sorted by their namespace URI and their local
+ *  name,</li>
+ *  <li>attribute values are delimited by double quotes, and attribute
+ *  values and texts are escaped according to the canonicalisation
+ *  rules,</li>
+ *  <li>{@code CDATA} sections are replaced by their (escaped) content,</li>
+ *  <li>comments are written only for the
+ *  {@linkplain Algorithm#includesComments() algorithms that include them}.</li>
+ *  </ul>
+ *  <p>Attribute values and texts are taken as they are stored in the
+ *  elements, as plain (unescaped) values. Predefined markup is written as it
+ *  is, so the caller is responsible for its canonical form.</p>
+ *  <p>When a single element is written instead of a whole document, the
+ *  namespaces that are in scope for it and the attributes from the
+ *  {@code xml} namespace that it inherits from its ancestors are written
+ *  with it; this is where the two versions of the algorithm differ.</p>
+ *  <p>The output consists of characters; according to the specification,
+ *  it has to be encoded with UTF-8.</p>
+ *  <p>Instances of this class are created by
+ *  {@link SGMLPrinter#writeCanonical(Appendable, Document, Algorithm)}
+ *  and
+ *  {@link SGMLPrinter#writeCanonical(Appendable, Element, Algorithm)};
+ *  they are passed to
+ *  {@link Element#writeCanonical(CanonicalXMLWriter)}
+ *  for each node of the tree.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public final class CanonicalXMLWriter
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The canonicalisation algorithms.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public enum Algorithm
+    {
+            /*------------------*\
+        ====** Enum Declaration **=============================================
+            \*------------------*/
+        /**
+         *  Canonical XML 1.0, without comments.
+         */
+        C14N_10( "http://www.w3.org/TR/2001/REC-xml-c14n-20010315", false, false ),
+
+        /**
+         *  Canonical XML 1.0, with comments.
+         */
+        C14N_10_WITH_COMMENTS( "http://www.w3.org/TR/2001/REC-xml-c14n-20010315#WithComments", false, true ),
+
+        /**
+         *  Canonical XML 1.1, without comments.
+         */
+        C14N_11( "http://www.w3.org/2006/12/xml-c14n11", true, false ),
+
+        /**
+         *  Canonical XML 1.1, with comments.
+         */
+        C14N_11_WITH_COMMENTS( "http://www.w3.org/2006/12/xml-c14n11#WithComments", true, true );
+
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The flag that indicates whether comments are written.
+         */
+        private final boolean m_IncludesComments;
+
+        /**
+         *  The flag that indicates whether this is version 1.1 of the
+         *  algorithm.
+         */
+        private final boolean m_IsVersion11;
+
+        /**
+         *  The identifier for the algorithm.
+         */
+        private final String m_URI;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Algorithm} instance.
+         *
+         *  @param  uri The identifier for the algorithm.
+         *  @param  isVersion11 {@code true} for version 1.1 of the
+         *      algorithm, {@code false} for version 1.0.
+         *  @param  includesComments    {@code true} if comments are written,
+         *      {@code false} if they are omitted.
+         */
+        private Algorithm( final String uri, final boolean isVersion11, final boolean includesComments )
+        {
+            m_URI = uri;
+            m_IsVersion11 = isVersion11;
+            m_IncludesComments = includesComments;
+        }   //  Algorithm()
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  Returns the identifier for the algorithm, as it is used for
+         *  XML signatures.
+         *
+         *  @return The URI for the algorithm.
+         */
+        public final String getURI() { return m_URI; }
+
+        /**
+         *  Returns the flag that indicates whether the algorithm writes
+         *  comments.
+         *
+         *  @return {@code true} if comments are written, {@code false} if
+         *      they are omitted.
+         */
+        public final boolean includesComments() { return m_IncludesComments; }
+
+        /**
+         *  Returns the flag that indicates whether this is version 1.1 of
+         *  the algorithm.
+         *
+         *  @return {@code true} for version 1.1, {@code false} for version
+         *      1.0.
+         */
+        public final boolean isVersion11() { return m_IsVersion11; }
+    }
+    //  enum Algorithm
+
+    /**
+     *  An attribute, with its name split into the namespace URI and the
+     *  local name.
+     *
+     *  @param  namespaceURI    The namespace URI; the empty String if the
+     *      attribute does not have a namespace.
+     *  @param  localName   The local name.
+     *  @param  name    The qualified name.
+     *  @param  value   The value.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static record Attribute( String namespaceURI, String localName, String name, String value ) {}
+
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The sort order for attributes.
+     */
+    private static final Comparator<Attribute> ATTRIBUTE_ORDER = comparing( Attribute::namespaceURI ).thenComparing( Attribute::localName );
+
+    /**
+     *  The prefix for the attributes from the {@code xml} namespace: {@value}.
+     */
+    private static final String XML_PREFIX = "xml:";
+
+    /**
+     *  The namespace URI that is bound to the prefix {@code xml}: {@value}.
+     */
+    private static final String XML_NAMESPACE_URI = "http://www.w3.org/XML/1998/namespace";
+
+    /**
+     *  The name of the attribute {@code xml:base}: {@value}.
+     */
+    private static final String XMLATTRIBUTE_Base = "xml:base";
+
+    /**
+     *  The name of the attribute {@code xml:lang}: {@value}.
+     */
+    private static final String XMLATTRIBUTE_Language = "xml:lang";
+
+    /**
+     *  The name of the attribute {@code xml:space}: {@value}.
+     */
+    private static final String XMLATTRIBUTE_Space = "xml:space";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The algorithm.
+     */
+    private final Algorithm m_Algorithm;
+
+    /**
+     *  The target for the output.
+     */
+    private final Appendable m_Appendable;
+
+    /**
+     *  The nesting depth of the element that is currently written.
+     */
+    private int m_Depth = 0;
+
+    /**
+     *  The flag that indicates whether a whole document is written.
+     */
+    private boolean m_IsDocument = false;
+
+    /**
+     *  The flag that indicates whether the root element of the document was
+     *  already written.
+     */
+    private boolean m_IsRootWritten = false;
+
+    /**
+     *  The namespace declarations that are in scope for the output; the key
+     *  is the prefix, the empty String for the default namespace.
+     */
+    private Map<String,String> m_Scope = Collections.emptyMap();
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code CanonicalXMLWriter} instance.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  algorithm   The canonicalisation algorithm.
+     */
+    CanonicalXMLWriter( final Appendable appendable, final Algorithm algorithm )
+    {
+        m_Appendable = requireNonNullArgument( appendable, "appendable" );
+        m_Algorithm = requireNonNullArgument( algorithm, "algorithm" );
+    }   //  CanonicalXMLWriter()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Adds the attributes from the {@code xml} namespace that the given
+     *  element inherits from its ancestors to the given attributes.
+     *
+     *  @param  element The element.
+     *  @param  attributes  The attributes of the element.
+     */
+    private final void addInheritedAttributes( final Element element, final Map<String,String> attributes )
+    {
+        final List<String> bases = new ArrayList<>();
+        for( var ancestor = element.getParent(); ancestor.isPresent(); ancestor = ancestor.get().getParent() )
+        {
+            for( final var entry : ancestor.get().getAttributes().entrySet() )
+            {
+                final var name = entry.getKey();
+                if( name.startsWith( XML_PREFIX ) )
+                {
+                    if( !m_Algorithm.isVersion11() || name.equals( XMLATTRIBUTE_Language ) || name.equals( XMLATTRIBUTE_Space ) )
+                    {
+                        attributes.putIfAbsent( name, entry.getValue() );
+                    }
+                    else if( name.equals( XMLATTRIBUTE_Base ) )
+                    {
+                        bases.add( entry.getValue() );
+                    }
+                }
+            }
+        }
+
+        //---* The xml:base fix-up for version 1.1 *---------------------------
+        if( !bases.isEmpty() )
+        {
+            final var ownBase = attributes.get( XMLATTRIBUTE_Base );
+            if( nonNull( ownBase ) ) bases.add( 0, ownBase );
+            try
+            {
+                URI base = null;
+                for( var i = bases.size() - 1; i >= 0; --i )
+                {
+                    final var reference = URI.create( bases.get( i ) );
+                    base = nonNull( base ) ? base.resolve( reference ) : reference;
+                }
+                attributes.put( XMLATTRIBUTE_Base, base.toString() );
+            }
+            catch( final IllegalArgumentException ignored )
+            {
+                /*
+                 * One of the values is not a valid URI; the value of the
+                 * element itself is kept unchanged.
+                 */
+            }
+        }
+    }   //  addInheritedAttributes()
+
+    /**
+     *  Adds the namespaces of the given element to the given map, unless
+     *  there is already an entry for the respective prefix.
+     *
+     *  @param  element The element.
+     *  @param  namespaces  The namespaces; the key is the prefix, the empty
+     *      String for the default namespace.
+     */
+    private static final void collectNamespaces( final Element element, final Map<String,String> namespaces )
+    {
+        for( final var namespace : element.getNamespaces() )
+        {
+            namespaces.putIfAbsent( namespace.getPrefix().orElse( EMPTY_STRING ), namespace.getIdentifier().toString() );
+        }
+    }   //  collectNamespaces()
+
+    /**
+     *  Returns the algorithm that is used by this writer.
+     *
+     *  @return The algorithm.
+     */
+    public final Algorithm getAlgorithm() { return m_Algorithm; }
+
+    /**
+     *  Writes the given attribute value, escaped according to the
+     *  canonicalisation rules.
+     *
+     *  @param  value   The attribute value.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    private final void writeAttributeValue( final CharSequence value ) throws IOException
+    {
+        var start = 0;
+        final var length = value.length();
+        for( var i = 0; i < length; ++i )
+        {
+            final var replacement = switch( value.charAt( i ) )
+            {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '"' -> "&quot;";
+                case '\t' -> "&#x9;";
+                case '\n' -> "&#xA;";
+                case '\r' -> "&#xD;";
+                default -> null;
+            };
+            if( nonNull( replacement ) )
+            {
+                m_Appendable.append( value, start, i ).append( replacement );
+                start = i + 1;
+            }
+        }
+        m_Appendable.append( value, start, length );
+    }   //  writeAttributeValue()
+
+    /**
+     *  <p>{@summary Writes the given comment.}</p>
+     *  <p>Nothing will be written if the algorithm does not
+     *  {@linkplain Algorithm#includesComments() include comments}.
+     *  Otherwise, the comment is written as it is rendered by
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  with the pretty print flag unset.</p>
+     *
+     *  @param  comment The comment.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public final void writeComment( final Element comment ) throws IOException
+    {
+        requireNonNullArgument( comment, "comment" );
+        if( m_Algorithm.includesComments() ) writeDocumentLevel( comment );
+    }   //  writeComment()
+
+    /**
+     *  Writes the given document.
+     *
+     *  @param  document    The document.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    final void writeDocument( final Document<? extends Element> document ) throws IOException
+    {
+        m_IsDocument = true;
+        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        {
+            child.writeCanonical( this );
+        }
+    }   //  writeDocument()
+
+    /**
+     *  Writes the given node that is rendered by its own
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  method; on the document level, the line breaks before or after the
+     *  root element are added.
+     *
+     *  @param  node    The node.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    private final void writeDocumentLevel( final Element node ) throws IOException
+    {
+        final var isDocumentLevel = m_IsDocument && (m_Depth == 0);
+        if( isDocumentLevel && m_IsRootWritten ) m_Appendable.append( '\n' );
+        node.writeTo( m_Appendable, 0, false );
+        if( isDocumentLevel && !m_IsRootWritten ) m_Appendable.append( '\n' );
+    }   //  writeDocumentLevel()
+
+    /**
+     *  Writes the given element, together with its children.
+     *
+     *  @param  element The element.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public final void writeElement( final Element element ) throws IOException
+    {
+        requireNonNullArgument( element, "element" );
+
+        final var isApex = !m_IsDocument && (m_Depth == 0);
+        final var elementName = element.getElementName();
+
+        //---* Collect the namespace declarations *----------------------------
+        final Map<String,String> namespaces = new LinkedHashMap<>();
+        collectNamespaces( element, namespaces );
+        if( isApex )
+        {
+            for( var ancestor = element.getParent(); ancestor.isPresent(); ancestor = ancestor.get().getParent() )
+            {
+                collectNamespaces( ancestor.get(), namespaces );
+            }
+        }
+        final SortedMap<String,String> declarations = new TreeMap<>();
+        for( final var entry : namespaces.entrySet() )
+        {
+            if( !entry.getValue().equals( m_Scope.getOrDefault( entry.getKey(), EMPTY_STRING ) ) )
+            {
+                declarations.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        final var previousScope = m_Scope;
+        if( !declarations.isEmpty() )
+        {
+            m_Scope = new HashMap<>( m_Scope );
+            m_Scope.putAll( declarations );
+        }
+
+        //---* Collect the attributes *----------------------------------------
+        var attributeMap = element.getAttributes();
+        if( isApex )
+        {
+            attributeMap = new HashMap<>( attributeMap );
+            addInheritedAttributes( element, attributeMap );
+        }
+        final List<Attribute> attributes = new ArrayList<>( attributeMap.size() );
+        for( final var entry : attributeMap.entrySet() )
+        {
+            final var name = entry.getKey();
+            final var pos = name.indexOf( ':' );
+            if( pos < 0 )
+            {
+                attributes.add( new Attribute( EMPTY_STRING, name, name, entry.getValue() ) );
+            }
+            else
+            {
+                final var prefix = name.substring( 0, pos );
+                final var namespaceURI = prefix.equals( "xml" ) ? XML_NAMESPACE_URI : m_Scope.get( prefix );
+                attributes.add( nonNull( namespaceURI )
+                    ? new Attribute( namespaceURI, name.substring( pos + 1 ), name, entry.getValue() )
+                    : new Attribute( EMPTY_STRING, name, name, entry.getValue() ) );
+            }
+        }
+        attributes.sort( ATTRIBUTE_ORDER );
+
+        //---* The start tag *-------------------------------------------------
+        m_Appendable.append( '<' ).append( elementName );
+        for( final var entry : declarations.entrySet() )
+        {
+            m_Appendable.append( ' ' ).append( Namespace.KEYWORD );
+            if( !entry.getKey().isEmpty() ) m_Appendable.append( ':' ).append( entry.getKey() );
+            m_Appendable.append( "=\"" );
+            writeAttributeValue( entry.getValue() );
+            m_Appendable.append( '"' );
+        }
+        for( final var attribute : attributes )
+        {
+            m_Appendable.append( ' ' ).append( attribute.name() ).append( "=\"" );
+            writeAttributeValue( attribute.value() );
+            m_Appendable.append( '"' );
+        }
+        m_Appendable.append( '>' );
+
+        //---* The children *--------------------------------------------------
+        ++m_Depth;
+        try
+        {
+            for( final var child : element.getChildren() )
+            {
+                child.writeCanonical( this );
+            }
+        }
+        finally
+        {
+            --m_Depth;
+            m_Scope = previousScope;
+        }
+
+        //---* The end tag *---------------------------------------------------
+        m_Appendable.append( "</" ).append( elementName ).append( '>' );
+        if( m_Depth == 0 ) m_IsRootWritten = true;
+    }   //  writeElement()
+
+    /**
+     *  Writes the given predefined markup as it is.
+     *
+     *  @param  markup  The markup.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public final void writeMarkup( final CharSequence markup ) throws IOException
+    {
+        m_Appendable.append( requireNonNullArgument( markup, "markup" ) );
+    }   //  writeMarkup()
+
+    /**
+     *  Writes the given processing instruction, as it is rendered by
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  with the pretty print flag unset.
+     *
+     *  @param  processingInstruction   The processing instruction.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public final void writeProcessingInstruction( final Element processingInstruction ) throws IOException
+    {
+        writeDocumentLevel( requireNonNullArgument( processingInstruction, "processingInstruction" ) );
+    }   //  writeProcessingInstruction()
+
+    /**
+     *  Writes the given text, escaped according to the canonicalisation
+     *  rules.
+     *
+     *  @param  text    The text; it must not be escaped already.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public final void writeText( final CharSequence text ) throws IOException
+    {
+        requireNonNullArgument( text, "text" );
+        var start = 0;
+        final var length = text.length();
+        for( var i = 0; i < length; ++i )
+        {
+            final var replacement = switch( text.charAt( i ) )
+            {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '\r' -> "&#xD;";
+                default -> null;
+            };
+            if( nonNull( replacement ) )
+            {
+                m_Appendable.append( text, start, i ).append( replacement );
+                start = i + 1;
+            }
+        }
+        m_Appendable.append( text, start, length );
+    }   //  writeText()
+}
+//  class CanonicalXMLWriter
+
+/*
+ *  End of File
+ */
@@ -21,17 +21,16 @@ import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableCollection;
 import static org.apiguardian.api.API.Status.MAINTAINED;
-import static org.tquadrat.foundation.lang.CommonConstants.CDATA_LEADIN;
-import static org.tquadrat.foundation.lang.CommonConstants.CDATA_LEADOUT;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.util.StringUtils.isEmpty;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmpty;
 import static org.tquadrat.foundation.util.StringUtils.isNotEmptyOrBlank;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
 import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.composeChildrenString;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeChildren;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -43,6 +42,7 @@ import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
 import org.tquadrat.foundation.exception.IllegalOperationException;
 import org.tquadrat.foundation.util.LazyList;
+import org.tquadrat.foundation.xml.builder.XMLElement;
 import org.tquadrat.foundation.xml.builder.internal.Comment;
 import org.tquadrat.foundation.xml.builder.internal.Text;
 
@@ -188,6 +188,41 @@ public final class ChildSupport
         m_ValidChildren = m_CheckValid ? new HashSet<>() : null;
     }   //  ChildSupport()
 
+    /**
+     *  <p>{@summary Creates a new {@code ChildSupport} instance with the same
+     *  configuration as the given one, and with copies of its
+     *  children.}</p>
+     *  <p>The valid children are taken over as they are, and the copies of
+     *  the children are added without checking them again.</p>
+     *
+     *  @param  owner   The element that owns this {@code ChildSupport}
+     *      instance.
+     *  @param  prototype   The instance to copy.
+     *
+     *  @see #copyChild(Element)
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public ChildSupport( final Element owner, final ChildSupport prototype )
+    {
+        m_Owner = requireNonNullArgument( owner, "owner" );
+        m_CheckValid = requireNonNullArgument( prototype, "prototype" ).m_CheckValid;
+        m_AllowChildren = prototype.m_AllowChildren;
+        m_AllowText = prototype.m_AllowText;
+        m_EscapeFunction = prototype.m_EscapeFunction;
+
+        final var size = prototype.m_Children.size();
+        m_Children = LazyList.use( () -> new ArrayList<>( size ) );
+        for( final var child : prototype.m_Children )
+        {
+            final var copy = copyChild( child );
+            m_Children.add( copy );
+            copy.setParent( m_Owner );
+        }
+        m_ValidChildren = m_CheckValid ? new HashSet<>( prototype.m_ValidChildren ) : null;
+    }   //  ChildSupport()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
@@ -200,7 +235,7 @@ public final class ChildSupport
      */
     public final void addCDATA( final CharSequence text ) throws IllegalOperationException
     {
-        addText( requireNonNullArgument( text, "text" ), ChildSupport::toCDATA, true );
+        addText( requireNonNullArgument( text, "text" ), Text.CDATA, true );
     }   //  addCDATA()
 
     /**
@@ -274,7 +309,7 @@ public final class ChildSupport
 
         final var operationName = "addPredefinedMarkup()";
         if( !allowsChildren() ) throw new IllegalOperationException( operationName, format( MSG_NoChildrenAllowed, m_Owner.getElementName() ) );
-        addChildElement( operationName, new Text( markup, CharSequence::toString, true ) );
+        addChildElement( operationName, new Text( markup, Text.VERBATIM, true ) );
     }   //  addPredefinedMarkup()
 
     /**
@@ -395,6 +430,66 @@ public final class ChildSupport
     @SuppressWarnings( "BooleanMethodNameMustStartWithQuestion" )
     public final boolean checksIfValid() { return m_AllowChildren && m_CheckValid; }
 
+    /**
+     *  Removes all children; the valid children are kept, as is the
+     *  capacity of the list that holds the children. The removed children
+     *  are detached from the owning element, so that they can be added
+     *  again.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public final void clear()
+    {
+        if( !m_Children.isEmpty() )
+        {
+            for( final var child : m_Children ) child.clearParent();
+            m_Children.clear();
+        }
+    }   //  clear()
+
+    /**
+     *  <p>{@summary Creates a copy of the given child, without a
+     *  parent.}</p>
+     *  <p>Instances of
+     *  {@link XMLElement}
+     *  are copied through
+     *  {@link XMLElement#copy()},
+     *  so that their own children will be copied, too; texts and comments
+     *  are copied directly.</p>
+     *
+     *  @param  child   The child to copy.
+     *  @return The copy.
+     *  @throws IllegalOperationException   The given child, or one of its
+     *      descendants, cannot be copied.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final Element copyChild( final Element child ) throws IllegalOperationException
+    {
+        final Element retValue;
+        if( requireNonNullArgument( child, "child" ) instanceof final XMLElement element )
+        {
+            retValue = element.copy();
+        }
+        else if( child instanceof final Text text )
+        {
+            retValue = new Text( text );
+        }
+        else if( child instanceof final Comment comment )
+        {
+            retValue = new Comment( comment );
+        }
+        else
+        {
+            throw new IllegalOperationException( "Cannot copy a child of type '%1$s'".formatted( child.getClass().getName() ) );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  copyChild()
+
     /**
      *  Provides access to the children for this element; the returned
      *  collection is not modifiable.
@@ -434,67 +529,64 @@ public final class ChildSupport
     }   //  registerChildren()
 
     /**
-     *  Returns the list of the registered children.
+     *  Removes the given child; the child is identified by reference.
      *
-     *  @return The registered children.
+     *  @param  child   The child to remove.
+     *  @return {@code true} if the child was removed, {@code false} if it
+     *      was not a child of the owning element.
      */
-    public final Collection<String> retrieveValidChildren()
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public final boolean removeChild( final Element child )
     {
-        final Collection<String> retValue = checksIfValid() ? List.copyOf( m_ValidChildren ) : emptyList();
+        requireNonNullArgument( child, "child" );
+        var retValue = false;
+        for( var i = 0; !retValue && (i < m_Children.size()); ++i )
+        {
+            if( m_Children.get( i ) == child )
+            {
+                m_Children.remove( i );
+                retValue = true;
+            }
+        }
 
         //---* Done *----------------------------------------------------------
         return retValue;
-    }   //  retrieveValidChildren()
+    }   //  removeChild()
 
     /**
-     *  {@summary &quot;Escapes&quot; the given String to a {@code CDATA}
-     *  sequence.}
+     *  Removes the given number of children from the start of the list of
+     *  children.
      *
-     *  @param  text    The text.
-     *  @return The {@code CDATA} sequence.
+     *  @param  count   The number of children to remove; if greater than
+     *      the number of children, all children are removed.
+     *  @return {@code true} if at least one child was removed, {@code false}
+     *      otherwise.
+     *  @throws IllegalArgumentException    The count is negative.
      */
-    private static final String toCDATA( final CharSequence text )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public final boolean removeChildren( final int count ) throws IllegalArgumentException
     {
-        final var retValue = new StringBuilder();
+        if( count < 0 ) throw new IllegalArgumentException( "count is negative: %1$d".formatted( count ) );
+        final var end = Math.min( count, m_Children.size() );
+        final var retValue = end > 0;
+        if( retValue ) m_Children.subList( 0, end ).clear();
 
-        if( isEmpty( text ) )
-        {
-            retValue.append( CDATA_LEADIN )
-                .append( CDATA_LEADOUT );
-        }
-        else
-        {
-            final var str = text.toString();
-            var start = 0;
-            int pos;
-            //noinspection NestedAssignment
-            while( (pos = str.indexOf( "]", start )) >= 0 )
-            {
-                if( pos == start )
-                {
-                    retValue.append( ']' );
-                    ++start;
-                }
-                else
-                {
-                    retValue.append( CDATA_LEADIN )
-                        .append( str, start, pos )
-                        .append( CDATA_LEADOUT )
-                        .append( ']' );
-                    start = pos + 1;
-                }
-            }
-            if( start < text.length() )
-            {
-                retValue.append( CDATA_LEADIN )
-                    .append( str.substring( start ) )
-                    .append( CDATA_LEADOUT );
-            }
-        }
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  removeChildren()
+
+    /**
+     *  Returns the list of the registered children.
+     *
+     *  @return The registered children.
+     */
+    public final Collection<String> retrieveValidChildren()
+    {
+        final Collection<String> retValue = checksIfValid() ? List.copyOf( m_ValidChildren ) : emptyList();
 
         //---* Done *----------------------------------------------------------
-        return retValue.toString();
-    }   //  toCDATA()
+        return retValue;
+    }   //  retrieveValidChildren()
 
     /**
      *  Returns the children as a single formatted string.
@@ -510,6 +602,21 @@ public final class ChildSupport
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  Writes the children to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        writeChildren( appendable, indentationLevel, prettyPrint, m_Owner, getChildren() );
+    }   //  writeTo()
 }
 //  class ChildSupport
 
@@ -0,0 +1,427 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+import static javax.xml.XMLConstants.XML_NS_PREFIX;
+import static javax.xml.XMLConstants.XML_NS_URI;
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.escapeXML;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
+import org.tquadrat.foundation.xml.parse.NullErrorHandler;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ *  <p>{@summary Builds the nodes of a DOM
+ *  {@link org.w3c.dom.Document}
+ *  directly from elements and documents.}</p>
+ *  <p>The element tree is walked once, and the DOM nodes are created
+ *  immediately; no String representation of the tree is created and
+ *  parsed. The only exception is predefined markup: it is known only in
+ *  its rendered form, so each of these fragments is parsed on its own, and
+ *  the resulting nodes are imported into the target document. Predefined
+ *  markup must be well-formed for this.</p>
+ *  <p>Elements and attributes are created with their namespace URI, if the
+ *  prefix of their name is declared by the element itself or one of its
+ *  ancestors. Comments and processing instructions get the same content as
+ *  they have in the output of
+ *  {@link Element#writeTo(Appendable, int, boolean)}
+ *  with the pretty print flag unset. The XML header of a document
+ *  determines the
+ *  {@linkplain org.w3c.dom.Document#getXmlVersion() XML version}
+ *  and the
+ *  {@linkplain org.w3c.dom.Document#getXmlStandalone() standalone flag}
+ *  of the DOM document.</p>
+ *  <p>Instances of this class are created by
+ *  {@link SGMLPrinter#composeDOM(Document)};
+ *  they are passed to
+ *  {@link Element#writeDOM(DOMBuilder)}
+ *  for each node of the tree.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public final class DOMBuilder
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The name of the element that wraps predefined markup for parsing:
+     *  {@value}.
+     */
+    private static final String WRAPPER_ELEMENT = "markup";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The node that receives the next child.
+     */
+    private Node m_Current;
+
+    /**
+     *  The target document.
+     */
+    private final org.w3c.dom.Document m_Document;
+
+    /**
+     *  The builder for the target document; it is used to parse predefined
+     *  markup, too.
+     */
+    private final DocumentBuilder m_DocumentBuilder;
+
+    /**
+     *  The namespace declarations that are in scope; the key is the prefix,
+     *  the empty String for the default namespace.
+     */
+    private Map<String,String> m_Scope = Collections.emptyMap();
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code DOMBuilder} instance, together with a new, empty
+     *  target document.
+     */
+    DOMBuilder()
+    {
+        try
+        {
+            final var factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware( true );
+            factory.setValidating( false );
+            factory.setExpandEntityReferences( false );
+            m_DocumentBuilder = factory.newDocumentBuilder();
+            m_DocumentBuilder.setErrorHandler( NullErrorHandler.INSTANCE );
+        }
+        catch( final ParserConfigurationException e )
+        {
+            throw new UnexpectedExceptionError( "Cannot instantiate DocumentBuilder", e );
+        }
+        m_Document = m_DocumentBuilder.newDocument();
+        m_Current = m_Document;
+    }   //  DOMBuilder()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Returns the target document.
+     *
+     *  @return The DOM document.
+     */
+    @SuppressWarnings( "exports" )
+    public final org.w3c.dom.Document getDocument() { return m_Document; }
+
+    /**
+     *  Renders the given node as it would be done by
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  with the pretty print flag unset.
+     *
+     *  @param  node    The node.
+     *  @return The rendered node.
+     */
+    private static final String render( final Element node )
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            node.writeTo( buffer, 0, false );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  render()
+
+    /**
+     *  Resolves the namespace URI for the given prefix.
+     *
+     *  @param  prefix  The prefix from a qualified name; the empty String if
+     *      the name does not have one.
+     *  @param  isElement   {@code true} if the name is that of an element,
+     *      {@code false} if it is the name of an attribute.
+     *  @return The namespace URI; {@code null} if the name does not belong
+     *      to a namespace, or if the prefix is unknown.
+     */
+    private final String resolve( final String prefix, final boolean isElement )
+    {
+        final String retValue;
+        if( prefix.equals( XML_NS_PREFIX ) )
+        {
+            retValue = XML_NS_URI;
+        }
+        else if( prefix.isEmpty() )
+        {
+            /*
+             * The default namespace does not apply to attributes.
+             */
+            retValue = isElement ? m_Scope.get( EMPTY_STRING ) : null;
+        }
+        else
+        {
+            retValue = m_Scope.get( prefix );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  resolve()
+
+    /**
+     *  Adds a {@code CDATA} section with the given content.
+     *
+     *  @param  text    The content of the section; it must not contain the
+     *      sequence {@code ]]>}.
+     */
+    public final void writeCDATA( final CharSequence text )
+    {
+        m_Current.appendChild( m_Document.createCDATASection( requireNonNullArgument( text, "text" ).toString() ) );
+    }   //  writeCDATA()
+
+    /**
+     *  Adds the given comment, with the content that it has in the rendered
+     *  form.
+     *
+     *  @param  comment The comment.
+     */
+    public final void writeComment( final Element comment )
+    {
+        final var rendered = render( requireNonNullArgument( comment, "comment" ) );
+        m_Current.appendChild( m_Document.createComment( rendered.substring( 4, rendered.length() - 3 ) ) );
+    }   //  writeComment()
+
+    /**
+     *  Adds a document type declaration.
+     *
+     *  @param  name    The name of the root element.
+     *  @param  publicId    The public identifier; may be {@code null}.
+     *  @param  systemId    The system identifier.
+     */
+    public final void writeDocType( final String name, final String publicId, final String systemId )
+    {
+        final var docType = m_DocumentBuilder.getDOMImplementation()
+            .createDocumentType( requireNotEmptyArgument( name, "name" ), publicId, requireNonNullArgument( systemId, "systemId" ) );
+        m_Current.appendChild( docType );
+    }   //  writeDocType()
+
+    /**
+     *  Adds the nodes for the given document.
+     *
+     *  @param  document    The document.
+     */
+    final void writeDocument( final Document<? extends Element> document )
+    {
+        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        {
+            child.writeDOM( this );
+        }
+    }   //  writeDocument()
+
+    /**
+     *  Adds the given element, together with its children.
+     *
+     *  @param  element The element.
+     */
+    public final void writeElement( final Element element )
+    {
+        requireNonNullArgument( element, "element" );
+
+        //---* Update the scope *----------------------------------------------
+        final var namespaces = element.getNamespaces();
+        final var previousScope = m_Scope;
+        if( !namespaces.isEmpty() )
+        {
+            m_Scope = new HashMap<>( m_Scope );
+            for( final var namespace : namespaces )
+            {
+                m_Scope.put( namespace.getPrefix().orElse( EMPTY_STRING ), namespace.getIdentifier().toString() );
+            }
+        }
+
+        final var parent = m_Current;
+        try
+        {
+            //---* Create the element *----------------------------------------
+            final var elementName = element.getElementName();
+            final var pos = elementName.indexOf( ':' );
+            final var namespaceURI = resolve( pos < 0 ? EMPTY_STRING : elementName.substring( 0, pos ), true );
+            final var node = (pos < 0) || nonNull( namespaceURI )
+                ? m_Document.createElementNS( namespaceURI, elementName )
+                : m_Document.createElement( elementName );
+
+            //---* The namespaces *--------------------------------------------
+            for( final var namespace : namespaces )
+            {
+                final var name = namespace.getPrefix().map( prefix -> XMLNS_ATTRIBUTE + ':' + prefix ).orElse( XMLNS_ATTRIBUTE );
+                node.setAttributeNS( XMLNS_ATTRIBUTE_NS_URI, name, namespace.getIdentifier().toString() );
+            }
+
+            //---* The attributes *--------------------------------------------
+            for( final var entry : element.getAttributes().entrySet() )
+            {
+                final var name = entry.getKey();
+                final var position = name.indexOf( ':' );
+                if( position < 0 )
+                {
+                    node.setAttributeNS( null, name, entry.getValue() );
+                }
+                else
+                {
+                    final var attributeURI = resolve( name.substring( 0, position ), false );
+                    if( isNull( attributeURI ) )
+                    {
+                        node.setAttribute( name, entry.getValue() );
+                    }
+                    else
+                    {
+                        node.setAttributeNS( attributeURI, name, entry.getValue() );
+                    }
+                }
+            }
+            parent.appendChild( node );
+
+            //---* The children *----------------------------------------------
+            m_Current = node;
+            for( final var child : element.getChildren() )
+            {
+                child.writeDOM( this );
+            }
+        }
+        finally
+        {
+            m_Current = parent;
+            m_Scope = previousScope;
+        }
+    }   //  writeElement()
+
+    /**
+     *  <p>{@summary Adds the given markup.}</p>
+     *  <p>The markup is parsed on its own, and the resulting nodes are
+     *  imported into the target document. The namespaces that are in scope
+     *  at the current position are declared for the parsing, so that the
+     *  prefixes and the default namespace in the markup are resolved as in
+     *  the parsed output of the whole document.</p>
+     *
+     *  @param  markup  The markup.
+     *  @throws IllegalArgumentException    The markup is not well-formed.
+     */
+    public final void writeMarkup( final CharSequence markup ) throws IllegalArgumentException
+    {
+        requireNonNullArgument( markup, "markup" );
+
+        //---* Declare the namespaces that are in scope on the wrapper *-------
+        final var source = new StringBuilder( markup.length() + 64 ).append( '<' ).append( WRAPPER_ELEMENT );
+        for( final var entry : m_Scope.entrySet() )
+        {
+            source.append( ' ' ).append( XMLNS_ATTRIBUTE );
+            if( !entry.getKey().isEmpty() ) source.append( ':' ).append( entry.getKey() );
+            source.append( "=\"" ).append( escapeXML( entry.getValue() ) ).append( '"' );
+        }
+        source.append( '>' ).append( markup ).append( "</" ).append( WRAPPER_ELEMENT ).append( '>' );
+
+        final org.w3c.dom.Document fragment;
+        try
+        {
+            fragment = m_DocumentBuilder.parse( new InputSource( new StringReader( source.toString() ) ) );
+        }
+        catch( final SAXException e )
+        {
+            throw new IllegalArgumentException( "Invalid markup: %s".formatted( markup ), e );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        for( var child = fragment.getDocumentElement().getFirstChild(); nonNull( child ); child = child.getNextSibling() )
+        {
+            m_Current.appendChild( m_Document.importNode( child, true ) );
+        }
+    }   //  writeMarkup()
+
+    /**
+     *  Adds the given processing instruction. The processing instruction
+     *  with the name {@code xml} is the XML header of a document; it
+     *  determines the version and the standalone flag of the target
+     *  document.
+     *
+     *  @param  processingInstruction   The processing instruction.
+     */
+    public final void writeProcessingInstruction( final Element processingInstruction )
+    {
+        final var target = requireNonNullArgument( processingInstruction, "processingInstruction" ).getElementName();
+        if( target.equals( "xml" ) )
+        {
+            processingInstruction.getAttribute( "version" ).ifPresent( m_Document::setXmlVersion );
+            m_Document.setXmlStandalone( processingInstruction.getAttribute( "standalone" ).map( "yes"::equals ).orElse( Boolean.FALSE ).booleanValue() );
+        }
+        else
+        {
+            final var rendered = render( processingInstruction );
+            var start = target.length() + 2;
+            final var end = rendered.length() - 2;
+            while( (start < end) && (rendered.charAt( start ) == ' ') ) ++start;
+            m_Current.appendChild( m_Document.createProcessingInstruction( target, rendered.substring( start, end ) ) );
+        }
+    }   //  writeProcessingInstruction()
+
+    /**
+     *  Adds the given text.
+     *
+     *  @param  text    The text; it must not be escaped.
+     */
+    public final void writeText( final CharSequence text )
+    {
+        m_Current.appendChild( m_Document.createTextNode( requireNonNullArgument( text, "text" ).toString() ) );
+    }   //  writeText()
+}
+//  class DOMBuilder
+
+/*
+ *  End of File
+ */
@@ -18,16 +18,25 @@
 package org.tquadrat.foundation.xml.builder.spi;
 
 import static org.apiguardian.api.API.Status.MAINTAINED;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.composeDocumentString;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.DEFAULT_PARALLEL_THRESHOLD;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeDocument;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
 import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm;
 
 /**
  *  The definition for an SGML document.
@@ -108,6 +117,28 @@ public interface Document<E extends Element>
      */
     public E getRootElement();
 
+    /**
+     *  Converts this document into a DOM
+     *  {@link org.w3c.dom.Document}.
+     *  The DOM nodes are created directly from the element tree, without
+     *  rendering and parsing the document.
+     *
+     *  @return The DOM document.
+     *  @throws IllegalArgumentException    The document contains predefined
+     *      markup that is not well-formed.
+     *
+     *  @see SGMLPrinter#composeDOM(Document)
+     */
+    @SuppressWarnings( "exports" )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default org.w3c.dom.Document toDOM() throws IllegalArgumentException
+    {
+        final var retValue = SGMLPrinter.composeDOM( this );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  toDOM()
+
     /**
      *  Returns a String representation for this element instance.
      *
@@ -116,11 +147,147 @@ public interface Document<E extends Element>
      */
     public default String toString( final boolean prettyPrint )
     {
-        final var retValue = composeDocumentString( prettyPrint, this );
+        final var buffer = new StringBuilder();
+        try
+        {
+            writeTo( buffer, prettyPrint );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  Returns a String representation for this document, created by the
+     *  given
+     *  {@link Printer}.
+     *
+     *  @param  printer The printer.
+     *  @return The String representation.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default String toString( final Printer printer )
+    {
+        final var retValue = requireNonNullArgument( printer, "printer" ).toString( this );
 
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  Writes the canonical form of this document to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  algorithm   The canonicalisation algorithm.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see SGMLPrinter#writeCanonical(Appendable, Document, Algorithm)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeCanonical( final Appendable appendable, final Algorithm algorithm ) throws IOException
+    {
+        SGMLPrinter.writeCanonical( appendable, this, algorithm );
+    }   //  writeCanonical()
+
+    /**
+     *  Writes the String representation for this document to the given
+     *  {@link Appendable},
+     *  without any layout. The output is the same as that of
+     *  {@link #writeTo(Appendable, boolean) writeTo( appendable, false )}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see SGMLPrinter#writeCompact(Appendable, Document)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeCompact( final Appendable appendable ) throws IOException
+    {
+        SGMLPrinter.writeCompact( appendable, this );
+    }   //  writeCompact()
+
+    /**
+     *  Writes the String representation for this document to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable, final boolean prettyPrint ) throws IOException
+    {
+        writeDocument( appendable, prettyPrint, this );
+    }   //  writeTo()
+
+    /**
+     *  Writes the String representation for this document to the given
+     *  {@link Appendable},
+     *  using the given
+     *  {@link Printer}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  printer The printer.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable, final Printer printer ) throws IOException
+    {
+        requireNonNullArgument( printer, "printer" ).print( appendable, this );
+    }   //  writeTo()
+
+    /**
+     *  <p>{@summary Writes the String representation for this document to
+     *  the given
+     *  {@link Appendable},
+     *  rendering the children of the root element in parallel on the given
+     *  {@link Executor}}
+     *  if there are at least
+     *  {@value SGMLPrinter#DEFAULT_PARALLEL_THRESHOLD}
+     *  of them.</p>
+     *  <p>The output is the same as that of
+     *  {@link #writeTo(Appendable, boolean)}.
+     *  The document must not be modified while it is written.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  executor    The executor for the rendering tasks, usually a
+     *      {@link java.util.concurrent.ForkJoinPool}.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see SGMLPrinter#writeDocument(Appendable, boolean, Document, Executor, int)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable, final boolean prettyPrint, final Executor executor ) throws IOException
+    {
+        writeDocument( appendable, prettyPrint, this, executor, DEFAULT_PARALLEL_THRESHOLD );
+    }   //  writeTo()
+
+    /**
+     *  Replays this document as a sequence of calls to the given
+     *  {@link XMLStreamWriter},
+     *  starting with
+     *  {@link XMLStreamWriter#writeStartDocument(String, String)}
+     *  and ending with
+     *  {@link XMLStreamWriter#writeEndDocument()}.
+     *  The writer will be flushed, but not closed.
+     *
+     *  @param  writer  The target for the output.
+     *  @throws XMLStreamException  Writing the document failed.
+     *
+     *  @see SGMLPrinter#writeStAX(XMLStreamWriter, Document)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final XMLStreamWriter writer ) throws XMLStreamException
+    {
+        SGMLPrinter.writeStAX( writer, this );
+    }   //  writeTo()
 }
 //  interface Document
 
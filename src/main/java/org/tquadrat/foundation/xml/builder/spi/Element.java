@@ -19,18 +19,25 @@ package org.tquadrat.foundation.xml.builder.spi;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
 import org.tquadrat.foundation.xml.builder.Namespace;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.composeElementString;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeElement;
 
 /**
  *  The definition for an SGML element.
@@ -48,6 +55,17 @@ public interface Element
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  <p>{@summary Detaches this element from its parent.}</p>
+     *  <p>This is called by a parent that drops all its children on a
+     *  reset, so that these can be added again; it must not be called
+     *  otherwise. The default implementation does nothing.</p>
+     *
+     *  @since 0.26.0
+     */
+    @API( status = INTERNAL, since = "0.26.0" )
+    public default void clearParent() { /* Does nothing */ }
+
     /**
      *  Returns the value for the attribute with the given name.
      *
@@ -144,7 +162,16 @@ public interface Element
     public <E extends Element> void setParent( final E parent );
 
     /**
-     *  Returns a String representation for this element instance.
+     *  <p>{@summary Returns a String representation for this element
+     *  instance.}</p>
+     *  <p>The default implementation delegates to
+     *  {@link #writeTo(Appendable, int, boolean)}.
+     *  Implementations that override this method instead of {@code writeTo()}
+     *  are still supported: their parents write the result of this method
+     *  through
+     *  {@link SGMLPrinter#writeNode(Appendable, int, boolean, Element)}.
+     *  An override may call this default implementation to decorate the
+     *  standard output.</p>
      *
      *  @param  indentationLevel    The indentation level.
      *  @param  prettyPrint The pretty print flag.
@@ -152,11 +179,182 @@ public interface Element
      */
     public default String toString( final int indentationLevel, final boolean prettyPrint )
     {
-        final var retValue = composeElementString( indentationLevel, prettyPrint, this, true );
+        final var buffer = new StringBuilder();
+        try
+        {
+            writeTo( buffer, indentationLevel, prettyPrint );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  Returns a String representation for this element instance, created
+     *  by the given
+     *  {@link Printer}.
+     *
+     *  @param  indentationLevel    The indentation level.
+     *  @param  printer The printer.
+     *  @return The String representation.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default String toString( final int indentationLevel, final Printer printer )
+    {
+        final var retValue = requireNonNullArgument( printer, "printer" ).toString( indentationLevel, this );
 
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  <p>{@summary Writes the canonical form of this element to the given
+     *  {@link CanonicalXMLWriter}.}</p>
+     *  <p>The default implementation writes this element as a regular
+     *  element, with its attributes, namespaces and children; special nodes
+     *  like text, comments or processing instructions override this
+     *  method.</p>
+     *
+     *  @param  writer  The writer for the canonical form.
+     *  @throws IOException Writing the canonical form failed.
+     *
+     *  @see SGMLPrinter#writeCanonical(Appendable, Element, CanonicalXMLWriter.Algorithm)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeCanonical( final CanonicalXMLWriter writer ) throws IOException
+    {
+        requireNonNullArgument( writer, "writer" ).writeElement( this );
+    }   //  writeCanonical()
+
+    /**
+     *  <p>{@summary Writes the String representation for this element
+     *  instance to the given
+     *  {@link Appendable},
+     *  without any layout.}</p>
+     *  <p>The output must be the same as that of
+     *  {@link #writeTo(Appendable, int, boolean) writeTo( appendable, 0, false )},
+     *  but implementations should skip all the work that is only required
+     *  for pretty printing, like the evaluation of the
+     *  {@linkplain #isBlock() block flag}
+     *  or the calculation of the indentation. The default implementation
+     *  just delegates to
+     *  {@link #writeTo(Appendable, int, boolean)}.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see SGMLPrinter#writeCompact(Appendable, Element, boolean)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeCompact( final Appendable appendable ) throws IOException
+    {
+        writeTo( appendable, 0, false );
+    }   //  writeCompact()
+
+    /**
+     *  <p>{@summary Adds the DOM nodes for this element to the target
+     *  document of the given
+     *  {@link DOMBuilder}.}</p>
+     *  <p>The default implementation adds this element as a regular element,
+     *  with its namespaces, attributes and children; special nodes like
+     *  text, comments or processing instructions override this method.</p>
+     *
+     *  @param  builder The builder for the DOM document.
+     *
+     *  @see SGMLPrinter#composeDOM(Document)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeDOM( final DOMBuilder builder )
+    {
+        requireNonNullArgument( builder, "builder" ).writeElement( this );
+    }   //  writeDOM()
+
+    /**
+     *  <p>{@summary Replays this element as a sequence of calls to the
+     *  {@link javax.xml.stream.XMLStreamWriter}
+     *  that is wrapped by the given
+     *  {@link StAXBridge}.}</p>
+     *  <p>The default implementation writes this element as a regular
+     *  element, with its namespaces, attributes and children; special nodes
+     *  like text, comments or processing instructions override this
+     *  method.</p>
+     *
+     *  @param  bridge  The bridge to the {@code XMLStreamWriter}.
+     *  @throws XMLStreamException  Writing the element failed.
+     *
+     *  @see SGMLPrinter#writeStAX(XMLStreamWriter, Element)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeStAX( final StAXBridge bridge ) throws XMLStreamException
+    {
+        requireNonNullArgument( bridge, "bridge" ).writeElement( this );
+    }   //  writeStAX()
+
+    /**
+     *  <p>{@summary Writes the String representation for this element
+     *  instance to the given
+     *  {@link Appendable}.}</p>
+     *  <p>Each character of the output is written exactly once to the target;
+     *  the children of this element will write themselves directly to the
+     *  same {@code Appendable}.</p>
+     *  <p>The default implementation writes the element through
+     *  {@link SGMLPrinter#writeElement(Appendable, int, boolean, Element, boolean)};
+     *  it does not consult
+     *  {@link #toString(int, boolean)},
+     *  as that method delegates to this one. Overrides of
+     *  {@code toString(int, boolean)}
+     *  are honoured when a parent writes its children through
+     *  {@link SGMLPrinter#writeNode(Appendable, int, boolean, Element)}.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        writeElement( appendable, indentationLevel, prettyPrint, this, true );
+    }   //  writeTo()
+
+    /**
+     *  Writes the String representation for this element instance to the
+     *  given
+     *  {@link Appendable},
+     *  using the given
+     *  {@link Printer}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  printer The printer.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final Appendable appendable, final int indentationLevel, final Printer printer ) throws IOException
+    {
+        requireNonNullArgument( printer, "printer" ).print( appendable, indentationLevel, this );
+    }   //  writeTo()
+
+    /**
+     *  Replays this element, together with its children, as a sequence of
+     *  calls to the given
+     *  {@link XMLStreamWriter}.
+     *
+     *  @param  writer  The target for the output.
+     *  @throws XMLStreamException  Writing the element failed.
+     *
+     *  @see SGMLPrinter#writeStAX(XMLStreamWriter, Element)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public default void writeTo( final XMLStreamWriter writer ) throws XMLStreamException
+    {
+        SGMLPrinter.writeStAX( writer, this );
+    }   //  writeTo()
 }
 //  interface Element
 
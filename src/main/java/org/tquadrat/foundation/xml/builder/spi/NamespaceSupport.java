@@ -22,7 +22,9 @@ import static java.util.Collections.sort;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.composeNamespaceString;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeNamespaces;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -85,9 +87,35 @@ public sealed class NamespaceSupport
         m_Namespaces = LazySet.use( HashSet::new );
     }   //  NamespaceSupport()
 
+    /**
+     *  Creates a new {@code NamespaceSupport} instance that holds the same
+     *  namespaces as the given one.
+     *
+     *  @param  owner   The element that owns this {@code NamespaceSupport}
+     *      instance.
+     *  @param  prototype   The instance to copy.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public NamespaceSupport( final Element owner, final NamespaceSupport prototype )
+    {
+        this( owner );
+        final var namespaces = requireNonNullArgument( prototype, "prototype" ).m_Namespaces;
+        if( !namespaces.isEmpty() ) m_Namespaces.addAll( namespaces );
+    }   //  NamespaceSupport()
+
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  Removes all namespaces.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    protected final void clearNamespaces() { m_Namespaces.clear(); }
+
     /**
      *  Provides access to the namespaces for this element; the returned
      *  collection is not modifiable.
@@ -191,6 +219,22 @@ public sealed class NamespaceSupport
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  Writes the namespaces to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @MountPoint
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+    {
+        writeNamespaces( appendable, indentationLevel, prettyPrint, m_Owner.getElementName(), getNamespaces() );
+    }   //  writeTo()
 }
 //  class NamespaceSupport
 
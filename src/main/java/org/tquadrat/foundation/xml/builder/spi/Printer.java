@@ -0,0 +1,159 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.IOException;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
+
+/**
+ *  <p>{@summary The definition of a printer that renders
+ *  {@linkplain Element elements}
+ *  and
+ *  {@linkplain Document documents}
+ *  to an
+ *  {@link Appendable}.}</p>
+ *  <p>A printer is selected per call, through
+ *  {@link Element#writeTo(Appendable, int, Printer)}
+ *  or
+ *  {@link Document#writeTo(Appendable, Printer)},
+ *  or per document, through
+ *  {@link org.tquadrat.foundation.xml.builder.XMLDocument#setPrinter(Printer)}.
+ *  This allows to plug in specialised printers – for example one that
+ *  collects statistics while delegating to another printer – without
+ *  changing the element implementations.</p>
+ *  <p>The default implementations are provided by
+ *  {@link SGMLPrinter}:</p>
+ *  <ul>
+ *      <li>{@link SGMLPrinter#PRETTY_PRINTER}
+ *      produces the same output as
+ *      {@link Element#writeTo(Appendable, int, boolean)}
+ *      with the pretty print flag set,</li>
+ *      <li>{@link SGMLPrinter#COMPACT_PRINTER}
+ *      produces the same output as
+ *      {@link Element#writeCompact(Appendable)},
+ *      and</li>
+ *      <li>{@link SGMLPrinter#canonicalPrinter(CanonicalXMLWriter.Algorithm)}
+ *      returns a printer for the canonical form.</li>
+ *  </ul>
+ *  <p>Implementations must be thread-safe if they are shared between
+ *  documents.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@FunctionalInterface
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public interface Printer
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Writes the given document to the given
+     *  {@link Appendable}.
+     *  The default implementation prints the
+     *  {@linkplain Document#getChildren() children}
+     *  of the document, one after the other, on the indentation level 0.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  document    The document.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public default void print( final Appendable appendable, final Document<? extends Element> document ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        {
+            print( appendable, 0, child );
+        }
+    }   //  print()
+
+    /**
+     *  Writes the given element to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level; printers that do
+     *      not apply a layout will ignore it.
+     *  @param  element The element.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    public void print( final Appendable appendable, final int indentationLevel, final Element element ) throws IOException;
+
+    /**
+     *  Returns the String representation of the given document.
+     *
+     *  @param  document    The document.
+     *  @return The String representation.
+     */
+    public default String toString( final Document<? extends Element> document )
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            print( buffer, document );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  Returns the String representation of the given element.
+     *
+     *  @param  indentationLevel    The indentation level.
+     *  @param  element The element.
+     *  @return The String representation.
+     */
+    public default String toString( final int indentationLevel, final Element element )
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            print( buffer, indentationLevel, element );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  interface Printer
+
+/*
+ *  End of File
+ */
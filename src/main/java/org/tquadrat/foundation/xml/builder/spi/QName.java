@@ -0,0 +1,139 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+
+import java.util.Optional;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+
+/**
+ *  <p>{@summary An immutable token for a validated XML name, as it is used
+ *  for elements and attributes.}</p>
+ *  <p>The token carries the name already split into the namespace prefix
+ *  and the local part. Instances are obtained from the
+ *  {@link SymbolTable}
+ *  and are shared by all elements and attributes that use the same
+ *  name.</p>
+ *  <p>The name is not validated by this class itself.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public final class QName
+{
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The local part of the name.
+     */
+    private final String m_LocalName;
+
+    /**
+     *  The full name.
+     */
+    private final String m_Name;
+
+    /**
+     *  The namespace prefix; {@code null} if the name does not have one.
+     */
+    private final String m_Prefix;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code QName} instance.
+     *
+     *  @param  name    The (already validated) name.
+     */
+    QName( final String name )
+    {
+        m_Name = requireNotEmptyArgument( name, "name" );
+        final var pos = name.indexOf( ':' );
+        m_Prefix = pos > 0 ? name.substring( 0, pos ) : null;
+        m_LocalName = pos > 0 ? name.substring( pos + 1 ) : name;
+    }   //  QName()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && obj instanceof final QName other ) retValue = m_Name.equals( other.m_Name );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  Returns the local part of the name, without the namespace prefix.
+     *
+     *  @return The local name.
+     */
+    public final String getLocalName() { return m_LocalName; }
+
+    /**
+     *  Returns the full name, including the namespace prefix.
+     *
+     *  @return The name.
+     */
+    public final String getName() { return m_Name; }
+
+    /**
+     *  Returns the namespace prefix.
+     *
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the prefix.
+     */
+    public final Optional<String> getPrefix() { return Optional.ofNullable( m_Prefix ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return m_Name.hashCode(); }
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return The full name.
+     */
+    @Override
+    public final String toString() { return m_Name; }
+}
+//  class QName
+
+/*
+ *  End of File
+ */
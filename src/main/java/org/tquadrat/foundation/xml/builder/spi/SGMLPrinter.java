@@ -21,13 +21,29 @@ import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
 import org.tquadrat.foundation.annotation.UtilityClass;
 import org.tquadrat.foundation.exception.PrivateConstructorForStaticClassCalledError;
+import org.tquadrat.foundation.exception.UnexpectedExceptionError;
 import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static java.lang.Math.max;
-import static java.lang.String.format;
+import static java.lang.Math.min;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
@@ -35,7 +51,13 @@ import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 
 /**
- *  Helper method for the conversion of SGML elements into a String.
+ *  <p>{@summary Helper methods for the conversion of SGML elements into a
+ *  String.}</p>
+ *  <p>The {@code write…()} methods send the output directly to an
+ *  {@link Appendable};
+ *  each character of the output is written exactly once into the target,
+ *  without building intermediate Strings for the nested elements. The
+ *  {@code compose…()} methods are just wrappers around these.</p>
  *
  *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
  *  @version $Id: SGMLPrinter.java 1163 2026-03-20 15:28:33Z tquadrat $
@@ -48,14 +70,228 @@ import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 @API( status = MAINTAINED, since = "0.0.5" )
 public final class SGMLPrinter
 {
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The implementation of
+     *  {@link Printer}
+     *  for the canonical form.
+     *
+     *  @param  algorithm   The canonicalisation algorithm.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static record CanonicalPrinter( Algorithm algorithm ) implements Printer
+    {
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void print( final Appendable appendable, final Document<? extends Element> document ) throws IOException
+        {
+            requireNonNullArgument( document, "document" ).writeCanonical( appendable, algorithm );
+        }   //  print()
+
+        /**
+         *  {@inheritDoc}
+         *  <p>The canonical form does not know any indentation, so the
+         *  indentation level is ignored.</p>
+         */
+        @Override
+        public final void print( final Appendable appendable, final int indentationLevel, final Element element ) throws IOException
+        {
+            writeCanonical( appendable, element, algorithm );
+        }   //  print()
+    }
+    //  record CanonicalPrinter
+
+    /**
+     *  The implementation of
+     *  {@link Printer}
+     *  that delegates to the output methods of the elements and documents
+     *  themselves.
+     *
+     *  @param  prettyPrint The pretty print flag; if {@code false}, the
+     *      elements are written through
+     *      {@link Element#writeCompact(Appendable)}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static record DefaultPrinter( boolean prettyPrint ) implements Printer
+    {
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void print( final Appendable appendable, final Document<? extends Element> document ) throws IOException
+        {
+            requireNonNullArgument( document, "document" );
+            if( prettyPrint )
+            {
+                document.writeTo( appendable, true );
+            }
+            else
+            {
+                document.writeCompact( appendable );
+            }
+        }   //  print()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void print( final Appendable appendable, final int indentationLevel, final Element element ) throws IOException
+        {
+            requireNonNullArgument( element, "element" );
+            if( prettyPrint )
+            {
+                writeNode( appendable, indentationLevel, true, element );
+            }
+            else
+            {
+                element.writeCompact( appendable );
+            }
+        }   //  print()
+    }
+    //  record DefaultPrinter
+
         /*-----------*\
     ====** Constants **========================================================
         \*-----------*/
+    /**
+     *  The printer that writes the elements without any layout.
+     *
+     *  @see Element#writeCompact(Appendable)
+     *  @see Document#writeCompact(Appendable)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final Printer COMPACT_PRINTER = new DefaultPrinter( false );
+
+    /**
+     *  The printer that writes the elements with indentation and line
+     *  breaks; this is the default printer for a document.
+     *
+     *  @see Element#writeTo(Appendable, int, boolean)
+     *  @see Document#writeTo(Appendable, boolean)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final Printer PRETTY_PRINTER = new DefaultPrinter( true );
+
     /**
      *  The tabulator size for pretty printing: {@value}
      */
     public static final int TAB_SIZE = 4;
 
+    /**
+     *  The default for the minimum number of children that an element must
+     *  have before these are rendered in parallel: {@value}.
+     *
+     *  @see #writeChildren(Appendable, int, boolean, Element, Collection, Executor, int)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /**
+     *  The minimum number of children that are rendered together by a single
+     *  task in parallel mode: {@value}.
+     */
+    private static final int MIN_CHUNK_SIZE = 64;
+
+        /*------------------------*\
+    ====** Static Initialisations **===========================================
+        \*------------------------*/
+    /**
+     *  The blanks that are used to write the indentation.
+     */
+    private static final String BLANKS;
+
+    /**
+     *  The cache for the indentation Strings that are returned by
+     *  {@link #repeat(int, int)};
+     *  the index is the number of blanks.
+     */
+    private static final String [] INDENTATION_CACHE;
+
+    /**
+     *  The flags that indicate whether an implementation of
+     *  {@link Element}
+     *  overrides
+     *  {@link Element#toString(int, boolean)}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_TO_STRING;
+
+    /**
+     *  The flags that indicate whether an implementation of
+     *  {@link Element}
+     *  writes itself through
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  in the standard way, as implemented by
+     *  {@link Element}
+     *  itself or by
+     *  {@link XMLElementImpl}.
+     */
+    private static final ClassValue<Boolean> USES_STANDARD_OUTPUT;
+
+    static
+    {
+        BLANKS = " ".repeat( 256 );
+        INDENTATION_CACHE = new String [BLANKS.length() + 1];
+        INDENTATION_CACHE [0] = EMPTY_STRING;
+
+        OVERRIDES_TO_STRING = new ClassValue<>()
+        {
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            protected final Boolean computeValue( final Class<?> type )
+            {
+                try
+                {
+                    final var method = type.getMethod( "toString", int.class, boolean.class );
+                    return Boolean.valueOf( method.getDeclaringClass() != Element.class );
+                }
+                catch( final NoSuchMethodException e )
+                {
+                    throw new UnexpectedExceptionError( e );
+                }
+            }   //  computeValue()
+        };
+
+        USES_STANDARD_OUTPUT = new ClassValue<>()
+        {
+            /**
+             *  {@inheritDoc}
+             */
+            @Override
+            protected final Boolean computeValue( final Class<?> type )
+            {
+                try
+                {
+                    final var declaringClass = type.getMethod( "writeTo", Appendable.class, int.class, boolean.class ).getDeclaringClass();
+                    return Boolean.valueOf( (declaringClass == Element.class) || (declaringClass == XMLElementImpl.class) );
+                }
+                catch( final NoSuchMethodException e )
+                {
+                    throw new UnexpectedExceptionError( e );
+                }
+            }   //  computeValue()
+        };
+    }
+
         /*--------------*\
     ====** Constructors **=====================================================
         \*--------------*/
@@ -67,6 +303,26 @@ public final class SGMLPrinter
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  Returns a
+     *  {@link Printer}
+     *  that writes the canonical form, using the given algorithm.
+     *
+     *  @param  algorithm   The canonicalisation algorithm.
+     *  @return The printer.
+     *
+     *  @see #writeCanonical(Appendable, Document, Algorithm)
+     *  @see #writeCanonical(Appendable, Element, Algorithm)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final Printer canonicalPrinter( final Algorithm algorithm )
+    {
+        final Printer retValue = new CanonicalPrinter( requireNonNullArgument( algorithm, "algorithm" ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  canonicalPrinter()
+
     /**
      *  Returns the attributes and their values, together with the namespaces,
      *  as a single formatted string.
@@ -77,44 +333,22 @@ public final class SGMLPrinter
      *  @param  attributes  The attributes.
      *  @param  namespaces  The namespaces.
      *  @return The attributes string.
+     *
+     *  @see #writeAttributes(Appendable, int, boolean, String, Map, Collection)
      */
     @API( status = MAINTAINED, since = "0.0.5" )
     public static final String composeAttributesString( final int indentationLevel, final boolean prettyPrint, final String elementName, final Map<String,String> attributes, final Collection<Namespace> namespaces )
     {
-        requireNotEmptyArgument( elementName, "elementName" );
-        requireNonNullArgument( attributes, "attributes" );
-        requireNonNullArgument( namespaces, "namespaces" );
-
-        var retValue = EMPTY_STRING;
-        if( !attributes.isEmpty() || !namespaces.isEmpty() )
+        final var buffer = new StringBuilder();
+        try
         {
-            //---* Determine the filler *--------------------------------------
-            final var filler = prettyPrint ? "\n" + repeat( indentationLevel, elementName.length() + 1 ) : EMPTY_STRING;
-
-            //---* Create the buffer *-----------------------------------------
-            final var len = (filler.length() + 16) * (attributes.size() + namespaces.size());
-            final var buffer = new StringBuilder( len );
-
-            //---* Add the namespaces *----------------------------------------
-            for( final var namespace : namespaces )
-            {
-                if( !buffer.isEmpty() ) buffer.append( filler );
-                buffer.append( " " ).append( namespace.toString() );
-            }
-
-            //---* Add the attributes *----------------------------------------
-            attributes.forEach( (key,value) ->
-            {
-                if( !buffer.isEmpty() ) buffer.append( filler );
-                buffer.append( ' ' )
-                    .append( key )
-                    .append( "='")
-                    .append( value )
-                    .append( '\'' );
-            });
-
-            retValue = buffer.toString();
+            writeAttributes( buffer, indentationLevel, prettyPrint, elementName, attributes, namespaces );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
         }
+        final var retValue = buffer.toString();
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -128,76 +362,82 @@ public final class SGMLPrinter
      *  @param  parent  The parent element.
      *  @param  children    The children.
      *  @return The children string.
+     *
+     *  @see #writeChildren(Appendable, int, boolean, Element, Collection)
      */
-    @SuppressWarnings( "OverlyComplexMethod" )
     @API( status = MAINTAINED, since = "0.0.5" )
     public static final String composeChildrenString( final int indentationLevel, final boolean prettyPrint, final Element parent, final Collection<? extends Element> children )
     {
-        requireNonNullArgument( parent, "parent" );
-
-        var retValue = EMPTY_STRING;
-        if( !requireNonNullArgument( children, "children" ).isEmpty() )
+        final var buffer = new StringBuilder();
+        try
         {
-            //---* Calculate the indentation *---------------------------------
-            /*
-             * If the direct parent is an inline element, the block is false.
-             */
-            final var grandParent = parent.getParent();
-            final var block = grandParent.map( element -> element.isBlock() && parent.isBlock() ).orElseGet( parent::isBlock ).booleanValue();
-            var filler = (prettyPrint && block) && (indentationLevel > 0) ? "\n" + repeat( indentationLevel ) : EMPTY_STRING;
-
-            //---* Render the children *---------------------------------------
-            final var buffer = new StringBuilder( 1024 );
-
-            final var newIndentationLevel = block ? indentationLevel + 1 : indentationLevel;
-            Element lastChild = null;
-            for( final var child : children )
-            {
-                buffer.append( child.toString( newIndentationLevel, prettyPrint ) );
-                lastChild = child;
-            }
-            if( nonNull( lastChild ) && lastChild.isBlock() )
-            {
-                if( prettyPrint && block && (indentationLevel == 0) )
-                {
-                    buffer.append( "\n" );
-                }
-                else
-                {
-                    if( (block != parent.isBlock()) && prettyPrint && (indentationLevel > 0) )
-                    {
-                        filler = "\n" + repeat( indentationLevel - 1 );
-                    }
-                    buffer.append( filler );
-                }
-            }
-            retValue = buffer.toString();
+            writeChildren( buffer, indentationLevel, prettyPrint, parent, children );
+        }
+        catch( final IOException e )
+        {
+            throw new UnexpectedExceptionError( e );
         }
+        final var retValue = buffer.toString();
 
         //---* Done *----------------------------------------------------------
         return retValue;
     }   //  composeChildrenString()
 
+    /**
+     *  <p>{@summary Creates a DOM
+     *  {@link org.w3c.dom.Document}
+     *  for the given document.}</p>
+     *  <p>The DOM nodes are built directly from the element tree; see
+     *  {@link DOMBuilder}
+     *  for the details. Different from the route through
+     *  {@link #composeDocumentString(boolean, Document)}
+     *  and
+     *  {@link org.tquadrat.foundation.xml.stringconverter.DocumentStringConverter},
+     *  the document is neither rendered to a String nor parsed.</p>
+     *
+     *  @param  document    The document.
+     *  @return The DOM document.
+     *  @throws IllegalArgumentException    The document contains predefined
+     *      markup that is not well-formed.
+     */
+    @SuppressWarnings( "exports" )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final org.w3c.dom.Document composeDOM( final Document<? extends Element> document ) throws IllegalArgumentException
+    {
+        final var builder = new DOMBuilder();
+        builder.writeDocument( document );
+        final var retValue = builder.getDocument();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  composeDOM()
+
     /**
      *  Returns the given document as a single formatted string.
      *
      *  @param  prettyPrint The pretty print flag.
      *  @param  document    The document.
      *  @return The element string.
+     *
+     *  @see #writeDocument(Appendable, boolean, Document)
      */
-    @SuppressWarnings( "Convert2streamapi" )
     @API( status = MAINTAINED, since = "0.0.5" )
     public static final String composeDocumentString( final boolean prettyPrint, final Document<? extends Element> document )
     {
-        final var retValue = new StringBuilder();
-        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        final var buffer = new StringBuilder();
+        try
+        {
+            writeDocument( buffer, prettyPrint, document );
+        }
+        catch( final IOException e )
         {
-            retValue.append( child.toString( 0, prettyPrint ) );
+            throw new UnexpectedExceptionError( e );
         }
+        final var retValue = buffer.toString();
 
         //---* Done *----------------------------------------------------------
-        return retValue.toString();
-    }   //  composeElementString()
+        return retValue;
+    }   //  composeDocumentString()
 
     /**
      *  <p>{@summary Returns the given element as a single formatted
@@ -220,44 +460,23 @@ public final class SGMLPrinter
      *  @param  selfClosing {@code true} if an empty element is self-closing or
      *      {@code false} if an empty element still needs a closing tag.
      *  @return The element string.
+     *
+     *  @see #writeElement(Appendable, int, boolean, Element, boolean)
      */
     @SuppressWarnings( "BooleanParameter" )
     @API( status = MAINTAINED, since = "0.0.5" )
     public static final String composeElementString( final int indentationLevel, final boolean prettyPrint, final Element element, final boolean selfClosing )
     {
-        String retValue = null;
-
-        //---* Calculate the indentation *-------------------------------------
-        /*
-         * If the direct parent is an inline element, the block is false.
-         */
-        final var parent = requireNonNullArgument( element, "element" ).getParent();
-        final var block = parent.map( value -> value.isBlock() && element.isBlock() ).orElseGet( element::isBlock ).booleanValue();
-        final var filler = (prettyPrint && block) ? "\n" + repeat( indentationLevel ) : EMPTY_STRING;
-
-        //---* Render the element *--------------------------------------------
-        final var elementName = element.getElementName();
-        if( !selfClosing || element.hasChildren() )
+        final var buffer = new StringBuilder();
+        try
         {
-            final var buffer = new StringBuilder( 1024 );
-
-            //---* The opening tag *-------------------------------------------
-            buffer.append( format( "%3$s<%1$s%2$s>", elementName, composeAttributesString( indentationLevel, prettyPrint, elementName, element.getAttributes(), element.getNamespaces() ), filler ) );
-
-            //---* The children *----------------------------------------------
-            if( element.hasChildren() )
-            {
-                buffer.append( composeChildrenString( indentationLevel, prettyPrint, element, element.getChildren() ) );
-            }
-
-            //---* The closing tag *-------------------------------------------
-            buffer.append( format( "</%1$s>", elementName ) );
-            retValue = buffer.toString();
+            writeElement( buffer, indentationLevel, prettyPrint, element, selfClosing );
         }
-        else
+        catch( final IOException e )
         {
-            retValue = format( "%3$s<%1$s%2$s/>", elementName, composeAttributesString( indentationLevel, prettyPrint, elementName, element.getAttributes(), element.getNamespaces() ), filler );
+            throw new UnexpectedExceptionError( e );
         }
+        final var retValue = buffer.toString();
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -271,34 +490,132 @@ public final class SGMLPrinter
      *  @param  elementName The name of the owning element.
      *  @param  namespaces  The namespaces.
      *  @return The namespaces string.
+     *
+     *  @see #writeNamespaces(Appendable, int, boolean, String, Collection)
      */
     @API( status = MAINTAINED, since = "0.0.5" )
     public static final String composeNamespaceString( final int indentationLevel, final boolean prettyPrint, final String elementName, final Collection<Namespace> namespaces )
     {
-        requireNotEmptyArgument( elementName, "elementName" );
-
-        var retValue = EMPTY_STRING;
-        if( !requireNonNullArgument( namespaces, "namespaces" ).isEmpty() )
+        final var buffer = new StringBuilder();
+        try
+        {
+            writeNamespaces( buffer, indentationLevel, prettyPrint, elementName, namespaces );
+        }
+        catch( final IOException e )
         {
-            //---* Determine the filler *--------------------------------------
-            final var filler = prettyPrint ? "\n" + repeat( indentationLevel, elementName.length() + 1 ) : EMPTY_STRING;
+            throw new UnexpectedExceptionError( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  composeNamespaceString()
 
-            //---* Create the buffer *-----------------------------------------
-            final var len = (filler.length() + 16) * namespaces.size();
-            final var buffer = new StringBuilder( len );
+    /**
+     *  Returns the indentation level for the children of the given parent
+     *  element.
+     *
+     *  @param  indentationLevel    The indentation level of the parent.
+     *  @param  parent  The parent element.
+     *  @return The indentation level for the children.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final int getChildIndentationLevel( final int indentationLevel, final Element parent )
+    {
+        final var retValue = isBlockContent( requireNonNullArgument( parent, "parent" ) ) ? indentationLevel + 1 : indentationLevel;
 
-            //---* Add the namespaces *----------------------------------------
-            for( final var namespace : namespaces )
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  getChildIndentationLevel()
+
+    /**
+     *  Checks whether the children of the given parent element are laid out
+     *  as blocks; if the direct parent is an inline element, they are not.
+     *
+     *  @param  parent  The parent element.
+     *  @return {@code true} if the children are laid out as blocks,
+     *      {@code false} otherwise.
+     */
+    private static final boolean isBlockContent( final Element parent )
+    {
+        final var grandParent = parent.getParent();
+        final var retValue = grandParent.map( element -> element.isBlock() && parent.isBlock() ).orElseGet( parent::isBlock ).booleanValue();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isBlockContent()
+
+    /**
+     *  Checks whether the children of the given root element can be
+     *  rendered in parallel by
+     *  {@link #writeElement(Appendable, int, boolean, Element, boolean, Executor, int)}.
+     *  This is not possible if the element writes itself in a different way
+     *  than the standard one, or if it keeps its output in a fragment cache:
+     *  then it has to be written through
+     *  {@link Element#writeTo(Appendable, int, boolean)}.
+     *
+     *  @param  element The root element.
+     *  @return {@code true} if the children can be rendered in parallel,
+     *      {@code false} otherwise.
+     */
+    private static final boolean isParallelRenderingPossible( final Element element )
+    {
+        final var retValue = USES_STANDARD_OUTPUT.get( element.getClass() ).booleanValue()
+            && !overridesToString( element )
+            && !((element instanceof final XMLElement xmlElement) && xmlElement.isFragmentCachingEnabled());
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  isParallelRenderingPossible()
+
+    /**
+     *  Checks whether the given element overrides
+     *  {@link Element#toString(int, boolean)};
+     *  the output of such an element is taken from that method instead of
+     *  from
+     *  {@link Element#writeTo(Appendable, int, boolean)}.
+     *
+     *  @param  element The element.
+     *  @return {@code true} if the element overrides
+     *      {@code toString(int,boolean)}, {@code false} otherwise.
+     */
+    private static final boolean overridesToString( final Element element )
+    {
+        final var retValue = OVERRIDES_TO_STRING.get( element.getClass() ).booleanValue();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  overridesToString()
+
+    /**
+     *  Renders the given elements into a String; this is executed by the
+     *  tasks for the parallel rendering.
+     *
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  elements    The elements to render.
+     *  @return The rendered elements.
+     *  @throws UncheckedIOException    Rendering an element failed.
+     */
+    private static final String renderChunk( final int indentationLevel, final boolean prettyPrint, final Collection<? extends Element> elements ) throws UncheckedIOException
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            for( final var element : elements )
             {
-                if( !buffer.isEmpty() ) buffer.append( filler );
-                buffer.append( " " ).append( namespace.toString() );
+                writeNode( buffer, indentationLevel, prettyPrint, element );
             }
-            retValue = buffer.toString();
         }
+        catch( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        final var retValue = buffer.toString();
 
         //---* Done *----------------------------------------------------------
         return retValue;
-    }   //  composeNamespaceString()
+    }   //  renderChunk()
 
     /**
      *  <p>{@summary Returns a String, consisting only of blanks, with the
@@ -309,6 +626,9 @@ public final class SGMLPrinter
      *  blanks.}</p>
      *  <p>Negative values for either the indentation level or the number of
      *  additional blanks are treated as 0.</p>
+     *  <p>The Strings for the usual indentations are cached, so that
+     *  subsequent calls with the same arguments return the same
+     *  instance.</p>
      *
      *  @param  indentationLevel    The indentation level.
      *  @param  additionalBlanks    The number of additional blanks.
@@ -318,7 +638,20 @@ public final class SGMLPrinter
     public static final String repeat( final int indentationLevel, final int additionalBlanks )
     {
         final var count = max( 0, indentationLevel ) * TAB_SIZE + max( 0, additionalBlanks );
-        final var retValue = count > 0 ? " ".repeat( count ) : EMPTY_STRING;
+        String retValue;
+        if( count < INDENTATION_CACHE.length )
+        {
+            /*
+             * Concurrent access to the cache is not an issue: in the worst
+             * case, the same String is created twice.
+             */
+            retValue = INDENTATION_CACHE [count];
+            if( retValue == null ) INDENTATION_CACHE [count] = retValue = BLANKS.substring( 0, count );
+        }
+        else
+        {
+            retValue = " ".repeat( count );
+        }
 
         //---* Done *----------------------------------------------------------
         return retValue;
@@ -339,6 +672,675 @@ public final class SGMLPrinter
     {
         return repeat( indentationLevel, 0 );
     }   //  repeat()
+
+    /**
+     *  Writes the attributes and their values, together with the namespaces,
+     *  to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  elementName The name of the owning element.
+     *  @param  attributes  The attributes.
+     *  @param  namespaces  The namespaces.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeAttributes( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final String elementName, final Map<String,String> attributes, final Collection<Namespace> namespaces ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNotEmptyArgument( elementName, "elementName" );
+        requireNonNullArgument( attributes, "attributes" );
+        requireNonNullArgument( namespaces, "namespaces" );
+
+        if( !attributes.isEmpty() || !namespaces.isEmpty() )
+        {
+            //---* Determine the width of the filler *-------------------------
+            final var fillerWidth = elementName.length() + 1;
+
+            //---* Write the namespaces *--------------------------------------
+            var isFirst = true;
+            for( final var namespace : namespaces )
+            {
+                if( !isFirst ) writeFiller( appendable, indentationLevel, prettyPrint, fillerWidth );
+                appendable.append( ' ' ).append( namespace.toString() );
+                isFirst = false;
+            }
+
+            //---* Write the attributes *--------------------------------------
+            for( final var entry : attributes.entrySet() )
+            {
+                if( !isFirst ) writeFiller( appendable, indentationLevel, prettyPrint, fillerWidth );
+                appendable.append( ' ' )
+                    .append( entry.getKey() )
+                    .append( "='" )
+                    .append( entry.getValue() )
+                    .append( '\'' );
+                isFirst = false;
+            }
+        }
+    }   //  writeAttributes()
+
+    /**
+     *  <p>{@summary Writes the given document in its canonical form to the
+     *  given
+     *  {@link Appendable}.}</p>
+     *  <p>The canonical form is written directly from the element tree, in a
+     *  single pass; see
+     *  {@link CanonicalXMLWriter}
+     *  for the details.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  document    The document.
+     *  @param  algorithm   The canonicalisation algorithm.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeCanonical( final Appendable appendable, final Document<? extends Element> document, final Algorithm algorithm ) throws IOException
+    {
+        final var writer = new CanonicalXMLWriter( appendable, algorithm );
+        writer.writeDocument( requireNonNullArgument( document, "document" ) );
+    }   //  writeCanonical()
+
+    /**
+     *  <p>{@summary Writes the given element in its canonical form to the
+     *  given
+     *  {@link Appendable}.}</p>
+     *  <p>The namespaces that are in scope for the element are declared on
+     *  it, and it inherits the attributes from the {@code xml} namespace
+     *  from its ancestors according to the rules of the given algorithm; see
+     *  {@link CanonicalXMLWriter}
+     *  for the details.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  element The element.
+     *  @param  algorithm   The canonicalisation algorithm.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeCanonical( final Appendable appendable, final Element element, final Algorithm algorithm ) throws IOException
+    {
+        final var writer = new CanonicalXMLWriter( appendable, algorithm );
+        requireNonNullArgument( element, "element" ).writeCanonical( writer );
+    }   //  writeCanonical()
+
+    /**
+     *  Writes the children to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  parent  The parent element.
+     *  @param  children    The children.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeChildren( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element parent, final Collection<? extends Element> children ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNonNullArgument( parent, "parent" );
+
+        writeChildren( appendable, indentationLevel, prettyPrint, parent, requireNonNullArgument( children, "children" ), null, Integer.MAX_VALUE );
+    }   //  writeChildren()
+
+    /**
+     *  <p>{@summary Writes the children to the given
+     *  {@link Appendable},
+     *  rendering them in parallel if there are enough of them.}</p>
+     *  <p>If the number of children is at least the given threshold, they
+     *  will be split into chunks; each chunk is rendered into a buffer of
+     *  its own by a task that runs on the given
+     *  {@link Executor}
+     *  (usually a
+     *  {@link java.util.concurrent.ForkJoinPool}).
+     *  The buffers are written to the target in the original order, so the
+     *  output is the same as that of
+     *  {@link #writeChildren(Appendable, int, boolean, Element, Collection)}.
+     *  Below the threshold, the children are rendered sequentially on the
+     *  current thread.</p>
+     *  <p>Only the given children are distributed; each of them renders its
+     *  own children sequentially. The tree must not be modified while it is
+     *  rendered.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  parent  The parent element.
+     *  @param  children    The children.
+     *  @param  executor    The executor for the rendering tasks; can be
+     *      {@code null} for sequential rendering.
+     *  @param  threshold   The minimum number of children for the parallel
+     *      rendering.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see #DEFAULT_PARALLEL_THRESHOLD
+     */
+    @SuppressWarnings( {"OverlyComplexMethod", "MethodWithTooManyParameters"} )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeChildren( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element parent, final Collection<? extends Element> children, final Executor executor, final int threshold ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNonNullArgument( parent, "parent" );
+        requireNonNullArgument( children, "children" );
+
+        if( !children.isEmpty() )
+        {
+            //---* Render the children *---------------------------------------
+            final var newIndentationLevel = getChildIndentationLevel( indentationLevel, parent );
+            Element lastChild = null;
+            if( nonNull( executor ) && (children.size() >= max( 1, threshold )) )
+            {
+                final List<? extends Element> list = List.copyOf( children );
+                writeChunks( appendable, newIndentationLevel, prettyPrint, list, executor );
+                lastChild = list.get( list.size() - 1 );
+            }
+            else
+            {
+                for( final var child : children )
+                {
+                    writeNode( appendable, newIndentationLevel, prettyPrint, child );
+                    lastChild = child;
+                }
+            }
+            writeClosingFiller( appendable, indentationLevel, prettyPrint, parent, lastChild );
+        }
+    }   //  writeChildren()
+
+    /**
+     *  Renders the given children in chunks on the given executor, and
+     *  writes the results in the original order to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level for the children.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  children    The children.
+     *  @param  executor    The executor for the rendering tasks.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    private static final void writeChunks( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final List<? extends Element> children, final Executor executor ) throws IOException
+    {
+        final var size = children.size();
+        final var chunkSize = max( MIN_CHUNK_SIZE, size / (4 * Runtime.getRuntime().availableProcessors()) );
+        final List<CompletableFuture<String>> chunks = new ArrayList<>( size / chunkSize + 1 );
+        try
+        {
+            for( var start = 0; start < size; start += chunkSize )
+            {
+                final var chunk = children.subList( start, min( start + chunkSize, size ) );
+                chunks.add( supplyAsync( () -> renderChunk( indentationLevel, prettyPrint, chunk ), executor ) );
+            }
+            for( final var chunk : chunks )
+            {
+                appendable.append( chunk.join() );
+            }
+        }
+        catch( final CompletionException e )
+        {
+            final var cause = e.getCause();
+            if( cause instanceof final UncheckedIOException uncheckedIOException ) throw uncheckedIOException.getCause();
+            if( cause instanceof final RuntimeException runtimeException ) throw runtimeException;
+            if( cause instanceof final Error error ) throw error;
+            throw new UnexpectedExceptionError( cause );
+        }
+        finally
+        {
+            //---* Stop the tasks that are still running after an error *-----
+            chunks.forEach( chunk -> chunk.cancel( false ) );
+        }
+    }   //  writeChunks()
+
+    /**
+     *  <p>{@summary Writes the line break and the indentation that precede
+     *  the closing tag of the given parent element, after its last child was
+     *  written.}</p>
+     *  <p>Nothing will be written if the pretty print flag is not set, if
+     *  there is no last child, or if the last child is an inline
+     *  element.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level of the parent.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  parent  The parent element.
+     *  @param  lastChild   The last child that was written for the parent;
+     *      can be {@code null}.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeClosingFiller( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element parent, final Element lastChild ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNonNullArgument( parent, "parent" );
+
+        if( nonNull( lastChild ) && lastChild.isBlock() && prettyPrint )
+        {
+            final var block = isBlockContent( parent );
+            if( block && (indentationLevel == 0) )
+            {
+                appendable.append( '\n' );
+            }
+            else if( (block != parent.isBlock()) && (indentationLevel > 0) )
+            {
+                writeFiller( appendable, indentationLevel - 1, true, 0 );
+            }
+            else if( block && (indentationLevel > 0) )
+            {
+                writeFiller( appendable, indentationLevel, true, 0 );
+            }
+        }
+    }   //  writeClosingFiller()
+
+    /**
+     *  <p>{@summary Writes the given document to the given
+     *  {@link Appendable}
+     *  without any layout.}</p>
+     *  <p>The output is the same as that of
+     *  {@link #writeDocument(Appendable, boolean, Document)}
+     *  with the pretty print flag unset, but no indentation is calculated
+     *  and the block or inline status of the elements is not evaluated.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  document    The document.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see Element#writeCompact(Appendable)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeCompact( final Appendable appendable, final Document<? extends Element> document ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        {
+            child.writeCompact( appendable );
+        }
+    }   //  writeCompact()
+
+    /**
+     *  <p>{@summary Writes the given element to the given
+     *  {@link Appendable}
+     *  without any layout.}</p>
+     *  <p>The output is the same as that of
+     *  {@link #writeElement(Appendable, int, boolean, Element, boolean)}
+     *  with the pretty print flag unset, but no indentation is calculated
+     *  and the block or inline status of the element, its parent and its
+     *  children is not evaluated. The children write themselves through
+     *  {@link Element#writeCompact(Appendable)}.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  element The element.
+     *  @param  selfClosing {@code true} if an empty element is self-closing or
+     *      {@code false} if an empty element still needs a closing tag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @SuppressWarnings( "BooleanParameter" )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeCompact( final Appendable appendable, final Element element, final boolean selfClosing ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+
+        //---* The opening tag *-----------------------------------------------
+        final var elementName = requireNonNullArgument( element, "element" ).getElementName();
+        appendable.append( '<' ).append( elementName );
+        for( final var namespace : element.getNamespaces() )
+        {
+            appendable.append( ' ' ).append( namespace.toString() );
+        }
+        for( final var entry : element.getAttributes().entrySet() )
+        {
+            appendable.append( ' ' )
+                .append( entry.getKey() )
+                .append( "='" )
+                .append( entry.getValue() )
+                .append( '\'' );
+        }
+
+        if( !selfClosing || element.hasChildren() )
+        {
+            appendable.append( '>' );
+
+            //---* The children *----------------------------------------------
+            for( final var child : element.getChildren() )
+            {
+                child.writeCompact( appendable );
+            }
+
+            //---* The closing tag *-------------------------------------------
+            appendable.append( "</" ).append( elementName ).append( '>' );
+        }
+        else
+        {
+            appendable.append( "/>" );
+        }
+    }   //  writeCompact()
+
+    /**
+     *  Writes the given document to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  document    The document.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeDocument( final Appendable appendable, final boolean prettyPrint, final Document<? extends Element> document ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        for( final var child : requireNonNullArgument( document, "document" ).getChildren() )
+        {
+            writeNode( appendable, 0, prettyPrint, child );
+        }
+    }   //  writeDocument()
+
+    /**
+     *  <p>{@summary Writes the given document to the given
+     *  {@link Appendable},
+     *  rendering the children of the root element in parallel if there are
+     *  enough of them.}</p>
+     *  <p>The output is the same as that of
+     *  {@link #writeDocument(Appendable, boolean, Document)}.
+     *  If the root element changes its own output, for example by
+     *  overriding
+     *  {@link Element#writeTo(Appendable, int, boolean)},
+     *  or if it keeps its output in a fragment cache, it is written through
+     *  its own method, without parallel rendering.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  document    The document.
+     *  @param  executor    The executor for the rendering tasks.
+     *  @param  threshold   The minimum number of children for the parallel
+     *      rendering.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see #writeChildren(Appendable, int, boolean, Element, Collection, Executor, int)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeDocument( final Appendable appendable, final boolean prettyPrint, final Document<? extends Element> document, final Executor executor, final int threshold ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNonNullArgument( executor, "executor" );
+        final var rootElement = requireNonNullArgument( document, "document" ).getRootElement();
+        for( final var child : document.getChildren() )
+        {
+            if( (child == rootElement) && child.hasChildren() && (child.getChildren().size() >= threshold) && isParallelRenderingPossible( rootElement ) )
+            {
+                writeElement( appendable, 0, prettyPrint, rootElement, true, executor, threshold );
+            }
+            else
+            {
+                writeNode( appendable, 0, prettyPrint, child );
+            }
+        }
+    }   //  writeDocument()
+
+    /**
+     *  Writes the given element to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  element The element.
+     *  @param  selfClosing {@code true} if an empty element is self-closing or
+     *      {@code false} if an empty element still needs a closing tag.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see #composeElementString(int, boolean, Element, boolean)
+     */
+    @SuppressWarnings( "BooleanParameter" )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeElement( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element element, final boolean selfClosing ) throws IOException
+    {
+        writeElement( appendable, indentationLevel, prettyPrint, element, selfClosing, null, Integer.MAX_VALUE );
+    }   //  writeElement()
+
+    /**
+     *  <p>{@summary Writes the given element to the given
+     *  {@link Appendable},
+     *  rendering its children in parallel if there are enough of them.}</p>
+     *  <p>The output is the same as that of
+     *  {@link #writeElement(Appendable, int, boolean, Element, boolean)}.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  element The element.
+     *  @param  selfClosing {@code true} if an empty element is self-closing or
+     *      {@code false} if an empty element still needs a closing tag.
+     *  @param  executor    The executor for the rendering tasks; can be
+     *      {@code null} for sequential rendering.
+     *  @param  threshold   The minimum number of children for the parallel
+     *      rendering.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see #writeChildren(Appendable, int, boolean, Element, Collection, Executor, int)
+     */
+    @SuppressWarnings( {"BooleanParameter", "MethodWithTooManyParameters"} )
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeElement( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element element, final boolean selfClosing, final Executor executor, final int threshold ) throws IOException
+    {
+        //---* The opening tag *-----------------------------------------------
+        writeOpeningTag( appendable, indentationLevel, prettyPrint, element );
+        final var elementName = element.getElementName();
+
+        if( !selfClosing || element.hasChildren() )
+        {
+            appendable.append( '>' );
+
+            //---* The children *----------------------------------------------
+            if( element.hasChildren() )
+            {
+                writeChildren( appendable, indentationLevel, prettyPrint, element, element.getChildren(), executor, threshold );
+            }
+
+            //---* The closing tag *-------------------------------------------
+            appendable.append( "</" ).append( elementName ).append( '>' );
+        }
+        else
+        {
+            appendable.append( "/>" );
+        }
+    }   //  writeElement()
+
+    /**
+     *  <p>{@summary Replays the given document as a sequence of calls to the
+     *  given
+     *  {@link XMLStreamWriter}.}</p>
+     *  <p>The document is written in a single pass directly from the element
+     *  tree; see
+     *  {@link StAXBridge}
+     *  for the details. The writer will be flushed, but not closed.</p>
+     *
+     *  @param  writer  The target for the output.
+     *  @param  document    The document.
+     *  @throws XMLStreamException  Writing the document failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeStAX( final XMLStreamWriter writer, final Document<? extends Element> document ) throws XMLStreamException
+    {
+        final var bridge = new StAXBridge( writer );
+        bridge.writeDocument( document );
+    }   //  writeStAX()
+
+    /**
+     *  <p>{@summary Replays the given element, together with its children,
+     *  as a sequence of calls to the given
+     *  {@link XMLStreamWriter}.}</p>
+     *  <p>The element is written as a fragment, without
+     *  {@link XMLStreamWriter#writeStartDocument()}
+     *  and
+     *  {@link XMLStreamWriter#writeEndDocument()}.
+     *  The namespaces that the element inherits from its ancestors are
+     *  declared on the element itself, and names with a prefix are resolved
+     *  against these, too.</p>
+     *
+     *  @param  writer  The target for the output.
+     *  @param  element The element.
+     *  @throws XMLStreamException  Writing the element failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeStAX( final XMLStreamWriter writer, final Element element ) throws XMLStreamException
+    {
+        final var bridge = new StAXBridge( writer );
+        requireNonNullArgument( element, "element" ).writeStAX( bridge );
+    }   //  writeStAX()
+
+    /**
+     *  <p>{@summary Writes a line break, followed by the indentation for the
+     *  given indentation level and the given number of additional blanks, to
+     *  the given
+     *  {@link Appendable},
+     *  but only if the pretty print flag is set.} Otherwise, nothing will be
+     *  written.</p>
+     *  <p>Negative values for either the indentation level or the number of
+     *  additional blanks are treated as 0.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  additionalBlanks    The number of additional blanks.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     *
+     *  @see #writeIndentation(Appendable, int, int)
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeFiller( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final int additionalBlanks ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        if( prettyPrint )
+        {
+            appendable.append( '\n' );
+            writeIndentation( appendable, indentationLevel, additionalBlanks );
+        }
+    }   //  writeFiller()
+
+    /**
+     *  <p>{@summary Writes the indentation for the given indentation level,
+     *  plus the given number of additional blanks, to the given
+     *  {@link Appendable}.} This produces the same output as
+     *  {@link #repeat(int, int)},
+     *  but without creating a String.</p>
+     *  <p>Negative values for either the indentation level or the number of
+     *  additional blanks are treated as 0.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  additionalBlanks    The number of additional blanks.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeIndentation( final Appendable appendable, final int indentationLevel, final int additionalBlanks ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        var count = max( 0, indentationLevel ) * TAB_SIZE + max( 0, additionalBlanks );
+        while( count > 0 )
+        {
+            final var length = min( count, BLANKS.length() );
+            appendable.append( BLANKS, 0, length );
+            count -= length;
+        }
+    }   //  writeIndentation()
+
+    /**
+     *  Writes the namespaces to the given
+     *  {@link Appendable}.
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  elementName The name of the owning element.
+     *  @param  namespaces  The namespaces.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeNamespaces( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final String elementName, final Collection<Namespace> namespaces ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        requireNotEmptyArgument( elementName, "elementName" );
+
+        if( !requireNonNullArgument( namespaces, "namespaces" ).isEmpty() )
+        {
+            //---* Determine the width of the filler *-------------------------
+            final var fillerWidth = elementName.length() + 1;
+
+            //---* Write the namespaces *--------------------------------------
+            var isFirst = true;
+            for( final var namespace : namespaces )
+            {
+                if( !isFirst ) writeFiller( appendable, indentationLevel, prettyPrint, fillerWidth );
+                appendable.append( ' ' ).append( namespace.toString() );
+                isFirst = false;
+            }
+        }
+    }   //  writeNamespaces()
+
+    /**
+     *  <p>{@summary Writes the given node – an element, or a special node
+     *  like text or a comment – to the given
+     *  {@link Appendable}.}</p>
+     *  <p>This is how a parent writes its children. Usually, this delegates
+     *  to
+     *  {@link Element#writeTo(Appendable, int, boolean)};
+     *  if the implementation of the node overrides
+     *  {@link Element#toString(int, boolean)},
+     *  the result of that method is written instead.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  node    The node.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeNode( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element node ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+        if( overridesToString( requireNonNullArgument( node, "node" ) ) )
+        {
+            appendable.append( node.toString( indentationLevel, prettyPrint ) );
+        }
+        else
+        {
+            node.writeTo( appendable, indentationLevel, prettyPrint );
+        }
+    }   //  writeNode()
+
+    /**
+     *  <p>{@summary Writes the opening tag for the given element, including
+     *  its namespaces and attributes, but without the closing bracket, to the
+     *  given
+     *  {@link Appendable}.}</p>
+     *  <p>If the element is a block element, the tag will be preceded by the
+     *  line break and the indentation for the given level when the pretty
+     *  print flag is set.</p>
+     *
+     *  @param  appendable  The target for the output.
+     *  @param  indentationLevel    The indentation level.
+     *  @param  prettyPrint The pretty print flag.
+     *  @param  element The element.
+     *  @throws IOException Writing to the {@code Appendable} failed.
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    public static final void writeOpeningTag( final Appendable appendable, final int indentationLevel, final boolean prettyPrint, final Element element ) throws IOException
+    {
+        requireNonNullArgument( appendable, "appendable" );
+
+        //---* Calculate the indentation *-------------------------------------
+        /*
+         * If the direct parent is an inline element, the block is false.
+         */
+        final var parent = requireNonNullArgument( element, "element" ).getParent();
+        final var block = parent.map( value -> value.isBlock() && element.isBlock() ).orElseGet( element::isBlock ).booleanValue();
+        if( block ) writeFiller( appendable, indentationLevel, prettyPrint, 0 );
+
+        //---* The opening tag *-----------------------------------------------
+        final var elementName = element.getElementName();
+        appendable.append( '<' ).append( elementName );
+        writeAttributes( appendable, indentationLevel, prettyPrint, elementName, element.getAttributes(), element.getNamespaces() );
+    }   //  writeOpeningTag()
 }
 //  class SGMLPrinter
 
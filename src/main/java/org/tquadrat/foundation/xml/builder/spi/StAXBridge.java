@@ -0,0 +1,556 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static javax.xml.XMLConstants.XML_NS_PREFIX;
+import static javax.xml.XMLConstants.XML_NS_URI;
+import static javax.xml.stream.XMLInputFactory.IS_COALESCING;
+import static javax.xml.stream.XMLInputFactory.IS_NAMESPACE_AWARE;
+import static javax.xml.stream.XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES;
+import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
+import static javax.xml.stream.XMLInputFactory.SUPPORT_DTD;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.ENTITY_REFERENCE;
+import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+
+/**
+ *  <p>{@summary Replays elements and documents as a sequence of calls to a
+ *  {@link XMLStreamWriter}.}</p>
+ *  <p>The element tree is walked once; no String representation of the
+ *  whole tree is created, and nothing is parsed again, with one exception:
+ *  predefined markup and {@code CDATA} sections are known only in their
+ *  rendered form, so these fragments are read with a StAX parser and
+ *  replayed event by event. Predefined markup must be well-formed for this;
+ *  references to entities other than the predefined ones are replayed as
+ *  entity references.</p>
+ *  <p>Element and attribute names with a prefix are resolved against the
+ *  namespaces of the element and its ancestors, so the writer can be used
+ *  both with and without namespace repairing. When a single element is
+ *  replayed, the namespaces that it inherits from its ancestors are
+ *  declared on that element, so the output is namespace well-formed on its
+ *  own. Comments and processing
+ *  instructions are written with the same content as they have in the
+ *  output of
+ *  {@link Element#writeTo(Appendable, int, boolean)}
+ *  with the pretty print flag unset. The XML header of a document becomes
+ *  the call to
+ *  {@link XMLStreamWriter#writeStartDocument(String, String)},
+ *  and the document type declaration is written with
+ *  {@link XMLStreamWriter#writeDTD(String)}.</p>
+ *  <p>Instances of this class are created by
+ *  {@link SGMLPrinter#writeStAX(XMLStreamWriter, Document)}
+ *  and
+ *  {@link SGMLPrinter#writeStAX(XMLStreamWriter, Element)};
+ *  they are passed to
+ *  {@link Element#writeStAX(StAXBridge)}
+ *  for each node of the tree.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public final class StAXBridge
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The name of the property that makes the StAX parser of the JDK report
+     *  {@code CDATA} sections as such, instead as plain characters:
+     *  {@value}.
+     */
+    private static final String PROPERTY_ReportCDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    /**
+     *  The name of the element that wraps predefined markup for parsing:
+     *  {@value}.
+     */
+    private static final String WRAPPER_ELEMENT = "markup";
+
+        /*------------*\
+    ====** Attributes **=======================================================
+        \*------------*/
+    /**
+     *  The nesting depth of the element that is currently written; 0 for
+     *  the top element of the replay.
+     */
+    private int m_Depth = 0;
+
+    /**
+     *  The factory for the parsers for predefined markup; it will be created
+     *  on first use.
+     */
+    private XMLInputFactory m_InputFactory = null;
+
+    /**
+     *  {@code true} if a complete document is replayed, {@code false} if it
+     *  is a single element.
+     */
+    private boolean m_IsDocument = false;
+
+    /**
+     *  The namespace declarations that are in scope for the output; the key
+     *  is the prefix, the empty String for the default namespace.
+     */
+    private Map<String,String> m_Scope = Collections.emptyMap();
+
+    /**
+     *  The target for the output.
+     */
+    private final XMLStreamWriter m_Writer;
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code StAXBridge} instance.
+     *
+     *  @param  writer  The target for the output.
+     */
+    StAXBridge( final XMLStreamWriter writer )
+    {
+        m_Writer = requireNonNullArgument( writer, "writer" );
+    }   //  StAXBridge()
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Returns the given String without the given lead-in and lead-out;
+     *  leading blanks are removed, too.
+     *
+     *  @param  rendered    The rendered form of a node.
+     *  @param  leadIn  The lead-in.
+     *  @param  leadOut The lead-out.
+     *  @return The content of the node.
+     */
+    private static final String getContent( final String rendered, final String leadIn, final String leadOut )
+    {
+        var start = leadIn.length();
+        final var end = rendered.length() - leadOut.length();
+        while( (start < end) && (rendered.charAt( start ) == ' ') ) ++start;
+        final var retValue = rendered.substring( start, end );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  getContent()
+
+    /**
+     *  Collects the namespaces that the given element inherits from its
+     *  ancestors, and that it does not declare itself.
+     *
+     *  @param  element The element.
+     *  @return The inherited namespaces; the key is the prefix, the empty
+     *      String for the default namespace.
+     */
+    private static final Map<String,String> collectInheritedNamespaces( final Element element )
+    {
+        final Map<String,String> retValue = new LinkedHashMap<>();
+        for( var ancestor = element.getParent(); ancestor.isPresent(); ancestor = ancestor.get().getParent() )
+        {
+            for( final var namespace : ancestor.get().getNamespaces() )
+            {
+                retValue.putIfAbsent( namespace.getPrefix().orElse( EMPTY_STRING ), namespace.getIdentifier().toString() );
+            }
+        }
+        for( final var namespace : element.getNamespaces() )
+        {
+            retValue.remove( namespace.getPrefix().orElse( EMPTY_STRING ) );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  collectInheritedNamespaces()
+
+    /**
+     *  Returns the factory for the parsers for predefined markup.
+     *
+     *  @return The factory.
+     */
+    private final XMLInputFactory getInputFactory()
+    {
+        if( isNull( m_InputFactory ) )
+        {
+            final var factory = XMLInputFactory.newFactory();
+            factory.setProperty( IS_NAMESPACE_AWARE, Boolean.FALSE );
+            factory.setProperty( IS_COALESCING, Boolean.FALSE );
+            factory.setProperty( IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE );
+            factory.setProperty( IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+            factory.setProperty( SUPPORT_DTD, Boolean.FALSE );
+            if( factory.isPropertySupported( PROPERTY_ReportCDATA ) ) factory.setProperty( PROPERTY_ReportCDATA, Boolean.TRUE );
+            m_InputFactory = factory;
+        }
+
+        //---* Done *----------------------------------------------------------
+        return m_InputFactory;
+    }   //  getInputFactory()
+
+    /**
+     *  Renders the given node as it would be done by
+     *  {@link Element#writeTo(Appendable, int, boolean)}
+     *  with the pretty print flag unset.
+     *
+     *  @param  node    The node.
+     *  @return The rendered node.
+     *  @throws XMLStreamException  Rendering the node failed.
+     */
+    private static final String render( final Element node ) throws XMLStreamException
+    {
+        final var buffer = new StringBuilder();
+        try
+        {
+            node.writeTo( buffer, 0, false );
+        }
+        catch( final IOException e )
+        {
+            throw new XMLStreamException( e );
+        }
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  render()
+
+    /**
+     *  Resolves the namespace URI for the given qualified name.
+     *
+     *  @param  prefix  The prefix from the qualified name; the empty String
+     *      if the name does not have one.
+     *  @param  isElement   {@code true} if the name is that of an element,
+     *      {@code false} if it is the name of an attribute.
+     *  @return The namespace URI, or {@code null} if the prefix is unknown.
+     */
+    private final String resolve( final String prefix, final boolean isElement )
+    {
+        final String retValue;
+        if( prefix.equals( XML_NS_PREFIX ) )
+        {
+            retValue = XML_NS_URI;
+        }
+        else if( prefix.isEmpty() )
+        {
+            /*
+             * The default namespace does not apply to attributes.
+             */
+            retValue = isElement ? m_Scope.getOrDefault( EMPTY_STRING, EMPTY_STRING ) : EMPTY_STRING;
+        }
+        else
+        {
+            retValue = m_Scope.get( prefix );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  resolve()
+
+    /**
+     *  Writes a {@code CDATA} section with the given content.
+     *
+     *  @param  text    The content of the section; it must not contain the
+     *      sequence {@code ]]>}.
+     *  @throws XMLStreamException  Writing the section failed.
+     */
+    public final void writeCDATA( final CharSequence text ) throws XMLStreamException
+    {
+        m_Writer.writeCData( requireNonNullArgument( text, "text" ).toString() );
+    }   //  writeCDATA()
+
+    /**
+     *  Writes the given comment, with the content that it has in the
+     *  rendered form.
+     *
+     *  @param  comment The comment.
+     *  @throws XMLStreamException  Writing the comment failed.
+     */
+    public final void writeComment( final Element comment ) throws XMLStreamException
+    {
+        final var rendered = render( requireNonNullArgument( comment, "comment" ) );
+        m_Writer.writeComment( rendered.substring( 4, rendered.length() - 3 ) );
+    }   //  writeComment()
+
+    /**
+     *  Writes the given document type declaration.
+     *
+     *  @param  docType The document type declaration.
+     *  @throws XMLStreamException  Writing the declaration failed.
+     */
+    public final void writeDocType( final Element docType ) throws XMLStreamException
+    {
+        m_Writer.writeDTD( render( requireNonNullArgument( docType, "docType" ) ) );
+    }   //  writeDocType()
+
+    /**
+     *  Writes the given document.
+     *
+     *  @param  document    The document.
+     *  @throws XMLStreamException  Writing the document failed.
+     */
+    final void writeDocument( final Document<? extends Element> document ) throws XMLStreamException
+    {
+        requireNonNullArgument( document, "document" );
+        m_IsDocument = true;
+        for( final var child : document.getChildren() )
+        {
+            child.writeStAX( this );
+        }
+        m_Writer.writeEndDocument();
+        m_Writer.flush();
+    }   //  writeDocument()
+
+    /**
+     *  Writes the given element, together with its children. If this is the
+     *  top element of the replay of a single element, the namespaces that it
+     *  inherits from its ancestors are declared on it.
+     *
+     *  @param  element The element.
+     *  @throws XMLStreamException  Writing the element failed.
+     */
+    public final void writeElement( final Element element ) throws XMLStreamException
+    {
+        requireNonNullArgument( element, "element" );
+
+        //---* Update the scope *----------------------------------------------
+        final var namespaces = element.getNamespaces();
+        final Map<String,String> inherited = (m_IsDocument || (m_Depth > 0)) ? Map.of() : collectInheritedNamespaces( element );
+        final var previousScope = m_Scope;
+        if( !namespaces.isEmpty() || !inherited.isEmpty() )
+        {
+            m_Scope = new HashMap<>( m_Scope );
+            m_Scope.putAll( inherited );
+            for( final var namespace : namespaces )
+            {
+                m_Scope.put( namespace.getPrefix().orElse( EMPTY_STRING ), namespace.getIdentifier().toString() );
+            }
+        }
+
+        try
+        {
+            //---* The start tag *---------------------------------------------
+            final var elementName = element.getElementName();
+            final var pos = elementName.indexOf( ':' );
+            final var prefix = pos < 0 ? EMPTY_STRING : elementName.substring( 0, pos );
+            final var namespaceURI = resolve( prefix, true );
+            final var hasChildren = element.hasChildren();
+            if( isNull( namespaceURI ) )
+            {
+                if( hasChildren ) m_Writer.writeStartElement( elementName ); else m_Writer.writeEmptyElement( elementName );
+            }
+            else
+            {
+                final var localName = elementName.substring( pos + 1 );
+                if( hasChildren ) m_Writer.writeStartElement( prefix, localName, namespaceURI ); else m_Writer.writeEmptyElement( prefix, localName, namespaceURI );
+            }
+
+            //---* The namespaces *--------------------------------------------
+            for( final var entry : inherited.entrySet() )
+            {
+                if( entry.getKey().isEmpty() )
+                {
+                    m_Writer.writeDefaultNamespace( entry.getValue() );
+                }
+                else
+                {
+                    m_Writer.writeNamespace( entry.getKey(), entry.getValue() );
+                }
+            }
+            for( final var namespace : namespaces )
+            {
+                final var identifier = namespace.getIdentifier().toString();
+                if( namespace.getPrefix().isPresent() )
+                {
+                    m_Writer.writeNamespace( namespace.getPrefix().get(), identifier );
+                }
+                else
+                {
+                    m_Writer.writeDefaultNamespace( identifier );
+                }
+            }
+
+            //---* The attributes *--------------------------------------------
+            for( final var entry : element.getAttributes().entrySet() )
+            {
+                final var name = entry.getKey();
+                final var position = name.indexOf( ':' );
+                final var attributeURI = position < 0 ? null : resolve( name.substring( 0, position ), false );
+                if( nonNull( attributeURI ) )
+                {
+                    m_Writer.writeAttribute( name.substring( 0, position ), attributeURI, name.substring( position + 1 ), entry.getValue() );
+                }
+                else
+                {
+                    m_Writer.writeAttribute( name, entry.getValue() );
+                }
+            }
+
+            //---* The children *----------------------------------------------
+            if( hasChildren )
+            {
+                ++m_Depth;
+                try
+                {
+                    for( final var child : element.getChildren() )
+                    {
+                        child.writeStAX( this );
+                    }
+                }
+                finally
+                {
+                    --m_Depth;
+                }
+                m_Writer.writeEndElement();
+            }
+        }
+        finally
+        {
+            m_Scope = previousScope;
+        }
+    }   //  writeElement()
+
+    /**
+     *  <p>{@summary Writes the given markup.}</p>
+     *  <p>The markup is parsed and replayed event by event; it must be a
+     *  well-formed XML fragment. This is used for predefined markup.</p>
+     *
+     *  @param  markup  The markup.
+     *  @throws XMLStreamException  The markup is not well-formed, or writing
+     *      it failed.
+     */
+    public final void writeMarkup( final CharSequence markup ) throws XMLStreamException
+    {
+        final var source = "<%1$s>%2$s</%1$s>".formatted( WRAPPER_ELEMENT, requireNonNullArgument( markup, "markup" ) );
+        final var reader = getInputFactory().createXMLStreamReader( new StringReader( source ) );
+        try
+        {
+            var depth = 0;
+            while( reader.hasNext() )
+            {
+                switch( reader.next() )
+                {
+                    case START_ELEMENT ->
+                    {
+                        if( depth++ > 0 )
+                        {
+                            m_Writer.writeStartElement( reader.getLocalName() );
+                            for( var i = 0; i < reader.getAttributeCount(); ++i )
+                            {
+                                m_Writer.writeAttribute( reader.getAttributeLocalName( i ), reader.getAttributeValue( i ) );
+                            }
+                        }
+                    }
+                    case END_ELEMENT ->
+                    {
+                        if( --depth > 0 ) m_Writer.writeEndElement();
+                    }
+                    case CHARACTERS, SPACE -> m_Writer.writeCharacters( reader.getText() );
+                    case CDATA -> m_Writer.writeCData( reader.getText() );
+                    case COMMENT -> m_Writer.writeComment( reader.getText() );
+                    case PROCESSING_INSTRUCTION -> m_Writer.writeProcessingInstruction( reader.getPITarget(), reader.getPIData() );
+                    case ENTITY_REFERENCE -> m_Writer.writeEntityRef( reader.getLocalName() );
+                    default -> { /* Nothing to replay */ }
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }   //  writeMarkup()
+
+    /**
+     *  Writes the given processing instruction. The processing instruction
+     *  with the name {@code xml} is the XML header of a document; it is
+     *  written as the start of the document.
+     *
+     *  @param  processingInstruction   The processing instruction.
+     *  @throws XMLStreamException  Writing the processing instruction failed.
+     */
+    public final void writeProcessingInstruction( final Element processingInstruction ) throws XMLStreamException
+    {
+        final var target = requireNonNullArgument( processingInstruction, "processingInstruction" ).getElementName();
+        if( target.equals( "xml" ) )
+        {
+            final var version = processingInstruction.getAttribute( "version" ).orElse( "1.0" );
+            final var encoding = processingInstruction.getAttribute( "encoding" );
+            if( encoding.isPresent() )
+            {
+                m_Writer.writeStartDocument( encoding.get(), version );
+            }
+            else
+            {
+                m_Writer.writeStartDocument( version );
+            }
+        }
+        else
+        {
+            final var data = getContent( render( processingInstruction ), "<?" + target, "?>" );
+            if( data.isEmpty() )
+            {
+                m_Writer.writeProcessingInstruction( target );
+            }
+            else
+            {
+                m_Writer.writeProcessingInstruction( target, data );
+            }
+        }
+    }   //  writeProcessingInstruction()
+
+    /**
+     *  Writes the given text; special characters are escaped by the
+     *  writer.
+     *
+     *  @param  text    The text; it must not be escaped already.
+     *  @throws XMLStreamException  Writing the text failed.
+     */
+    public final void writeText( final CharSequence text ) throws XMLStreamException
+    {
+        m_Writer.writeCharacters( requireNonNullArgument( text, "text" ).toString() );
+    }   //  writeText()
+}
+//  class StAXBridge
+
+/*
+ *  End of File
+ */
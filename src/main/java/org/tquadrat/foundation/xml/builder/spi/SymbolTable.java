@@ -0,0 +1,239 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.addValidatorChangeListener;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getAttributeNameValidator;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.apiguardian.api.API;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.annotation.UtilityClass;
+import org.tquadrat.foundation.exception.PrivateConstructorForStaticClassCalledError;
+import org.tquadrat.foundation.xml.builder.XMLBuilderUtils.ValidatorChangeEvent;
+import org.tquadrat.foundation.xml.builder.XMLBuilderUtils.ValidatorChangeListener;
+
+/**
+ *  <p>{@summary The global symbol table for element and attribute
+ *  names.}</p>
+ *  <p>Each name is validated only once, when it is looked up for the first
+ *  time, using the method that is provided by
+ *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils#getElementNameValidator()}
+ *  or
+ *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils#getAttributeNameValidator()}
+ *  respectively; later lookups return the same
+ *  {@link QName}
+ *  instance.</p>
+ *  <p>The table registers itself as a
+ *  {@link ValidatorChangeListener};
+ *  when the validator for element or attribute names, or for namespace
+ *  prefixes, is changed, the affected entries are dropped. Each time the
+ *  element names are dropped, the
+ *  {@linkplain #getElementNamesGeneration() generation}
+ *  of the element names changes, so that caches for element names that are
+ *  derived from this table can detect that they are outdated without
+ *  registering listeners of their own.</p>
+ *  <p>Each table holds at most
+ *  {@value #MAX_ENTRIES}
+ *  names; further names are still validated, but not stored.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ *  @since 0.26.0
+ *
+ *  @UMLGraph.link
+ */
+@UtilityClass
+@ClassVersion( sourceVersion = "$Id$" )
+@API( status = MAINTAINED, since = "0.26.0" )
+public final class SymbolTable
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The maximum number of names per table: {@value}.
+     */
+    public static final int MAX_ENTRIES = 4_096;
+
+        /*------------------------*\
+    ====** Static Initialisations **===========================================
+        \*------------------------*/
+    /**
+     *  The attribute names.
+     */
+    @SuppressWarnings( "StaticCollection" )
+    private static volatile Map<String,QName> m_AttributeNames = new ConcurrentHashMap<>();
+
+    /**
+     *  The element names.
+     */
+    @SuppressWarnings( "StaticCollection" )
+    private static volatile Map<String,QName> m_ElementNames = new ConcurrentHashMap<>();
+
+    /**
+     *  The generation of the element names; it is incremented after the
+     *  element names were dropped.
+     */
+    private static final AtomicInteger m_ElementNamesGeneration = new AtomicInteger();
+
+    /**
+     *  The listener for changes of the validators; as the listeners are
+     *  referenced only weakly by
+     *  {@link org.tquadrat.foundation.xml.builder.XMLBuilderUtils},
+     *  it has to be kept here.
+     */
+    private static final ValidatorChangeListener m_Listener = SymbolTable::validatorChanged;
+
+    static
+    {
+        addValidatorChangeListener( m_Listener );
+    }
+
+        /*--------------*\
+    ====** Constructors **=====================================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private SymbolTable() { throw new PrivateConstructorForStaticClassCalledError( SymbolTable.class ); }
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Returns the token for the given attribute name.
+     *
+     *  @param  name    The attribute name.
+     *  @return The token.
+     *  @throws InvalidXMLNameException The given name is not a valid
+     *      attribute name.
+     */
+    public static final QName attributeName( final String name ) throws InvalidXMLNameException
+    {
+        final var retValue = lookup( m_AttributeNames, getAttributeNameValidator(), requireNotEmptyArgument( name, "name" ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  attributeName()
+
+    /**
+     *  Drops all names from the table.
+     */
+    public static final void clear()
+    {
+        m_AttributeNames = new ConcurrentHashMap<>();
+        m_ElementNames = new ConcurrentHashMap<>();
+        m_ElementNamesGeneration.incrementAndGet();
+    }   //  clear()
+
+    /**
+     *  Returns the token for the given element name.
+     *
+     *  @param  name    The element name.
+     *  @return The token.
+     *  @throws InvalidXMLNameException The given name is not a valid
+     *      element name.
+     */
+    public static final QName elementName( final String name ) throws InvalidXMLNameException
+    {
+        final var retValue = lookup( m_ElementNames, getElementNameValidator(), requireNotEmptyArgument( name, "name" ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  elementName()
+
+    /**
+     *  <p>{@summary Returns the generation of the element names.}</p>
+     *  <p>The generation changes each time the element names are dropped,
+     *  after the table was replaced; a cache for element names that was
+     *  filled under another generation is outdated.</p>
+     *
+     *  @return The generation.
+     */
+    public static final int getElementNamesGeneration() { return m_ElementNamesGeneration.get(); }
+
+    /**
+     *  Looks up the given name in the given table, validates it if it is
+     *  not yet known, and stores it in the table if there is still room.
+     *
+     *  @param  table   The table.
+     *  @param  validator   The validator for the name.
+     *  @param  name    The name.
+     *  @return The token.
+     *  @throws InvalidXMLNameException The given name is not valid.
+     */
+    private static final QName lookup( final Map<String,QName> table, final Predicate<CharSequence> validator, final String name ) throws InvalidXMLNameException
+    {
+        var retValue = table.get( name );
+        if( isNull( retValue ) )
+        {
+            if( !validator.test( name ) ) throw new InvalidXMLNameException( name );
+            retValue = new QName( name );
+
+            /*
+             * A table that was replaced in the meantime because a validator
+             * changed is already abandoned; storing the name there does no
+             * harm.
+             */
+            if( table.size() < MAX_ENTRIES )
+            {
+                final var previous = table.putIfAbsent( name, retValue );
+                if( nonNull( previous ) ) retValue = previous;
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  lookup()
+
+    /**
+     *  Drops the names that are affected by the changed validator.
+     *
+     *  @param  event   The change event.
+     */
+    @SuppressWarnings( "UseOfConcreteClass" )
+    private static final void validatorChanged( final ValidatorChangeEvent event )
+    {
+        switch( event.getValidator() )
+        {
+            case VALIDATOR_AttributeName -> m_AttributeNames = new ConcurrentHashMap<>();
+            case VALIDATOR_ElementName ->
+            {
+                m_ElementNames = new ConcurrentHashMap<>();
+                m_ElementNamesGeneration.incrementAndGet();
+            }
+            case VALIDATOR_Prefix -> clear();
+            default -> { /* Does not affect the names */ }
+        }
+    }   //  validatorChanged()
+}
+//  class SymbolTable
+
+/*
+ *  End of File
+ */
@@ -59,6 +59,22 @@ public abstract non-sealed class XMLElementAdapter extends XMLElementImpl
      */
     protected XMLElementAdapter( final String elementName ) { super( elementName ); }
 
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementAdapter} instance with an
+     *  element name that was already validated.}</p>
+     *  <p>The new element allows attributes and children, but will not
+     *  validate them. It also allows text.</p>
+     *
+     *  @param  elementName The element name, as obtained from the
+     *      {@link SymbolTable}
+     *      or from
+     *      {@link XMLElementFactoryBase#composeQName(String)}.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    protected XMLElementAdapter( final QName elementName ) { super( elementName ); }
+
     /**
      *  <p>{@summary Creates a new {@code XMLElementAdapter} instance.}</p>
      *  <p>The given element name is validated using the method that is
@@ -80,6 +96,54 @@ public abstract non-sealed class XMLElementAdapter extends XMLElementImpl
     {
         super( elementName, flags );
     }   //  XMLElementAdapter()
+
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementAdapter} instance with an
+     *  element name that was already validated.}</p>
+     *
+     *  @param  elementName The element name, as obtained from the
+     *      {@link SymbolTable}
+     *      or from
+     *      {@link XMLElementFactoryBase#composeQName(String)}.
+     *  @param  flags   The configuration flags for the new element.
+     *
+     *  @see org.tquadrat.foundation.xml.builder.XMLElement.Flags
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    protected XMLElementAdapter( final QName elementName, final Set<Flags> flags )
+    {
+        super( elementName, flags );
+    }   //  XMLElementAdapter()
+
+    /**
+     *  <p>{@summary Creates a new {@code XMLElementAdapter} instance as a
+     *  deep copy of the given element.}</p>
+     *  <p>The element name, the configuration flags, the valid attributes and
+     *  children, the attribute sort order, the attributes, the namespaces
+     *  and copies of the children are taken over from the prototype,
+     *  without validating them again. The new element does not have a
+     *  parent.</p>
+     *  <p>Implementations use this constructor to override
+     *  {@link #copy()}
+     *  so that the copy is an instance of the implementation class:</p>
+     *  <pre><code>  &#64;Override
+     *  public final MyElement copy() { return new MyElement( this ); }</code></pre>
+     *  <p>Additional fields of the implementation are not handled by this
+     *  constructor. An implementation that does not override
+     *  {@code copy()}
+     *  cannot be copied; the inherited implementation throws an
+     *  {@link org.tquadrat.foundation.exception.IllegalOperationException},
+     *  and so does the copy of any tree that contains such an
+     *  element.</p>
+     *
+     *  @param  prototype   The element to copy.
+     *
+     *  @since 0.26.0
+     */
+    @API( status = MAINTAINED, since = "0.26.0" )
+    protected XMLElementAdapter( final XMLElementAdapter prototype ) { super( prototype ); }
 }
 //  class XMLElementAdapter
 
@@ -17,10 +17,15 @@
 
 package org.tquadrat.foundation.xml.builder.spi;
 
+import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
+import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apiguardian.api.API;
 import org.tquadrat.foundation.annotation.ClassVersion;
@@ -42,6 +47,30 @@ import org.tquadrat.foundation.xml.builder.XMLElementFactory;
 @API( status = MAINTAINED, since = "0.0.5" )
 public abstract non-sealed class XMLElementFactoryBase implements XMLElementFactory
 {
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  The cache for the composed element names, together with the
+     *  generation of the
+     *  {@link SymbolTable}
+     *  that it belongs to.
+     *
+     *  @param  generation  The generation of the element names in the
+     *      symbol table.
+     *  @param  names   The composed element names; the key is the element
+     *      name without the prefix.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     *  @since 0.26.0
+     *
+     *  @UMLGraph.link
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    @API( status = INTERNAL, since = "0.26.0" )
+    private static record NameCache( int generation, Map<String,QName> names ) {}
+
         /*-----------*\
     ====** Constants **========================================================
         \*-----------*/
@@ -53,6 +82,15 @@ public abstract non-sealed class XMLElementFactoryBase implements XMLElementFact
         /*------------*\
     ====** Attributes **=======================================================
         \*------------*/
+    /**
+     *  The cache for the composed element names. It is replaced when the
+     *  element names in the
+     *  {@link SymbolTable}
+     *  were dropped, because the validator for element names or for
+     *  prefixes was changed.
+     */
+    private volatile NameCache m_ElementNames = new NameCache( SymbolTable.getElementNamesGeneration(), new ConcurrentHashMap<>() );
+
     /**
      *  The namespace that is used by this element factory.
      */
@@ -66,7 +104,10 @@ public abstract non-sealed class XMLElementFactoryBase implements XMLElementFact
      *  Creates a new {@code XMLElementFactoryImpl} instance that does not use
      *  a namespace.
      */
-    protected XMLElementFactoryBase() { m_Namespace = Optional.empty(); }
+    protected XMLElementFactoryBase()
+    {
+        m_Namespace = Optional.empty();
+    }   //  XMLElementFactoryBase()
 
     /**
      *  Creates a new {@code XMLElementFactoryImpl} instance that uses the
@@ -79,11 +120,41 @@ public abstract non-sealed class XMLElementFactoryBase implements XMLElementFact
     protected XMLElementFactoryBase( final Namespace namespace )
     {
         m_Namespace = Optional.of( requireNonNullArgument( namespace, "namespace" ) );
-    }   //  XMLElementFactoryImpl()
+    }   //  XMLElementFactoryBase()
 
         /*---------*\
     ====** Methods **==========================================================
         \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>The composed names are cached by this factory, so that the
+     *  validation takes place only once for each name. The cache is dropped
+     *  after the element names in the
+     *  {@link SymbolTable}
+     *  were dropped.</p>
+     */
+    @Override
+    public final QName composeQName( final String elementName )
+    {
+        var cache = m_ElementNames;
+        final var generation = SymbolTable.getElementNamesGeneration();
+        if( cache.generation() != generation )
+        {
+            cache = new NameCache( generation, new ConcurrentHashMap<>() );
+            m_ElementNames = cache;
+        }
+        final var elementNames = cache.names();
+        var retValue = elementNames.get( requireNotEmptyArgument( elementName, "elementName" ) );
+        if( isNull( retValue ) )
+        {
+            retValue = XMLElementFactory.super.composeQName( elementName );
+            if( elementNames.size() < SymbolTable.MAX_ENTRIES ) elementNames.putIfAbsent( elementName, retValue );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  composeQName()
+
     /**
      *  {@inheritDoc}
      */
@@ -0,0 +1,239 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_CHILDREN;
+
+import java.util.EnumSet;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link ConcurrentChildCollector}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.TestConcurrentChildCollector" )
+public class TestConcurrentChildCollector extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that allows only {@code <section>} elements as children.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class BookElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code BookElement} instance.
+         */
+        public BookElement()
+        {
+            super( "book", EnumSet.of( VALIDATES_CHILDREN ) );
+            registerValidChildren( "section" );
+        }   //  BookElement()
+    }
+    //  class BookElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Builds a section.
+     *
+     *  @param  index   The index of the section.
+     *  @return The section.
+     */
+    private static final XMLElement buildSection( final int index )
+    {
+        final var retValue = createXMLElement( "section" );
+        retValue.setAttribute( "index", index );
+        for( var i = 0; i < 20; ++i )
+        {
+            createXMLElement( "item", retValue, "Item " + index + '.' + i ).setAttribute( "index", i );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  buildSection()
+
+    /**
+     *  Builds the sections on several threads and compares the result with
+     *  that of the sequential build.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testAttach() throws Exception
+    {
+        skipThreadTest();
+
+        final var sectionCount = 64;
+        final var expected = createXMLElement( "book" );
+        for( var i = 0; i < sectionCount; ++i ) expected.addChild( buildSection( i ) );
+
+        final var candidate = createXMLElement( "book" );
+        final var collector = ConcurrentChildCollector.forParent( candidate );
+        final var executor = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            for( var i = 0; i < sectionCount; ++i )
+            {
+                final var index = i;
+                final var slot = collector.reserve();
+                executor.execute( () -> slot.set( buildSection( index ) ) );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            assertTrue( executor.awaitTermination( 1, MINUTES ) );
+        }
+        assertFalse( candidate.hasChildren() );
+        assertSame( candidate, collector.attach() );
+        assertEquals( expected.toString( 0, true ), candidate.toString( 0, true ) );
+        for( final var child : candidate.getChildren() )
+        {
+            assertSame( candidate, child.getParent().orElseThrow() );
+        }
+    }   //  testAttach()
+
+    /**
+     *  Tests the invalid calls.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testAttachWithInvalidArgument() throws Exception
+    {
+        skipThreadTest();
+
+        final var book = new BookElement();
+
+        //---* A child that is not allowed *-----------------------------------
+        var collector = ConcurrentChildCollector.forParent( book );
+        final var accepted = buildSection( 0 );
+        collector.reserve().set( accepted );
+        collector.reserve().set( createXMLElement( "chapter" ) );
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            collector.attach();
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+        assertFalse( book.hasChildren() );
+        assertTrue( accepted.getParent().isEmpty() );
+
+        //---* A slot that was not filled *------------------------------------
+        collector = ConcurrentChildCollector.forParent( book );
+        final var slot = collector.reserve();
+        collector.reserve();
+        slot.set( buildSection( 1 ) );
+        final Class<? extends Throwable> expectedStateException = IllegalStateException.class;
+        try
+        {
+            collector.attach();
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* A slot that was already filled *--------------------------------
+        try
+        {
+            slot.set( buildSection( 2 ) );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* A child that has already a parent *-----------------------------
+        try
+        {
+            collector.reserve().set( createXMLElement( "section", createXMLElement( "other" ) ) );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* The same child in two slots *-----------------------------------
+        collector = ConcurrentChildCollector.forParent( book );
+        final var twice = buildSection( 3 );
+        collector.reserve().set( twice );
+        collector.reserve().set( twice );
+        try
+        {
+            collector.attach();
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+        assertFalse( book.hasChildren() );
+        assertTrue( twice.getParent().isEmpty() );
+    }   //  testAttachWithInvalidArgument()
+}
+//  class TestConcurrentChildCollector
+
+/*
+ *  End of File
+ */
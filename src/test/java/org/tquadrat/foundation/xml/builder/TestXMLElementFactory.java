@@ -21,6 +21,7 @@ import static java.lang.String.format;
 import static java.lang.System.out;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
@@ -183,6 +184,40 @@ public class TestXMLElementFactory extends XMLTestBase
         }
     }   //  testComposeElementNameWithInvalidArgument()
 
+    /**
+     *  Tests for
+     *  {@link XMLElementFactoryBase#composeQName(String)}.
+     *
+     *  @throws Exception   Something went wrong unexpectedly.
+     */
+    @Test
+    final void testComposeQName() throws Exception
+    {
+        skipThreadTest();
+
+        final var candidate = createXMLElementFactory( new Namespace( "svg", new URI( "http://www.w3.org/2000/svg" ) ) );
+        final var name = candidate.composeQName( "path" );
+        assertEquals( "svg:path", name.getName() );
+        assertEquals( "path", name.getLocalName() );
+        assertSame( name, candidate.composeQName( "path" ) );
+        assertEquals( "svg:path", candidate.composeElementName( "path" ) );
+        assertEquals( "svg:path", candidate.createXMLElement( "path" ).getElementName() );
+
+        //---* A new validator drops the cached names *------------------------
+        final var validator = XMLBuilderUtils.getElementNameValidator();
+        XMLBuilderUtils.setElementNameValidator( n -> !n.toString().endsWith( "path" ) && validator.test( n ) );
+        try
+        {
+            candidate.composeQName( "path" );
+            fail( () -> format( MSG_ExceptionNotThrown, InvalidXMLNameException.class.getName() ) );
+        }
+        catch( final InvalidXMLNameException e )
+        {
+            assertEquals( "path", e.getMessage() );
+        }
+        assertEquals( "svg:g", candidate.composeQName( "g" ).getName() );
+    }   //  testComposeQName()
+
     /**
      *  Tests for
      *  {@link XMLElementFactoryBase#XMLElementFactoryBase(Namespace)}.
@@ -0,0 +1,291 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createCompactXMLElement;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.EmptyArgumentException;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.InvalidXMLNameException;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link CompactXMLElement}
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.TestCompactXMLElement" )
+public class TestCompactXMLElement extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Builds the same content into the given element.
+     *
+     *  @param  element The element.
+     *  @param  factory The factory for the child elements.
+     *  @return The element.
+     */
+    private static final XMLElement build( final XMLElement element, final Function<String,XMLElement> factory )
+    {
+        element.setNamespace( new Namespace( "http://www.tquadrat.org/ns/two" ) )
+            .setNamespace( new Namespace( "one", "http://www.tquadrat.org/ns/one" ) )
+            .setAttribute( "zeta", "26" )
+            .setAttribute( "alpha", "1" )
+            .setAttribute( "mu", "12" )
+            .setAttribute( "class", "first" )
+            .setAttribute( "class", "second", Optional.of( " " ) )
+            .addText( "Tom & Jerry" )
+            .addCDATA( "<raw>" )
+            .addComment( "a comment" )
+            .addPredefinedMarkup( "<b>bold</b>" );
+        for( final var name : List.of( "first", "second", "third", "fourth", "fifth" ) )
+        {
+            element.addChild( factory.apply( name ).setAttribute( "name", name ).addText( "Grüße" ) );
+        }
+        element.setAttribute( "mu", null );
+
+        //---* Done *----------------------------------------------------------
+        return element;
+    }   //  build()
+
+    /**
+     *  Tests for
+     *  {@link CompactXMLElement#CompactXMLElement(String)}.
+     */
+    @Test
+    final void testConstructor()
+    {
+        skipThreadTest();
+
+        final var candidate = new CompactXMLElement( "element" );
+        assertEquals( "element", candidate.getElementName() );
+        assertFalse( candidate.getParent().isPresent() );
+        assertFalse( candidate.hasChildren() );
+        assertTrue( candidate.getChildren().isEmpty() );
+        assertTrue( candidate.getAttributes().isEmpty() );
+        assertTrue( candidate.getNamespaces().isEmpty() );
+        assertFalse( candidate.isFragmentCachingEnabled() );
+        assertEquals( "<element/>", candidate.toString( 0, false ) );
+
+        //---* The views are created once and reflect later changes *---------
+        final var children = candidate.getChildren();
+        final var attributes = candidate.getAttributes();
+        final var namespaces = candidate.getNamespaces();
+        assertSame( children, candidate.getChildren() );
+        assertSame( attributes, candidate.getAttributes() );
+        assertSame( namespaces, candidate.getNamespaces() );
+        candidate.setAttribute( "name", "value" );
+        candidate.addChild( new CompactXMLElement( "child" ) );
+        assertEquals( 1, children.size() );
+        assertEquals( "value", attributes.get( "name" ) );
+        assertTrue( namespaces.isEmpty() );
+    }   //  testConstructor()
+
+    /**
+     *  Tests for
+     *  {@link CompactXMLElement#CompactXMLElement(String)}
+     *  with an empty argument.
+     */
+    @Test
+    final void testConstructorWithEmptyArgument()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = EmptyArgumentException.class;
+        try
+        {
+            final var candidate = new CompactXMLElement( EMPTY_STRING );
+            assertNotNull( candidate );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testConstructorWithEmptyArgument()
+
+    /**
+     *  Tests for
+     *  {@link CompactXMLElement#CompactXMLElement(String)}
+     *  with an invalid argument.
+     */
+    @Test
+    final void testConstructorWithInvalidArgument()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = InvalidXMLNameException.class;
+        try
+        {
+            final var candidate = new CompactXMLElement( "1element" );
+            assertNotNull( candidate );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testConstructorWithInvalidArgument()
+
+    /**
+     *  Tests for
+     *  {@link CompactXMLElement#CompactXMLElement(String)}
+     *  with a null argument.
+     */
+    @Test
+    final void testConstructorWithNullArgument()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        try
+        {
+            final var candidate = new CompactXMLElement( null );
+            assertNotNull( candidate );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testConstructorWithNullArgument()
+
+    /**
+     *  Tests for
+     *  {@link CompactXMLElement#copy()}.
+     */
+    @Test
+    final void testCopy()
+    {
+        skipThreadTest();
+
+        final var prototype = build( createCompactXMLElement( "element" ), name -> createCompactXMLElement( "child" ) );
+        final var expected = prototype.toString();
+
+        final var candidate = prototype.copy();
+        assertNotNull( candidate );
+        assertTrue( candidate instanceof CompactXMLElement );
+        assertNotSame( prototype, candidate );
+        assertFalse( candidate.getParent().isPresent() );
+        assertEquals( expected, candidate.toString() );
+        for( final var child : candidate.getChildren() )
+        {
+            assertSame( candidate, child.getParent().orElse( null ) );
+        }
+
+        //---* The copy is independent from the prototype *-------------------
+        candidate.setAttribute( "alpha", "2" )
+            .setAttribute( "omega", "24" )
+            .addText( "more" );
+        candidate.getChildren().stream()
+            .filter( XMLElement.class::isInstance )
+            .map( XMLElement.class::cast )
+            .findFirst()
+            .orElseThrow()
+            .setAttribute( "name", "changed" );
+        assertEquals( expected, prototype.toString() );
+        assertEquals( "2", candidate.getAttribute( "alpha" ).orElse( null ) );
+
+        //---* The copy can be added to another element *----------------------
+        final var parent = createCompactXMLElement( "parent" );
+        parent.addChild( candidate );
+        assertSame( parent, candidate.getParent().orElse( null ) );
+    }   //  testCopy()
+
+    /**
+     *  Tests whether a change on a compact element invalidates the cached
+     *  fragments of its ancestors.
+     */
+    @Test
+    final void testInvalidateParentCache()
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" ).setFragmentCaching( true );
+        final var compact = createCompactXMLElement( "compact", root );
+        final var leaf = createCompactXMLElement( "leaf", compact );
+
+        assertEquals( "<root><compact><leaf/></compact></root>", root.toString( 0, false ) );
+        leaf.setAttribute( "name", "value" );
+        assertEquals( "<root><compact><leaf name='value'/></compact></root>", root.toString( 0, false ) );
+        leaf.addText( "text" );
+        assertEquals( "<root><compact><leaf name='value'>text</leaf></compact></root>", root.toString( 0, false ) );
+        compact.addText( "more" );
+        assertEquals( "<root><compact><leaf name='value'>text</leaf>more</compact></root>", root.toString( 0, false ) );
+    }   //  testInvalidateParentCache()
+
+    /**
+     *  Tests whether a compact element produces the same output as an
+     *  instance of
+     *  {@link XMLElementImpl}
+     *  with the same content.
+     */
+    @Test
+    final void testSameAsXMLElementImpl()
+    {
+        skipThreadTest();
+
+        final var expected = build( createXMLElement( "element" ), name -> createXMLElement( "child" ) );
+        final var candidate = build( createCompactXMLElement( "element" ), name -> createCompactXMLElement( "child" ) );
+        assertNotNull( candidate );
+        assertTrue( candidate instanceof CompactXMLElement );
+
+        assertEquals( expected.getAttributes(), candidate.getAttributes() );
+        assertEquals( List.copyOf( expected.getAttributes().keySet() ), List.copyOf( candidate.getAttributes().keySet() ) );
+        assertEquals( List.copyOf( expected.getNamespaces() ), List.copyOf( candidate.getNamespaces() ) );
+        assertEquals( expected.getChildren().size(), candidate.getChildren().size() );
+        assertEquals( expected.toString( 0, false ), candidate.toString( 0, false ) );
+        assertEquals( expected.toString( 0, true ), candidate.toString( 0, true ) );
+        assertEquals( expected.toString(), candidate.toString() );
+    }   //  testSameAsXMLElementImpl()
+}
+//  class TestCompactXMLElement
+
+/*
+ *  End of File
+ */
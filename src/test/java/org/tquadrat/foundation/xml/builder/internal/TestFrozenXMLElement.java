@@ -0,0 +1,273 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.lang.CommonConstants.UTF8;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the classes
+ *  {@link FrozenXMLElement}
+ *  and
+ *  {@link FrozenXMLDocument}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.TestFrozenXMLElement" )
+public class TestFrozenXMLElement extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the element tree that is used for the tests.
+     *
+     *  @return The root element.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLElement createTree() throws Exception
+    {
+        final var retValue = createXMLElement( "root" );
+        retValue.setNamespace( new Namespace( "a", "http://www.tquadrat.org/a" ) );
+        retValue.setAttribute( "version", "1.0" );
+        retValue.addComment( "The items" );
+        final var items = createXMLElement( "items", retValue );
+        for( var i = 0; i < 3; ++i )
+        {
+            createXMLElement( "item", items, "Item <" + i + "> & more" ).setAttribute( "index", i );
+        }
+        createXMLElement( "empty", items );
+        final var mixed = createXMLElement( "mixed", retValue );
+        mixed.addText( "Text" );
+        mixed.addCDATA( "a < b" );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createTree()
+
+    /**
+     *  Tests the snapshot of a document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testFreezeDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createXMLDocument( createTree(), UTF8, "test", new URI( "http://www.tquadrat.org/test.dtd" ) );
+        document.addDocumentComment( "A document comment" );
+        final var expectedCompact = document.toString( false );
+        final var expectedPretty = document.toString( true );
+
+        final var candidate = document.freeze();
+        assertSame( candidate, candidate.freeze() );
+        assertEquals( document.getChildren().size(), candidate.getChildren().size() );
+        for( var i = 0; i < 2; ++i )
+        {
+            assertEquals( expectedCompact, candidate.toString( false ) );
+            assertEquals( expectedPretty, candidate.toString( true ) );
+        }
+
+        //---* The snapshot is not affected by the source *--------------------
+        document.addDocumentComment( "Another comment" );
+        document.getRootElement().setAttribute( "version", "2.0" );
+        assertEquals( expectedPretty, candidate.toString( true ) );
+
+        final Class<? extends Throwable> expectedException = IllegalOperationException.class;
+        try
+        {
+            candidate.addDocumentComment( "Comment" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            candidate.setAttribute( "version", "3.0" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testFreezeDocument()
+
+    /**
+     *  Tests the snapshot of an element.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testFreezeElement() throws Exception
+    {
+        skipThreadTest();
+
+        final var tree = createTree();
+        final var expectedCompact = tree.toString( 0, false );
+        final var expectedPretty = tree.toString( 0, true );
+
+        final var candidate = tree.freeze();
+        assertSame( candidate, candidate.freeze() );
+        assertEquals( tree.getAttributes(), candidate.getAttributes() );
+        assertEquals( tree.getChildren().size(), candidate.getChildren().size() );
+        for( var i = 0; i < 2; ++i )
+        {
+            assertEquals( expectedCompact, candidate.toString( 0, false ) );
+            assertEquals( expectedPretty, candidate.toString( 0, true ) );
+        }
+        assertEquals( tree.toString( 2, true ), candidate.toString( 2, true ) );
+
+        //---* The snapshot is not affected by the source *--------------------
+        tree.setAttribute( "version", "2.0" );
+        createXMLElement( "late", tree );
+        assertEquals( expectedPretty, candidate.toString( 0, true ) );
+        assertEquals( "1.0", candidate.getAttribute( "version" ).orElseThrow() );
+
+        //---* The snapshot can be added to several trees *--------------------
+        final var first = createXMLElement( "first" );
+        final var second = createXMLElement( "second" );
+        first.addChild( candidate );
+        second.addChild( candidate );
+        assertEquals( "<first>" + expectedCompact + "</first>", first.toString( 0, false ) );
+        assertEquals( "<second>" + expectedCompact + "</second>", second.toString( 0, false ) );
+
+        final Class<? extends Throwable> expectedException = IllegalOperationException.class;
+        try
+        {
+            candidate.setAttribute( "name", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* The copy can be modified *----------------------------------------
+        final var copy = candidate.copy();
+        assertNotSame( candidate, copy );
+        assertInstanceOf( XMLElementImpl.class, copy );
+        assertTrue( copy.getParent().isEmpty() );
+        assertEquals( expectedCompact, copy.toString( 0, false ) );
+        assertEquals( expectedPretty, copy.toString( 0, true ) );
+        copy.setAttribute( "version", "3.0" );
+        createXMLElement( "added", copy );
+        assertEquals( "3.0", copy.getAttribute( "version" ).orElseThrow() );
+        assertEquals( "1.0", candidate.getAttribute( "version" ).orElseThrow() );
+        assertEquals( expectedCompact, candidate.toString( 0, false ) );
+
+        final var child = (XMLElement) candidate.getChildren().stream()
+            .filter( XMLElement.class::isInstance )
+            .findFirst()
+            .orElseThrow();
+        try
+        {
+            child.addText( "text" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testFreezeElement()
+
+    /**
+     *  Tests whether the snapshot of an element renders the right output
+     *  when it is written at different indentation levels from several
+     *  threads at the same time.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testFreezeElementConcurrently() throws Exception
+    {
+        skipThreadTest();
+
+        final var tree = createTree();
+        final var levels = 4;
+        final var expected = new String [levels];
+        for( var level = 0; level < levels; ++level ) expected [level] = tree.toString( level, true );
+        final var expectedCompact = tree.toString( 0, false );
+
+        final var candidate = tree.freeze();
+        final var executor = Executors.newFixedThreadPool( levels );
+        try
+        {
+            final var results = new ArrayList<Future<Boolean>>();
+            for( var task = 0; task < 4 * levels; ++task )
+            {
+                final var offset = task;
+                results.add( executor.submit( () ->
+                {
+                    var retValue = true;
+                    for( var i = 0; i < 100; ++i )
+                    {
+                        final var level = (offset + i) % levels;
+                        retValue &= expected [level].equals( candidate.toString( level, true ) );
+                        retValue &= expectedCompact.equals( candidate.toString( level, false ) );
+                    }
+                    return Boolean.valueOf( retValue );
+                } ) );
+            }
+            for( final var result : results ) assertTrue( result.get().booleanValue() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }   //  testFreezeElementConcurrently()
+}
+//  class TestFrozenXMLElement
+
+/*
+ *  End of File
+ */
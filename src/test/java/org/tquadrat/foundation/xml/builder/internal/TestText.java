@@ -27,6 +27,7 @@ import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_CHARSEQUENCE;
 import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.junit.jupiter.api.DisplayName;
@@ -151,6 +152,51 @@ public class TestText extends XMLTestBase
         }
     }   //  testConstructorWithNullArgument()
 
+    /**
+     *  Tests the caching of the escaped form of the text.
+     */
+    @Test
+    final void testEscapeCache()
+    {
+        skipThreadTest();
+
+        final var counter = new AtomicInteger();
+        final Function<CharSequence,String> escape = text ->
+        {
+            counter.incrementAndGet();
+            return XMLBuilderUtils.escapeXML( text );
+        };
+
+        //---* Text with special characters *----------------------------------
+        var candidate = new Text( "Tom & Jerry", escape );
+        assertFalse( candidate.isVerbatim() );
+        for( var i = 0; i < 10; ++i ) assertEquals( "Tom &amp; Jerry", candidate.toString( 0, false ) );
+        assertEquals( 1, counter.get() );
+        assertFalse( candidate.isVerbatim() );
+
+        //---* Text without special characters *-------------------------------
+        counter.set( 0 );
+        candidate = new Text( "Tom and Jerry", escape );
+        for( var i = 0; i < 10; ++i ) assertEquals( "Tom and Jerry", candidate.toString( 0, false ) );
+        assertEquals( 1, counter.get() );
+        assertTrue( candidate.isVerbatim() );
+
+        //---* Long text with special characters *-----------------------------
+        counter.set( 0 );
+        final var longText = "<>".repeat( Text.ESCAPE_CACHE_THRESHOLD );
+        candidate = new Text( longText, escape );
+        for( var i = 0; i < 3; ++i ) assertEquals( "&lt;&gt;".repeat( Text.ESCAPE_CACHE_THRESHOLD ), candidate.toString( 0, false ) );
+        assertEquals( 3, counter.get() );
+        assertFalse( candidate.isVerbatim() );
+
+        //---* Long text without special characters *--------------------------
+        counter.set( 0 );
+        candidate = new Text( "ab".repeat( Text.ESCAPE_CACHE_THRESHOLD ), escape );
+        for( var i = 0; i < 3; ++i ) assertEquals( "ab".repeat( Text.ESCAPE_CACHE_THRESHOLD ), candidate.toString( 0, false ) );
+        assertEquals( 1, counter.get() );
+        assertTrue( candidate.isVerbatim() );
+    }   //  testEscapeCache()
+
     /**
      *  Tests for the method
      *  {@link Text#setParent(org.tquadrat.foundation.xml.builder.spi.Element)}.
@@ -0,0 +1,140 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal;
+
+import static java.lang.Character.MAX_CODE_POINT;
+import static java.lang.Character.MIN_SUPPLEMENTARY_CODE_POINT;
+import static java.util.regex.Pattern.compile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link XMLNameScanner};
+ *  the results are compared with those of the regular expressions that
+ *  were used for the validation of XML names before.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.TestXMLNameScanner" )
+public class TestXMLNameScanner extends XMLTestBase
+{
+        /*-----------*\
+    ====** Constants **========================================================
+        \*-----------*/
+    /**
+     *  The regular expression for a valid start character of an XML name.
+     */
+    private static final String XML_NAME_FirstChar = """
+        A-Z_a-z\
+        \\u00C0-\\u00D6\\u00D8-\\u00F6\\u00F8-\\u02FF\\u0370-\\u037D\
+        \\u037F-\\u1FFF\\u200C-\\u200D\\u2070-\\u218F\\u2C00-\\u2FEF\
+        \\u3001-\\uD7FF\\uF900-\\uFDCF\\uFDF0-\\uFFFD\\x{10000}-\\x{EFFFF}""";
+
+    /**
+     *  The regular expression for a character that is valid for an XML after
+     *  the first character.
+     */
+    private static final String XML_NAME_OtherChar = "-"
+        + XML_NAME_FirstChar
+        + ".0-9\\u00B7\\u0300-\\u036F\\u203F-\\u2040";
+
+    /**
+     *  The pattern for a nmtoken.
+     */
+    private static final Pattern m_NMTokenPattern = compile( "(?:[" + XML_NAME_FirstChar + "])(?:[" + XML_NAME_OtherChar + ":])*" );
+
+    /**
+     *  The pattern for an XML name.
+     */
+    private static final Pattern m_XMLNamePattern = compile( "(?:[" + XML_NAME_FirstChar + "])(?:[" + XML_NAME_OtherChar + "])*" );
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Tests for
+     *  {@link XMLNameScanner#isValidQName(CharSequence, java.util.function.Predicate)}.
+     */
+    @Test
+    final void testIsValidQName()
+    {
+        skipThreadTest();
+
+        assertFalse( XMLNameScanner.isValidQName( null, null ) );
+        assertFalse( XMLNameScanner.isValidQName( "", null ) );
+        assertTrue( XMLNameScanner.isValidQName( "svg:rect", null ) );
+        assertTrue( XMLNameScanner.isValidQName( "xml:lang", null ) );
+        assertTrue( XMLNameScanner.isValidQName( "xm", null ) );
+        assertFalse( XMLNameScanner.isValidQName( "svg:XmLrect", null ) );
+        assertFalse( XMLNameScanner.isValidQName( "rect:", null ) );
+        assertFalse( XMLNameScanner.isValidQName( ":rect", null ) );
+        assertFalse( XMLNameScanner.isValidQName( "a:b:c", null ) );
+        assertFalse( XMLNameScanner.isValidQName( "1a:rect", null ) );
+
+        //---* A custom prefix validator decides on the prefix alone *---------
+        assertTrue( XMLNameScanner.isValidQName( "1a:rect", p -> p.toString().equals( "1a" ) ) );
+        assertFalse( XMLNameScanner.isValidQName( "svg:rect", p -> false ) );
+        assertFalse( XMLNameScanner.isValidQName( "1a:2rect", p -> true ) );
+        assertFalse( XMLNameScanner.isValidQName( "1arect", p -> true ) );
+    }   //  testIsValidQName()
+
+    /**
+     *  Compares the scanner with the regular expressions for all code
+     *  points of the Basic Multilingual Plane, and for a sample of those from
+     *  the supplementary planes, at the first and at a later position of a
+     *  name.
+     */
+    @Test
+    final void testSameAsRegex()
+    {
+        skipThreadTest();
+
+        for( var codePoint = 0; codePoint <= MAX_CODE_POINT; codePoint += codePoint < MIN_SUPPLEMENTARY_CODE_POINT ? 1 : 0xFF )
+        {
+            final var c = Character.toString( codePoint );
+            for( final var name : new String [] {c, "a" + c, "a" + c + "b", c + "a"} )
+            {
+                assertEquals( m_XMLNamePattern.matcher( name ).matches(), XMLNameScanner.isValidName( name ), name );
+                assertEquals( m_NMTokenPattern.matcher( name ).matches(), XMLNameScanner.isValidNMToken( name ), name );
+            }
+        }
+
+        //---* Unpaired surrogates *-------------------------------------------
+        for( final var name : new String [] {"a\uD800", "a\uDC00b", "\uDBFF"} )
+        {
+            assertFalse( XMLNameScanner.isValidName( name ) );
+            assertFalse( m_XMLNamePattern.matcher( name ).matches() );
+        }
+    }   //  testSameAsRegex()
+}
+//  class TestXMLNameScanner
+
+/*
+ *  End of File
+ */
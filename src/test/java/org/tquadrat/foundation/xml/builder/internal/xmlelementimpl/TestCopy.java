@@ -0,0 +1,364 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal.xmlelementimpl;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getAttributeNameValidator;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.getElementNameValidator;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.restoreDefaultValidators;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.setAttributeNameValidator;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.setElementNameValidator;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.ALLOWS_TEXT;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_ATTRIBUTES;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_CHILDREN;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.IllegalOperationException;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for
+ *  {@link XMLElementImpl#copy()}
+ *  and
+ *  {@link XMLElementAdapter#XMLElementAdapter(XMLElementAdapter)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.xmlelementimpl.TestCopy" )
+public class TestCopy extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that validates its attributes and children, and that
+     *  overrides
+     *  {@link #copy()}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class ItemElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code ItemElement} instance.
+         */
+        public ItemElement()
+        {
+            super( "item", EnumSet.of( VALIDATES_ATTRIBUTES, VALIDATES_CHILDREN, ALLOWS_TEXT ) );
+            registerValidAttributes( "name", "value", "unit" );
+            registerValidChildren( "item" );
+            registerAttributeSequence( "value", "unit", "name" );
+        }   //  ItemElement()
+
+        /**
+         *  Creates a new {@code ItemElement} instance as a copy of the given
+         *  one.
+         *
+         *  @param  prototype   The element to copy.
+         */
+        private ItemElement( final ItemElement prototype ) { super( prototype ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final ItemElement copy() { return new ItemElement( this ); }
+    }
+    //  class ItemElement
+
+    /**
+     *  An element that does not override
+     *  {@link #copy()}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class PlainElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code PlainElement} instance.
+         */
+        public PlainElement() { super( "plain" ); }
+    }
+    //  class PlainElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the prototype for the tests.
+     *
+     *  @return The prototype.
+     */
+    private static final ItemElement createPrototype()
+    {
+        final var retValue = new ItemElement();
+        retValue.setNamespace( new Namespace( "http://www.tquadrat.org/ns/item" ) );
+        retValue.setAttribute( "name", "prototype" )
+            .setAttribute( "unit", "kg" )
+            .addText( "Tom & Jerry" )
+            .addComment( "a comment" );
+        final var child = new ItemElement();
+        child.setAttribute( "name", "child" );
+        retValue.addChild( child );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createPrototype()
+
+    /**
+     *  Tests for
+     *  {@link XMLElementImpl#copy()}
+     *  on an implementation that overrides it.
+     */
+    @Test
+    final void testCopy()
+    {
+        skipThreadTest();
+
+        final var prototype = createPrototype();
+        final var expected = prototype.toString();
+
+        final var candidate = prototype.copy();
+        assertNotNull( candidate );
+        assertNotSame( prototype, candidate );
+        assertFalse( candidate.getParent().isPresent() );
+        assertEquals( expected, candidate.toString() );
+        assertEquals( prototype.getFlags(), candidate.getFlags() );
+        assertEquals( Set.copyOf( prototype.retrieveValidAttributes() ), Set.copyOf( candidate.retrieveValidAttributes() ) );
+        assertEquals( Set.copyOf( prototype.retrieveValidChildren() ), Set.copyOf( candidate.retrieveValidChildren() ) );
+        assertSame( prototype.getSortOrder(), candidate.getSortOrder() );
+        assertEquals( prototype.getChildren().size(), candidate.getChildren().size() );
+        for( final var child : candidate.getChildren() )
+        {
+            assertSame( candidate, child.getParent().orElse( null ) );
+            if( child instanceof XMLElement ) assertTrue( child instanceof ItemElement );
+        }
+
+        //---* The copy is independent from the prototype *-------------------
+        candidate.setAttribute( "value", 42 ).setAttribute( "name", "copy" );
+        assertEquals( List.of( "value", "unit", "name" ), List.copyOf( candidate.getAttributes().keySet() ) );
+        candidate.registerValidAttributes( "extra" );
+        candidate.setAttribute( "extra", "yes" );
+        candidate.addChild( new ItemElement() );
+        assertEquals( expected, prototype.toString() );
+        assertFalse( prototype.retrieveValidAttributes().contains( "extra" ) );
+        assertEquals( List.of( "unit", "name" ), List.copyOf( prototype.getAttributes().keySet() ) );
+        assertEquals( prototype.getChildren().size() + 1, candidate.getChildren().size() );
+
+        //---* The copy can be added to another element *----------------------
+        final var parent = new ItemElement();
+        parent.addChild( candidate );
+        assertSame( parent, candidate.getParent().orElse( null ) );
+    }   //  testCopy()
+
+    /**
+     *  Tests whether
+     *  {@link XMLElementImpl#copy()}
+     *  keeps the validation of the attributes.
+     */
+    @Test
+    final void testCopyRejectsInvalidAttribute()
+    {
+        skipThreadTest();
+
+        final var candidate = createPrototype().copy();
+
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            candidate.setAttribute( "invalid", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testCopyRejectsInvalidAttribute()
+
+    /**
+     *  Tests whether
+     *  {@link XMLElementImpl#copy()}
+     *  keeps the validation of the children.
+     */
+    @Test
+    final void testCopyRejectsInvalidChild()
+    {
+        skipThreadTest();
+
+        final var candidate = createPrototype().copy();
+
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            candidate.addChild( createXMLElement( "invalid" ) );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testCopyRejectsInvalidChild()
+
+    /**
+     *  Tests for
+     *  {@link XMLElementImpl#copy()}
+     *  with the fragment caching enabled.
+     */
+    @Test
+    final void testCopyWithFragmentCaching()
+    {
+        skipThreadTest();
+
+        final var prototype = createXMLElement( "root" ).setFragmentCaching( true );
+        createXMLElement( "child", prototype, "text" );
+        final var expected = prototype.toString();
+
+        final var candidate = prototype.copy();
+        assertTrue( candidate.isFragmentCachingEnabled() );
+        assertEquals( expected, candidate.toString() );
+        for( final var child : candidate.getChildren() )
+        {
+            assertTrue( ((XMLElement) child).isFragmentCachingEnabled() );
+        }
+
+        //---* The copy has its own cache *------------------------------------
+        candidate.setAttribute( "name", "copy" );
+        assertEquals( expected, prototype.toString() );
+        assertEquals( "<root name='copy'><child>text</child></root>", candidate.toString( 0, false ) );
+        ((XMLElement) candidate.getChildren().iterator().next()).addText( " more" );
+        assertEquals( "<root name='copy'><child>text more</child></root>", candidate.toString( 0, false ) );
+        assertEquals( "<root><child>text</child></root>", prototype.toString( 0, false ) );
+    }   //  testCopyWithFragmentCaching()
+
+    /**
+     *  Tests for
+     *  {@link XMLElementImpl#copy()}
+     *  on an implementation that does not override it, and on a tree that
+     *  contains such an implementation; the tree must remain unchanged.
+     */
+    @Test
+    final void testCopyWithoutOverride()
+    {
+        skipThreadTest();
+
+        final var prototype = new PlainElement();
+        prototype.setAttribute( "name", "plain" ).addText( "text" );
+        final var parent = createXMLElement( "parent" );
+        parent.addChild( prototype );
+        final var root = createXMLElement( "root" );
+        root.addChild( parent );
+        final var expected = root.toString( 0, false );
+
+        final Class<? extends Throwable> expectedException = IllegalOperationException.class;
+        for( final var candidate : List.of( prototype, parent, root ) )
+        {
+            try
+            {
+                candidate.copy();
+                fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+            }
+            catch( final AssertionError e ) { throw e; }
+            catch( final Throwable t )
+            {
+                final var isExpectedException = expectedException.isInstance( t );
+                assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+            }
+        }
+        assertEquals( expected, root.toString( 0, false ) );
+        assertSame( parent, prototype.getParent().orElseThrow() );
+    }   //  testCopyWithoutOverride()
+
+    /**
+     *  Tests whether
+     *  {@link XMLElementImpl#copy()}
+     *  does not validate any names again.
+     */
+    @Test
+    final void testCopyWithoutValidation()
+    {
+        skipThreadTest();
+
+        final var prototype = createPrototype();
+        final var counter = new AtomicInteger();
+        try
+        {
+            final var attributeNameValidator = getAttributeNameValidator();
+            setAttributeNameValidator( name ->
+            {
+                counter.incrementAndGet();
+                return attributeNameValidator.test( name );
+            } );
+            final var elementNameValidator = getElementNameValidator();
+            setElementNameValidator( name ->
+            {
+                counter.incrementAndGet();
+                return elementNameValidator.test( name );
+            } );
+
+            for( var i = 0; i < 100; ++i ) assertNotNull( prototype.copy() );
+            assertEquals( 0, counter.get() );
+        }
+        finally
+        {
+            restoreDefaultValidators();
+        }
+    }   //  testCopyWithoutValidation()
+}
+//  class TestCopy
+
+/*
+ *  End of File
+ */
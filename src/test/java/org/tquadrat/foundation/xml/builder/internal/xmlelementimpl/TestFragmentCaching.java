@@ -0,0 +1,219 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal.xmlelementimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the fragment caching of
+ *  {@link XMLElementImpl}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.xmlelementimpl.TestFragmentCaching" )
+public class TestFragmentCaching extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that counts how often it was rendered.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class CountingElement extends XMLElementAdapter
+    {
+            /*------------*\
+        ====** Attributes **===================================================
+            \*------------*/
+        /**
+         *  The render counter.
+         */
+        private int m_Counter = 0;
+
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code CountingElement} instance.
+         *
+         *  @param  elementName The element name.
+         */
+        public CountingElement( final String elementName ) { super( elementName ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Map<String,String> getAttributes()
+        {
+            ++m_Counter;
+            return super.getAttributes();
+        }   //  getAttributes()
+
+        /**
+         *  Returns the number of renderings.
+         *
+         *  @return The render counter.
+         */
+        public final int getCounter() { return m_Counter; }
+    }
+    //  class CountingElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document for the tests.
+     *
+     *  @param  counting    The element that counts its renderings; it will
+     *      be added as a child to the second list entry.
+     *  @return The document.
+     */
+    private static final XMLDocument createDocument( final XMLElement counting )
+    {
+        final var root = createXMLElement( "root" );
+        final var retValue = createXMLDocument( root );
+        for( var i = 0; i < 3; ++i )
+        {
+            final var entry = createXMLElement( "entry", root );
+            entry.setAttribute( "index", i );
+            createXMLElement( "value", entry, "Value & " + i );
+            if( i == 1 ) entry.addChild( counting );
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the fragment caching.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "XMLElementImpl with fragment caching" )
+    @Test
+    final void testFragmentCaching() throws Exception
+    {
+        skipThreadTest();
+
+        final var counting = new CountingElement( "counting" );
+        final var document = createDocument( counting );
+        final var root = document.getRootElement();
+        assertFalse( root.isFragmentCachingEnabled() );
+
+        final var expectedPretty = document.toString( true );
+        final var expectedCompact = document.toString( false );
+        assertEquals( 2, counting.getCounter() );
+
+        root.setFragmentCaching( true );
+        assertTrue( root.isFragmentCachingEnabled() );
+        assertTrue( counting.isFragmentCachingEnabled() );
+        assertEquals( expectedPretty, document.toString( true ) );
+        assertEquals( expectedCompact, document.toString( false ) );
+        assertEquals( 4, counting.getCounter() );
+
+        //---* Unchanged: everything comes from the cache *--------------------
+        assertEquals( expectedPretty, document.toString( true ) );
+        assertEquals( expectedCompact, document.toString( false ) );
+        assertEquals( 4, counting.getCounter() );
+
+        //---* A change in a sibling subtree does not render the element *-----
+        final var first = (XMLElement) root.getChildren().iterator().next();
+        first.setAttribute( "changed", true );
+        final var changedPretty = document.toString( true );
+        assertNotEquals( expectedPretty, changedPretty );
+        assertEquals( 4, counting.getCounter() );
+
+        //---* A change of the element itself is rendered *-------------------
+        counting.setAttribute( "changed", true );
+        final var changedAgain = document.toString( true );
+        assertNotEquals( changedPretty, changedAgain );
+        assertEquals( 5, counting.getCounter() );
+
+        //---* A new child inherits the fragment caching *---------------------
+        final var newChild = createXMLElement( "new", counting );
+        assertTrue( newChild.isFragmentCachingEnabled() );
+        newChild.addText( "text" );
+        final var withChild = document.toString( true );
+        assertTrue( withChild.contains( "<new>text</new>" ) );
+
+        //---* The cached output equals the uncached one *---------------------
+        root.setFragmentCaching( false );
+        assertFalse( counting.isFragmentCachingEnabled() );
+        assertEquals( withChild, document.toString( true ) );
+    }   //  testFragmentCaching()
+
+    /**
+     *  Tests the fragment caching with different indentation levels.
+     */
+    @DisplayName( "XMLElementImpl with fragment caching on different levels" )
+    @Test
+    final void testIndentationLevels()
+    {
+        skipThreadTest();
+
+        final var element = createXMLElement( "element" );
+        createXMLElement( "child", element, "text" ).setAttribute( "a", "1" );
+        final var expected0 = element.toString( 0, true );
+        final var expected2 = element.toString( 2, true );
+
+        element.setFragmentCaching( true );
+        assertEquals( expected0, element.toString( 0, true ) );
+        assertEquals( expected2, element.toString( 2, true ) );
+        assertEquals( expected0, element.toString( 0, true ) );
+        assertEquals( element.toString( 0, false ), element.toString( 2, false ) );
+
+        //---* One compact fragment serves all levels *------------------------
+        final var counting = new CountingElement( "counting" );
+        counting.setAttribute( "a", "1" );
+        counting.setFragmentCaching( true );
+        final var compact = counting.toString( 0, false );
+        final var counter = counting.getCounter();
+        for( var level = 1; level < 4; ++level ) assertEquals( compact, counting.toString( level, false ) );
+        assertEquals( counter, counting.getCounter() );
+    }   //  testIndentationLevels()
+}
+//  class TestFragmentCaching
+
+/*
+ *  End of File
+ */
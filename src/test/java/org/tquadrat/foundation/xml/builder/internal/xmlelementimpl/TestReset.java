@@ -0,0 +1,237 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.internal.xmlelementimpl;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.lang.CommonConstants.UTF8;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createCompactXMLElement;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_ATTRIBUTES;
+import static org.tquadrat.foundation.xml.builder.XMLElement.Flags.VALIDATES_CHILDREN;
+
+import java.net.URI;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.internal.CompactXMLElement;
+import org.tquadrat.foundation.xml.builder.internal.XMLElementImpl;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for
+ *  {@link XMLElementImpl#reset()},
+ *  {@link CompactXMLElement#reset()}
+ *  and
+ *  {@link XMLDocument#reset()}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.internal.xmlelementimpl.TestReset" )
+public class TestReset extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that validates its attributes and children.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class EnvelopeElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code EnvelopeElement} instance.
+         */
+        public EnvelopeElement()
+        {
+            super( "envelope", EnumSet.of( VALIDATES_ATTRIBUTES, VALIDATES_CHILDREN ) );
+            registerValidAttributes( "id", "version" );
+            registerValidChildren( "header", "body" );
+        }   //  EnvelopeElement()
+    }
+    //  class EnvelopeElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Fills the given envelope.
+     *
+     *  @param  envelope    The envelope.
+     *  @param  id  The id for the envelope.
+     *  @return The envelope.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLElement fillEnvelope( final XMLElement envelope, final int id ) throws Exception
+    {
+        envelope.setAttribute( "id", id );
+        envelope.setAttribute( "version", "1.0" );
+        envelope.setNamespace( new Namespace( "http://www.tquadrat.org/envelope" ) );
+        createXMLElement( "header", envelope, "Header #" + id );
+        createXMLElement( "body", envelope ).addCDATA( "Body #" + id );
+
+        //---* Done *----------------------------------------------------------
+        return envelope;
+    }   //  fillEnvelope()
+
+    /**
+     *  Tests the reset of a document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testResetDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var uri = new URI( "http://www.tquadrat.org/envelope.dtd" );
+        final var candidate = createXMLDocument( new EnvelopeElement(), UTF8, "envelope", uri );
+        final var buffer = new StringBuilder();
+        for( var i = 0; i < 3; ++i )
+        {
+            final var expected = createXMLDocument( fillEnvelope( new EnvelopeElement(), i ), UTF8, "envelope", uri );
+            expected.addDocumentComment( "Envelope #" + i );
+
+            assertSame( candidate, candidate.reset() );
+            fillEnvelope( candidate.getRootElement(), i );
+            candidate.addDocumentComment( "Envelope #" + i );
+
+            buffer.setLength( 0 );
+            candidate.writeTo( buffer, true );
+            assertEquals( expected.toString( true ), buffer.toString() );
+        }
+
+        candidate.reset();
+        assertEquals( 3, candidate.getChildren().size() );
+        assertFalse( candidate.getRootElement().hasChildren() );
+        assertTrue( candidate.getAttributes().isEmpty() );
+    }   //  testResetDocument()
+
+    /**
+     *  Tests the reset of an element.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testResetElement() throws Exception
+    {
+        skipThreadTest();
+
+        for( final var candidate : new XMLElement [] {new EnvelopeElement(), createCompactXMLElement( "envelope" ), createXMLElement( "envelope" ).setFragmentCaching( true )} )
+        {
+            for( var i = 0; i < 3; ++i )
+            {
+                final var expected = fillEnvelope( createXMLElement( "envelope" ), i ).toString( 0, true );
+                assertSame( candidate, candidate.reset() );
+                assertFalse( candidate.hasChildren() );
+                assertTrue( candidate.getAttributes().isEmpty() );
+                assertTrue( candidate.getNamespaces().isEmpty() );
+                assertEquals( expected, fillEnvelope( candidate, i ).toString( 0, true ) );
+            }
+        }
+
+        //---* The configuration is kept *-------------------------------------
+        final var candidate = new EnvelopeElement();
+        fillEnvelope( candidate, 0 ).reset();
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            candidate.setAttribute( "other", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            createXMLElement( "other", candidate );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testResetElement()
+
+    /**
+     *  Tests the reset of a subtree: the root and its children are reset,
+     *  and the same child instances are added again.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testResetSubtree() throws Exception
+    {
+        skipThreadTest();
+
+        for( final var compact : new boolean [] {false, true} )
+        {
+            final var root = compact ? createCompactXMLElement( "envelope" ) : new EnvelopeElement();
+            final var header = compact ? createCompactXMLElement( "header" ) : createXMLElement( "header" );
+            final var body = compact ? createCompactXMLElement( "body" ) : createXMLElement( "body" );
+            for( var i = 0; i < 3; ++i )
+            {
+                final var expected = fillEnvelope( createXMLElement( "envelope" ), i ).toString( 0, true );
+
+                root.reset();
+                header.reset();
+                body.reset();
+                assertFalse( header.getParent().isPresent() );
+                assertFalse( body.getParent().isPresent() );
+
+                root.setAttribute( "id", i );
+                root.setAttribute( "version", "1.0" );
+                root.setNamespace( new Namespace( "http://www.tquadrat.org/envelope" ) );
+                root.addChild( header.addText( "Header #" + i ) );
+                root.addChild( body.addCDATA( "Body #" + i ) );
+                assertSame( root, header.getParent().orElseThrow() );
+                assertEquals( expected, root.toString( 0, true ) );
+            }
+        }
+    }   //  testResetSubtree()
+}
+//  class TestReset
+
+/*
+ *  End of File
+ */
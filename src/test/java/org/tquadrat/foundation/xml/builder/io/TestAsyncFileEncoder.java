@@ -0,0 +1,194 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.io.AsyncFileEncoder.SyncPolicy;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link AsyncFileEncoder}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.io.TestAsyncFileEncoder" )
+public class TestAsyncFileEncoder extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests.
+     *
+     *  @return The document.
+     */
+    private static final XMLDocument createDocument()
+    {
+        final var root = createXMLElement( "root" );
+        for( var i = 0; i < 50; ++i )
+        {
+            createXMLElement( "item", root, "Item #" + i + " – 12 €" ).setAttribute( "index", i );
+        }
+        final var retValue = createXMLDocument( root );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the asynchronous output to a file with all synchronisation
+     *  policies.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "AsyncFileEncoder.forFile()" )
+    @Test
+    final void testForFile() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var expected = document.toString( true ).getBytes( UTF_8 );
+
+        final var file = Files.createTempFile( "TestAsyncFileEncoder", ".xml" );
+        try
+        {
+            for( final var syncPolicy : SyncPolicy.values() )
+            {
+                //---* An existing, longer file will be truncated *------------
+                Files.write( file, new byte [expected.length * 2] );
+                document.writeAsync( file, true, syncPolicy ).join();
+                assertArrayEquals( expected, Files.readAllBytes( file ) );
+
+                //---* Many small buffers, with a flush in between *-----------
+                final var repeated = new StringBuilder();
+                final var encoder = AsyncFileEncoder.forFile( file, UTF_8, syncPolicy, ByteEncoder.MIN_BUFFER_SIZE );
+                for( var i = 0; i < 10; ++i )
+                {
+                    document.writeTo( encoder, false );
+                    repeated.append( document.toString( false ) );
+                    if( i == 4 ) encoder.flush();
+                }
+                final var completion = encoder.finishAsync();
+                assertSame( completion, encoder.finishAsync() );
+                completion.join();
+                assertTrue( completion.isDone() );
+                encoder.close();
+                assertArrayEquals( repeated.toString().getBytes( UTF_8 ), Files.readAllBytes( file ) );
+            }
+
+            //---* Empty output *----------------------------------------------
+            AsyncFileEncoder.forFile( file, UTF_8, SyncPolicy.DATA ).finishAsync().join();
+            assertEquals( 0L, Files.size( file ) );
+
+            //---* Closing without finishing *---------------------------------
+            try( final var encoder = AsyncFileEncoder.forFile( file, UTF_8, SyncPolicy.NONE ) )
+            {
+                document.writeTo( encoder, true );
+            }
+            assertArrayEquals( expected, Files.readAllBytes( file ) );
+        }
+        finally
+        {
+            Files.deleteIfExists( file );
+        }
+    }   //  testForFile()
+
+    /**
+     *  Tests the method
+     *  {@link AsyncFileEncoder#forFile(java.nio.file.Path, java.nio.charset.Charset, SyncPolicy)}
+     *  with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "AsyncFileEncoder.forFile() with null argument" )
+    @Test
+    final void testForFileNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        final var file = Files.createTempFile( "TestAsyncFileEncoder", ".xml" );
+        try
+        {
+            try
+            {
+                AsyncFileEncoder.forFile( null, UTF_8, SyncPolicy.NONE );
+                fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+            }
+            catch( final AssertionError e ) { throw e; }
+            catch( final Throwable t )
+            {
+                final var isExpectedException = expectedException.isInstance( t );
+                assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+            }
+
+            try
+            {
+                AsyncFileEncoder.forFile( file, null, SyncPolicy.NONE );
+                fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+            }
+            catch( final AssertionError e ) { throw e; }
+            catch( final Throwable t )
+            {
+                final var isExpectedException = expectedException.isInstance( t );
+                assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+            }
+
+            try
+            {
+                AsyncFileEncoder.forFile( file, UTF_8, null );
+                fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+            }
+            catch( final AssertionError e ) { throw e; }
+            catch( final Throwable t )
+            {
+                final var isExpectedException = expectedException.isInstance( t );
+                assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists( file );
+        }
+    }   //  testForFileNull()
+}
+//  class TestAsyncFileEncoder
+
+/*
+ *  End of File
+ */
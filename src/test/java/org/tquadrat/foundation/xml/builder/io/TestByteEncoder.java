@@ -0,0 +1,373 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link ByteEncoder}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.io.TestByteEncoder" )
+public class TestByteEncoder extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests.
+     *
+     *  @return The document.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLDocument createDocument() throws Exception
+    {
+        final var root = createXMLElement( "root" );
+        createXMLElement( "price", root, "12 €" );
+        createXMLElement( "smiley", root, "😀" );
+        createXMLElement( "umlaut", root, "äöü" );
+        final var retValue = createXMLDocument( root, ISO_8859_1, new URI( "http://www.tquadrat.org/test.dtd" ) );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the encoding into a buffer.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder.forBuffer()" )
+    @Test
+    final void testForBuffer() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var expected = document.toString( true )
+            .replace( "€", "&#x20AC;" )
+            .replace( "😀", "&#x1F600;" )
+            .getBytes( ISO_8859_1 );
+
+        final var buffer = ByteBuffer.allocate( 4096 );
+        document.writeTo( buffer, true );
+        buffer.flip();
+        final var actual = new byte [buffer.remaining()];
+        buffer.get( actual );
+        assertArrayEquals( expected, actual );
+
+        //---* Not enough space *----------------------------------------------
+        final Class<? extends Throwable> expectedException = BufferOverflowException.class;
+        try
+        {
+            document.writeTo( ByteBuffer.allocate( 32 ), true );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testForBuffer()
+
+    /**
+     *  Tests the encoding into a channel.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder.forChannel()" )
+    @Test
+    final void testForChannel() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createXMLDocument( createXMLElement( "root", "ä & € 😀" ) );
+        final var expected = document.toString( false ).getBytes( UTF_8 );
+
+        var outputStream = new ByteArrayOutputStream();
+        document.writeTo( Channels.newChannel( outputStream ), false );
+        assertArrayEquals( expected, outputStream.toByteArray() );
+
+        //---* Force multiple drains *-----------------------------------------
+        outputStream = new ByteArrayOutputStream();
+        try( final var encoder = ByteEncoder.forChannel( Channels.newChannel( outputStream ), UTF_8, ByteEncoder.MIN_BUFFER_SIZE ) )
+        {
+            document.writeTo( encoder, false );
+        }
+        assertArrayEquals( expected, outputStream.toByteArray() );
+    }   //  testForChannel()
+
+    /**
+     *  Tests the encoding into a memory mapped file.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder.forMappedFile()" )
+    @Test
+    final void testForMappedFile() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var expected = document.toString( true )
+            .replace( "€", "&#x20AC;" )
+            .replace( "😀", "&#x1F600;" )
+            .getBytes( ISO_8859_1 );
+
+        final var file = Files.createTempFile( "TestByteEncoder", ".xml" );
+        try
+        {
+            //---* An existing, longer file will be truncated *----------------
+            Files.write( file, new byte [expected.length * 3] );
+            document.writeTo( file, true );
+            assertArrayEquals( expected, Files.readAllBytes( file ) );
+
+            //---* Many small windows *----------------------------------------
+            final var repeated = new StringBuilder();
+            try( final var encoder = ByteEncoder.forMappedFile( file, UTF_8, ByteEncoder.MIN_BUFFER_SIZE ) )
+            {
+                for( var i = 0; i < 100; ++i )
+                {
+                    document.writeTo( encoder, false );
+                    repeated.append( document.toString( false ) );
+                }
+            }
+            assertArrayEquals( repeated.toString().getBytes( UTF_8 ), Files.readAllBytes( file ) );
+
+            //---* Empty output *----------------------------------------------
+            ByteEncoder.forMappedFile( file, UTF_8 ).close();
+            assertEquals( 0L, Files.size( file ) );
+        }
+        finally
+        {
+            Files.deleteIfExists( file );
+        }
+    }   //  testForMappedFile()
+
+    /**
+     *  Tests the encoding into an output stream.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder.forOutputStream()" )
+    @Test
+    final void testForOutputStream() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var expected = document.toString( false )
+            .replace( "€", "&#x20AC;" )
+            .replace( "😀", "&#x1F600;" )
+            .getBytes( ISO_8859_1 );
+
+        var outputStream = new ByteArrayOutputStream();
+        document.writeTo( outputStream, false );
+        assertArrayEquals( expected, outputStream.toByteArray() );
+
+        //---* Force multiple drains *-----------------------------------------
+        outputStream = new ByteArrayOutputStream();
+        final var encoder = ByteEncoder.forOutputStream( outputStream, ISO_8859_1, ByteEncoder.MIN_BUFFER_SIZE );
+        assertEquals( ISO_8859_1, encoder.getCharset() );
+        document.writeTo( encoder, false );
+        encoder.finish();
+        assertArrayEquals( expected, outputStream.toByteArray() );
+
+        //---* Append after finish *-------------------------------------------
+        final Class<? extends Throwable> expectedException = IOException.class;
+        try
+        {
+            encoder.append( 'x' );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testForOutputStream()
+
+    /**
+     *  Tests the encoding of characters that cannot be mapped to the target
+     *  character set.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder with unmappable characters" )
+    @Test
+    final void testUnmappable() throws Exception
+    {
+        skipThreadTest();
+
+        final var outputStream = new ByteArrayOutputStream();
+        try( final var encoder = ByteEncoder.forOutputStream( outputStream, ISO_8859_1 ) )
+        {
+            encoder.append( "a€b" ).append( '\uD83D' ).append( '\uDE00' ).append( "xyz", 1, 2 );
+        }
+        final var actual = new String( outputStream.toByteArray(), ISO_8859_1 );
+        assertEquals( "a&#x20AC;b&#x1F600;y", actual );
+
+        //---* Large content *-------------------------------------------------
+        final var chars = new char [10_000];
+        Arrays.fill( chars, 'Œ' );
+        final var buffer = ByteBuffer.allocate( 10_000 * 7 );
+        final var encoder = ByteEncoder.forBuffer( buffer, ISO_8859_1 );
+        encoder.append( new String( chars ) );
+        encoder.finish();
+        assertEquals( 10_000 * "&#x152;".length(), buffer.position() );
+    }   //  testUnmappable()
+
+    /**
+     *  Tests the handling of characters that cannot be mapped to the target
+     *  character set inside tags, {@code CDATA} sections, comments and
+     *  processing instructions.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "ByteEncoder with unmappable characters in markup" )
+    @Test
+    final void testUnmappableInMarkup() throws Exception
+    {
+        skipThreadTest();
+
+        //---* CDATA: the section is split *-----------------------------------
+        final var filler = "x".repeat( 2_000 );
+        var outputStream = new ByteArrayOutputStream();
+        try( final var encoder = ByteEncoder.forOutputStream( outputStream, ISO_8859_1, ByteEncoder.MIN_BUFFER_SIZE ) )
+        {
+            encoder.append( "<r>" ).append( filler ).append( "<![CDATA[a€" );
+            for( final var c : "]]]€b]]>".toCharArray() ) encoder.append( c );
+            encoder.append( "€<!-- c --><?pi d?>€</r>" );
+        }
+        var actual = new String( outputStream.toByteArray(), ISO_8859_1 );
+        assertEquals( "<r>" + filler + "<![CDATA[a]]>&#x20AC;<![CDATA[]]]]]>&#x20AC;<![CDATA[b]]>&#x20AC;<!-- c --><?pi d?>&#x20AC;</r>", actual );
+
+        //---* Attribute values: a reference is written *----------------------
+        outputStream = new ByteArrayOutputStream();
+        try( final var encoder = ByteEncoder.forOutputStream( outputStream, ISO_8859_1, ByteEncoder.MIN_BUFFER_SIZE ) )
+        {
+            encoder.append( "<r a='€>' b=\"'€'\">€</r>" );
+        }
+        actual = new String( outputStream.toByteArray(), ISO_8859_1 );
+        assertEquals( "<r a='&#x20AC;>' b=\"'&#x20AC;'\">&#x20AC;</r>", actual );
+
+        //---* Comments and processing instructions: the output fails *--------
+        final Class<? extends Throwable> expectedException = CharConversionException.class;
+        for( final var markup : new String [] {"<r><!-- 12 € --></r>", "<?pi price='€'?><r/>", "<r>" + filler + "<!-" + "-" + filler + "€--></r>", "<€/>", "<r€/>", "<r a='x' b€='y'/>", "<r>x</r€>"} )
+        {
+            outputStream = new ByteArrayOutputStream();
+            final var encoder = ByteEncoder.forOutputStream( outputStream, ISO_8859_1 );
+            try
+            {
+                encoder.append( markup );
+                encoder.close();
+                fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+            }
+            catch( final AssertionError e ) { throw e; }
+            catch( final Throwable t )
+            {
+                final var isExpectedException = expectedException.isInstance( t );
+                assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+            }
+        }
+    }   //  testUnmappableInMarkup()
+
+    /**
+     *  Tests the factory methods with invalid arguments.
+     */
+    @DisplayName( "ByteEncoder factories with invalid arguments" )
+    @Test
+    final void testInvalidArguments()
+    {
+        skipThreadTest();
+
+        Class<? extends Throwable> expectedException = NullArgumentException.class;
+        try
+        {
+            ByteEncoder.forOutputStream( null, UTF_8 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            ByteEncoder.forBuffer( ByteBuffer.allocate( 16 ), null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        final Class<? extends Throwable> expectedException2 = IllegalArgumentException.class;
+        try
+        {
+            ByteEncoder.forOutputStream( new ByteArrayOutputStream(), UTF_8, ByteEncoder.MIN_BUFFER_SIZE - 1 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException2.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException2.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException2.getName(), t.getClass().getName() ) );
+        }
+    }   //  testInvalidArguments()
+}
+//  class TestByteEncoder
+
+/*
+ *  End of File
+ */
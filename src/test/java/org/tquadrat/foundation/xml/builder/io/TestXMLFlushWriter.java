@@ -0,0 +1,265 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link XMLFlushWriter};
+ *  the output is compared with that of the complete tree.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.io.TestXMLFlushWriter" )
+public class TestXMLFlushWriter extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that adds a comment to the output of
+     *  {@link #toString(int, boolean)}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class MarkedElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code MarkedElement} instance.
+         */
+        public MarkedElement() { super( "marked" ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString( final int indentationLevel, final boolean prettyPrint ) { return super.toString( indentationLevel, prettyPrint ) + "<!--marked-->"; }
+    }
+    //  class MarkedElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Fills the given document with sections and items, and completes them
+     *  with the given writer.
+     *
+     *  @param  document    The document.
+     *  @param  writer  The writer; can be {@code null}.
+     *  @param  completeItems   {@code true} if the items will be completed.
+     *  @param  completeSections    {@code true} if the sections will be
+     *      completed.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @SuppressWarnings( "BooleanParameter" )
+    private static final void fillDocument( final XMLDocument document, final XMLFlushWriter writer, final boolean completeItems, final boolean completeSections ) throws Exception
+    {
+        final var root = document.getRootElement();
+        root.setAttribute( "version", "1.0" );
+        root.addComment( "The sections" );
+        for( var s = 0; s < 3; ++s )
+        {
+            final var section = createXMLElement( "section", root );
+            section.setAttribute( "index", s );
+            section.addText( "Section #" + s );
+            for( var i = 0; i < 4; ++i )
+            {
+                final var item = createXMLElement( "item", section, "Item " + s + '.' + i + " & more" );
+                item.setAttribute( "index", i );
+                if( nonNull( writer ) && completeItems ) writer.complete( item );
+            }
+            createXMLElement( "summary", section );
+            if( nonNull( writer ) && completeSections ) writer.complete( section );
+
+            //---* Nothing but the current section is kept *-------------------
+            if( nonNull( writer ) ) assertTrue( root.getChildren().size() <= 1 );
+        }
+        root.addText( "The end" );
+    }   //  fillDocument()
+
+    /**
+     *  Compares the output of the writer with that of the complete tree, for
+     *  different completion patterns.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testComplete() throws Exception
+    {
+        skipThreadTest();
+
+        for( final var prettyPrint : new boolean [] {false, true} )
+        {
+            final var expectedDocument = createXMLDocument( "feed" );
+            fillDocument( expectedDocument, null, false, false );
+            final var expected = expectedDocument.toString( prettyPrint );
+
+            for( final var pattern : new boolean [][] {{true, false}, {false, true}, {true, true}} )
+            {
+                final var buffer = new StringBuilder();
+                final var document = createXMLDocument( "feed" );
+                try( final var writer = XMLFlushWriter.forDocument( document, buffer, prettyPrint ) )
+                {
+                    fillDocument( document, writer, pattern [0], pattern [1] );
+                }
+                assertEquals( expected, buffer.toString() );
+                assertFalse( document.getRootElement().hasChildren() );
+            }
+        }
+    }   //  testComplete()
+
+    /**
+     *  Tests a writer for an element, without any completed subtree.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testCompleteNothing() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        createXMLElement( "child", root, "text" );
+        final var expected = root.toString( 0, true );
+
+        final var buffer = new StringBuilder();
+        XMLFlushWriter.forElement( root, buffer, true ).close();
+        assertEquals( expected, buffer.toString() );
+    }   //  testCompleteNothing()
+
+    /**
+     *  Tests that an element that overrides
+     *  {@link XMLElementAdapter#toString(int, boolean)}
+     *  is written as in the complete tree.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testCompleteOverriddenToString() throws Exception
+    {
+        skipThreadTest();
+
+        for( final var prettyPrint : new boolean [] {false, true} )
+        {
+            final var expectedRoot = createXMLElement( "root" );
+            expectedRoot.addChild( new MarkedElement() );
+            expectedRoot.addChild( new MarkedElement() ).addChild( new MarkedElement() );
+            final var expected = expectedRoot.toString( 0, prettyPrint );
+
+            final var buffer = new StringBuilder();
+            final var root = createXMLElement( "root" );
+            try( final var writer = XMLFlushWriter.forElement( root, buffer, prettyPrint ) )
+            {
+                final var first = new MarkedElement();
+                root.addChild( first );
+                writer.complete( first );
+                root.addChild( new MarkedElement() ).addChild( new MarkedElement() );
+            }
+            assertEquals( expected, buffer.toString() );
+        }
+    }   //  testCompleteOverriddenToString()
+
+    /**
+     *  Tests the invalid calls to
+     *  {@link XMLFlushWriter#complete(org.tquadrat.foundation.xml.builder.XMLElement)}.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testCompleteWithInvalidArgument() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        final var child = createXMLElement( "child", root );
+        final var other = createXMLElement( "other", createXMLElement( "otherRoot" ) );
+        final var writer = XMLFlushWriter.forElement( root, new StringBuilder(), false );
+
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            writer.complete( other );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* Already written *-----------------------------------------------
+        writer.complete( child );
+        try
+        {
+            writer.complete( child );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* Already closed *------------------------------------------------
+        writer.close();
+        final Class<? extends Throwable> expectedStateException = IllegalStateException.class;
+        try
+        {
+            writer.complete( createXMLElement( "late", root ) );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testCompleteWithInvalidArgument()
+}
+//  class TestXMLFlushWriter
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,309 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.io;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.Namespace;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link XMLStreamBuilder};
+ *  the output is compared with that of an element tree with the same
+ *  content.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.io.TestXMLStreamBuilder" )
+public class TestXMLStreamBuilder extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that adds a comment to the output of
+     *  {@link #toString(int, boolean)}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class MarkedElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code MarkedElement} instance.
+         */
+        public MarkedElement() { super( "marked" ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString( final int indentationLevel, final boolean prettyPrint ) { return super.toString( indentationLevel, prettyPrint ) + "<!--marked-->"; }
+    }
+    //  class MarkedElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the element tree that is used for the tests.
+     *
+     *  @return The root element.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLElement createTree() throws Exception
+    {
+        final var retValue = createXMLElement( "root" );
+        retValue.setNamespace( new Namespace( "b", "http://www.tquadrat.org/b" ) );
+        retValue.setNamespace( new Namespace( "a", "http://www.tquadrat.org/a" ) );
+        retValue.setAttribute( "version", "1.0" );
+        retValue.setAttribute( "name", "test" );
+        retValue.addComment( "The items" );
+        final var items = createXMLElement( "items", retValue );
+        for( var i = 0; i < 3; ++i )
+        {
+            createXMLElement( "item", items, "Item <" + i + "> & more" ).setAttribute( "index", i );
+        }
+        createXMLElement( "empty", items );
+        final var mixed = createXMLElement( "mixed", retValue );
+        mixed.addText( "Text" );
+        mixed.addCDATA( "a < b" );
+        mixed.addPredefinedMarkup( "<b>bold</b>" );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createTree()
+
+    /**
+     *  Writes the same content as
+     *  {@link #createTree()}
+     *  with the given builder.
+     *
+     *  @param  builder The builder.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final void streamTree( final XMLStreamBuilder builder ) throws Exception
+    {
+        builder.startElement( "root" )
+            .setNamespace( new Namespace( "b", "http://www.tquadrat.org/b" ) )
+            .setNamespace( new Namespace( "a", "http://www.tquadrat.org/a" ) )
+            .setAttribute( "version", "1.0" )
+            .setAttribute( "name", "test" )
+            .addComment( "The items" )
+            .startElement( "items" );
+        for( var i = 0; i < 3; ++i )
+        {
+            builder.startElement( "item" )
+                .setAttribute( "index", Integer.toString( i ) )
+                .addText( "Item <" + i + "> & more" )
+                .endElement();
+        }
+        builder.startElement( "empty" ).endElement()
+            .endElement()
+            .startElement( "mixed" )
+            .addText( "Text" )
+            .addCDATA( "a < b" )
+            .addPredefinedMarkup( "<b>bold</b>" );
+        builder.close();
+    }   //  streamTree()
+
+    /**
+     *  Tests the output for a
+     *  {@link ByteEncoder}
+     *  and for an
+     *  {@link XMLElement}
+     *  that is added as a whole.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testAddChild() throws Exception
+    {
+        skipThreadTest();
+
+        final var tree = createTree();
+        final var expected = tree.toString( 0, true );
+
+        final var outputStream = new ByteArrayOutputStream();
+        try( final var encoder = ByteEncoder.forOutputStream( outputStream, UTF_8, ByteEncoder.MIN_BUFFER_SIZE );
+             final var builder = XMLStreamBuilder.forAppendable( encoder, true ) )
+        {
+            builder.addChild( tree );
+            assertEquals( 0, builder.getDepth() );
+        }
+        assertEquals( expected, outputStream.toString( UTF_8 ) );
+    }   //  testAddChild()
+
+    /**
+     *  Tests that an element that overrides
+     *  {@link XMLElementAdapter#toString(int, boolean)}
+     *  is written as in a tree.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testAddChildWithOverriddenToString() throws Exception
+    {
+        skipThreadTest();
+
+        for( final var prettyPrint : new boolean [] {false, true} )
+        {
+            final var tree = createXMLElement( "root" );
+            tree.addChild( new MarkedElement() );
+            final var expected = tree.toString( 0, prettyPrint );
+
+            final var buffer = new StringBuilder();
+            try( final var builder = XMLStreamBuilder.forAppendable( buffer, prettyPrint ) )
+            {
+                builder.startElement( "root" ).addChild( new MarkedElement() );
+            }
+            assertEquals( expected, buffer.toString() );
+        }
+    }   //  testAddChildWithOverriddenToString()
+
+    /**
+     *  Tests the validation of names, attributes and children.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testValidation() throws Exception
+    {
+        skipThreadTest();
+
+        final var builder = XMLStreamBuilder.forAppendable( new StringBuilder(), false )
+            .registerValidAttributes( "root", "name" )
+            .registerValidChildren( "root", "child" )
+            .startElement( "root" )
+            .setAttribute( "name", "value" )
+            .setAttribute( "xml:lang", "en" );
+
+        final Class<? extends Throwable> expectedException = IllegalArgumentException.class;
+        try
+        {
+            builder.setAttribute( "other", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            builder.startElement( "other" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            builder.startElement( "1child" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* No attributes after the start tag was written *-----------------
+        builder.startElement( "child" );
+        final Class<? extends Throwable> expectedStateException = IllegalStateException.class;
+        try
+        {
+            builder.endElement().setAttribute( "name", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+
+        //---* Only one root element *-----------------------------------------
+        builder.endElement();
+        try
+        {
+            builder.startElement( "root" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedStateException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedStateException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedStateException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testValidation()
+
+    /**
+     *  Compares the output of the builder with that of the element tree, for
+     *  compact and for pretty printed output.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @Test
+    final void testWriteThrough() throws Exception
+    {
+        skipThreadTest();
+
+        final var tree = createTree();
+        for( final var prettyPrint : new boolean [] {false, true} )
+        {
+            final var buffer = new StringBuilder();
+            streamTree( XMLStreamBuilder.forAppendable( buffer, prettyPrint ) );
+            assertEquals( tree.toString( 0, prettyPrint ), buffer.toString() );
+        }
+    }   //  testWriteThrough()
+}
+//  class TestXMLStreamBuilder
+
+/*
+ *  End of File
+ */
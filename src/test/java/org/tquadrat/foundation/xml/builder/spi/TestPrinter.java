@@ -0,0 +1,224 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.COMPACT_PRINTER;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.PRETTY_PRINTER;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.canonicalPrinter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the interface
+ *  {@link Printer}
+ *  and its default implementations from
+ *  {@link SGMLPrinter}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.TestPrinter" )
+public class TestPrinter extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests.
+     *
+     *  @return The document.
+     */
+    private static final XMLDocument createDocument()
+    {
+        final var root = createXMLElement( "root" );
+        root.setAttribute( "b", "2" ).setAttribute( "a", "1" );
+        root.addComment( "A comment" );
+        createXMLElement( "child", root, "Tom & Jerry" );
+        createXMLElement( "empty", root );
+        final var retValue = createXMLDocument( root );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the default printers.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "Printer default implementations" )
+    @Test
+    final void testDefaultPrinters() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var element = document.getRootElement();
+
+        assertEquals( document.toString( true ), document.toString( PRETTY_PRINTER ) );
+        assertEquals( document.toString( false ), document.toString( COMPACT_PRINTER ) );
+        assertEquals( element.toString( 2, true ), element.toString( 2, PRETTY_PRINTER ) );
+        assertEquals( element.toString( 0, false ), element.toString( 2, COMPACT_PRINTER ) );
+
+        for( final var algorithm : Algorithm.values() )
+        {
+            final var expected = new StringBuilder();
+            document.writeCanonical( expected, algorithm );
+            assertEquals( expected.toString(), document.toString( canonicalPrinter( algorithm ) ) );
+
+            final var buffer = new StringBuilder();
+            element.writeTo( buffer, 3, canonicalPrinter( algorithm ) );
+            expected.setLength( 0 );
+            SGMLPrinter.writeCanonical( expected, element, algorithm );
+            assertEquals( expected.toString(), buffer.toString() );
+        }
+    }   //  testDefaultPrinters()
+
+    /**
+     *  Tests a custom printer that delegates to another one.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "Printer with a custom implementation" )
+    @Test
+    final void testCustomPrinter() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        final var counter = new AtomicInteger();
+        final Printer printer = ( appendable, indentationLevel, element ) ->
+        {
+            counter.incrementAndGet();
+            PRETTY_PRINTER.print( appendable, indentationLevel, element );
+        };
+
+        final var buffer = new StringBuilder();
+        document.writeTo( buffer, printer );
+        assertEquals( document.toString( true ), buffer.toString() );
+        assertEquals( document.getChildren().size(), counter.get() );
+    }   //  testCustomPrinter()
+
+    /**
+     *  Tests the selection of the printer for a document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "XMLDocument.setPrinter()" )
+    @Test
+    final void testDocumentPrinter() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        assertSame( PRETTY_PRINTER, document.getPrinter() );
+        assertEquals( document.toString( true ), document.toString() );
+
+        assertSame( document, document.setPrinter( COMPACT_PRINTER ) );
+        assertSame( COMPACT_PRINTER, document.getPrinter() );
+        assertEquals( document.toString( false ), document.toString() );
+
+        final var buffer = new StringBuilder();
+        document.writeTo( buffer );
+        assertEquals( document.toString( false ), buffer.toString() );
+    }   //  testDocumentPrinter()
+
+    /**
+     *  Tests the printer related methods with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "Printer with null argument" )
+    @Test
+    final void testPrinterNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        final var document = createDocument();
+
+        try
+        {
+            document.setPrinter( null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            document.writeTo( new StringBuilder(), (Printer) null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            canonicalPrinter( null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            PRETTY_PRINTER.print( new StringBuilder(), 0, null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testPrinterNull()
+}
+//  class TestPrinter
+
+/*
+ *  End of File
+ */
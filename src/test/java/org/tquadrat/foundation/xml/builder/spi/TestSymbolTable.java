@@ -0,0 +1,150 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.setElementNameValidator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLBuilderUtils;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the class
+ *  {@link SymbolTable}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.TestSymbolTable" )
+public class TestSymbolTable extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Tests for
+     *  {@link SymbolTable#elementName(String)}
+     *  and
+     *  {@link SymbolTable#attributeName(String)}.
+     */
+    @Test
+    final void testLookup()
+    {
+        skipThreadTest();
+
+        final var element = SymbolTable.elementName( "svg:rect" );
+        assertNotNull( element );
+        assertEquals( "svg:rect", element.getName() );
+        assertEquals( "svg:rect", element.toString() );
+        assertEquals( "rect", element.getLocalName() );
+        assertTrue( element.getPrefix().isPresent() );
+        assertEquals( "svg", element.getPrefix().get() );
+        assertSame( element, SymbolTable.elementName( "svg:rect" ) );
+
+        final var attribute = SymbolTable.attributeName( "größe" );
+        assertNotNull( attribute );
+        assertEquals( "größe", attribute.getLocalName() );
+        assertFalse( attribute.getPrefix().isPresent() );
+        assertEquals( "größe", attribute.getName() );
+        assertSame( attribute, SymbolTable.attributeName( "größe" ) );
+
+        //---* Element names and attribute names are kept apart *--------------
+        assertNotSame( SymbolTable.elementName( "name" ), SymbolTable.attributeName( "name" ) );
+        assertEquals( SymbolTable.elementName( "name" ), SymbolTable.attributeName( "name" ) );
+    }   //  testLookup()
+
+    /**
+     *  Tests for
+     *  {@link SymbolTable#elementName(String)}
+     *  with an invalid name.
+     */
+    @Test
+    final void testLookupWithInvalidName()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = InvalidXMLNameException.class;
+        try
+        {
+            final var name = SymbolTable.elementName( "1name" );
+            assertNotNull( name );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testLookupWithInvalidName()
+
+    /**
+     *  Tests whether a name is validated only once, and whether the table is
+     *  invalidated when the validator changes.
+     */
+    @Test
+    final void testValidatorChange()
+    {
+        skipThreadTest();
+
+        final var counter = new AtomicInteger();
+        final var defaultValidator = XMLBuilderUtils.getElementNameValidator();
+        final Predicate<CharSequence> validator = name ->
+        {
+            counter.incrementAndGet();
+            return defaultValidator.test( name );
+        };
+
+        setElementNameValidator( validator );
+        final var name = SymbolTable.elementName( "counted" );
+        for( var i = 0; i < 10; ++i ) assertSame( name, SymbolTable.elementName( "counted" ) );
+        assertEquals( 1, counter.get() );
+
+        //---* Changing the validator drops the names *------------------------
+        setElementNameValidator( s -> false );
+        try
+        {
+            SymbolTable.elementName( "counted" );
+            fail( () -> format( MSG_ExceptionNotThrown, InvalidXMLNameException.class.getName() ) );
+        }
+        catch( final InvalidXMLNameException ignored ) { /* Expected */ }
+
+        setElementNameValidator( validator );
+        assertNotSame( name, SymbolTable.elementName( "counted" ) );
+        assertEquals( 2, counter.get() );
+    }   //  testValidatorChange()
+}
+//  class TestSymbolTable
+
+/*
+ *  End of File
+ */
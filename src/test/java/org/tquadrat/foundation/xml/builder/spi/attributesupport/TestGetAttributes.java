@@ -0,0 +1,137 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.tquadrat.foundation.xml.builder.spi.attributesupport;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.lang.CommonConstants.XMLATTRIBUTE_Id;
+import static org.tquadrat.foundation.xml.builder.XMLElement.NO_APPEND;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeSupport.ID_ALWAYS_FIRST_COMPARATOR;
+import static org.tquadrat.foundation.xml.builder.spi.AttributeSupport.INSERTION_ORDER;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.spi.AttributeSupport;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the method
+ *  {@link AttributeSupport#getAttributes()}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.attributesupport.TestGetAttributes" )
+public class TestGetAttributes extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Tests the sequence of the attributes for different sort orders.
+     */
+    @Test
+    final void testGetAttributesSequence()
+    {
+        skipThreadTest();
+
+        final var element = mockElement( "element" );
+        replayAll();
+
+        //---* Natural order *-------------------------------------------------
+        var candidate = new AttributeSupport( element, false );
+        for( final var name : List.of( "d", "b", XMLATTRIBUTE_Id, "a", "c", "f", "e", "h", "g", "j", "i" ) )
+        {
+            candidate.setAttribute( name, name.toUpperCase(), NO_APPEND );
+        }
+        assertEquals( List.of( "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", XMLATTRIBUTE_Id ), List.copyOf( candidate.getAttributes().keySet() ) );
+        assertEquals( "D", candidate.getAttributes().get( "d" ) );
+
+        //---* Changed sort order *--------------------------------------------
+        candidate.setSortOrder( ID_ALWAYS_FIRST_COMPARATOR );
+        assertEquals( List.of( XMLATTRIBUTE_Id, "a", "b", "c", "d", "e", "f", "g", "h", "i", "j" ), List.copyOf( candidate.getAttributes().keySet() ) );
+
+        //---* Registered sequence *-------------------------------------------
+        candidate.registerSequence( "j", "a" );
+        assertEquals( "j", candidate.getAttributes().keySet().iterator().next() );
+
+        //---* Removal and replacement *---------------------------------------
+        candidate.setAttribute( "j", null, NO_APPEND );
+        candidate.setAttribute( "a", "new", NO_APPEND );
+        assertFalse( candidate.getAttributes().containsKey( "j" ) );
+        assertEquals( "new", candidate.getAttributes().get( "a" ) );
+        assertEquals( 10, candidate.getAttributes().size() );
+
+        //---* Insertion order *-----------------------------------------------
+        candidate = new AttributeSupport( element, false, INSERTION_ORDER );
+        for( final var name : List.of( "d", "b", XMLATTRIBUTE_Id, "a", "c" ) )
+        {
+            candidate.setAttribute( name, name, NO_APPEND );
+        }
+        assertEquals( List.of( "d", "b", XMLATTRIBUTE_Id, "a", "c" ), List.copyOf( candidate.getAttributes().keySet() ) );
+        candidate.setAttribute( "b", null, NO_APPEND );
+        candidate.setAttribute( "b", "b", NO_APPEND );
+        assertEquals( List.of( "d", XMLATTRIBUTE_Id, "a", "c", "b" ), List.copyOf( candidate.getAttributes().keySet() ) );
+    }   //  testGetAttributesSequence()
+
+    /**
+     *  Tests that the attributes are returned as a read-only view.
+     */
+    @Test
+    final void testGetAttributesView()
+    {
+        skipThreadTest();
+
+        final var element = mockElement( "element" );
+        replayAll();
+
+        final var candidate = new AttributeSupport( element, false );
+        final var attributes = candidate.getAttributes();
+        assertTrue( attributes.isEmpty() );
+        assertSame( attributes, candidate.getAttributes() );
+
+        candidate.setAttribute( "name", "value", NO_APPEND );
+        assertEquals( 1, attributes.size() );
+        assertEquals( "value", attributes.get( "name" ) );
+
+        final Class<? extends Throwable> expectedException = UnsupportedOperationException.class;
+        try
+        {
+            attributes.put( "other", "value" );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testGetAttributesView()
+}
+//  class TestGetAttributes
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,236 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createProcessingInstruction;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.io.StringReader;
+import java.net.URI;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+/**
+ *  Tests for the method
+ *  {@link SGMLPrinter#composeDOM(org.tquadrat.foundation.xml.builder.spi.Document)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestComposeDOM" )
+public class TestComposeDOM extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Parses the given XML into a DOM document; the external DTD will not
+     *  be loaded.
+     *
+     *  @param  xml The XML.
+     *  @return The DOM document.
+     *  @throws Exception   Parsing failed.
+     */
+    private static final org.w3c.dom.Document parse( final String xml ) throws Exception
+    {
+        final var factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware( true );
+        factory.setFeature( "http://apache.org/xml/features/nonvalidating/load-external-dtd", false );
+        final var retValue = factory.newDocumentBuilder().parse( new InputSource( new StringReader( xml ) ) );
+        retValue.normalizeDocument();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  parse()
+
+    /**
+     *  Tests the structure of the DOM that is created for a document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.composeDOM() for a document" )
+    @Test
+    final void testComposeDOM() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "t:flag", true ).setAttribute( "name", "Tom & Jerry" );
+        createXMLElement( "t:child", root, "a < b" ).addCDATA( "x]]>y" ).addPredefinedMarkup( "<b>bold</b>" );
+        root.addComment( "A comment" );
+        final var document = createXMLDocument( root, UTF_8, "root", new URI( "http://www.tquadrat.org/root.dtd" ) );
+        createProcessingInstruction( document, "target", "some data" );
+
+        final var dom = document.toDOM();
+        assertNotNull( dom );
+
+        final var docType = dom.getDoctype();
+        assertNotNull( docType );
+        assertEquals( "root", docType.getName() );
+        assertEquals( "http://www.tquadrat.org/root.dtd", docType.getSystemId() );
+
+        final var documentElement = dom.getDocumentElement();
+        assertEquals( "root", documentElement.getTagName() );
+        assertEquals( "Tom & Jerry", documentElement.getAttribute( "name" ) );
+        assertEquals( "true", documentElement.getAttributeNS( "http://www.tquadrat.org/test", "flag" ) );
+
+        final var child = (org.w3c.dom.Element) documentElement.getElementsByTagNameNS( "http://www.tquadrat.org/test", "child" ).item( 0 );
+        assertNotNull( child );
+        assertEquals( "t", child.getPrefix() );
+        final var nodes = child.getChildNodes();
+        assertEquals( Node.TEXT_NODE, nodes.item( 0 ).getNodeType() );
+        assertEquals( "a < b", nodes.item( 0 ).getNodeValue() );
+        assertEquals( Node.CDATA_SECTION_NODE, nodes.item( 1 ).getNodeType() );
+        assertEquals( "x]]", nodes.item( 1 ).getNodeValue() );
+        assertEquals( Node.CDATA_SECTION_NODE, nodes.item( 2 ).getNodeType() );
+        assertEquals( ">y", nodes.item( 2 ).getNodeValue() );
+        assertEquals( Node.ELEMENT_NODE, nodes.item( 3 ).getNodeType() );
+        assertEquals( "bold", nodes.item( 3 ).getTextContent() );
+
+        var found = false;
+        for( var node = dom.getFirstChild(); !found && (node != null); node = node.getNextSibling() )
+        {
+            found = (node.getNodeType() == Node.PROCESSING_INSTRUCTION_NODE)
+                && "target".equals( node.getNodeName() )
+                && "some data".equals( node.getNodeValue() );
+        }
+        assertTrue( found );
+    }   //  testComposeDOM()
+
+    /**
+     *  Compares the DOM for a larger document with the DOM that is parsed
+     *  from the String representation of that document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.composeDOM() compared to the parsed String representation" )
+    @Test
+    final void testComposeDOMEquivalence() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "catalogue" );
+        root.setNamespace( "http://www.tquadrat.org/default" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "version", "2.1" ).setId( "c1" );
+        final var document = createXMLDocument( root );
+        document.addDocumentComment( "Reference document -- do not change\n  indented line" );
+        createProcessingInstruction( document, "stylesheet" ).setAttribute( "type", "text/xsl" ).setAttribute( "href", "style.xsl" );
+        root.addComment( "An element comment" );
+        final var entry = createXMLElement( "t:entry", root );
+        entry.setAttribute( "count", 3 ).setAttribute( "xml:lang", "de" );
+        createXMLElement( "name", entry, "Müller & Söhne <GmbH>" );
+        createXMLElement( "data", entry ).addCDATA( "if( a < b && c > d ) { }" );
+        createXMLElement( "mixed", entry, "Text" ).addText( " and more text" ).addPredefinedMarkup( "<b>bold &amp; <i>italic</i></b><!-- c --><?pi data?>" ).addText( 42 );
+        var parent = createXMLElement( "deep", root );
+        for( var i = 0; i < 20; ++i )
+        {
+            parent = createXMLElement( "level" + i, parent );
+            if( i % 5 == 0 ) parent.setNamespace( "l" + i, "http://www.tquadrat.org/level/" + i ).setAttribute( "l" + i + ":index", i );
+        }
+        parent.addText( "bottom" );
+
+        final var expected = parse( document.toString( false ) );
+        final var actual = SGMLPrinter.composeDOM( document );
+        actual.normalizeDocument();
+        assertTrue( expected.isEqualNode( actual ) );
+    }   //  testComposeDOMEquivalence()
+
+    /**
+     *  Tests the DOM for predefined markup that uses the default namespace
+     *  and prefixes that are declared on the ancestors of the markup.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.composeDOM() for markup with namespaces" )
+    @Test
+    final void testComposeDOMMarkupWithNamespaces() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "http://www.tquadrat.org/default" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        final var child = createXMLElement( "child", createXMLElement( "t:parent", root ) );
+        child.addPredefinedMarkup( "<t:b t:flag='true'>bold</t:b><i>italic</i>" );
+        final var document = createXMLDocument( root );
+
+        final var expected = parse( document.toString( false ) );
+        final var actual = SGMLPrinter.composeDOM( document );
+        actual.normalizeDocument();
+        assertTrue( expected.isEqualNode( actual ) );
+
+        final var bold = (org.w3c.dom.Element) actual.getElementsByTagNameNS( "http://www.tquadrat.org/test", "b" ).item( 0 );
+        assertNotNull( bold );
+        assertEquals( "true", bold.getAttributeNS( "http://www.tquadrat.org/test", "flag" ) );
+        final var italic = actual.getElementsByTagNameNS( "http://www.tquadrat.org/default", "i" ).item( 0 );
+        assertNotNull( italic );
+        assertEquals( "italic", italic.getTextContent() );
+    }   //  testComposeDOMMarkupWithNamespaces()
+
+    /**
+     *  Tests the method
+     *  {@link SGMLPrinter#composeDOM(org.tquadrat.foundation.xml.builder.spi.Document)}
+     *  with {@code null} argument.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.composeDOM() with null argument" )
+    @Test
+    final void testComposeDOMNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+
+        try
+        {
+            SGMLPrinter.composeDOM( null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testComposeDOMNull()
+}
+//  class TestComposeDOM
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,171 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createProcessingInstruction;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  <p>{@summary Compares the output of
+ *  {@link SGMLPrinter}
+ *  for a reference document with the reference files.}</p>
+ *  <p>The reference files were created with the original, format based
+ *  implementation of {@code SGMLPrinter}; any change to the output
+ *  engine must produce exactly the same bytes.</p>
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestReferenceOutput" )
+public class TestReferenceOutput extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the reference document.
+     *
+     *  @return The document.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLDocument createDocument() throws Exception
+    {
+        final var root = createXMLElement( "catalogue" );
+        root.setNamespace( "http://www.tquadrat.org/default" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setNamespace( "x", "http://www.tquadrat.org/extra?a=1&b=2" );
+        root.setAttribute( "version", "2.1" ).setId( "c1" );
+        root.setAttribute( "title", "Tom and Jerry" );
+        final var retValue = createXMLDocument( root, UTF_8, "catalogue", new URI( "http://www.tquadrat.org/catalogue.dtd" ) );
+        retValue.addDocumentComment( "Reference document -- do not change\n  indented line\n\nlast line" );
+        createProcessingInstruction( retValue, "stylesheet" ).setAttribute( "type", "text/xsl" ).setAttribute( "href", "style.xsl" );
+        createProcessingInstruction( retValue, "target", "some data" );
+        root.addComment( "An element comment" );
+        final var entry = createXMLElement( "t:entry", root );
+        entry.setAttribute( "count", 3 ).setAttribute( "flag", true ).setAttribute( "amount", 12.5 );
+        createXMLElement( "name", entry, "Müller & Söhne <GmbH>" );
+        createXMLElement( "data", entry ).addCDATA( "if( a < b && c > d ) { ]]> }" );
+        createXMLElement( "mixed", entry, "Text" ).addText( " and more text" ).addPredefinedMarkup( "<b>bold</b>" ).addText( 42 );
+        createXMLElement( "empty", entry );
+        createXMLElement( "emptyWithAttributes", entry ).setAttribute( "a", "1" ).setAttribute( "b", "2" );
+
+        //---* Deep nesting exceeds the cached indentations *------------------
+        var parent = createXMLElement( "deep", root );
+        for( var i = 0; i < 70; ++i )
+        {
+            parent = createXMLElement( "level" + i, parent );
+            if( i % 10 == 0 ) parent.setAttribute( "index", i ).setAttribute( "next", i + 1 );
+        }
+        parent.addText( "bottom" );
+
+        createXMLElement( "aVeryLongElementNameThatIsUsedToCheckTheIndentationOfTheAttributes", root )
+            .setAttribute( "first", "1" )
+            .setAttribute( "second", "2" )
+            .setNamespace( "l", "http://www.tquadrat.org/long" );
+        root.addPredefinedMarkup( "<!-- predefined -->" );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Loads the given reference file.
+     *
+     *  @param  name    The name of the reference file.
+     *  @return The contents of the file.
+     *  @throws IOException Reading the file failed.
+     */
+    private static final byte [] loadReference( final String name ) throws IOException
+    {
+        try( final var inputStream = TestReferenceOutput.class.getResourceAsStream( name ) )
+        {
+            assertNotNull( inputStream, () -> "Missing reference file: %s".formatted( name ) );
+            final var retValue = inputStream.readAllBytes();
+
+            //---* Done *------------------------------------------------------
+            return retValue;
+        }
+    }   //  loadReference()
+
+    /**
+     *  Compares the output for the document with the reference files.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "Reference output for a document" )
+    @Test
+    final void testDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        for( final var prettyPrint : new boolean [] {true, false} )
+        {
+            final var expected = loadReference( prettyPrint ? "ReferenceDocument_pretty.xml" : "ReferenceDocument_compact.xml" );
+            assertEquals( new String( expected, UTF_8 ), document.toString( prettyPrint ) );
+
+            final var buffer = new StringBuilder();
+            document.writeTo( buffer, prettyPrint );
+            assertArrayEquals( expected, buffer.toString().getBytes( UTF_8 ) );
+
+            final var outputStream = new ByteArrayOutputStream();
+            document.writeTo( outputStream, prettyPrint );
+            assertArrayEquals( expected, outputStream.toByteArray() );
+        }
+    }   //  testDocument()
+
+    /**
+     *  Compares the output for an element on an indentation level other
+     *  than 0 with the reference file.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "Reference output for an element" )
+    @Test
+    final void testElement() throws Exception
+    {
+        skipThreadTest();
+
+        final var element = createDocument().getRootElement();
+        final var expected = new String( loadReference( "ReferenceElement.xml" ), UTF_8 );
+        assertEquals( expected, element.toString( 3, true ) );
+        assertEquals( expected, SGMLPrinter.composeElementString( 3, true, element, true ) );
+    }   //  testElement()
+}
+//  class TestReferenceOutput
+
+/*
+ *  End of File
+ */
@@ -20,9 +20,14 @@ package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
 import static java.lang.Integer.max;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.TAB_SIZE;
 import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.repeat;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeFiller;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeIndentation;
+
+import java.io.IOException;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -87,6 +92,61 @@ public class TestRepeat extends XMLTestBase
             }
         }
     }   //  testRepeat()
+
+    /**
+     *  Tests whether
+     *  {@link SGMLPrinter#repeat(int,int)}
+     *  returns the cached Strings, and whether it works also for indentations
+     *  that exceed the cache.
+     */
+    @Test
+    final void testRepeatCached()
+    {
+        skipThreadTest();
+
+        for( var i = 0; i < 100; ++i )
+        {
+            final var expected = " ".repeat( i * TAB_SIZE + 3 );
+            final var result = repeat( i, 3 );
+            assertEquals( expected, result );
+
+            //---* Only the shorter Strings are cached *-----------------------
+            if( result.length() < 256 ) assertSame( result, repeat( i, 3 ) );
+        }
+    }   //  testRepeatCached()
+
+    /**
+     *  Tests for the methods
+     *  {@link SGMLPrinter#writeIndentation(Appendable, int, int)}
+     *  and
+     *  {@link SGMLPrinter#writeFiller(Appendable, int, boolean, int)}.
+     *
+     *  @throws IOException Something went unexpectedly wrong.
+     */
+    @Test
+    final void testWriteIndentation() throws IOException
+    {
+        skipThreadTest();
+
+        StringBuilder buffer;
+        for( var i = -2; i < 100; ++i )
+        {
+            for( var j = -2; j < 10; ++j )
+            {
+                buffer = new StringBuilder();
+                writeIndentation( buffer, i, j );
+                assertEquals( repeat( i, j ), buffer.toString() );
+
+                buffer = new StringBuilder();
+                writeFiller( buffer, i, true, j );
+                assertEquals( "\n" + repeat( i, j ), buffer.toString() );
+
+                buffer = new StringBuilder();
+                writeFiller( buffer, i, false, j );
+                assertTrue( buffer.isEmpty() );
+            }
+        }
+    }   //  testWriteIndentation()
 }
 //  class TestRepeat
 
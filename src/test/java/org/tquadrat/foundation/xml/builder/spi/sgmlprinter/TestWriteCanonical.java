@@ -0,0 +1,275 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createProcessingInstruction;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm.C14N_10;
+import static org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm.C14N_10_WITH_COMMENTS;
+import static org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm.C14N_11;
+import static org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter.Algorithm.C14N_11_WITH_COMMENTS;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeCanonical;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URISyntaxException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.CanonicalXMLWriter;
+import org.tquadrat.foundation.xml.builder.spi.Document;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the methods
+ *  {@link SGMLPrinter#writeCanonical(Appendable, Document, CanonicalXMLWriter.Algorithm)}
+ *  and
+ *  {@link SGMLPrinter#writeCanonical(Appendable, Element, CanonicalXMLWriter.Algorithm)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestWriteCanonical" )
+public class TestWriteCanonical extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests.
+     *
+     *  @return The document.
+     *  @throws URISyntaxException  Something went unexpectedly wrong.
+     */
+    private static final XMLDocument createDocument() throws URISyntaxException
+    {
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "version", "1.0" ).setId( "r1" );
+        final var retValue = createXMLDocument( root );
+        retValue.addDocumentComment( "A document - comment\nwith two lines" );
+        final var list = createXMLElement( "t:list", root );
+        list.setAttribute( "size", 2 );
+        createXMLElement( "item", list, "First & <second>" ).setAttribute( "kind", "text" );
+        createXMLElement( "item", list ).addCDATA( "raw ]]> data" );
+        root.addComment( "inner" );
+        root.addPredefinedMarkup( "<pre>markup</pre>" );
+        createXMLElement( "empty", root );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the ordering and the escaping of attributes and namespace
+     *  declarations.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCanonical() - attributes and namespaces" )
+    @Test
+    final void testAttributesAndNamespaces() throws Exception
+    {
+        skipThreadTest();
+
+        final var element = createXMLElement( "e" );
+        element.setNamespace( "http://www.tquadrat.org/a" );
+        element.setNamespace( "b", "http://www.tquadrat.org/b" );
+        element.setNamespace( "a", "http://www.tquadrat.org/z" );
+        element.setAttribute( "b:attr", "x" );
+        element.setAttribute( "a:attr", "y" );
+        element.setAttribute( "z", "1" );
+        element.setAttribute( "attr", "\"<&>\t\n\r'" );
+        element.addText( "a\r\n<b>" );
+
+        final var child = createXMLElement( "child", element );
+        child.setNamespace( "b", "http://www.tquadrat.org/b" );
+        child.setNamespace( "c", "http://www.tquadrat.org/c" );
+        final var grandChild = createXMLElement( "grandChild", child );
+        grandChild.setNamespace( "b", "http://www.tquadrat.org/other" );
+
+        final var expected = "<e xmlns=\"http://www.tquadrat.org/a\" xmlns:a=\"http://www.tquadrat.org/z\" xmlns:b=\"http://www.tquadrat.org/b\" attr=\"&quot;&lt;&amp;>&#x9;&#xA;&#xD;'\" z=\"1\" b:attr=\"x\" a:attr=\"y\">a&#xD;\n&lt;b&gt;<child xmlns:c=\"http://www.tquadrat.org/c\"><grandChild xmlns:b=\"http://www.tquadrat.org/other\"></grandChild></child></e>";
+        final var buffer = new StringBuilder();
+        writeCanonical( buffer, element, C14N_11 );
+        assertEquals( expected, buffer.toString() );
+    }   //  testAttributesAndNamespaces()
+
+    /**
+     *  Tests the canonical form of a whole document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCanonical() - document" )
+    @Test
+    final void testDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        createProcessingInstruction( document, "target", "some data" );
+
+        final var body = "<root xmlns:t=\"http://www.tquadrat.org/test\" version=\"1.0\" xml:id=\"r1\"><t:list size=\"2\"><item kind=\"text\">First &amp; &lt;second&gt;</item><item>raw ]]&gt; data</item></t:list>%s<pre>markup</pre><empty></empty></root>";
+        final var withoutComments = "<?target some data?>\n" + body.formatted( "" );
+        final var withComments = "<!-- A document &#x2010; comment with two lines -->\n<?target some data?>\n" + body.formatted( "<!-- inner -->" );
+
+        StringBuilder buffer;
+        buffer = new StringBuilder();
+        writeCanonical( buffer, document, C14N_10 );
+        assertEquals( withoutComments, buffer.toString() );
+
+        buffer = new StringBuilder();
+        document.writeCanonical( buffer, C14N_11 );
+        assertEquals( withoutComments, buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeCanonical( buffer, document, C14N_10_WITH_COMMENTS );
+        assertEquals( withComments, buffer.toString() );
+
+        buffer = new StringBuilder();
+        document.writeCanonical( buffer, C14N_11_WITH_COMMENTS );
+        assertEquals( withComments, buffer.toString() );
+
+        final var outputStream = new ByteArrayOutputStream();
+        document.writeCanonical( outputStream, C14N_11_WITH_COMMENTS );
+        assertArrayEquals( withComments.getBytes( UTF_8 ), outputStream.toByteArray() );
+    }   //  testDocument()
+
+    /**
+     *  Tests the canonical form of an element that is not the root element;
+     *  it inherits the namespaces and attributes from the {@code xml}
+     *  namespace from its ancestors.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCanonical() - subtree" )
+    @Test
+    final void testSubtree() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "xml:lang", "en" );
+        root.setAttribute( "xml:base", "http://www.tquadrat.org/docs/" );
+        root.setAttribute( "attr", "not inherited" );
+        final var parent = createXMLElement( "parent", root );
+        parent.setAttribute( "xml:base", "sub/" ).setId( "p1" );
+        final var element = createXMLElement( "t:element", parent );
+        element.setAttribute( "xml:space", "preserve" );
+        createXMLElement( "t:child", element ).setAttribute( "xml:lang", "de" );
+
+        StringBuilder buffer;
+        buffer = new StringBuilder();
+        writeCanonical( buffer, element, C14N_10 );
+        assertEquals( "<t:element xmlns:t=\"http://www.tquadrat.org/test\" xml:base=\"sub/\" xml:id=\"p1\" xml:lang=\"en\" xml:space=\"preserve\"><t:child xml:lang=\"de\"></t:child></t:element>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeCanonical( buffer, element, C14N_11 );
+        assertEquals( "<t:element xmlns:t=\"http://www.tquadrat.org/test\" xml:base=\"http://www.tquadrat.org/docs/sub/\" xml:lang=\"en\" xml:space=\"preserve\"><t:child xml:lang=\"de\"></t:child></t:element>", buffer.toString() );
+
+        //---* The root element does not inherit anything *--------------------
+        buffer = new StringBuilder();
+        writeCanonical( buffer, root, C14N_11 );
+        assertTrue( buffer.toString().startsWith( "<root xmlns:t=\"http://www.tquadrat.org/test\" attr=\"not inherited\" xml:base=\"http://www.tquadrat.org/docs/\" xml:lang=\"en\">" ) );
+    }   //  testSubtree()
+
+    /**
+     *  Tests the methods
+     *  {@link SGMLPrinter#writeCanonical(Appendable, Document, CanonicalXMLWriter.Algorithm)}
+     *  and
+     *  {@link SGMLPrinter#writeCanonical(Appendable, Element, CanonicalXMLWriter.Algorithm)}
+     *  with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCanonical() with null argument" )
+    @Test
+    final void testWriteCanonicalNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        final var document = createDocument();
+        final Element element = document.getRootElement();
+
+        try
+        {
+            writeCanonical( null, document, C14N_10 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            writeCanonical( new StringBuilder(), (Document<?>) null, C14N_10 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            writeCanonical( new StringBuilder(), (Element) null, C14N_10 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            writeCanonical( new StringBuilder(), element, null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteCanonicalNull()
+}
+//  class TestWriteCanonical
+
+/*
+ *  End of File
+ */
@@ -0,0 +1,239 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createProcessingInstruction;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the methods
+ *  {@link SGMLPrinter#writeCompact(Appendable, Element, boolean)}
+ *  and
+ *  {@link SGMLPrinter#writeCompact(Appendable, org.tquadrat.foundation.xml.builder.spi.Document)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestWriteCompact" )
+public class TestWriteCompact extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests; it is the same as
+     *  the reference document from
+     *  {@link TestReferenceOutput}.
+     *
+     *  @return The document.
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    private static final XMLDocument createDocument() throws Exception
+    {
+        final var root = createXMLElement( "catalogue" );
+        root.setNamespace( "http://www.tquadrat.org/default" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setNamespace( "x", "http://www.tquadrat.org/extra?a=1&b=2" );
+        root.setAttribute( "version", "2.1" ).setId( "c1" );
+        root.setAttribute( "title", "Tom and Jerry" );
+        final var retValue = createXMLDocument( root, UTF_8, "catalogue", new URI( "http://www.tquadrat.org/catalogue.dtd" ) );
+        retValue.addDocumentComment( "Reference document -- do not change\n  indented line\n\nlast line" );
+        createProcessingInstruction( retValue, "stylesheet" ).setAttribute( "type", "text/xsl" ).setAttribute( "href", "style.xsl" );
+        createProcessingInstruction( retValue, "target", "some data" );
+        root.addComment( "An element comment" );
+        final var entry = createXMLElement( "t:entry", root );
+        entry.setAttribute( "count", 3 ).setAttribute( "flag", true ).setAttribute( "amount", 12.5 );
+        createXMLElement( "name", entry, "Müller & Söhne <GmbH>" );
+        createXMLElement( "data", entry ).addCDATA( "if( a < b && c > d ) { ]]> }" );
+        createXMLElement( "mixed", entry, "Text" ).addText( " and more text" ).addPredefinedMarkup( "<b>bold</b>" ).addText( 42 );
+        createXMLElement( "empty", entry );
+        createXMLElement( "emptyWithAttributes", entry ).setAttribute( "a", "1" ).setAttribute( "b", "2" );
+
+        var parent = createXMLElement( "deep", root );
+        for( var i = 0; i < 70; ++i )
+        {
+            parent = createXMLElement( "level" + i, parent );
+            if( i % 10 == 0 ) parent.setAttribute( "index", i ).setAttribute( "next", i + 1 );
+        }
+        parent.addText( "bottom" );
+
+        createXMLElement( "aVeryLongElementNameThatIsUsedToCheckTheIndentationOfTheAttributes", root )
+            .setAttribute( "first", "1" )
+            .setAttribute( "second", "2" )
+            .setNamespace( "l", "http://www.tquadrat.org/long" );
+        root.addPredefinedMarkup( "<!-- predefined -->" );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests the compact output for a whole document against the reference
+     *  file and against the output of
+     *  {@link XMLDocument#toString(boolean) toString( false )}.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCompact() for a document" )
+    @Test
+    final void testWriteCompactDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final String expected;
+        try( final var inputStream = TestReferenceOutput.class.getResourceAsStream( "ReferenceDocument_compact.xml" ) )
+        {
+            assertNotNull( inputStream );
+            expected = new String( inputStream.readAllBytes(), UTF_8 );
+        }
+
+        final var document = createDocument();
+        assertEquals( expected, document.toString( false ) );
+
+        var buffer = new StringBuilder();
+        SGMLPrinter.writeCompact( buffer, document );
+        assertEquals( expected, buffer.toString() );
+
+        buffer = new StringBuilder();
+        document.writeCompact( buffer );
+        assertEquals( expected, buffer.toString() );
+
+        //---* With the fragment caching, output must not change *------------
+        document.getRootElement().setFragmentCaching( true );
+        for( var i = 0; i < 2; ++i )
+        {
+            buffer = new StringBuilder();
+            document.writeCompact( buffer );
+            assertEquals( expected, buffer.toString() );
+        }
+    }   //  testWriteCompactDocument()
+
+    /**
+     *  Tests the compact output for single elements against the output of
+     *  {@link Element#toString(int, boolean) toString( 0, false )}.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCompact() for an element" )
+    @Test
+    final void testWriteCompactElement() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createDocument().getRootElement();
+        for( final var element : new Element [] { root, root.getChildren().stream().filter( e -> e.getElementName().equals( "t:entry" ) ).findFirst().orElseThrow() } )
+        {
+            final var expected = element.toString( 0, false );
+            var buffer = new StringBuilder();
+            element.writeCompact( buffer );
+            assertEquals( expected, buffer.toString() );
+
+            buffer = new StringBuilder();
+            SGMLPrinter.writeCompact( buffer, element, true );
+            assertEquals( expected, buffer.toString() );
+        }
+
+        //---* Empty elements *------------------------------------------------
+        final XMLElement empty = createXMLElement( "empty" ).setAttribute( "a", "1" );
+        var buffer = new StringBuilder();
+        SGMLPrinter.writeCompact( buffer, empty, true );
+        assertEquals( "<empty a='1'/>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        SGMLPrinter.writeCompact( buffer, empty, false );
+        assertEquals( "<empty a='1'></empty>", buffer.toString() );
+    }   //  testWriteCompactElement()
+
+    /**
+     *  Tests the method
+     *  {@link SGMLPrinter#writeCompact(Appendable, Element, boolean)}
+     *  with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeCompact() with null argument" )
+    @Test
+    final void testWriteCompactNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        final var element = createXMLElement( "element" );
+
+        try
+        {
+            SGMLPrinter.writeCompact( null, element, true );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            SGMLPrinter.writeCompact( new StringBuilder(), (Element) null, true );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            element.writeCompact( null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteCompactNull()
+}
+//  class TestWriteCompact
+
+/*
+ *  End of File
+ */
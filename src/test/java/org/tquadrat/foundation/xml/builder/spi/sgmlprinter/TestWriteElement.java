@@ -0,0 +1,435 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeChildren;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeDocument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeElement;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeNode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.XMLElement;
+import org.tquadrat.foundation.xml.builder.spi.Document;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the methods
+ *  {@link SGMLPrinter#writeElement(Appendable, int, boolean, Element, boolean)}
+ *  and
+ *  {@link SGMLPrinter#writeDocument(Appendable, boolean, Document)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestWriteElement" )
+public class TestWriteElement extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An implementation of
+     *  {@link Element}
+     *  that decorates the standard output by overriding
+     *  {@link Element#toString(int, boolean)}
+     *  and calling the default implementation of that method.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class DecoratedElement implements Element
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code DecoratedElement} instance.
+         */
+        public DecoratedElement() { /* Just exists */ }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String getElementName() { return "decorated"; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Optional<Element> getParent() { return Optional.empty(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final <E extends Element> void setParent( final E parent ) { /* Does nothing */ }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString( final int indentationLevel, final boolean prettyPrint ) { return "<!--before-->" + Element.super.toString( indentationLevel, prettyPrint ); }
+    }
+    //  class DecoratedElement
+
+    /**
+     *  An implementation of
+     *  {@link Element}
+     *  that provides its String representation only through
+     *  {@link Element#toString(int, boolean)}.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class LegacyElement implements Element
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code LegacyElement} instance.
+         */
+        public LegacyElement() { /* Just exists */ }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String getElementName() { return "legacy"; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final Optional<Element> getParent() { return Optional.empty(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final <E extends Element> void setParent( final E parent ) { /* Does nothing */ }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString( final int indentationLevel, final boolean prettyPrint ) { return "<legacy level='%d'/>".formatted( indentationLevel ); }
+    }
+    //  class LegacyElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates the document that is used for the tests.
+     *
+     *  @return The document.
+     *  @throws URISyntaxException  Something went unexpectedly wrong.
+     */
+    private static final XMLDocument createDocument() throws URISyntaxException
+    {
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "version", "1.0" ).setId( "r1" );
+        final var retValue = createXMLDocument( root );
+        retValue.addDocumentComment( "A document - comment\nwith two lines" );
+        final var list = createXMLElement( "t:list", root );
+        list.setAttribute( "size", 2 );
+        createXMLElement( "item", list, "First & <second>" ).setAttribute( "kind", "text" );
+        createXMLElement( "item", list ).addCDATA( "raw ]]> data" );
+        root.addPredefinedMarkup( "<pre>markup</pre>" );
+        createXMLElement( "empty", root );
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Tests for the method
+     *  {@link SGMLPrinter#writeDocument(Appendable, boolean, Document)}.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument()" )
+    @Test
+    final void testWriteDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var document = createDocument();
+        String expected;
+        StringWriter writer;
+
+        expected =
+            """
+            <?xml version='1.0'
+                  encoding='UTF-8'
+                  standalone='yes'?>
+
+            <!--
+            A document &#x2010; comment
+            with two lines
+            -->
+            <root xmlns:t="http://www.tquadrat.org/test"
+                  version='1.0'
+                  xml:id='r1'>
+                <t:list size='2'>
+                    <item kind='text'>First &amp; &lt;second&gt;</item>
+                    <item><![CDATA[raw ]]>]]<![CDATA[> data]]></item>
+                </t:list>
+                <pre>markup</pre>
+                <empty/>
+            </root>""";
+        writer = new StringWriter();
+        writeDocument( writer, true, document );
+        assertEquals( expected, writer.toString() );
+        writer = new StringWriter();
+        document.writeTo( writer, true );
+        assertEquals( expected, writer.toString() );
+        assertEquals( expected, document.toString( true ) );
+
+        expected = "<?xml version='1.0' encoding='UTF-8' standalone='yes'?><!-- A document &#x2010; comment with two lines --><root xmlns:t=\"http://www.tquadrat.org/test\" version='1.0' xml:id='r1'><t:list size='2'><item kind='text'>First &amp; &lt;second&gt;</item><item><![CDATA[raw ]]>]]<![CDATA[> data]]></item></t:list><pre>markup</pre><empty/></root>";
+        writer = new StringWriter();
+        writeDocument( writer, false, document );
+        assertEquals( expected, writer.toString() );
+        writer = new StringWriter();
+        document.writeTo( writer, false );
+        assertEquals( expected, writer.toString() );
+        assertEquals( expected, document.toString( false ) );
+    }   //  testWriteDocument()
+
+    /**
+     *  Tests for the method
+     *  {@link SGMLPrinter#writeDocument(Appendable, boolean, Document)}
+     *  with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument() with null argument" )
+    @Test
+    final void testWriteDocumentNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        try
+        {
+            writeDocument( null, true, createDocument() );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            writeDocument( new StringBuilder(), true, null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteDocumentNull()
+
+    /**
+     *  Tests for the method
+     *  {@link SGMLPrinter#writeElement(Appendable, int, boolean, Element, boolean)}.
+     *
+     *  @throws IOException Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeElement()" )
+    @Test
+    final void testWriteElement() throws IOException
+    {
+        skipThreadTest();
+
+        final XMLElement element;
+        final XMLElement child;
+        String expected;
+        StringBuilder buffer;
+
+        element = createXMLElement( "element" );
+        child = createXMLElement( "child", element, "text" );
+        element.setId( "id1" );
+        child.setId( "id2" );
+
+        expected = "<element xml:id='id1'><child xml:id='id2'>text</child></element>";
+        buffer = new StringBuilder();
+        writeElement( buffer, 0, false, element, true );
+        assertEquals( expected, buffer.toString() );
+        buffer = new StringBuilder();
+        element.writeTo( buffer, 0, false );
+        assertEquals( expected, buffer.toString() );
+        assertEquals( expected, element.toString( 0, false ) );
+
+        expected = "\n        <element xml:id='id1'>\n            <child xml:id='id2'>text</child>\n        </element>";
+        buffer = new StringBuilder();
+        writeElement( buffer, 2, true, element, true );
+        assertEquals( expected, buffer.toString() );
+        buffer = new StringBuilder();
+        element.writeTo( buffer, 2, true );
+        assertEquals( expected, buffer.toString() );
+        assertEquals( expected, element.toString( 2, true ) );
+
+        //---* Appending to existing content *---------------------------------
+        buffer = new StringBuilder( "prefix" );
+        writeElement( buffer, 0, false, child, false );
+        assertEquals( "prefix<child xml:id='id2'>text</child>", buffer.toString() );
+    }   //  testWriteElement()
+
+    /**
+     *  Tests whether an implementation of
+     *  {@link Element}
+     *  that overrides only
+     *  {@link Element#toString(int, boolean)}
+     *  is written with the result of that method, also as a child.
+     *
+     *  @throws IOException Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeChildren() with an element that overrides toString()" )
+    @Test
+    final void testWriteLegacyElement() throws IOException
+    {
+        skipThreadTest();
+
+        final var candidate = new LegacyElement();
+        final var parent = createXMLElement( "parent" );
+        StringBuilder buffer;
+
+        buffer = new StringBuilder();
+        candidate.writeTo( buffer, 1, false );
+        assertEquals( "<legacy/>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeNode( buffer, 2, false, candidate );
+        assertEquals( "<legacy level='2'/>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeChildren( buffer, 0, false, parent, List.of( candidate, candidate ) );
+        assertEquals( "<legacy level='1'/><legacy level='1'/>", buffer.toString() );
+    }   //  testWriteLegacyElement()
+
+    /**
+     *  Tests whether an implementation of
+     *  {@link Element}
+     *  that decorates the result of the default implementation of
+     *  {@link Element#toString(int, boolean)}
+     *  is written without an endless recursion.
+     *
+     *  @throws IOException Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeNode() with an element that decorates toString()" )
+    @Test
+    final void testWriteDecoratedElement() throws IOException
+    {
+        skipThreadTest();
+
+        final var candidate = new DecoratedElement();
+        StringBuilder buffer;
+
+        assertEquals( "<!--before--><decorated/>", candidate.toString( 0, false ) );
+
+        buffer = new StringBuilder();
+        candidate.writeTo( buffer, 0, false );
+        assertEquals( "<decorated/>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeNode( buffer, 0, false, candidate );
+        assertEquals( "<!--before--><decorated/>", buffer.toString() );
+
+        buffer = new StringBuilder();
+        writeChildren( buffer, 0, false, createXMLElement( "parent" ), List.of( candidate ) );
+        assertEquals( "<!--before--><decorated/>", buffer.toString() );
+    }   //  testWriteDecoratedElement()
+
+    /**
+     *  Tests for the method
+     *  {@link SGMLPrinter#writeElement(Appendable, int, boolean, Element, boolean)}
+     *  with {@code null} arguments.
+     */
+    @DisplayName( "SGMLPrinter.writeElement() with null argument" )
+    @Test
+    final void testWriteElementNull()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        try
+        {
+            writeElement( null, 0, true, createXMLElement( "element" ), true );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            writeElement( new StringBuilder(), 0, true, null, true );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteElementNull()
+}
+//  class TestWriteElement
+
+/*
+ *  End of File
+ */
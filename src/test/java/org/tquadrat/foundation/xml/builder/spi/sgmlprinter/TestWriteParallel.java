@@ -0,0 +1,310 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2020 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeDocument;
+import static org.tquadrat.foundation.xml.builder.spi.SGMLPrinter.writeElement;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.builder.spi.XMLElementAdapter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+
+/**
+ *  Tests for the parallel rendering with
+ *  {@link SGMLPrinter#writeDocument(Appendable, boolean, org.tquadrat.foundation.xml.builder.spi.Document, java.util.concurrent.Executor, int)}
+ *  and
+ *  {@link SGMLPrinter#writeElement(Appendable, int, boolean, Element, boolean, java.util.concurrent.Executor, int)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestWriteParallel" )
+public class TestWriteParallel extends XMLTestBase
+{
+        /*---------------*\
+    ====** Inner Classes **====================================================
+        \*---------------*/
+    /**
+     *  An element that fails when it is rendered.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class FailingElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code FailingElement} instance.
+         */
+        public FailingElement() { super( "failing" ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+        {
+            throw new IOException( "Rendering failed" );
+        }   //  writeTo()
+    }
+    //  class FailingElement
+
+    /**
+     *  An element that adds a comment after its own output.
+     *
+     *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+     *  @version $Id$
+     */
+    @ClassVersion( sourceVersion = "$Id$" )
+    private static final class MarkedElement extends XMLElementAdapter
+    {
+            /*--------------*\
+        ====** Constructors **=================================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code MarkedElement} instance.
+         */
+        public MarkedElement() { super( "marked" ); }
+
+            /*---------*\
+        ====** Methods **======================================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void writeTo( final Appendable appendable, final int indentationLevel, final boolean prettyPrint ) throws IOException
+        {
+            super.writeTo( appendable, indentationLevel, prettyPrint );
+            appendable.append( "<!--marked-->" );
+        }   //  writeTo()
+    }
+    //  class MarkedElement
+
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Creates a document with many children for the root element.
+     *
+     *  @param  count   The number of children.
+     *  @return The document.
+     */
+    private static final XMLDocument createDocument( final int count )
+    {
+        final var root = createXMLElement( "root" );
+        final var retValue = createXMLDocument( root );
+        retValue.addDocumentComment( "Many children" );
+        for( var i = 0; i < count; ++i )
+        {
+            switch( i % 4 )
+            {
+                case 0 -> createXMLElement( "entry", root, "Value & " + i ).setAttribute( "index", i );
+                case 1 -> createXMLElement( "group", root ).addChild( createXMLElement( "item", "Item " + i ) );
+                case 2 -> root.addComment( "Comment " + i );
+                default -> createXMLElement( "empty", root );
+            }
+        }
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  createDocument()
+
+    /**
+     *  Compares the parallel output with the sequential one.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument() in parallel" )
+    @Test
+    final void testWriteDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var pool = new ForkJoinPool( 4 );
+        try
+        {
+            for( final var count : new int [] {0, 1, 10, 1_000, 5_000} )
+            {
+                final var document = createDocument( count );
+                for( final var prettyPrint : new boolean [] {true, false} )
+                {
+                    final var expected = document.toString( prettyPrint );
+
+                    var buffer = new StringBuilder();
+                    writeDocument( buffer, prettyPrint, document, pool, 1 );
+                    assertEquals( expected, buffer.toString() );
+
+                    buffer = new StringBuilder();
+                    writeDocument( buffer, prettyPrint, document, pool, 100 );
+                    assertEquals( expected, buffer.toString() );
+
+                    buffer = new StringBuilder();
+                    document.writeTo( buffer, prettyPrint, pool );
+                    assertEquals( expected, buffer.toString() );
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }   //  testWriteDocument()
+
+    /**
+     *  Tests whether a root element that changes its own output, or that
+     *  keeps its output in a fragment cache, is written through its own
+     *  method.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument() in parallel with a custom root" )
+    @Test
+    final void testWriteDocumentCustomRoot() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = new MarkedElement();
+        final var document = createXMLDocument( root );
+        for( var i = 0; i < 100; ++i ) createXMLElement( "entry", root, "Value " + i );
+
+        final var pool = new ForkJoinPool( 4 );
+        try
+        {
+            for( final var prettyPrint : new boolean [] {true, false} )
+            {
+                final var expected = document.toString( prettyPrint );
+                assertTrue( expected.endsWith( "<!--marked-->" ) );
+                var buffer = new StringBuilder();
+                writeDocument( buffer, prettyPrint, document, pool, 10 );
+                assertEquals( expected, buffer.toString() );
+
+                final var cached = createDocument( 1_000 );
+                cached.getRootElement().setFragmentCaching( true );
+                buffer = new StringBuilder();
+                writeDocument( buffer, prettyPrint, cached, pool, 10 );
+                assertEquals( cached.toString( prettyPrint ), buffer.toString() );
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }   //  testWriteDocumentCustomRoot()
+
+    /**
+     *  Compares the parallel output for an element on an indentation level
+     *  other than 0 with the sequential one.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeElement() in parallel" )
+    @Test
+    final void testWriteElement() throws Exception
+    {
+        skipThreadTest();
+
+        final var element = createDocument( 2_000 ).getRootElement();
+        for( final var prettyPrint : new boolean [] {true, false} )
+        {
+            final var expected = element.toString( 3, prettyPrint );
+            final var buffer = new StringBuilder();
+            writeElement( buffer, 3, prettyPrint, element, true, ForkJoinPool.commonPool(), 10 );
+            assertEquals( expected, buffer.toString() );
+        }
+    }   //  testWriteElement()
+
+    /**
+     *  Tests whether an exception that is thrown by a rendering task is
+     *  propagated to the caller.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument() in parallel with failing element" )
+    @Test
+    final void testWriteDocumentFailing()
+    {
+        skipThreadTest();
+
+        final var document = createDocument( 1_000 );
+        document.getRootElement().addChild( new FailingElement() );
+
+        final Class<? extends Throwable> expectedException = IOException.class;
+        try
+        {
+            writeDocument( new StringBuilder(), true, document, ForkJoinPool.commonPool(), 10 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteDocumentFailing()
+
+    /**
+     *  Tests for the method
+     *  {@link SGMLPrinter#writeDocument(Appendable, boolean, org.tquadrat.foundation.xml.builder.spi.Document, java.util.concurrent.Executor, int)}
+     *  with {@code null} arguments.
+     */
+    @DisplayName( "SGMLPrinter.writeDocument() in parallel with null argument" )
+    @Test
+    final void testWriteDocumentNull()
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        try
+        {
+            writeDocument( new StringBuilder(), true, createDocument( 10 ), null, 1 );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteDocumentNull()
+}
+//  class TestWriteParallel
+
+/*
+ *  End of File
+ */
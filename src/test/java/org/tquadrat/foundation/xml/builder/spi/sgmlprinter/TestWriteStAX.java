@@ -0,0 +1,228 @@
+/*
+ * ============================================================================
+ *  Copyright © 2002-2026 by Thomas Thrien.
+ *  All Rights Reserved.
+ * ============================================================================
+ *  Licensed to the public under the agreements of the GNU Lesser General Public
+ *  License, version 3.0 (the "License"). You may obtain a copy of the License at
+ *
+ *       http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.tquadrat.foundation.xml.builder.spi.sgmlprinter;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createProcessingInstruction;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLDocument;
+import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.createXMLElement;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.xml.builder.XMLDocument;
+import org.tquadrat.foundation.xml.builder.spi.Element;
+import org.tquadrat.foundation.xml.builder.spi.SGMLPrinter;
+import org.tquadrat.foundation.xml.helper.XMLTestBase;
+import org.xml.sax.InputSource;
+
+/**
+ *  Tests for the methods
+ *  {@link SGMLPrinter#writeStAX(XMLStreamWriter, org.tquadrat.foundation.xml.builder.spi.Document)}
+ *  and
+ *  {@link SGMLPrinter#writeStAX(XMLStreamWriter, Element)}.
+ *
+ *  @extauthor Thomas Thrien - thomas.thrien@tquadrat.org
+ *  @version $Id$
+ */
+@ClassVersion( sourceVersion = "$Id$" )
+@DisplayName( "org.tquadrat.foundation.xml.builder.spi.sgmlprinter.TestWriteStAX" )
+public class TestWriteStAX extends XMLTestBase
+{
+        /*---------*\
+    ====** Methods **==========================================================
+        \*---------*/
+    /**
+     *  Parses the given XML into a DOM document; the external DTD will not
+     *  be loaded.
+     *
+     *  @param  xml The XML.
+     *  @return The DOM document.
+     *  @throws Exception   Parsing failed.
+     */
+    private static final org.w3c.dom.Document parse( final String xml ) throws Exception
+    {
+        final var factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware( true );
+        factory.setFeature( "http://apache.org/xml/features/nonvalidating/load-external-dtd", false );
+        final var retValue = factory.newDocumentBuilder().parse( new InputSource( new StringReader( xml ) ) );
+        retValue.normalizeDocument();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  parse()
+
+    /**
+     *  Replays the given document to a new
+     *  {@link XMLStreamWriter}
+     *  and returns the result.
+     *
+     *  @param  document    The document.
+     *  @return The output of the writer.
+     *  @throws XMLStreamException  Writing the document failed.
+     */
+    private static final String replay( final XMLDocument document ) throws XMLStreamException
+    {
+        final var buffer = new StringWriter();
+        final var writer = XMLOutputFactory.newFactory().createXMLStreamWriter( buffer );
+        document.writeTo( writer );
+        writer.close();
+        final var retValue = buffer.toString();
+
+        //---* Done *----------------------------------------------------------
+        return retValue;
+    }   //  replay()
+
+    /**
+     *  Tests the replay of a document.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeStAX() for a document" )
+    @Test
+    final void testWriteStAXDocument() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "root" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "t:flag", true ).setAttribute( "name", "Tom & Jerry" );
+        createXMLElement( "t:child", root, "a < b" ).addCDATA( "x]]>y" ).addPredefinedMarkup( "<b>bold</b>" );
+        createXMLElement( "empty", root );
+        root.addComment( "A comment" );
+        final var document = createXMLDocument( root, UTF_8, "root", new URI( "http://www.tquadrat.org/root.dtd" ) );
+        createProcessingInstruction( document, "target", "some data" );
+
+        final var expected = """
+            <?xml version="1.0" encoding="UTF-8"?>\
+            <!DOCTYPE root PUBLIC "root" "http://www.tquadrat.org/root.dtd">\
+            <?target some data?>\
+            <root xmlns:t="http://www.tquadrat.org/test" name="Tom &amp; Jerry" t:flag="true">\
+            <t:child>a &lt; b<![CDATA[x]]>]]<![CDATA[>y]]><b>bold</b></t:child>\
+            <empty/>\
+            <!-- A comment -->\
+            </root>""";
+        assertEquals( expected, replay( document ) );
+    }   //  testWriteStAXDocument()
+
+    /**
+     *  Compares the replay of a larger document with the String
+     *  representation of that document, on the level of the DOM.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeStAX() compared to the String representation" )
+    @Test
+    final void testWriteStAXEquivalence() throws Exception
+    {
+        skipThreadTest();
+
+        final var root = createXMLElement( "catalogue" );
+        root.setNamespace( "http://www.tquadrat.org/default" );
+        root.setNamespace( "t", "http://www.tquadrat.org/test" );
+        root.setAttribute( "version", "2.1" ).setId( "c1" );
+        final var document = createXMLDocument( root );
+        document.addDocumentComment( "Reference document -- do not change\n  indented line" );
+        createProcessingInstruction( document, "stylesheet" ).setAttribute( "type", "text/xsl" ).setAttribute( "href", "style.xsl" );
+        root.addComment( "An element comment" );
+        final var entry = createXMLElement( "t:entry", root );
+        entry.setAttribute( "count", 3 ).setAttribute( "xml:lang", "de" );
+        createXMLElement( "name", entry, "Müller & Söhne <GmbH>" );
+        createXMLElement( "data", entry ).addCDATA( "if( a < b && c > d ) { }" );
+        createXMLElement( "mixed", entry, "Text" ).addText( " and more text" ).addPredefinedMarkup( "<b>bold &amp; <i>italic</i></b><!-- c --><?pi data?>" ).addText( 42 );
+        var parent = createXMLElement( "deep", root );
+        for( var i = 0; i < 20; ++i )
+        {
+            parent = createXMLElement( "level" + i, parent );
+            if( i % 5 == 0 ) parent.setNamespace( "l" + i, "http://www.tquadrat.org/level/" + i ).setAttribute( "l" + i + ":index", i );
+        }
+        parent.addText( "bottom" );
+
+        final var expected = parse( document.toString( false ) );
+        final var actual = parse( replay( document ) );
+        assertTrue( expected.isEqualNode( actual ) );
+
+        //---* An element only *-----------------------------------------------
+        final var buffer = new StringWriter();
+        final var writer = XMLOutputFactory.newFactory().createXMLStreamWriter( buffer );
+        entry.writeTo( writer );
+        writer.flush();
+        final var declarations = " xmlns='http://www.tquadrat.org/default' xmlns:t='http://www.tquadrat.org/test'";
+        assertTrue( parse( entry.toString( 0, false ).replaceFirst( "<t:entry", "<t:entry" + declarations ) ).isEqualNode( parse( buffer.toString() ) ) );
+    }   //  testWriteStAXEquivalence()
+
+    /**
+     *  Tests the method
+     *  {@link SGMLPrinter#writeStAX(XMLStreamWriter, Element)}
+     *  with {@code null} arguments.
+     *
+     *  @throws Exception   Something went unexpectedly wrong.
+     */
+    @DisplayName( "SGMLPrinter.writeStAX() with null argument" )
+    @Test
+    final void testWriteStAXNull() throws Exception
+    {
+        skipThreadTest();
+
+        final Class<? extends Throwable> expectedException = NullArgumentException.class;
+        final var element = createXMLElement( "element" );
+
+        try
+        {
+            SGMLPrinter.writeStAX( null, element );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+
+        try
+        {
+            SGMLPrinter.writeStAX( XMLOutputFactory.newFactory().createXMLStreamWriter( new StringWriter() ), (Element) null );
+            fail( () -> format( MSG_ExceptionNotThrown, expectedException.getName() ) );
+        }
+        catch( final AssertionError e ) { throw e; }
+        catch( final Throwable t )
+        {
+            final var isExpectedException = expectedException.isInstance( t );
+            assertTrue( isExpectedException, () -> format( MSG_WrongExceptionThrown, expectedException.getName(), t.getClass().getName() ) );
+        }
+    }   //  testWriteStAXNull()
+}
+//  class TestWriteStAX
+
+/*
+ *  End of File
+ */
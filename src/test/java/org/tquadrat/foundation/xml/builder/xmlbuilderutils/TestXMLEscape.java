@@ -20,6 +20,7 @@ package org.tquadrat.foundation.xml.builder.xmlbuilderutils;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.escapeXML;
 import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.unescapeXML;
@@ -27,9 +28,11 @@ import static org.tquadrat.foundation.xml.builder.XMLBuilderUtils.unescapeXML;
 import java.io.IOException;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.tquadrat.foundation.annotation.ClassVersion;
+import org.tquadrat.foundation.util.StringUtils;
 import org.tquadrat.foundation.xml.builder.XMLBuilderUtils;
 import org.tquadrat.foundation.xml.helper.XMLTestBase;
 
@@ -92,6 +95,89 @@ public class TestXMLEscape extends XMLTestBase
         assertEquals( candidate, revert );
     }   //  testXMLEscapeUnescape()
 
+    /**
+     *  Compares the results of
+     *  {@link XMLBuilderUtils#escapeXML(CharSequence)}
+     *  and
+     *  {@link XMLBuilderUtils#unescapeXML(CharSequence)}
+     *  with those from
+     *  {@link StringUtils}.
+     *
+     *  @param  candidate   The data for the test.
+     *  @throws IOException Unexpected &hellip;
+     */
+    @ParameterizedTest
+    @ValueSource( strings = {
+        "",
+        "plain ASCII text without anything special",
+        "&",
+        "<<>>&&''\"\"",
+        "<data key='key'>Record</data>",
+        "Zügig fährt Jörg über die Brücke, um nicht naß zu werden",
+        "Müller & Söhne <GmbH>",
+        "Tab\tLine feed\nCarriage return\rBell\u0007",
+        "Emoji \uD83D\uDE00 and more \uD83D\uDE00\uD83D\uDE00 < end",
+        "\u00FC",
+        "&lt;&unknown;&#x20AC;&#65;"
+    })
+    final void testXMLEscapeSameAsStringUtils( final String candidate ) throws IOException
+    {
+        skipThreadTest();
+
+        assertEquals( StringUtils.escapeXML( candidate ), escapeXML( candidate ) );
+        assertEquals( StringUtils.unescapeXML( candidate ), unescapeXML( candidate ) );
+
+        final var expected = new StringBuilder();
+        StringUtils.escapeXML( expected, candidate );
+        final var actual = new StringBuilder();
+        escapeXML( actual, new StringBuilder( candidate ) );
+        assertEquals( expected.toString(), actual.toString() );
+    }   //  testXMLEscapeSameAsStringUtils()
+
+    /**
+     *  Checks that text without special characters is returned as it is.
+     */
+    @Test
+    final void testXMLEscapeUnchanged()
+    {
+        skipThreadTest();
+
+        final var candidate = "Nothing to escape here, not even a single quote.";
+        assertSame( candidate, escapeXML( candidate ) );
+        assertSame( candidate, unescapeXML( candidate ) );
+        assertNull( escapeXML( null ) );
+        assertNull( unescapeXML( null ) );
+    }   //  testXMLEscapeUnchanged()
+
+    /**
+     *  Checks that text with non-ASCII characters, but without special
+     *  characters, is returned as it is, provided that
+     *  {@link StringUtils#escapeXML(CharSequence)}
+     *  does not change it either.
+     *
+     *  @param  candidate   The data for the test.
+     */
+    @ParameterizedTest
+    @ValueSource( strings = {
+        "Zügig fährt Jörg über die Brücke, um nicht naß zu werden",
+        "Emoji \uD83D\uDE00 and more \uD83D\uDE00\uD83D\uDE00",
+        "\u5B8C\u5907\u7684\u4E16\u754C\u5927\u540C\u7684"
+    })
+    final void testXMLEscapeUnchangedNonASCII( final String candidate )
+    {
+        skipThreadTest();
+
+        if( candidate.equals( StringUtils.escapeXML( candidate ) ) )
+        {
+            assertSame( candidate, escapeXML( candidate ) );
+        }
+        else
+        {
+            assertEquals( StringUtils.escapeXML( candidate ), escapeXML( candidate ) );
+        }
+        assertSame( candidate, unescapeXML( candidate ) );
+    }   //  testXMLEscapeUnchangedNonASCII()
+
     /**
      *  Test for the methods
      *  {@link XMLBuilderUtils#escapeXML(Appendable,CharSequence)}